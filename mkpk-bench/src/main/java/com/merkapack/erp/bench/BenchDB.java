@@ -0,0 +1,264 @@
+package com.merkapack.erp.bench;
+
+import static com.merkapack.erp.master.jooq.tables.Client.CLIENT;
+import static com.merkapack.erp.master.jooq.tables.Domain.DOMAIN;
+import static com.merkapack.erp.master.jooq.tables.Machine.MACHINE;
+import static com.merkapack.erp.master.jooq.tables.Material.MATERIAL;
+import static com.merkapack.erp.master.jooq.tables.Planning.PLANNING;
+import static com.merkapack.erp.master.jooq.tables.Product.PRODUCT;
+import static com.merkapack.erp.master.jooq.tables.Roll.ROLL;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.InsertValuesStepN;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+
+import com.merkapack.erp.core.basic.MkpkDatasource;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfiguration;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+
+/**
+ * MariaDB embebida (MariaDB4j) con <code>schema.sql</code> y un volumen sint&eacute;tico configurable.
+ * <p>
+ * Los datos salen de una semilla fija: mismo volumen, misma base de datos. Se cargan con inserciones
+ * de {@link #CHUNK} filas, sin pasar por los DAO, y al final se calculan los totales diarios y los
+ * movimientos de bobinas con las mismas sentencias de carga inicial que <code>schema.sql</code>.
+ * Las l&iacute;neas del plan se reparten en d&iacute;as laborables desde {@link BenchData#START},
+ * {@link #PER_DAY} por m&aacute;quina y d&iacute;a.
+ */
+public class BenchDB {
+
+	private static final Logger LOGGER = Logger.getLogger(BenchDB.class.getName());
+
+	public static final int DOMAIN_ID = 1;
+	public static final String USER = "bench";
+	public static final int PER_DAY = 20;
+
+	private static final String DB_NAME = "merkapack";
+	private static final String SCHEMA = "com/merkapack/erp/master/schema.sql";
+	private static final int CHUNK = 1000;
+	private static final long SEED = 20181105L;
+
+	private int machines = 5;
+	private int materials = 50;
+	private int rolls = 500;
+	private int products = 2000;
+	private int clients = 500;
+	private int plannings = 100000;
+
+	private DB db;
+	private String url;
+
+	public BenchDB setMachines(int machines) {
+		this.machines = machines;
+		return this;
+	}
+	public BenchDB setMaterials(int materials) {
+		this.materials = materials;
+		return this;
+	}
+	public BenchDB setRolls(int rolls) {
+		this.rolls = rolls;
+		return this;
+	}
+	public BenchDB setProducts(int products) {
+		this.products = products;
+		return this;
+	}
+	public BenchDB setClients(int clients) {
+		this.clients = clients;
+		return this;
+	}
+	public BenchDB setPlannings(int plannings) {
+		this.plannings = plannings;
+		return this;
+	}
+	public int getMachines() {
+		return machines;
+	}
+	public int getPlannings() {
+		return plannings;
+	}
+
+	/**
+	 * Arranca la base de datos en un puerto libre, crea el esquema, la carga y deja
+	 * {@link MkpkDatasource} apuntando a ella.
+	 */
+	public BenchDB start() throws ManagedProcessException, SQLException {
+		if (rolls < materials) {
+			throw new IllegalArgumentException("Hace falta al menos una bobina por material");
+		}
+		DBConfigurationBuilder builder = DBConfigurationBuilder.newBuilder();
+		builder.setPort(0);
+		DBConfiguration config = builder.build();
+		db = DB.newEmbeddedDB(config);
+		db.start();
+		db.createDB(DB_NAME);
+		db.source(SCHEMA, "root", null, DB_NAME);
+		url = "jdbc:mariadb://localhost:" + config.getPort() + "/" + DB_NAME;
+
+		long start = System.currentTimeMillis();
+		try (Connection connection = DriverManager.getConnection(url, "root", "")) {
+			seed(DSL.using(connection, SQLDialect.MARIADB));
+		}
+		LOGGER.info("BENCH DB " + url + ": " + plannings + " lineas en " + (System.currentTimeMillis() - start) + " ms");
+
+		System.setProperty("mkpk.db.url", url);
+		System.setProperty("mkpk.db.user", "root");
+		System.setProperty("mkpk.db.password", "");
+		MkpkDatasource.init();
+		return this;
+	}
+
+	public void stop() throws ManagedProcessException {
+		if (db != null) {
+			db.stop();
+		}
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	/**
+	 * D&iacute;a laborable n&uacute;mero <code>day</code> (desde 0) contando desde {@link BenchData#START},
+	 * que es lunes: se saltan s&aacute;bados y domingos.
+	 */
+	public static Date getDate(int day) {
+		LocalDate start = new Date(BenchData.START.getTime()).toLocalDate();
+		return Date.valueOf(start.plusDays(7 * (day / 5) + day % 5));
+	}
+
+	/**
+	 * &Uacute;ltimo d&iacute;a con l&iacute;neas.
+	 */
+	public Date getLastDate() {
+		return getDate((plannings - 1) / (machines * PER_DAY));
+	}
+
+	private void seed(DSLContext dsl) {
+		Random random = new Random(SEED);
+		dsl.insertInto(DOMAIN, DOMAIN.ID, DOMAIN.NAME).values(DOMAIN_ID, "BENCH").execute();
+
+		InsertValuesStepN<?> insert = newInsert(dsl, MACHINE, MACHINE.DOMAIN, MACHINE.NAME, MACHINE.BLOWS);
+		for (int i = 1; i <= machines; i++) {
+			insert = flush(dsl, insert, i, MACHINE, MACHINE.DOMAIN, MACHINE.NAME, MACHINE.BLOWS)
+				.values(DOMAIN_ID, "MAQUINA " + i, 20d);
+		}
+		insert.execute();
+
+		insert = newInsert(dsl, MATERIAL, MATERIAL.DOMAIN, MATERIAL.CODE, MATERIAL.NAME, MATERIAL.THICKNESS);
+		for (int i = 1; i <= materials; i++) {
+			insert = flush(dsl, insert, i, MATERIAL, MATERIAL.DOMAIN, MATERIAL.CODE, MATERIAL.NAME, MATERIAL.THICKNESS)
+				.values(DOMAIN_ID, "MAT" + i, "MATERIAL " + i, 0.05);
+		}
+		insert.execute();
+
+		// La bobina i es del material 1 + (i - 1) % materials.
+		insert = newInsert(dsl, ROLL, ROLL.DOMAIN, ROLL.MATERIAL, ROLL.NAME, ROLL.WIDTH, ROLL.LENGTH, ROLL.REMAINING);
+		for (int i = 1; i <= rolls; i++) {
+			insert = flush(dsl, insert, i, ROLL, ROLL.DOMAIN, ROLL.MATERIAL, ROLL.NAME, ROLL.WIDTH, ROLL.LENGTH, ROLL.REMAINING)
+				.values(DOMAIN_ID, 1 + (i - 1) % materials, "BOBINA " + i, 1000d, 30000d, 30000d);
+		}
+		insert.execute();
+
+		insert = newInsert(dsl, CLIENT, CLIENT.DOMAIN, CLIENT.NAME);
+		for (int i = 1; i <= clients; i++) {
+			insert = flush(dsl, insert, i, CLIENT, CLIENT.DOMAIN, CLIENT.NAME)
+				.values(DOMAIN_ID, "CLIENTE " + i);
+		}
+		insert.execute();
+
+		int[] productUp = new int[products + 1];
+		int[] productDown = new int[products + 1];
+		insert = newInsert(dsl, PRODUCT, PRODUCT.DOMAIN, PRODUCT.CODE, PRODUCT.NAME, PRODUCT.MATERIAL_UP
+			, PRODUCT.MATERIAL_DOWN, PRODUCT.WIDTH, PRODUCT.LENGTH, PRODUCT.BOX_UNITS);
+		for (int i = 1; i <= products; i++) {
+			productUp[i] = 1 + random.nextInt(materials);
+			productDown[i] = 1 + random.nextInt(materials);
+			insert = flush(dsl, insert, i, PRODUCT, PRODUCT.DOMAIN, PRODUCT.CODE, PRODUCT.NAME, PRODUCT.MATERIAL_UP
+				, PRODUCT.MATERIAL_DOWN, PRODUCT.WIDTH, PRODUCT.LENGTH, PRODUCT.BOX_UNITS)
+				.values(DOMAIN_ID, "PRD" + i, "PRODUCTO " + i, productUp[i], productDown[i]
+				, 100d + 10 * random.nextInt(20), 200d + 10 * random.nextInt(30), 500d);
+		}
+		insert.execute();
+
+		int rollsPerMaterial = rolls / materials;
+		int perDay = machines * PER_DAY;
+		Date date = null;
+		insert = newInsert(dsl, PLANNING, planningFields());
+		for (int i = 0; i < plannings; i++) {
+			if (i % perDay == 0) {
+				date = getDate(i / perDay);
+			}
+			int product = 1 + random.nextInt(products);
+			int up = productUp[product];
+			int down = productDown[product];
+			double amount = 5000 * (1 + random.nextInt(10));
+			int blowUnits = 2;
+			double blows = amount / blowUnits;
+			double meters = blows * 0.2;
+			double blowsMinute = 20;
+			insert = flush(dsl, insert, i + 1, PLANNING, planningFields())
+				.values(DOMAIN_ID, date, 1 + i % PER_DAY, 1 + (i / PER_DAY) % machines, product
+					, 100d, 200d
+					, up, up + materials * random.nextInt(rollsPerMaterial), 1000d, 30000d
+					, down, down + materials * random.nextInt(rollsPerMaterial), 1000d, 30000d
+					, amount, blowUnits, meters, blows, blowsMinute, blows / blowsMinute
+					, 1 + random.nextInt(clients), "", USER, new Timestamp(date.getTime()));
+		}
+		insert.execute();
+
+		dsl.execute("INSERT INTO `planning_stats` (`domain`,`date`,`machine`,`product`,`client`,`plannings`,`amount`,`meters`,`blows`,`minutes`)"
+			+ " SELECT `domain`,`date`,`machine`,`product`,`client`,COUNT(*)"
+			+ " ,COALESCE(SUM(`amount`),0),COALESCE(SUM(`meters`),0),COALESCE(SUM(`blows`),0),COALESCE(SUM(`minutes`),0)"
+			+ " FROM `planning` WHERE `date` IS NOT NULL"
+			+ " GROUP BY `domain`,`date`,`machine`,`product`,`client`");
+		dsl.execute("INSERT INTO `roll_movement` (`domain`,`roll`,`planning`,`meters`,`creation_user`,`creation_date`)"
+			+ " SELECT `domain`,`roll_up`,`id`,-`meters`,'" + USER + "',NOW() FROM `planning` WHERE `meters` <> 0"
+			+ " UNION ALL"
+			+ " SELECT `domain`,`roll_down`,`id`,-`meters`,'" + USER + "',NOW() FROM `planning` WHERE `meters` <> 0");
+		dsl.execute("UPDATE `roll` SET `remaining` = `length`"
+			+ " + COALESCE((SELECT SUM(`meters`) FROM `roll_movement` WHERE `roll_movement`.`roll` = `roll`.`id`),0)");
+		dsl.execute("ANALYZE TABLE `machine`,`material`,`roll`,`product`,`client`,`planning`,`planning_stats`,`roll_movement`");
+	}
+
+	private static Field<?>[] planningFields() {
+		return new Field<?>[] { PLANNING.DOMAIN, PLANNING.DATE, PLANNING.ORDER, PLANNING.MACHINE, PLANNING.PRODUCT
+			, PLANNING.WIDTH, PLANNING.LENGTH
+			, PLANNING.MATERIAL_UP, PLANNING.ROLL_UP, PLANNING.ROLL_UP_WIDTH, PLANNING.ROLL_UP_LENGTH
+			, PLANNING.MATERIAL_DOWN, PLANNING.ROLL_DOWN, PLANNING.ROLL_DOWN_WIDTH, PLANNING.ROLL_DOWN_LENGTH
+			, PLANNING.AMOUNT, PLANNING.BLOW_UNITS, PLANNING.METERS, PLANNING.BLOWS, PLANNING.BLOWS_MINUTE, PLANNING.MINUTES
+			, PLANNING.CLIENT, PLANNING.COMMENT, PLANNING.CREATION_USER, PLANNING.CREATION_DATE };
+	}
+
+	private static InsertValuesStepN<?> newInsert(DSLContext dsl, Table<?> table, Field<?>... fields) {
+		return dsl.insertInto(table).columns(fields);
+	}
+
+	/**
+	 * Cada {@link #CHUNK} filas ejecuta la inserci&oacute;n acumulada y empieza otra.
+	 */
+	private static InsertValuesStepN<?> flush(DSLContext dsl, InsertValuesStepN<?> insert, int row
+			, Table<?> table, Field<?>... fields) {
+		if (row % CHUNK != 0) {
+			return insert;
+		}
+		insert.execute();
+		return newInsert(dsl, table, fields);
+	}
+}
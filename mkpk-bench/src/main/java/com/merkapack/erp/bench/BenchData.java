@@ -0,0 +1,105 @@
+package com.merkapack.erp.bench;
+
+import java.util.Date;
+import java.util.LinkedList;
+
+import com.merkapack.erp.core.model.Client;
+import com.merkapack.erp.core.model.Machine;
+import com.merkapack.erp.core.model.Material;
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.core.model.Product;
+import com.merkapack.erp.core.model.Roll;
+import com.merkapack.erp.gwt.shared.PlanningCalculator;
+import com.merkapack.erp.gwt.shared.PlanningCalculatorParams;
+
+/**
+ * Datos sint&eacute;ticos deterministas para los benchmarks: 
+ * misma semilla, mismo plan, resultados comparables entre ejecuciones.
+ */
+@SuppressWarnings("deprecation")
+public class BenchData {
+
+	public static final Date START = new Date(118, 10, 5); // 05/11/2018
+
+	public static PlanningCalculatorParams params() {
+		return new PlanningCalculatorParams()
+			.setBlowsMinute(20)
+			.setWorkHoursInADay(8)
+			.setHoursMargin(0.5);
+	}
+
+	public static Material material(int id) {
+		return new Material()
+			.setId(id)
+			.setDomain(1)
+			.setCode("MAT" + id)
+			.setName("MATERIAL " + id)
+			.setThickness(0.05)
+			.setDirty(false);
+	}
+
+	public static Roll roll(int id, Material material) {
+		return new Roll()
+			.setId(id)
+			.setDomain(1)
+			.setMaterial(material)
+			.setName("BOBINA " + id)
+			.setWidth(1000)
+			.setLength(3000)
+			.setDirty(false);
+	}
+
+	public static Product product(int id, Material up, Material down) {
+		return new Product()
+			.setId(id)
+			.setDomain(1)
+			.setCode("PRD" + id)
+			.setName("PRODUCTO " + id)
+			.setMaterialUp(up)
+			.setMaterialDown(down)
+			.setWidth(100d)
+			.setLength(200d)
+			.setBoxUnits(500d)
+			.setDirty(false);
+	}
+
+	/**
+	 * Planificaci&oacute;n de <code>size</code> l&iacute;neas. Una de cada siete l&iacute;neas 
+	 * no cabe en la bobina o en la jornada y obliga al calculador a partirla.
+	 */
+	public static LinkedList<Planning> plannings(int size) {
+		Material up = material(1);
+		Material down = material(2);
+		Roll rollUp = roll(1, up);
+		Roll rollDown = roll(2, down);
+		Machine machine = new Machine().setId(1).setDomain(1).setName("MAQUINA 1").setBlows(20d);
+		Client client = new Client().setId(1).setDomain(1).setName("CLIENTE 1");
+		LinkedList<Planning> list = new LinkedList<Planning>();
+		for (int i = 0; i < size; i++) {
+			list.add(new Planning()
+				.setDomain(1)
+				.setDate(new Date(START.getTime()))
+				.setOrder(i + 1)
+				.setMachine(machine)
+				.setProduct(product(i % 50, up, down))
+				.setRollUp(rollUp)
+				.setRollDown(rollDown)
+				.setAmount(20000 * (1 + (i % 7)))
+				.setBlowsMinute(20)
+				.setClient(client));
+		}
+		PlanningCalculatorParams params = params();
+		for (Planning pl : list) {
+			PlanningCalculator.calculate(params, pl);
+		}
+		return list;
+	}
+
+	public static LinkedList<Planning> copy(LinkedList<Planning> list) {
+		LinkedList<Planning> copy = new LinkedList<Planning>();
+		for (Planning pl : list) {
+			copy.add(pl.clone());
+		}
+		return copy;
+	}
+}
@@ -0,0 +1,200 @@
+package com.merkapack.erp.bench;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.merkapack.erp.core.model.Material;
+import com.merkapack.watson.util.collection.DoubleArrayList;
+import com.merkapack.watson.util.collection.IntArrayList;
+import com.merkapack.watson.util.collection.IntHashSet;
+import com.merkapack.watson.util.collection.IntIntMap;
+import com.merkapack.watson.util.collection.IntObjectMap;
+
+/**
+ * Colecciones de watson.util.collection frente a las del JDK con Integer/Double:
+ * b&uacute;squeda por id, acumulado por d&iacute;a, conjunto de d&iacute;as y suma de una lista.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionsBenchmark {
+
+	@Param({"100", "10000"})
+	public int size;
+
+	private int[] ids;
+	private int[] days;
+	private double[] minutes;
+
+	private HashMap<Integer,Material> boxedMaterials;
+	private IntObjectMap<Material> materials;
+	private HashSet<Integer> boxedHolidays;
+	private IntHashSet holidays;
+	private ArrayList<Double> boxedMinutes;
+	private DoubleArrayList minuteList;
+	private ArrayList<Integer> boxedIds;
+	private IntArrayList idList;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		ids = new int[size];
+		days = new int[size];
+		minutes = new double[size];
+		boxedMaterials = new HashMap<Integer,Material>();
+		materials = new IntObjectMap<Material>();
+		boxedHolidays = new HashSet<Integer>();
+		holidays = new IntHashSet();
+		boxedMinutes = new ArrayList<Double>();
+		minuteList = new DoubleArrayList();
+		boxedIds = new ArrayList<Integer>();
+		idList = new IntArrayList();
+		for (int i = 0; i < size; i++) {
+			ids[i] = 1 + random.nextInt(size * 4);
+			days[i] = 17800 + random.nextInt(730);
+			minutes[i] = random.nextInt(450);
+			Material material = new Material().setId(ids[i]);
+			boxedMaterials.put(ids[i], material);
+			materials.put(ids[i], material);
+			if (i % 10 == 0) {
+				boxedHolidays.add(days[i]);
+				holidays.add(days[i]);
+			}
+			boxedMinutes.add(minutes[i]);
+			minuteList.add(minutes[i]);
+			boxedIds.add(ids[i]);
+			idList.add(ids[i]);
+		}
+	}
+
+	@Benchmark
+	public int lookupBoxed() {
+		int found = 0;
+		for (int id : ids) {
+			if (boxedMaterials.get(id) != null) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+	@Benchmark
+	public int lookupPrimitive() {
+		int found = 0;
+		for (int id : ids) {
+			if (materials.get(id) != null) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+	@Benchmark
+	public int countByDayBoxed() {
+		HashMap<Integer,Integer> counts = new HashMap<Integer,Integer>();
+		for (int day : days) {
+			Integer count = counts.get(day);
+			counts.put(day, count == null ? 1 : count + 1);
+		}
+		return counts.size();
+	}
+
+	@Benchmark
+	public int countByDayPrimitive() {
+		IntIntMap counts = new IntIntMap();
+		for (int day : days) {
+			counts.addTo(day, 1);
+		}
+		return counts.size();
+	}
+
+	@Benchmark
+	public int holidaysBoxed() {
+		int count = 0;
+		for (int day : days) {
+			if (boxedHolidays.contains(day)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int holidaysPrimitive() {
+		int count = 0;
+		for (int day : days) {
+			if (holidays.contains(day)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public double sumBoxed() {
+		double sum = 0;
+		for (Double m : boxedMinutes) {
+			sum += m;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double sumPrimitive() {
+		return minuteList.sum();
+	}
+
+	@Benchmark
+	public long iterateIdsBoxed() {
+		long sum = 0;
+		for (Integer id : boxedIds) {
+			sum += id;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long iterateIdsPrimitive() {
+		long sum = 0;
+		for (int i = 0; i < idList.size(); i++) {
+			sum += idList.get(i);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long iterateMapBoxed() {
+		long sum = 0;
+		for (Integer id : boxedMaterials.keySet()) {
+			sum += id;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long iterateMapPrimitive() {
+		long sum = 0;
+		for (int c = materials.first(); c >= 0; c = materials.next(c)) {
+			sum += materials.keyAt(c);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,93 @@
+package com.merkapack.erp.bench;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.merkapack.erp.gwt.client.util.GWTDateUtils;
+import com.merkapack.watson.server.MkpkServerDateUtils;
+import com.merkapack.watson.util.MkpkDayUtils;
+
+/**
+ * Recorrido de un a&ntilde;o de d&iacute;as como hacen los bucles de partici&oacute;n del calculador:
+ * con objetos Date (GWTDateUtils, MkpkServerDateUtils) frente a d&iacute;as enteros (MkpkDayUtils).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("deprecation")
+public class DayUtilsBenchmark {
+
+	private static final int DAYS = 365;
+
+	private Date start = new Date(BenchData.START.getTime());
+	private java.sql.Date sqlStart = new java.sql.Date(BenchData.START.getTime());
+
+	@Benchmark
+	public int gwtDates() {
+		Date date = new Date(start.getTime());
+		Date limit = new Date(start.getTime());
+		int count = 0;
+		for (int i = 0; i < DAYS; i++) {
+			date = GWTDateUtils.addDays(new Date(date.getTime()), 1);
+			if (GWTDateUtils.compare(date, limit) > 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int serverDates() {
+		Date date = start;
+		int count = 0;
+		for (int i = 0; i < DAYS; i++) {
+			date = MkpkServerDateUtils.addDays(date, 1);
+			if (MkpkServerDateUtils.compare(date, start) > 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int epochDays() {
+		int day = MkpkDayUtils.of(start);
+		int limit = day;
+		int count = 0;
+		for (int i = 0; i < DAYS; i++) {
+			day = day + 1;
+			if (day > limit) {
+				count++;
+			}
+		}
+		return count + MkpkDayUtils.toDate(day).getDate();
+	}
+
+	@Benchmark
+	public Date lastDayOfMonthCalendar() {
+		return MkpkServerDateUtils.getLastDayOfMonth((Date) start);
+	}
+
+	@Benchmark
+	public java.sql.Date lastDayOfMonthEpochDays() {
+		return MkpkServerDateUtils.getLastDayOfMonth(sqlStart);
+	}
+
+	@Benchmark
+	public int lastDayOfMonthInt() {
+		return MkpkDayUtils.getLastDayOfMonth(MkpkDayUtils.of(start));
+	}
+}
@@ -0,0 +1,54 @@
+package com.merkapack.erp.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.merkapack.watson.util.MkpkMathUtils;
+
+/**
+ * Redondeos de MkpkMathUtils usados en cada l&iacute;nea del calculador.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathUtilsBenchmark {
+
+	private double value = 1234.56789;
+
+	@Benchmark
+	public double round() {
+		return MkpkMathUtils.round(value);
+	}
+
+	@Benchmark
+	public double roundZero() {
+		return MkpkMathUtils.round(value, 0);
+	}
+
+	@Benchmark
+	public double floor() {
+		return MkpkMathUtils.floor(value, 0);
+	}
+
+	@Benchmark
+	public double ceil() {
+		return MkpkMathUtils.ceil(value);
+	}
+
+	@Benchmark
+	public boolean isZero() {
+		return MkpkMathUtils.isZero(value);
+	}
+}
@@ -0,0 +1,370 @@
+package com.merkapack.erp.bench;
+
+import java.sql.Date;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.merkapack.erp.core.basic.DBContext;
+import com.merkapack.erp.core.basic.MkpkDatasource;
+import com.merkapack.erp.core.dao.MkpkGo;
+import com.merkapack.erp.core.model.Client;
+import com.merkapack.erp.core.model.Machine;
+import com.merkapack.erp.core.model.Material;
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.core.model.PlanningStats;
+import com.merkapack.erp.core.model.Product;
+import com.merkapack.erp.core.model.ProductParams;
+import com.merkapack.erp.core.model.Roll;
+import com.merkapack.erp.core.model.StatsParams;
+
+/**
+ * Latencia de cada m&eacute;todo de {@link MkpkGo} contra una MariaDB embebida cargada por {@link BenchDB}.
+ * Cada llamada abre y cierra su {@link DBContext}, como un servlet.
+ * <p>
+ * El volumen se cambia con <code>-p</code>, por ejemplo
+ * <code>mvn -Pbench -pl mkpk-bench -am verify -Djmh.include=MkpkGoBenchmark</code> y
+ * <code>java -jar target/benchmarks.jar MkpkGoBenchmark -p plannings=10000</code>.
+ * Los percentiles quedan en <code>jmh-result.json</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MkpkGoBenchmark {
+
+	@Param({ "5" })
+	private int machines;
+	@Param({ "50" })
+	private int materials;
+	@Param({ "500" })
+	private int rolls;
+	@Param({ "2000" })
+	private int products;
+	@Param({ "500" })
+	private int clients;
+	@Param({ "100000" })
+	private int plannings;
+
+	private BenchDB db;
+	private Date week;
+	private Date weekEnd;
+	private Client client;
+	private Planning planning;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		db = new BenchDB()
+			.setMachines(machines)
+			.setMaterials(materials)
+			.setRolls(rolls)
+			.setProducts(products)
+			.setClients(clients)
+			.setPlannings(plannings)
+			.start();
+		// La &uacute;ltima semana completa con l&iacute;neas.
+		int days = (plannings - 1) / (machines * BenchDB.PER_DAY);
+		int monday = Math.max(0, days / 5 - 1) * 5;
+		week = BenchDB.getDate(monday);
+		weekEnd = BenchDB.getDate(monday + 4);
+		client = new Client().setId(1).setDomain(BenchDB.DOMAIN_ID).setName("CLIENTE 1").setVersion(0);
+		planning = new Planning()
+			.setDate(week)
+			.setOrder(BenchDB.PER_DAY + 1)
+			.setMachine(new Machine().setId(1))
+			.setProduct(new Product().setId(1))
+			.setWidth(100)
+			.setLength(200)
+			.setMaterialUp(new Material().setId(1))
+			.setRollUp(new Roll().setId(1))
+			.setMaterialDown(new Material().setId(2))
+			.setRollDown(new Roll().setId(2))
+			.setAmount(10000)
+			.setBlowUnits(2)
+			.setMeters(1000)
+			.setBlows(5000)
+			.setBlowsMinute(20)
+			.setMinutes(250)
+			.setClient(new Client().setId(1))
+			.setComments("");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		db.stop();
+	}
+
+	private static DBContext open() {
+		return MkpkDatasource.getDBContext(BenchDB.DOMAIN_ID, BenchDB.USER);
+	}
+
+	@Benchmark
+	public LinkedList<Client> getClients() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getClients(ctx);
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<Client> getClientsQuery() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getClients(ctx, "CLIENTE 1");
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<Client> getClientsFilter() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getClients(ctx, p -> p.getNameProperty().like("CLIENTE 1%"));
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public String getClientsVersion() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getClientsVersion(ctx);
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<Machine> getMachines() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getMachines(ctx);
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<Machine> getMachinesQuery() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getMachines(ctx, "MAQUINA");
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public String getMachinesVersion() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getMachinesVersion(ctx);
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<Material> getMaterials() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getMaterials(ctx);
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<Material> getMaterialsQuery() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getMaterials(ctx, "MAT1");
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public String getMaterialsVersion() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getMaterialsVersion(ctx);
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<Product> getProductsPage() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getProducts(ctx, 0, 50, "");
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<Product> getProductsQuery() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getProducts(ctx, 0, 50, "PRD1");
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<Product> getProductsSorted() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getProducts(ctx, 0, 50, p -> p.getMaterialUpIdProperty().eq(1), ProductParams.SORT_NAME, true);
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<Roll> getRolls() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getRolls(ctx);
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<Roll> getRollsMaterial() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getRolls(ctx, "BOBINA", 1);
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<Roll> getRollsStock() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getRolls(ctx, "BOBINA", 1, 1000d);
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public String getRollsVersion() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getRollsVersion(ctx);
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public String getRollStockVersion() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getRollStockVersion(ctx);
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<Planning> getPlanningsWeek() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getPlannings(ctx, p -> p.getDateProperty().ge(week)
+				.and(p.getDateProperty().le(weekEnd))
+				.and(p.getMachineIdProperty().eq(1)));
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public int forEachPlanningWeek(Blackhole bh) {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.forEachPlanning(ctx, p -> p.getDateProperty().ge(week)
+				.and(p.getDateProperty().le(weekEnd)), bh::consume);
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<PlanningStats> getPlanningStatsYear() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getPlanningStats(ctx, new StatsParams()
+				.setFrom(BenchData.START)
+				.setTo(db.getLastDate())
+				.setGroup(StatsParams.GROUP_MONTH));
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public LinkedList<PlanningStats> getPlanningStatsWeekByProduct() {
+		DBContext ctx = open();
+		try {
+			return MkpkGo.getPlanningStats(ctx, new StatsParams()
+				.setFrom(week)
+				.setTo(weekEnd)
+				.setGroup(StatsParams.GROUP_PRODUCT));
+		} finally {
+			ctx.close();
+		}
+	}
+
+	@Benchmark
+	public Client saveClient() {
+		DBContext ctx = open();
+		try {
+			client = MkpkGo.save(ctx, client.setName("CLIENTE 1"));
+			return client;
+		} finally {
+			ctx.close();
+		}
+	}
+
+	/**
+	 * Alta y baja de una l&iacute;nea: las dos mantienen los totales diarios y las existencias de bobinas.
+	 */
+	@Benchmark
+	public void saveAndDeletePlanning() {
+		DBContext ctx = open();
+		try {
+			Planning saved = MkpkGo.save(ctx, planning.clone().setId(null));
+			MkpkGo.delete(ctx, saved);
+		} finally {
+			ctx.close();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.merkapack.erp.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.merkapack.watson.util.MkpkNumberUtils;
+import com.merkapack.watson.util.MkpkStringUtils;
+
+/**
+ * Lectura de 100.000 celdas de texto como las de una hoja de Excel en espa&ntilde;ol
+ * ("1.234,56", " 12,5 ", "-3", un 5% no num&eacute;ricas): reemplazar separadores y usar
+ * Double.parseDouble capturando la excepci&oacute;n frente a MkpkNumberUtils.parseDouble.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberParsingBenchmark {
+
+	private static final int CELLS = 100000;
+	private static final String[] INVALID = {"", "n/a", "-", "pendiente", "12,5 m"};
+
+	private String[] cells;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		cells = new String[CELLS];
+		for (int i = 0; i < CELLS; i++) {
+			switch (random.nextInt(20)) {
+				case 0:
+					cells[i] = INVALID[random.nextInt(INVALID.length)];
+					break;
+				case 1:
+				case 2:
+				case 3:
+					cells[i] = " " + random.nextInt(1000) + " ";
+					break;
+				case 4:
+				case 5:
+					cells[i] = "-" + random.nextInt(100) + "," + random.nextInt(100);
+					break;
+				default:
+					int thousands = random.nextInt(100);
+					cells[i] = (thousands > 0 ? thousands + "." : "")
+						+ MkpkStringUtils.leftPad(String.valueOf(random.nextInt(1000)), thousands > 0 ? 3 : 1, '0')
+						+ "," + MkpkStringUtils.leftPad(String.valueOf(random.nextInt(100)), 2, '0');
+			}
+		}
+	}
+
+	@Benchmark
+	public double replaceAndParseDouble() {
+		double sum = 0;
+		for (String cell : cells) {
+			try {
+				sum += Double.parseDouble(cell.trim().replace(".", "").replace(',', '.'));
+			} catch (NumberFormatException e) {
+				// Celda no numrica.
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double mkpkParseDouble() {
+		double sum = 0;
+		for (String cell : cells) {
+			double value = MkpkNumberUtils.parseDouble(cell, Double.NaN);
+			if (!Double.isNaN(value)) {
+				sum += value;
+			}
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,65 @@
+package com.merkapack.erp.bench;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.gwt.shared.PlanningCalculator;
+import com.merkapack.erp.gwt.shared.PlanningCalculatorParams;
+
+/**
+ * PlanningCalculator.calculate sobre listas de distinto tama&ntilde;o.
+ * El calculador modifica la lista, as&iacute; que cada invocaci&oacute;n trabaja sobre una copia hecha dentro
+ * del propio m&eacute;todo medido ({@code @Setup(Level.Invocation)} falsea tiempos tan cortos);
+ * {@link #copy()} mide solo la copia para poder restarla.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlanningCalculatorBenchmark {
+
+	@Param({"10", "100", "1000", "10000"})
+	private int size;
+
+	private PlanningCalculatorParams params;
+	private LinkedList<Planning> source;
+
+	@Setup(Level.Trial)
+	public void trial() {
+		params = BenchData.params();
+		source = BenchData.plannings(size);
+	}
+
+	@Benchmark
+	public LinkedList<Planning> copy() {
+		return BenchData.copy(source);
+	}
+
+	@Benchmark
+	public LinkedList<Planning> calculateList() {
+		return PlanningCalculator.calculate(params, BenchData.copy(source));
+	}
+
+	@Benchmark
+	public LinkedList<Planning> splitGroupTime() {
+		LinkedList<Planning> list = BenchData.copy(source);
+		PlanningCalculator.splitGroupTime(params, list);
+		return list;
+	}
+}
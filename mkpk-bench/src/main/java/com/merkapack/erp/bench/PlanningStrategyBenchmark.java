@@ -0,0 +1,55 @@
+package com.merkapack.erp.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.gwt.shared.PlanningCalculatorParams;
+import com.merkapack.erp.gwt.shared.PlanningCalculatorStrategy;
+
+/**
+ * C&aacute;lculo de una l&iacute;nea con cada una de las estrategias.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanningStrategyBenchmark {
+
+	@Param({"AMOUNT_CHANGED", "METERS_CHANGED", "TIME_CHANGED"})
+	private PlanningCalculatorStrategy strategy;
+
+	private PlanningCalculatorParams params;
+	private Planning planning;
+
+	@Setup
+	public void setup() {
+		params = BenchData.params();
+		planning = BenchData.plannings(1).getFirst();
+	}
+
+	@Benchmark
+	public Planning calculate() {
+		strategy.calculate(params, planning);
+		return planning;
+	}
+
+	@Benchmark
+	public Planning specialCalculate() {
+		strategy.specialCalculate(params, planning);
+		return planning;
+	}
+}
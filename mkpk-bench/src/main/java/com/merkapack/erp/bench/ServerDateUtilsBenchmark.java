@@ -0,0 +1,63 @@
+package com.merkapack.erp.bench;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.merkapack.erp.gwt.client.util.GWTDateUtils;
+import com.merkapack.watson.server.MkpkServerDateUtils;
+
+/**
+ * Aritm&eacute;tica de fechas: MkpkServerDateUtils (n&uacute;meros de d&iacute;a) frente a GWTDateUtils (Date).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerDateUtilsBenchmark {
+
+	private Date a = new Date(BenchData.START.getTime());
+	private Date b = new Date(BenchData.START.getTime() + 36L * 60 * 60 * 1000);
+
+	@Benchmark
+	public Date addDays() {
+		return MkpkServerDateUtils.addDays(a, 1);
+	}
+
+	@Benchmark
+	public int compare() {
+		return MkpkServerDateUtils.compare(a, b);
+	}
+
+	@Benchmark
+	public int get() {
+		return MkpkServerDateUtils.get(a, Calendar.DAY_OF_MONTH);
+	}
+
+	@Benchmark
+	public Date lastDayOfMonth() {
+		return MkpkServerDateUtils.getLastDayOfMonth(a);
+	}
+
+	@Benchmark
+	public Date gwtAddDays() {
+		return GWTDateUtils.addDays(new Date(a.getTime()), 1);
+	}
+
+	@Benchmark
+	public int gwtCompare() {
+		return GWTDateUtils.compare(a, b);
+	}
+}
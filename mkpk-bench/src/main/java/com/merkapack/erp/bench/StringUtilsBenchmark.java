@@ -0,0 +1,52 @@
+package com.merkapack.erp.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.merkapack.watson.util.MkpkStringUtils;
+
+/**
+ * B&uacute;squedas de MkpkStringUtils usadas al importar y al sugerir.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringUtilsBenchmark {
+
+	private String text = "BOLSA CAMISETA BLANCA 40X50 GALGA 200 - SUPERMERCADOS DEL NORTE S.L.";
+	private String search = "supermercados";
+	private String client = "SUPERMERCADOS DEL NORTE SL";
+	private String other = "SUPERMERCADO DEL NORTE S.L.";
+
+	@Benchmark
+	public int indexOfIgnoreCase() {
+		return MkpkStringUtils.indexOfIgnoreCase(text, search);
+	}
+
+	@Benchmark
+	public boolean containsIgnoreCase() {
+		return MkpkStringUtils.containsIgnoreCase(text, search);
+	}
+
+	@Benchmark
+	public int levenshtein() {
+		return MkpkStringUtils.getLevenshteinDistance(client, other);
+	}
+
+	@Benchmark
+	public int levenshteinThreshold() {
+		return MkpkStringUtils.getLevenshteinDistance(client, other, 3);
+	}
+}
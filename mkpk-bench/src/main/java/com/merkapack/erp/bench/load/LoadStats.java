@@ -0,0 +1,51 @@
+package com.merkapack.erp.bench.load;
+
+import java.util.Arrays;
+
+import com.merkapack.watson.util.collection.DoubleArrayList;
+
+/**
+ * Medidas de una operaci&oacute;n durante una carga. A diferencia de la telemetr&iacute;a del servidor
+ * se guardan todas: una carga dura minutos y los percentiles tienen que ser de toda la prueba.
+ */
+class LoadStats {
+
+	private final DoubleArrayList millis = new DoubleArrayList(1024);
+	private long failures = 0;
+
+	synchronized void add(double value, boolean failed) {
+		millis.add(value);
+		if (failed) {
+			failures++;
+		}
+	}
+
+	synchronized int getCount() {
+		return millis.size();
+	}
+
+	synchronized long getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @param percentiles entre 0 y 100; el &uacute;ltimo valor devuelto es el m&aacute;ximo
+	 */
+	double[] getPercentiles(double... percentiles) {
+		double[] sorted;
+		synchronized (this) {
+			sorted = millis.toArray();
+		}
+		Arrays.sort(sorted);
+		double[] values = new double[percentiles.length + 1];
+		if (sorted.length == 0) {
+			return values;
+		}
+		for (int i = 0; i < percentiles.length; i++) {
+			int rank = (int) Math.ceil(percentiles[i] / 100d * sorted.length) - 1;
+			values[i] = sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+		}
+		values[percentiles.length] = sorted[sorted.length - 1];
+		return values;
+	}
+}
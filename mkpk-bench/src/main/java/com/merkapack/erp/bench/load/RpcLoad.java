@@ -0,0 +1,152 @@
+package com.merkapack.erp.bench.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Carga HTTP sobre los servicios GWT-RPC de un servidor arrancado en local, con sesiones como las de
+ * {@link RpcSession}. Las llamadas RPC van con gwt-syncproxy, que lee la pol&iacute;tica de
+ * serializaci&oacute;n del m&oacute;dulo compilado: el servidor tiene que tener el GWT compilado,
+ * no vale el modo desarrollo.
+ * <p>
+ * Propiedades del sistema:
+ * <ul>
+ * <li><code>mkpk.load.url</code>: URL base del m&oacute;dulo (<code>http://localhost:8080/mkpk_gwt/</code>)</li>
+ * <li><code>mkpk.load.users</code>: usuarios virtuales (50)</li>
+ * <li><code>mkpk.load.threads</code>: usuarios a la vez (10)</li>
+ * <li><code>mkpk.load.sessions</code>: sesiones por usuario (5)</li>
+ * <li><code>mkpk.load.think</code>: ms entre pasos (500) y <code>mkpk.load.type</code>: ms entre letras (150)</li>
+ * <li><code>mkpk.load.date</code>: semana que se abre, <code>yyyy-MM-dd</code> (hoy)</li>
+ * <li><code>mkpk.load.product</code>, <code>mkpk.load.client</code>, <code>mkpk.load.roll</code>:
+ * lo que se escribe en las cajas de sugerencias (<code>PRD1</code>, <code>CLIENTE 1</code>, <code>BOBINA</code>,
+ * como los datos de <code>BenchDB</code>)</li>
+ * <li><code>mkpk.load.excel</code>: hoja que se sube; si no se indica se genera una de
+ * <code>mkpk.load.excelRows</code> l&iacute;neas (50)</li>
+ * </ul>
+ * <code>mvn -Pload -pl mkpk-bench -am verify -Dmkpk.load.users=100</code>
+ */
+public class RpcLoad {
+
+	private static final Logger LOGGER = Logger.getLogger(RpcLoad.class.getName());
+
+	private static final double[] PERCENTILES = { 50, 90, 99 };
+	private static final int MAX_LOGGED_FAILURES = 20;
+
+	private final String moduleBaseURL = appendSlash(System.getProperty("mkpk.load.url", "http://localhost:8080/mkpk_gwt/"));
+	private final int users = Integer.getInteger("mkpk.load.users", 50);
+	private final int threads = Integer.getInteger("mkpk.load.threads", 10);
+	private final int sessions = Integer.getInteger("mkpk.load.sessions", 5);
+	private final int thinkMillis = Integer.getInteger("mkpk.load.think", 500);
+	private final int typeMillis = Integer.getInteger("mkpk.load.type", 150);
+	private final String productQuery = System.getProperty("mkpk.load.product", "PRD1");
+	private final String clientQuery = System.getProperty("mkpk.load.client", "CLIENTE 1");
+	private final String rollQuery = System.getProperty("mkpk.load.roll", "BOBINA");
+	private final Date date;
+	private final byte[] excel;
+
+	private final ConcurrentHashMap<String, LoadStats> stats = new ConcurrentHashMap<String, LoadStats>();
+	private final AtomicLong logged = new AtomicLong();
+	private double elapsedSeconds;
+
+	RpcLoad() throws IOException {
+		String day = System.getProperty("mkpk.load.date");
+		date = day == null ? new Date() : java.sql.Date.valueOf(day);
+		String file = System.getProperty("mkpk.load.excel");
+		excel = file == null
+			? RpcSession.createExcel(Integer.getInteger("mkpk.load.excelRows", 50), "CLIENTE ", "PRD")
+			: Files.readAllBytes(Paths.get(file));
+	}
+
+	public static void main(String[] args) throws Exception {
+		RpcLoad load = new RpcLoad();
+		load.run().report(System.out);
+	}
+
+	RpcLoad run() throws InterruptedException {
+		LOGGER.info("LOAD " + moduleBaseURL + ": " + users + " usuarios, " + threads + " a la vez, "
+			+ sessions + " sesiones cada uno");
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		long start = System.nanoTime();
+		for (int i = 0; i < users; i++) {
+			executor.execute(new RpcSession(this, i));
+		}
+		executor.shutdown();
+		executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+		elapsedSeconds = (System.nanoTime() - start) / 1e9;
+		return this;
+	}
+
+	void record(String operation, double millis, boolean failed) {
+		stats.computeIfAbsent(operation, op -> new LoadStats()).add(millis, failed);
+	}
+
+	void fail(String operation, Throwable t) {
+		if (logged.incrementAndGet() <= MAX_LOGGED_FAILURES) {
+			LOGGER.warning(operation + ": " + t);
+		}
+	}
+
+	/**
+	 * Por operaci&oacute;n: llamadas, fallos, llamadas por segundo sobre toda la prueba y percentiles en ms.
+	 */
+	void report(PrintStream out) {
+		out.println(String.format("%-32s %8s %8s %8s %8s %8s %8s %8s"
+			, "operation", "count", "failed", "req/s", "p50", "p90", "p99", "max"));
+		int count = 0;
+		long failures = 0;
+		for (Map.Entry<String, LoadStats> entry : new TreeMap<String, LoadStats>(stats).entrySet()) {
+			LoadStats s = entry.getValue();
+			double[] p = s.getPercentiles(PERCENTILES);
+			out.println(String.format("%-32s %8d %8d %8.1f %8.1f %8.1f %8.1f %8.1f"
+				, entry.getKey(), s.getCount(), s.getFailures(), s.getCount() / elapsedSeconds
+				, p[0], p[1], p[2], p[3]));
+			count += s.getCount();
+			failures += s.getFailures();
+		}
+		out.println(String.format("%-32s %8d %8d %8.1f   (%.1f s)"
+			, "total", count, failures, count / elapsedSeconds, elapsedSeconds));
+	}
+
+	private static String appendSlash(String url) {
+		return url.endsWith("/") ? url : url + "/";
+	}
+
+	String getModuleBaseURL() {
+		return moduleBaseURL;
+	}
+	int getSessions() {
+		return sessions;
+	}
+	int getThinkMillis() {
+		return thinkMillis;
+	}
+	int getTypeMillis() {
+		return typeMillis;
+	}
+	String getProductQuery() {
+		return productQuery;
+	}
+	String getClientQuery() {
+		return clientQuery;
+	}
+	String getRollQuery() {
+		return rollQuery;
+	}
+	Date getDate() {
+		return date;
+	}
+	byte[] getExcel() {
+		return excel;
+	}
+}
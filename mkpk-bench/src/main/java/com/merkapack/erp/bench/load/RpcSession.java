@@ -0,0 +1,255 @@
+package com.merkapack.erp.bench.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.CookieManager;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import com.gdevelop.gwt.syncrpc.SyncProxy;
+import com.merkapack.erp.core.model.Client;
+import com.merkapack.erp.core.model.Machine;
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.core.model.PlanningParams;
+import com.merkapack.erp.core.model.Product;
+import com.merkapack.erp.core.model.Roll;
+import com.merkapack.erp.gwt.client.rpc.ClientService;
+import com.merkapack.erp.gwt.client.rpc.MachineService;
+import com.merkapack.erp.gwt.client.rpc.PlanningService;
+import com.merkapack.erp.gwt.client.rpc.ProductService;
+import com.merkapack.erp.gwt.client.rpc.RollService;
+import com.merkapack.erp.gwt.server.Excel2Planning;
+
+/**
+ * Un usuario virtual: repite lo que hace un planificador en la pantalla del plan.
+ * <ol>
+ * <li>Abre la semana: m&aacute;quinas y l&iacute;neas de la m&aacute;quina.</li>
+ * <li>Escribe en las cajas de sugerencias letra a letra: producto, cliente y bobina.</li>
+ * <li>Graba una l&iacute;nea con lo sugerido y la borra, para no hacer crecer el plan.</li>
+ * <li>Sube una hoja Excel como la que lee {@link Excel2Planning}.</li>
+ * </ol>
+ * Cada usuario tiene sus cookies, as&iacute; que es una sesi&oacute;n distinta en el servidor.
+ */
+class RpcSession implements Runnable {
+
+	private static final int LIMIT = 20;
+	private static final String BOUNDARY = "----MkpkLoadBoundary";
+
+	private final RpcLoad load;
+	private final Random random;
+	private final CookieManager cookies;
+	private final PlanningService planningService;
+	private final ProductService productService;
+	private final ClientService clientService;
+	private final MachineService machineService;
+	private final RollService rollService;
+
+	RpcSession(RpcLoad load, long seed) {
+		this.load = load;
+		this.random = new Random(seed);
+		this.cookies = new CookieManager();
+		String base = load.getModuleBaseURL();
+		this.planningService = (PlanningService) SyncProxy.newProxyInstance(PlanningService.class, base, "MkpkPlanning", cookies);
+		this.productService = (ProductService) SyncProxy.newProxyInstance(ProductService.class, base, "MkpkProduct", cookies);
+		this.clientService = (ClientService) SyncProxy.newProxyInstance(ClientService.class, base, "MkpkClient", cookies);
+		this.machineService = (MachineService) SyncProxy.newProxyInstance(MachineService.class, base, "MkpkMachine", cookies);
+		this.rollService = (RollService) SyncProxy.newProxyInstance(RollService.class, base, "MkpkRoll", cookies);
+	}
+
+	@Override
+	public void run() {
+		for (int i = 0; i < load.getSessions(); i++) {
+			session();
+		}
+	}
+
+	private void session() {
+		LinkedList<Machine> machines = call("MkpkMachine.getMachines", () -> machineService.getMachines());
+		think();
+		Machine machine = pick(machines);
+		if (machine != null) {
+			PlanningParams params = new PlanningParams().setDate(load.getDate()).setMachine(machine.getId());
+			call("MkpkPlanning.getPlannings", () -> planningService.getPlannings(params));
+			think();
+		}
+
+		Product product = pick(type("MkpkProduct.getProducts", load.getProductQuery()
+			, query -> productService.getProducts(0, LIMIT, query)));
+		Client client = pick(type("MkpkClient.getClients", load.getClientQuery()
+			, query -> clientService.getClients(query)));
+		Roll rollUp = null;
+		if (product != null && product.getMaterialUp() != null) {
+			Integer material = product.getMaterialUp().getId();
+			rollUp = pick(type("MkpkRoll.getRolls", load.getRollQuery()
+				, query -> rollService.getRolls(query, material)));
+		}
+
+		if (machine != null && product != null && client != null && rollUp != null) {
+			Planning planning = new Planning()
+				.setDate(load.getDate())
+				.setOrder(1000 + random.nextInt(1000))
+				.setMachine(machine)
+				.setProduct(product)
+				.setWidth(product.getWidth())
+				.setLength(product.getLength())
+				.setMaterialUp(product.getMaterialUp())
+				.setRollUp(rollUp)
+				.setMaterialDown(product.getMaterialUp())
+				.setRollDown(rollUp)
+				.setAmount(5000 * (1 + random.nextInt(10)))
+				.setBlowUnits(2)
+				.setBlowsMinute(20)
+				.setClient(client)
+				.setComments("");
+			Planning saved = call("MkpkPlanning.save", () -> planningService.save(planning));
+			think();
+			if (saved != null) {
+				call("MkpkPlanning.delete", () -> {
+					planningService.delete(saved);
+					return null;
+				});
+				think();
+			}
+		}
+
+		call("MkpkPlanningUpload", () -> upload(load.getExcel()));
+		think();
+	}
+
+	private interface Query<T> {
+		LinkedList<T> get(String query) throws Exception;
+	}
+
+	/**
+	 * Una llamada por letra, como la caja de sugerencias; devuelve la &uacute;ltima respuesta.
+	 */
+	private <T> LinkedList<T> type(String operation, String text, Query<T> query) {
+		LinkedList<T> result = null;
+		for (int len = 1; len <= text.length(); len++) {
+			String prefix = text.substring(0, len);
+			LinkedList<T> found = call(operation, () -> query.get(prefix));
+			if (found != null) {
+				result = found;
+			}
+			think(load.getTypeMillis());
+		}
+		return result;
+	}
+
+	private <T> T call(String operation, Callable<T> callable) {
+		long start = System.nanoTime();
+		boolean failed = false;
+		try {
+			return callable.call();
+		} catch (Throwable t) {
+			failed = true;
+			load.fail(operation, t);
+			return null;
+		} finally {
+			load.record(operation, (System.nanoTime() - start) / 1000000d, failed);
+		}
+	}
+
+	private <T> T pick(LinkedList<T> list) {
+		if (list == null || list.isEmpty()) {
+			return null;
+		}
+		return list.get(random.nextInt(list.size()));
+	}
+
+	private void think() {
+		think(load.getThinkMillis());
+	}
+
+	private void think(int millis) {
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			// Entre la mitad y una vez y media, para que los usuarios no vayan al paso.
+			Thread.sleep(millis / 2 + random.nextInt(millis + 1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * POST multipart al servlet de subida con el mismo nombre de campo que el formulario de la pantalla.
+	 * Va con las cookies del usuario, como las llamadas RPC, y guarda las que devuelva el servidor.
+	 */
+	private Integer upload(byte[] excel) throws IOException {
+		URL url = new URL(load.getModuleBaseURL() + "MkpkPlanningUpload");
+		URI uri;
+		try {
+			uri = url.toURI();
+		} catch (URISyntaxException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setDoOutput(true);
+		connection.setRequestMethod("POST");
+		connection.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + BOUNDARY);
+		for (Map.Entry<String, List<String>> header : cookies.get(uri, connection.getRequestProperties()).entrySet()) {
+			for (String value : header.getValue()) {
+				connection.addRequestProperty(header.getKey(), value);
+			}
+		}
+		try (OutputStream out = connection.getOutputStream()) {
+			out.write(("--" + BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"fileUploadID\"; filename=\"plan.xlsx\"\r\n"
+				+ "Content-Type: application/vnd.openxmlformats-officedocument.spreadsheetml.sheet\r\n\r\n")
+				.getBytes(StandardCharsets.US_ASCII));
+			out.write(excel);
+			out.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+		}
+		int status = connection.getResponseCode();
+		cookies.put(uri, connection.getHeaderFields());
+		if (status != HttpURLConnection.HTTP_OK) {
+			throw new IOException("HTTP " + status);
+		}
+		try (InputStream in = connection.getInputStream()) {
+			byte[] buffer = new byte[8192];
+			while (in.read(buffer) >= 0) {
+				// Se lee la respuesta entera: forma parte de la latencia.
+			}
+		}
+		return status;
+	}
+
+	/**
+	 * Hoja de <code>rows</code> l&iacute;neas con las columnas que espera {@link Excel2Planning}:
+	 * cliente, c&oacute;digo de producto y cantidad; la fila de t&iacute;tulos tiene la cantidad en texto.
+	 */
+	static byte[] createExcel(int rows, String clientPrefix, String productPrefix) throws IOException {
+		try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+			XSSFSheet sheet = wb.createSheet();
+			Row header = sheet.createRow(0);
+			header.createCell(0).setCellValue("Cliente");
+			header.createCell(1).setCellValue("Producto");
+			header.createCell(2).setCellValue("Cantidad");
+			Random random = new Random(rows);
+			for (int i = 1; i <= rows; i++) {
+				Row row = sheet.createRow(i);
+				row.createCell(0).setCellValue(clientPrefix + (1 + random.nextInt(100)));
+				row.createCell(1).setCellValue(productPrefix + (1 + random.nextInt(1000)));
+				row.createCell(2).setCellValue(5000 * (1 + random.nextInt(10)));
+			}
+			wb.write(out);
+			return out.toByteArray();
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.merkapack.erp.core.dao.jooq;
+
+import static com.merkapack.erp.master.jooq.tables.Client.CLIENT;
+import static com.merkapack.erp.master.jooq.tables.Material.MATERIAL;
+import static com.merkapack.erp.master.jooq.tables.Planning.PLANNING;
+import static com.merkapack.erp.master.jooq.tables.Product.PRODUCT;
+import static com.merkapack.erp.master.jooq.tables.Roll.ROLL;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.merkapack.erp.core.model.Client;
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.core.model.Product;
+import com.merkapack.erp.core.model.Roll;
+
+/**
+ * Mappers de jOOQ sobre registros sint&eacute;ticos con las mismas columnas que 
+ * devuelve la select de PlanningDAO. Est&aacute; en el paquete de los DAO porque 
+ * los mappers son protegidos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+	private Record record;
+	private Mapper.PlanningMapper planningMapper = new Mapper.PlanningMapper();
+	private Mapper.ProductMapper productMapper = new Mapper.ProductMapper();
+	private Mapper.RollMapper rollMapper = new Mapper.RollMapper();
+	private Mapper.ClientMapper clientMapper = new Mapper.ClientMapper();
+
+	@Setup
+	public void setup() {
+		List<Field<?>> fields = new ArrayList<Field<?>>();
+		fields.addAll(Arrays.asList(PLANNING.fields()));
+		fields.addAll(Arrays.asList(PRODUCT.fields()));
+		fields.addAll(Arrays.asList(MATERIAL.as("MAT_UP").fields()));
+		fields.addAll(Arrays.asList(MATERIAL.as("MAT_DOWN").fields()));
+		fields.addAll(Arrays.asList(ROLL.fields()));
+		fields.addAll(Arrays.asList(MATERIAL.fields()));
+		fields.addAll(Arrays.asList(CLIENT.fields()));
+		record = DSL.using(SQLDialect.MARIADB).newRecord(fields.toArray(new Field<?>[fields.size()]));
+		for (Field<?> field : fields) {
+			set(record, field);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> void set(Record rec, Field<T> field) {
+		Class<T> type = field.getType();
+		Object value;
+		if (Integer.class.equals(type)) {
+			value = Integer.valueOf(7);
+		} else if (Double.class.equals(type)) {
+			value = Double.valueOf(123.45);
+		} else if (BigDecimal.class.equals(type)) {
+			value = new BigDecimal("123.45");
+		} else if (Byte.class.equals(type)) {
+			value = Byte.valueOf((byte) 1);
+		} else if (String.class.equals(type)) {
+			value = field.getName();
+		} else if (java.sql.Date.class.equals(type)) {
+			value = new java.sql.Date(System.currentTimeMillis());
+		} else if (Timestamp.class.equals(type)) {
+			value = new Timestamp(System.currentTimeMillis());
+		} else {
+			value = null;
+		}
+		rec.set(field, (T) value);
+	}
+
+	@Benchmark
+	public Planning planning() {
+		return planningMapper.apply(record);
+	}
+
+	@Benchmark
+	public Product product() {
+		return productMapper.apply(record);
+	}
+
+	@Benchmark
+	public Roll roll() {
+		return rollMapper.apply(record);
+	}
+
+	@Benchmark
+	public Client client() {
+		return clientMapper.apply(record);
+	}
+}
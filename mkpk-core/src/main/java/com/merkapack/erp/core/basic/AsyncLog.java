@@ -0,0 +1,226 @@
+package com.merkapack.erp.core.basic;
+
+import java.io.PrintStream;
+import java.text.MessageFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.merkapack.erp.core.basic.ILogger.Level;
+
+/**
+ * Log as&iacute;ncrono de mkpk-core. Quien escribe reserva una posici&oacute;n de un anillo de
+ * tama&ntilde;o fijo con un CAS, copia los valores y la publica; no formatea, no reserva memoria
+ * (salvo los <code>args</code> de {@link ILogger#log(Level, String, Object...)}) y nunca espera:
+ * si el anillo est&aacute; lleno la l&iacute;nea se descarta y se cuenta. Un solo hilo recorre el anillo
+ * en orden, da formato a las l&iacute;neas (clave=valor) y las escribe en la salida est&aacute;ndar.
+ * <p>
+ * Propiedades del sistema:
+ * <ul>
+ * <li><code>mkpk.log.level</code>: ERROR, WARN, INFO (por defecto) o DEBUG; un valor mal escrito es INFO</li>
+ * <li><code>mkpk.log.buffer</code>: l&iacute;neas del anillo, se redondea a potencia de dos (8192)</li>
+ * </ul>
+ * El hilo arranca con la primera l&iacute;nea o con {@link #start()}. En una aplicaci&oacute;n web lo para
+ * {@link #stop()} al replegarla, para no dejar vivos el hilo y el classloader del despliegue anterior;
+ * fuera de un contenedor lo para un shutdown hook.
+ */
+public final class AsyncLog {
+
+	private static final long IDLE_NANOS = 1000000;
+	private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS")
+		.withZone(ZoneId.systemDefault());
+
+	private static final Level LEVEL = level(System.getProperty("mkpk.log.level"));
+	private static final int CAPACITY = Integer.highestOneBit(Math.max(2, Integer.getInteger("mkpk.log.buffer", 8192) * 2 - 1));
+	private static final int MASK = CAPACITY - 1;
+	private static final Slot[] RING = new Slot[CAPACITY];
+
+	/** Siguiente posici&oacute;n libre. */
+	private static final AtomicLong CLAIMED = new AtomicLong();
+	/** Siguiente posici&oacute;n que va a leer el hilo del log; solo la escribe &eacute;l. */
+	private static volatile long consumed = 0;
+	private static final AtomicLong DROPPED = new AtomicLong();
+	private static volatile boolean stopping = false;
+	/** Hay hilo en marcha o se ha parado con {@link #stop()}: la siguiente l&iacute;nea no lo arranca. */
+	private static volatile boolean started = false;
+
+	private static final PrintStream OUT = System.out;
+	private static Thread appender;
+	private static Thread shutdownHook;
+
+	/**
+	 * Una l&iacute;nea. <code>published</code> es la posici&oacute;n que ocupa cuando est&aacute; completa;
+	 * al ser vol&aacute;til, escribirla la &uacute;ltima hace visibles los dem&aacute;s campos.
+	 */
+	private static final class Slot {
+		private volatile long published = -1;
+		private long millis;
+		private Level level;
+		private int domain;
+		private String user;
+		private String operation;
+		private String entity;
+		private Integer id;
+		private int rows;
+		private long elapsedNanos;
+		private String message;
+		private Object[] args;
+	}
+
+	static {
+		for (int i = 0; i < CAPACITY; i++) {
+			RING[i] = new Slot();
+		}
+	}
+
+	private AsyncLog() {
+	}
+
+	/**
+	 * @return el nivel de <code>value</code> o INFO si no hay o no es un nivel
+	 */
+	static Level level(String value) {
+		if (value != null) {
+			try {
+				return Level.valueOf(value.trim().toUpperCase());
+			} catch (IllegalArgumentException e) {
+				System.err.println("mkpk.log.level no vlido: " + value + "; se usa INFO");
+			}
+		}
+		return Level.INFO;
+	}
+
+	/**
+	 * Arranca el hilo del log si no est&aacute; en marcha, tambi&eacute;n despu&eacute;s de {@link #stop()}.
+	 */
+	public static synchronized void start() {
+		if (appender != null) {
+			return;
+		}
+		stopping = false;
+		Thread thread = new Thread(AsyncLog::drain, "mkpk-log");
+		thread.setDaemon(true);
+		thread.start();
+		appender = thread;
+		shutdownHook = new Thread(() -> join(thread), "mkpk-log-shutdown");
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+		started = true;
+	}
+
+	/**
+	 * Escribe lo pendiente y para el hilo. Las l&iacute;neas de despu&eacute;s se quedan en el anillo
+	 * (y se descartan cuando se llena) hasta otro {@link #start()}.
+	 */
+	public static synchronized void stop() {
+		started = true;
+		if (appender == null) {
+			return;
+		}
+		try {
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		} catch (IllegalStateException e) {
+			// La JVM ya se est cerrando: el hook hace lo mismo.
+		}
+		join(appender);
+		appender = null;
+		shutdownHook = null;
+	}
+
+	private static void join(Thread thread) {
+		stopping = true;
+		try {
+			thread.join(1000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public static boolean isEnabled(Level level) {
+		return level.ordinal() <= LEVEL.ordinal();
+	}
+
+	/**
+	 * @param rows filas afectadas, o negativo si no aplica
+	 * @param elapsedNanos tiempo empleado, o negativo si no aplica
+	 */
+	static void publish(Level level, int domain, String user, String operation, String entity, Integer id
+			, int rows, long elapsedNanos, String message, Object[] args) {
+		if (!started) {
+			start();
+		}
+		long seq;
+		do {
+			seq = CLAIMED.get();
+			if (seq - consumed >= CAPACITY) {
+				DROPPED.incrementAndGet();
+				return;
+			}
+		} while (!CLAIMED.compareAndSet(seq, seq + 1));
+		Slot slot = RING[(int) (seq & MASK)];
+		slot.millis = System.currentTimeMillis();
+		slot.level = level;
+		slot.domain = domain;
+		slot.user = user;
+		slot.operation = operation;
+		slot.entity = entity;
+		slot.id = id;
+		slot.rows = rows;
+		slot.elapsedNanos = elapsedNanos;
+		slot.message = message;
+		slot.args = args;
+		slot.published = seq;
+	}
+
+	private static void drain() {
+		StringBuilder line = new StringBuilder(256);
+		long next = consumed;
+		while (true) {
+			Slot slot = RING[(int) (next & MASK)];
+			if (slot.published != next) {
+				long dropped = DROPPED.getAndSet(0);
+				if (dropped > 0) {
+					OUT.println(TIME.format(Instant.now()) + " level=WARN msg=\"log lleno: " + dropped + " lineas descartadas\"");
+				}
+				if (stopping && CLAIMED.get() == next) {
+					OUT.flush();
+					return;
+				}
+				LockSupport.parkNanos(IDLE_NANOS);
+				continue;
+			}
+			line.setLength(0);
+			format(slot, line);
+			slot.user = null;
+			slot.operation = null;
+			slot.entity = null;
+			slot.id = null;
+			slot.message = null;
+			slot.args = null;
+			consumed = ++next;
+			OUT.println(line);
+		}
+	}
+
+	private static void format(Slot slot, StringBuilder line) {
+		line.append(TIME.format(Instant.ofEpochMilli(slot.millis)))
+			.append(" level=").append(slot.level)
+			.append(" domain=").append(slot.domain);
+		if (slot.user != null) line.append(" user=").append(slot.user);
+		if (slot.operation != null) line.append(" op=").append(slot.operation);
+		if (slot.entity != null) line.append(" entity=").append(slot.entity);
+		if (slot.id != null) line.append(" id=").append(slot.id);
+		if (slot.rows >= 0) line.append(" rows=").append(slot.rows);
+		if (slot.elapsedNanos >= 0) line.append(" elapsed_us=").append(slot.elapsedNanos / 1000);
+		if (slot.message != null) {
+			String msg;
+			try {
+				msg = slot.args == null ? slot.message : MessageFormat.format(slot.message, slot.args);
+			} catch (IllegalArgumentException e) {
+				msg = slot.message;
+			}
+			line.append(" msg=\"").append(msg.replace("\"", "'")).append('"');
+		}
+	}
+}
@@ -2,15 +2,24 @@ package com.merkapack.erp.core.basic;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.text.MessageFormat;
-import java.util.Date;
+import java.sql.SQLTransientConnectionException;
 
 import org.jooq.DSLContext;
+import org.jooq.TransactionalCallable;
 import org.jooq.TransactionalRunnable;
+import org.jooq.exception.DataAccessException;
 import org.jooq.conf.ParamType;
 import org.jooq.conf.Settings;
 import org.jooq.impl.DSL;
 
+import com.merkapack.erp.core.model.MkpkCoreException;
+
+/**
+ * Contexto de una petici&oacute;n: dominio, usuario y conexiones. Las del pool se abren al usarlas
+ * por primera vez. Las lecturas de {@link #readResult(TransactionalCallable)} van a una r&eacute;plica
+ * mientras no se haya usado el principal en la petici&oacute;n; despu&eacute;s van al principal, para
+ * que se lea lo que se acaba de escribir.
+ */
 public class DBContext {
 
 	private static Settings SETTINGS = null;
@@ -29,24 +38,133 @@ public class DBContext {
 	private int domain;
 	private String user;
 	private DSLContext dslContext;
+	private boolean pooled;
+
+	private MkpkDatasource.Replica replica;
+	private Connection replicaConnection;
+	private DSLContext replicaContext;
+	private boolean replicaTried;
+	private boolean reading;
+	private boolean primaryUsed;
 	
 	public DBContext(Connection connection) {
 		this(connection, "default");
 	}
 	public DBContext(Connection connection,String user) {
+		this(connection, 0, user);
+	}
+	/**
+	 * @param domain dominio (planta) con el que trabajan todas las consultas de los DAO
+	 */
+	public DBContext(Connection connection,int domain,String user) {
 		this.connection = connection;
+		this.domain = domain;
 		this.user = user;
 		this.dslContext = DSL.using(connection,getDefaultSettings());
 	}
+	/**
+	 * Conexiones del pool de {@link MkpkDatasource}, principal y r&eacute;plicas.
+	 */
+	DBContext(int domain,String user) {
+		this.domain = domain;
+		this.user = user;
+		this.pooled = true;
+	}
 	public int getDomain() {
 		return domain;
 	}
 	public String getUser() {
 		return user;
 	}
+	/**
+	 * Dentro de {@link #readResult(TransactionalCallable)} el de la r&eacute;plica; fuera, el del principal.
+	 */
 	public DSLContext getDslContext() {
+		if (reading) {
+			return replicaContext;
+		}
+		if (dslContext == null) {
+			try {
+				connection = MkpkDatasource.getConnection();
+			} catch (SQLException e) {
+				throw new MkpkCoreException(e.getMessage(), e);
+			}
+			dslContext = DSL.using(connection,getDefaultSettings());
+		}
+		primaryUsed = true;
 		return dslContext;
 	}
+
+	/**
+	 * Consulta de solo lectura. Va a una r&eacute;plica si hay alguna disponible y el principal
+	 * no se ha usado todav&iacute;a en esta petici&oacute;n. Si falla la conexi&oacute;n con la r&eacute;plica
+	 * se aparta y se repite en el principal; cualquier otro error es de la consulta y se lanza tal cual.
+	 */
+	public <T> T readResult(TransactionalCallable<T> callable) {
+		if (!primaryUsed && getReplicaContext() != null) {
+			reading = true;
+			try {
+				return replicaContext.transactionResult(callable);
+			} catch (DataAccessException e) {
+				if (!isConnectionError(e)) {
+					throw e;
+				}
+				replica.markDown(e.getMessage());
+				closeReplica();
+			} finally {
+				reading = false;
+			}
+		}
+		return getDslContext().transactionResult(callable);
+	}
+
+	/**
+	 * Error de conexi&oacute;n: SQLState de la clase 08 o {@link SQLTransientConnectionException}
+	 * en alguna de las causas.
+	 */
+	static boolean isConnectionError(Throwable e) {
+		for (Throwable t = e; t != null; t = t.getCause()) {
+			if (t instanceof SQLTransientConnectionException) {
+				return true;
+			}
+			if (t instanceof SQLException) {
+				String state = ((SQLException) t).getSQLState();
+				if (state != null && state.startsWith("08")) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private DSLContext getReplicaContext() {
+		if (pooled && !replicaTried) {
+			replicaTried = true;
+			for (int i = 0; i < MkpkDatasource.getReplicaCount() && replicaConnection == null; i++) {
+				replica = MkpkDatasource.nextReplica();
+				if (replica == null) {
+					break;
+				}
+				replicaConnection = replica.getConnection();
+			}
+			if (replicaConnection != null) {
+				replicaContext = DSL.using(replicaConnection,getDefaultSettings());
+			}
+		}
+		return replicaContext;
+	}
+
+	private void closeReplica() {
+		try {
+			if (replicaConnection != null) {
+				replicaConnection.close();
+			}
+		} catch (SQLException e) {
+		}
+		replicaConnection = null;
+		replicaContext = null;
+	}
+
 	@Override
 	public void finalize() {
 		close();
@@ -58,6 +176,7 @@ public class DBContext {
 			};
 		} catch (SQLException e) {
 		}
+		closeReplica();
 	}
 	public boolean canWrite() {
 		return true;
@@ -81,30 +200,7 @@ public class DBContext {
 		
 	public ILogger log() {
 		if (logger == null) {
-			// implementacion basico de log. Revisar.
-			logger = new ILogger() {
-
-				@Override
-				public void error(String msg) {
-					System.out.println(MessageFormat.format(ERR,new Date(),DBContext.this.domain,msg));
-				}
-
-				@Override
-				public void warn(String msg) {
-					System.out.println(MessageFormat.format(WAR,new Date(),DBContext.this.domain,msg));
-				}
-
-				@Override
-				public void info(String msg) {
-					System.out.println(MessageFormat.format(INF,new Date(),DBContext.this.domain,msg));
-				}
-
-				@Override
-				public void debug(String msg) {
-					System.out.println(MessageFormat.format(DEB,new Date(),DBContext.this.domain,msg));
-				}
-				
-			};
+			logger = new DBLogger(domain, user);
 		}
 		return logger; 
 	}
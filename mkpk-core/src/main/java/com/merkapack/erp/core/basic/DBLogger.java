@@ -0,0 +1,54 @@
+package com.merkapack.erp.core.basic;
+
+/**
+ * {@link ILogger} de un {@link DBContext}: a&ntilde;ade su dominio y su usuario y lo deja en {@link AsyncLog}.
+ */
+class DBLogger implements ILogger {
+
+	private final int domain;
+	private final String user;
+
+	DBLogger(int domain, String user) {
+		this.domain = domain;
+		this.user = user;
+	}
+
+	@Override
+	public boolean isEnabled(Level level) {
+		return AsyncLog.isEnabled(level);
+	}
+
+	@Override
+	public void error(String msg) {
+		log(Level.ERROR, msg, (Object[]) null);
+	}
+
+	@Override
+	public void warn(String msg) {
+		log(Level.WARN, msg, (Object[]) null);
+	}
+
+	@Override
+	public void info(String msg) {
+		log(Level.INFO, msg, (Object[]) null);
+	}
+
+	@Override
+	public void debug(String msg) {
+		log(Level.DEBUG, msg, (Object[]) null);
+	}
+
+	@Override
+	public void log(Level level, String pattern, Object... args) {
+		if (AsyncLog.isEnabled(level)) {
+			AsyncLog.publish(level, domain, user, null, null, null, -1, -1, pattern, args);
+		}
+	}
+
+	@Override
+	public void write(String operation, String entity, Integer id, int rows, long startNanos) {
+		if (AsyncLog.isEnabled(Level.INFO)) {
+			AsyncLog.publish(Level.INFO, domain, user, operation, entity, id, rows, System.nanoTime() - startNanos, null, null);
+		}
+	}
+}
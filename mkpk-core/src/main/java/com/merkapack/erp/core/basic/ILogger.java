@@ -1,14 +1,33 @@
 package com.merkapack.erp.core.basic;
 
+/**
+ * Log de una petici&oacute;n. Las l&iacute;neas salen con el dominio y el usuario del contexto y se
+ * escriben en otro hilo (ver {@link AsyncLog}): aqu&iacute; solo se guardan los valores.
+ */
 public interface ILogger {
-	
-	String ERR = "{0,time,dd/MM/yyyy HH:mm} ERR: DOMAIN: {1,number,integer}, MSG: {2}";
-	String WAR = "{0,time,dd/MM/yyyy HH:mm} WAR: DOMAIN: {1,number,integer}, MSG: {2}";
-	String INF = "{0,time,dd/MM/yyyy HH:mm} INF: DOMAIN: {1,number,integer}, MSG: {2}";
-	String DEB = "{0,time,dd/MM/yyyy HH:mm} DEB: DOMAIN: {1,number,integer}, MSG: {2}";
-	
+
+	enum Level { ERROR, WARN, INFO, DEBUG }
+
+	boolean isEnabled(Level level);
+
 	void error(String msg);
 	void warn(String msg);
 	void info(String msg);
 	void debug(String msg);
+
+	/**
+	 * @param pattern patr&oacute;n de {@link java.text.MessageFormat}; se formatea en el hilo del log,
+	 * y solo si el nivel est&aacute; activo
+	 */
+	void log(Level level, String pattern, Object... args);
+
+	/**
+	 * Alta, baja o modificaci&oacute;n de un DAO, en INFO.
+	 *
+	 * @param operation <code>INSERT</code>, <code>UPDATE</code>, <code>DELETE</code>...
+	 * @param entity la tabla
+	 * @param rows filas afectadas
+	 * @param startNanos {@link System#nanoTime()} al empezar, para el tiempo empleado
+	 */
+	void write(String operation, String entity, Integer id, int rows, long startNanos);
 }
@@ -1,35 +1,174 @@
 package com.merkapack.erp.core.basic;
 
 
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
 import org.apache.tomcat.jdbc.pool.DataSource;
 import org.apache.tomcat.jdbc.pool.PoolProperties;
 
 import com.merkapack.erp.core.model.MkpkCoreException;
 
+/**
+ * Pool del servidor principal y, si se configuran, de sus r&eacute;plicas de lectura.
+ * <p>
+ * Propiedades del sistema:
+ * <ul>
+ * <li><code>mkpk.db.url</code>, <code>mkpk.db.user</code>, <code>mkpk.db.password</code>: servidor principal</li>
+ * <li><code>mkpk.db.replicas</code>: URLs JDBC de las r&eacute;plicas separadas por comas (ninguna por defecto)</li>
+ * <li><code>mkpk.db.replicaMaxLag</code>: segundos de retraso a partir de los que no se usa una r&eacute;plica (5)</li>
+ * </ul>
+ * El retraso se lee con <code>SHOW SLAVE STATUS</code> (el usuario necesita <code>REPLICATION CLIENT</code>);
+ * un servidor que no es r&eacute;plica de nadie cuenta como al d&iacute;a, as&iacute; se puede probar con
+ * instancias locales independientes. Una r&eacute;plica ca&iacute;da o retrasada se aparta durante
+ * {@link #RETRY_MILLIS} y las lecturas van mientras tanto al principal.
+ */
 public class MkpkDatasource {
-	
+
+	private static final Logger LOGGER = Logger.getLogger(MkpkDatasource.class.getName());
+
+	private static final long CHECK_MILLIS = 5000;
+	private static final long RETRY_MILLIS = 30000;
+
 	private static DataSource DATASOURCE;
-	
+	private static List<Replica> REPLICAS = new ArrayList<Replica>();
+	private static final AtomicInteger NEXT = new AtomicInteger();
+	private static long MAX_LAG = 5;
+
 	private MkpkDatasource() {
 	}
-	
+
+	/**
+	 * R&eacute;plica de lectura con su propio pool.
+	 */
+	static class Replica {
+		private final String url;
+		private final DataSource pool;
+		private volatile long checkedAt = 0;
+		private volatile long downUntil = 0;
+
+		private Replica(String url) {
+			this.url = url;
+			this.pool = createPool(url);
+		}
+
+		boolean isUp() {
+			return System.currentTimeMillis() >= downUntil;
+		}
+
+		/**
+		 * @return una conexi&oacute;n, o <code>null</code> si la r&eacute;plica no responde o va retrasada
+		 */
+		Connection getConnection() {
+			Connection connection = null;
+			try {
+				connection = pool.getConnection();
+				long now = System.currentTimeMillis();
+				if (now - checkedAt > CHECK_MILLIS) {
+					long lag = getLag(connection);
+					checkedAt = now;
+					if (lag > MAX_LAG) {
+						connection.close();
+						markDown("retraso de " + (lag == Long.MAX_VALUE ? "?" : lag) + " s");
+						return null;
+					}
+				}
+				return connection;
+			} catch (SQLException e) {
+				close(connection);
+				markDown(e.getMessage());
+				return null;
+			}
+		}
+
+		void markDown(String reason) {
+			downUntil = System.currentTimeMillis() + RETRY_MILLIS;
+			// Al volver se comprueba otra vez el retraso antes de usarla.
+			checkedAt = 0;
+			LOGGER.warning("Replica " + url + " apartada: " + reason);
+		}
+	}
 
 	public static DBContext getDBContext(int domainId, String user) {
 		try {
 			if (DATASOURCE == null) init();
-			return new DBContext(DATASOURCE.getConnection());
+			return new DBContext(domainId, user);
 		} catch (Throwable e) {
 			throw new MkpkCoreException(e.getMessage(),e);
 		}
 	}
-	
-	 public static void init() {
-		 DATASOURCE = new DataSource();
+
+	static Connection getConnection() throws SQLException {
+		if (DATASOURCE == null) init();
+		return DATASOURCE.getConnection();
+	}
+
+	/**
+	 * Siguiente r&eacute;plica disponible, por turno. <code>null</code> si no hay ninguna.
+	 */
+	static Replica nextReplica() {
+		List<Replica> replicas = REPLICAS;
+		for (int i = 0; i < replicas.size(); i++) {
+			Replica replica = replicas.get(Math.floorMod(NEXT.getAndIncrement(), replicas.size()));
+			if (replica.isUp()) {
+				return replica;
+			}
+		}
+		return null;
+	}
+
+	static int getReplicaCount() {
+		return REPLICAS.size();
+	}
+
+	/**
+	 * Segundos de retraso de la r&eacute;plica: 0 si no es r&eacute;plica, {@link Long#MAX_VALUE} si
+	 * la replicaci&oacute;n est&aacute; parada.
+	 */
+	private static long getLag(Connection connection) throws SQLException {
+		try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery("SHOW SLAVE STATUS")) {
+			if (!rs.next()) {
+				return 0;
+			}
+			Object lag = rs.getObject("Seconds_Behind_Master");
+			return lag == null ? Long.MAX_VALUE : ((Number) lag).longValue();
+		}
+	}
+
+	private static void close(Connection connection) {
+		try {
+			if (connection != null) connection.close();
+		} catch (SQLException e) {
+		}
+	}
+
+	 public static synchronized void init() {
+		 if (DATASOURCE != null) {
+			 return;
+		 }
+		 List<Replica> replicas = new ArrayList<Replica>();
+		 for (String url : System.getProperty("mkpk.db.replicas", "").split(",")) {
+			 if (!url.trim().isEmpty()) {
+				 replicas.add(new Replica(url.trim()));
+			 }
+		 }
+		 MAX_LAG = Long.getLong("mkpk.db.replicaMaxLag", 5);
+		 REPLICAS = replicas;
+		 DATASOURCE = createPool(System.getProperty("mkpk.db.url", "jdbc:mariadb://localhost:3306:merkapack"));
+	 }
+
+	 private static DataSource createPool(String url) {
          PoolProperties p = new PoolProperties();
-         p.setUrl("jdbc:mariadb://localhost:3306:merkapack");
+         p.setUrl(url);
          p.setDriverClassName("org.mariadb.jdbc.Driver");
-         p.setUsername("dbuser");
-         p.setPassword("serubd2000");
+         p.setUsername(System.getProperty("mkpk.db.user", "dbuser"));
+         p.setPassword(System.getProperty("mkpk.db.password", "serubd2000"));
          p.setJmxEnabled(false);
          p.setTestWhileIdle(false);
          p.setTestOnBorrow(true);
@@ -48,7 +187,8 @@ public class MkpkDatasource {
          p.setJdbcInterceptors(
            "org.apache.tomcat.jdbc.pool.interceptor.ConnectionState;"+
            "org.apache.tomcat.jdbc.pool.interceptor.StatementFinalizer");
-         DATASOURCE = new DataSource();
-         DATASOURCE.setPoolProperties(p);
+         DataSource datasource = new DataSource();
+         datasource.setPoolProperties(p);
+         return datasource;
      }
 }
@@ -1,14 +1,17 @@
 package com.merkapack.erp.core.dao;
 
 import java.util.LinkedList;
+import java.util.function.Consumer;
 
 import com.merkapack.erp.core.basic.DBContext;
 import com.merkapack.erp.core.dao.jooq.ClientDAO;
 import com.merkapack.erp.core.dao.jooq.MachineDAO;
 import com.merkapack.erp.core.dao.jooq.MaterialDAO;
 import com.merkapack.erp.core.dao.jooq.PlanningDAO;
+import com.merkapack.erp.core.dao.jooq.PlanningStatsDAO;
 import com.merkapack.erp.core.dao.jooq.ProductDAO;
 import com.merkapack.erp.core.dao.jooq.RollDAO;
+import com.merkapack.erp.core.dao.jooq.RollStockDAO;
 import com.merkapack.erp.core.model.Client;
 import com.merkapack.erp.core.model.Filter.ClientFilter;
 import com.merkapack.erp.core.model.Filter.PlanningFilter;
@@ -17,27 +20,39 @@ import com.merkapack.erp.core.model.Filter.RollFilter;
 import com.merkapack.erp.core.model.Machine;
 import com.merkapack.erp.core.model.Material;
 import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.core.model.PlanningStats;
 import com.merkapack.erp.core.model.Product;
 import com.merkapack.erp.core.model.Roll;
+import com.merkapack.erp.core.model.StatsParams;
 import com.merkapack.watson.util.MkpkStringUtils;
 
+/**
+ * Entrada a los DAO: cada llamada en su transacci&oacute;n. Las consultas (<code>get...</code>) van por
+ * {@link DBContext#readResult(org.jooq.TransactionalCallable)} y pueden leer de una r&eacute;plica;
+ * las altas, bajas y modificaciones van siempre al principal.
+ */
 public class MkpkGo {
 	
 	//							--------
 	// 							[CLIENT]
 	//							--------
 	public static LinkedList<Client> getClients(DBContext ctx) {
-		return ctx.getDslContext().transactionResult(
+		return ctx.readResult(
 				configuration -> ClientDAO.getClients(ctx));
 	}
 	
 	public static LinkedList<Client> getClients(DBContext ctx, String query) {
-		return ctx.getDslContext().transactionResult(
+		return ctx.readResult(
 				configuration -> ClientDAO.getClients(ctx,query));
 	}
 	
+	public static String getClientsVersion(DBContext ctx) {
+		return ctx.readResult(
+				configuration -> ClientDAO.getVersion(ctx));
+	}
+
 	public static LinkedList<Client> getClients(DBContext ctx, ClientFilter filter) {
-		return ctx.getDslContext().transactionResult(
+		return ctx.readResult(
 				configuration -> ClientDAO.getClients(ctx,filter));
 	}
 
@@ -54,15 +69,20 @@ public class MkpkGo {
 	// 							[MACHINE]
 	//							---------
 	public static LinkedList<Machine> getMachines(DBContext ctx) {
-		return ctx.getDslContext().transactionResult(
+		return ctx.readResult(
 				configuration -> MachineDAO.getMachines(ctx));
 	}
 	
 	public static LinkedList<Machine> getMachines(DBContext ctx,String query) {
-		return ctx.getDslContext().transactionResult(
+		return ctx.readResult(
 				configuration -> MachineDAO.getMachines(ctx,query));
 	}
 
+	public static String getMachinesVersion(DBContext ctx) {
+		return ctx.readResult(
+				configuration -> MachineDAO.getVersion(ctx));
+	}
+
 	public static Machine save(DBContext ctx,Machine machine) {
 		return ctx.getDslContext().transactionResult(
 				configuration -> MachineDAO.save(ctx,machine));
@@ -76,15 +96,20 @@ public class MkpkGo {
 	// 							[MATERIAL]
 	//							----------
 	public static LinkedList<Material> getMaterials(DBContext ctx) {
-		return ctx.getDslContext().transactionResult(
+		return ctx.readResult(
 				configuration -> MaterialDAO.getMaterials(ctx));
 	}
 	
 	public static LinkedList<Material> getMaterials(DBContext ctx,String query) {
-		return ctx.getDslContext().transactionResult(
+		return ctx.readResult(
 				configuration -> MaterialDAO.getMaterials(ctx,query));
 	}
 
+	public static String getMaterialsVersion(DBContext ctx) {
+		return ctx.readResult(
+				configuration -> MaterialDAO.getVersion(ctx));
+	}
+
 	public static Material save(DBContext ctx,Material material) {
 		return ctx.getDslContext().transactionResult(
 				configuration -> MaterialDAO.save(ctx,material));
@@ -98,13 +123,18 @@ public class MkpkGo {
 	// 							[PRODUCT]
 	//							---------
 	public static LinkedList<Product> getProducts(DBContext ctx, int offset, int count, ProductFilter filter) {
-		return ctx.getDslContext().transactionResult(
+		return ctx.readResult(
 				configuration -> ProductDAO.getProductList(ctx, offset,count, filter));
 	}
+	public static LinkedList<Product> getProducts(DBContext ctx, int offset, int count, ProductFilter filter
+			, String sort, boolean ascending) {
+		return ctx.readResult(
+				configuration -> ProductDAO.getProductList(ctx, offset,count, filter, sort, ascending));
+	}
 	public static LinkedList<Product> getProducts(DBContext ctx, int offset, int count,String query) {
 		query = MkpkStringUtils.prependIfMissing(query, "%");
 		final String qry = MkpkStringUtils.appendIfMissing(query, "%");
-		return ctx.getDslContext().transactionResult(
+		return ctx.readResult(
 				configuration -> ProductDAO.getProductList(ctx,offset,count,
 						p -> p.getCodeProperty().like(qry)
 						 .or(p.getNameProperty().like(qry)))
@@ -124,20 +154,40 @@ public class MkpkGo {
 	// 							[ROLL]
 	//							------
 	public static LinkedList<Roll> getRolls(DBContext ctx) {
-		return ctx.getDslContext().transactionResult(
+		return ctx.readResult(
 				configuration -> RollDAO.getRolls(ctx));
 	}
 	
 	public static LinkedList<Roll> getRolls(DBContext ctx,String query, Integer material) {
-		return ctx.getDslContext().transactionResult(
+		return ctx.readResult(
 				configuration -> RollDAO.getRolls(ctx,query,material));
 	}
 
+	public static LinkedList<Roll> getRolls(DBContext ctx,String query, Integer material, Double meters) {
+		return ctx.readResult(
+				configuration -> RollDAO.getRolls(ctx,query,material,meters));
+	}
+
+	public static LinkedList<Roll> getRolls(DBContext ctx,String query, Integer material, Double meters, Integer planning) {
+		return ctx.readResult(
+				configuration -> RollDAO.getRolls(ctx,query,material,meters,planning));
+	}
+
 	public static LinkedList<Roll> getRolls(DBContext ctx, RollFilter filter) {
-		return ctx.getDslContext().transactionResult(
+		return ctx.readResult(
 				configuration -> RollDAO.getRolls(ctx,filter));
 	}
 
+	public static String getRollsVersion(DBContext ctx) {
+		return ctx.readResult(
+				configuration -> RollDAO.getVersion(ctx));
+	}
+
+	public static String getRollStockVersion(DBContext ctx) {
+		return ctx.readResult(
+				configuration -> RollStockDAO.getVersion(ctx));
+	}
+
 	public static Roll save(DBContext ctx,Roll roll) {
 		return ctx.getDslContext().transactionResult(
 				configuration -> RollDAO.save(ctx,roll));
@@ -151,10 +201,19 @@ public class MkpkGo {
 	// 							[PLANNING]
 	//							----------
 	public static LinkedList<Planning> getPlannings(DBContext ctx, PlanningFilter filter) {
-		return ctx.getDslContext().transactionResult(
+		return ctx.readResult(
 				configuration -> PlanningDAO.getPlannings(ctx,filter));
 	}
 	
+	/**
+	 * Va al principal y no por {@link DBContext#readResult(org.jooq.TransactionalCallable)}: las l&iacute;neas
+	 * ya entregadas a <code>consumer</code> no se pueden deshacer, as&iacute; que no se puede reintentar.
+	 */
+	public static int forEachPlanning(DBContext ctx, PlanningFilter filter, Consumer<Planning> consumer) {
+		return ctx.getDslContext().transactionResult(
+				configuration -> PlanningDAO.forEachPlanning(ctx,filter,consumer));
+	}
+	
 	public static Planning save(DBContext ctx,Planning planning) {
 		return ctx.getDslContext().transactionResult(
 				configuration -> PlanningDAO.save(ctx,planning));
@@ -168,4 +227,9 @@ public class MkpkGo {
 	public static void delete(DBContext ctx, Planning planning) {
 		ctx.getDslContext().transaction( configuration -> PlanningDAO.delete(ctx,planning));
 	}
+
+	public static LinkedList<PlanningStats> getPlanningStats(DBContext ctx, StatsParams params) {
+		return ctx.readResult(
+				configuration -> PlanningStatsDAO.getStats(ctx,params));
+	}
 }
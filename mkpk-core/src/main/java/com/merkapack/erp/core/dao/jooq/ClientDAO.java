@@ -8,7 +8,8 @@ import java.util.stream.Collectors;
 
 import org.jooq.Condition;
 import org.jooq.Record;
-import org.jooq.SelectJoinStep;
+import org.jooq.SelectConditionStep;
+import org.jooq.impl.DSL;
 
 import com.merkapack.erp.core.basic.DBContext;
 import com.merkapack.erp.core.dao.jooq.Mapper.ClientMapper;
@@ -22,28 +23,37 @@ public class ClientDAO {
 	private static final ClientPropertiesDAO CLIENT_PROPERTIES = new ClientPropertiesDAO();
 
 	protected static class ClientPropertiesDAO implements ClientProperties {
-		protected Condition[] getConditions(ClientFilter filter) {
+		private final Property<Integer> id = new FilterDAO.PropertyDAO<Integer>(CLIENT.ID);
+		private final Property<Integer> domain = new FilterDAO.PropertyDAO<Integer>(CLIENT.DOMAIN);
+		private final Property<String> name = new FilterDAO.PropertyDAO<String>(CLIENT.NAME);
+		private final Property<String> creationUser = new FilterDAO.PropertyDAO<String>(CLIENT.CREATION_USER);
+		private final Property<Timestamp> creationDate = new FilterDAO.PropertyDAO<Timestamp>(CLIENT.CREATION_DATE);
+		private final Property<String> modificationUser = new FilterDAO.PropertyDAO<String>(CLIENT.MODIFICATION_USER);
+		private final Property<Timestamp> modificationDate = new FilterDAO.PropertyDAO<Timestamp>(CLIENT.MODIFICATION_DATE);
+
+		protected Condition[] getConditions(DBContext ctx, ClientFilter filter) {
 			FilterDAO filterDAO = (FilterDAO) filter.filter(this);
 			if (filterDAO == null) return new Condition[0];
-			return new Condition[] { filterDAO.getCondition() };
+			return new Condition[] { filterDAO.getCondition(ctx.getDslContext()) };
 		}
-		@Override public Property<Integer> getIdProperty() {return new FilterDAO.PropertyDAO<Integer>(CLIENT.ID);} 
-		@Override public Property<Integer> getDomainProperty() {return new FilterDAO.PropertyDAO<Integer>(CLIENT.DOMAIN);}
-		@Override public Property<String> getNameProperty() {return new FilterDAO.PropertyDAO<String>(CLIENT.NAME);}
-		@Override public Property<String> getCreationUserProperty() {return new FilterDAO.PropertyDAO<String>(CLIENT.CREATION_USER);}
-		@Override public Property<Timestamp> getCreationDateProperty() {return new FilterDAO.PropertyDAO<Timestamp>(CLIENT.CREATION_DATE);}
-		@Override public Property<String> getModificationUserProperty() {return new FilterDAO.PropertyDAO<String>(CLIENT.MODIFICATION_USER);}
-		@Override public Property<Timestamp> getModificationDateProperty() {return new FilterDAO.PropertyDAO<Timestamp>(CLIENT.MODIFICATION_DATE);}
+		@Override public Property<Integer> getIdProperty() {return id;}
+		@Override public Property<Integer> getDomainProperty() {return domain;}
+		@Override public Property<String> getNameProperty() {return name;}
+		@Override public Property<String> getCreationUserProperty() {return creationUser;}
+		@Override public Property<Timestamp> getCreationDateProperty() {return creationDate;}
+		@Override public Property<String> getModificationUserProperty() {return modificationUser;}
+		@Override public Property<Timestamp> getModificationDateProperty() {return modificationDate;}
 	}
 	
-	private static SelectJoinStep<Record> getSelect(DBContext ctx) {
+	private static SelectConditionStep<Record> getSelect(DBContext ctx) {
 		return ctx.getDslContext().select()
-				.from( CLIENT );
+				.from( CLIENT )
+				.where(DomainDAO.of(ctx, CLIENT.DOMAIN));
 	}
 
 	public static Client getClient(DBContext ctx, Integer id) {
 		return getSelect(ctx)
-			.where(CLIENT.ID.eq(id))
+			.and(CLIENT.ID.eq(id))
 			.fetch()
 			.stream()
 			.map( new ClientMapper() )
@@ -60,7 +70,7 @@ public class ClientDAO {
 	}
 	public static LinkedList<Client> getClients(DBContext ctx, ClientFilter filter) {
 		return getSelect(ctx)
-			.where(CLIENT_PROPERTIES.getConditions(filter))
+			.and(DSL.and(CLIENT_PROPERTIES.getConditions(ctx, filter)))
 			.orderBy(CLIENT.NAME)
 			.fetch()
 			.stream()
@@ -71,13 +81,16 @@ public class ClientDAO {
 		query = MkpkStringUtils.prependIfMissing(query, "%");
 		query = MkpkStringUtils.appendIfMissing(query, "%");
 		return getSelect(ctx)
-				.where(CLIENT.NAME.like(query))
+				.and(CLIENT.NAME.like(query))
 				.orderBy(CLIENT.NAME)
 				.fetch()
 				.stream()
 				.map( new ClientMapper() )
 				.collect(Collectors.toCollection(LinkedList::new));
 	}
+	public static String getVersion(DBContext ctx) {
+		return VersionDAO.getVersion(ctx, CLIENT, CLIENT.DOMAIN, CLIENT.ID, CLIENT.CREATION_DATE, CLIENT.MODIFICATION_DATE);
+	}
 	public static Client save(DBContext ctx, Client machine) {
 		if (machine.getId() == null) {
 			return insert(ctx, machine);
@@ -85,35 +98,58 @@ public class ClientDAO {
 		return update(ctx, machine);
 	}
 	public static Client insert(DBContext ctx,Client machine) {
+		long start = System.nanoTime();
+		Timestamp now = new Timestamp( System.currentTimeMillis());
 		Integer id = ctx.getDslContext()
 			.insertInto(CLIENT)
-			.set(CLIENT.DOMAIN,machine.getDomain())
+			.set(CLIENT.DOMAIN,ctx.getDomain())
 			.set(CLIENT.NAME,machine.getName())
 			.set(CLIENT.CREATION_USER,ctx.getUser())
-			.set(CLIENT.CREATION_DATE, new Timestamp( System.currentTimeMillis()) )
+			.set(CLIENT.CREATION_DATE, now)
+			.set(CLIENT.VERSION, 0)
 			.returning(CLIENT.ID)
 			.fetchOne()
 			.getValue(CLIENT.ID);
-		ctx.log().info("INSERT CLIENT: (id) " + id);		
-		return getClient(ctx, id);
+		ctx.log().write("INSERT", "CLIENT", id, 1, start);		
+		return machine
+			.setId(id)
+			.setDomain(ctx.getDomain())
+			.setCreationUser(ctx.getUser())
+			.setCreationDate(now)
+			.setVersion(0)
+			.setDirty(false);
 	}
 	public static Client update(DBContext ctx, Client machine) {
+		long start = System.nanoTime();
+		Timestamp now = new Timestamp( System.currentTimeMillis());
 		int count = ctx.getDslContext()
 			.update(CLIENT)
 			.set(CLIENT.NAME,machine.getName())
 			.set(CLIENT.MODIFICATION_USER,ctx.getUser())
-			.set(CLIENT.MODIFICATION_DATE, new Timestamp( System.currentTimeMillis()) )
+			.set(CLIENT.MODIFICATION_DATE, now)
+			.set(CLIENT.VERSION, CLIENT.VERSION.plus(1))
 			.where(CLIENT.ID.equal( machine.getId()))
+			.and(CLIENT.VERSION.equal( machine.getVersion()))
+			.and(DomainDAO.of(ctx, CLIENT.DOMAIN))
 			.execute();
-		ctx.log().info("UPDATE CLIENT ("+count+" filas) : (id) " + machine.getId());		
-		return getClient(ctx, machine.getId());
+		VersionDAO.checkRow(count, "CLIENT", machine.getId());
+		ctx.log().write("UPDATE", "CLIENT", machine.getId(), count, start);		
+		return machine
+			.setModificationUser(ctx.getUser())
+			.setModificationDate(now)
+			.setVersion(machine.getVersion() + 1)
+			.setDirty(false);
 	}
 	public static void delete(DBContext ctx, Client machine) {
+		long start = System.nanoTime();
 		int count = ctx.getDslContext()
 				.delete(CLIENT)
 				.where(CLIENT.ID.equal( machine.getId()))
+				.and(CLIENT.VERSION.equal( machine.getVersion()))
+				.and(DomainDAO.of(ctx, CLIENT.DOMAIN))
 				.execute();
-			ctx.log().info("DELETE CLIENT ("+count+" filas) : (id) " + machine.getId());		
+		VersionDAO.checkRow(count, "CLIENT", machine.getId());
+			ctx.log().write("DELETE", "CLIENT", machine.getId(), count, start);		
 	}
 
 }
@@ -0,0 +1,61 @@
+package com.merkapack.erp.core.dao.jooq;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jooq.Condition;
+import org.jooq.Field;
+import org.jooq.Table;
+
+import com.merkapack.erp.core.basic.DBContext;
+import com.merkapack.erp.core.model.MkpkCoreException;
+
+/**
+ * Dominio (planta) de las consultas. Los DAO solo leen, modifican y borran filas del dominio del
+ * {@link DBContext}, y las altas se graban con ese dominio y no con el que traiga el objeto: as&iacute;
+ * varias plantas comparten la base de datos sin ver las filas de las dem&aacute;s. Los &iacute;ndices de
+ * las tablas empiezan por <code>domain</code> para que el filtro no recorra las filas de otra planta.
+ * Los ids de otras tablas que trae el objeto s&iacute; vienen del cliente: se comprueban antes de grabar
+ * y los joins tambi&eacute;n van por dominio.
+ */
+public class DomainDAO {
+
+	public static Condition of(DBContext ctx, Field<Integer> domain) {
+		return domain.eq(ctx.getDomain());
+	}
+
+	/**
+	 * Condici&oacute;n de join con una tabla maestra: por id y en el dominio del contexto.
+	 */
+	public static Condition on(DBContext ctx, Field<Integer> key, Field<Integer> id, Field<Integer> domain) {
+		return key.eq(id).and(of(ctx, domain));
+	}
+
+	/**
+	 * Comprueba que los ids de <code>table</code> a los que apunta la fila que se va a grabar existen en
+	 * el dominio del contexto. Los nulos no se comprueban.
+	 */
+	public static void check(DBContext ctx, Table<?> table, Field<Integer> id, Field<Integer> domain
+			, Integer... ids) throws MkpkCoreException {
+		Set<Integer> distinct = new HashSet<Integer>();
+		for (Integer value : ids) {
+			if (value != null) {
+				distinct.add(value);
+			}
+		}
+		if (distinct.isEmpty()) {
+			return;
+		}
+		int count = ctx.getDslContext()
+			.selectCount()
+			.from(table)
+			.where(id.in(distinct))
+			.and(of(ctx, domain))
+			.fetchOne()
+			.value1();
+		if (count != distinct.size()) {
+			throw new MkpkCoreException("El registro [" + table.getName() + ":" + distinct + "] no existe en el dominio " + ctx.getDomain() + ".");
+		}
+	}
+
+}
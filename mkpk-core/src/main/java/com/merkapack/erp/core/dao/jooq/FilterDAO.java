@@ -1,75 +1,123 @@
 package com.merkapack.erp.core.dao.jooq;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import org.jooq.Condition;
+import org.jooq.DSLContext;
 import org.jooq.Field;
+import org.jooq.Param;
 import org.jooq.Record;
 import org.jooq.Select;
 import org.jooq.SelectJoinStep;
+import org.jooq.conf.MappedSchema;
+import org.jooq.conf.MappedTable;
+import org.jooq.conf.ParamType;
+import org.jooq.conf.RenderMapping;
+import org.jooq.conf.Settings;
+import org.jooq.conf.SettingsTools;
+import org.jooq.impl.DSL;
 
 import com.merkapack.erp.core.model.Filter;
 
+/**
+ * Filtro traducido a una condicin de jOOQ.
+ *
+ * La condicin no se construye hasta que se pide. Cada filtro lleva su forma (campos y
+ * operadores, sin los valores) y los valores en el orden en que se enlazan, cada uno con el
+ * campo al que se compara: la primera vez que se usa una forma se guarda su SQL con
+ * parmetros (?) y las siguientes slo se enlazan los valores con el tipo y el conversor
+ * de su campo, sin volver a construir ni renderizar el rbol de condiciones. El SQL
+ * guardado depende del dialecto y de las opciones de renderizado del contexto.
+ * La forma no lleva ningn valor: las listas de IN se rellenan hasta la siguiente potencia
+ * de dos repitiendo el ltimo valor, as que slo cuenta su tamao redondeado. Se guardan
+ * las ltimas {@value #MAX_COMPILED} formas usadas.
+ */
 public class FilterDAO implements Filter {
+
+	private static final int MAX_COMPILED = 512;
+	private static final Map<String,String> COMPILED = Collections.synchronizedMap(new LinkedHashMap<String,String>(MAX_COMPILED, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String,String> eldest) {
+			return size() > MAX_COMPILED;
+		}
+	});
 	
 	public static class PropertyDAO<T> implements Property<T> {
 		
 		private Field<T> field;
+		private String name;
 		
 		public PropertyDAO(Field<T> field) {
 			this.field = field;
+			this.name = field.getQualifiedName().toString();
 		}
 
 		@Override
 		public FilterDAO eq(T t) {
-			return new FilterDAO(field.eq(t));
+			if (t == null) {
+				return new FilterDAO(name + " isNull", () -> field.eq(t), field);
+			}
+			return new FilterDAO(name + " eq", () -> field.eq(t), field, t);
 		}
 
 		@Override
 		public FilterDAO ne(T t) {
-			return new FilterDAO(field.ne(t));
+			if (t == null) {
+				return new FilterDAO(name + " isNotNull", () -> field.ne(t), field);
+			}
+			return new FilterDAO(name + " ne", () -> field.ne(t), field, t);
 		}
 
 		@Override
 		public FilterDAO le(T t) {
-			return new FilterDAO(field.le(t));
+			return new FilterDAO(name + " le", () -> field.le(t), field, t);
 		}
 
 		@Override
 		public FilterDAO lt(T t) {
-			return new FilterDAO(field.lt(t));
+			return new FilterDAO(name + " lt", () -> field.lt(t), field, t);
 		}
 
 		@Override
 		public FilterDAO gt(T t) {
-			return new FilterDAO(field.gt(t));
+			return new FilterDAO(name + " gt", () -> field.gt(t), field, t);
 		}
 
 		@Override
 		public FilterDAO ge(T t) {
-			return new FilterDAO(field.ge(t));
+			return new FilterDAO(name + " ge", () -> field.ge(t), field, t);
 		}
 		
 		@Override
 		public Filter in(T[] t) {
-			return new FilterDAO(field.in(t));
+			T[] values = padded(t);
+			return new FilterDAO(name + " in " + values.length, () -> field.in(values), field, (Object[]) values);
 		}
 
 		@Override
 		public Filter isNull() {
-			return new FilterDAO(field.isNull());
+			return new FilterDAO(name + " isNull", () -> field.isNull(), field);
 		}
 
 		@Override
 		public Filter isNotNull() {
-			return new FilterDAO(field.isNotNull());
+			return new FilterDAO(name + " isNotNull", () -> field.isNotNull(), field);
 		}
 
 		@Override
 		public Filter like(T t) {
 			if (t instanceof String) {
-				return new FilterDAO(field.like( (String) t));
+				return new FilterDAO(name + " like", () -> field.like( (String) t), field, t);
 			} else {
 				throw new UnsupportedOperationException();				
 			}
@@ -77,12 +125,13 @@ public class FilterDAO implements Filter {
 		
 		@Override
 		public Filter between(T min, T max) {
-			return new FilterDAO(field.between(min, max));
+			return new FilterDAO(name + " between", () -> field.between(min, max), field, min, max);
 		}
 
 		@Override
 		public Filter notIn(T[] t) {
-			return new FilterDAO(field.notIn(t));
+			T[] values = padded(t);
+			return new FilterDAO(name + " notIn " + values.length, () -> field.notIn(values), field, (Object[]) values);
 		}
 		
 	}
@@ -153,54 +202,63 @@ public class FilterDAO implements Filter {
 	public static class DatePropertyDAO implements Property<Date> {
 
 		private Field<java.sql.Date> field;
+		private String name;
 		
 		public DatePropertyDAO(Field<java.sql.Date> field) {
 			this.field = field;
+			this.name = field.getQualifiedName().toString();
 		}
 
 		@Override
 		public FilterDAO eq(Date date) {
-			return new FilterDAO(field.eq(new java.sql.Date(date.getTime())));
+			java.sql.Date d = new java.sql.Date(date.getTime());
+			return new FilterDAO(name + " eq", () -> field.eq(d), field, d);
 		}
 
 		@Override
 		public FilterDAO ne(Date date) {
-			return new FilterDAO(field.ne(new java.sql.Date(date.getTime())));
+			java.sql.Date d = new java.sql.Date(date.getTime());
+			return new FilterDAO(name + " ne", () -> field.ne(d), field, d);
 		}
 
 		@Override
 		public FilterDAO le(Date date) {
-			return new FilterDAO(field.le(new java.sql.Date(date.getTime())));
+			java.sql.Date d = new java.sql.Date(date.getTime());
+			return new FilterDAO(name + " le", () -> field.le(d), field, d);
 		}
 
 		@Override
 		public FilterDAO lt(Date date) {
-			return new FilterDAO(field.lt(new java.sql.Date(date.getTime())));
+			java.sql.Date d = new java.sql.Date(date.getTime());
+			return new FilterDAO(name + " lt", () -> field.lt(d), field, d);
 		}
 
 		@Override
 		public FilterDAO gt(Date date) {
-			return new FilterDAO(field.gt(new java.sql.Date(date.getTime())));
+			java.sql.Date d = new java.sql.Date(date.getTime());
+			return new FilterDAO(name + " gt", () -> field.gt(d), field, d);
 		}
 
 		@Override
 		public FilterDAO ge(Date date) {
-			return new FilterDAO(field.ge(new java.sql.Date(date.getTime())));
+			java.sql.Date d = new java.sql.Date(date.getTime());
+			return new FilterDAO(name + " ge", () -> field.ge(d), field, d);
 		}
 
 		@Override
 		public Filter in(Date[] t) {
-			return new FilterDAO(field.in( Arrays.asList(t)));
+			java.sql.Date[] d = padded(toSqlDates(t));
+			return new FilterDAO(name + " in " + d.length, () -> field.in( Arrays.asList(d)), field, (Object[]) d);
 		}
 
 		@Override
 		public Filter isNull() {
-			return new FilterDAO(field.isNotNull());
+			return new FilterDAO(name + " isNull", () -> field.isNull(), field);
 		}
 
 		@Override
 		public Filter isNotNull() {
-			return new FilterDAO(field.isNotNull());
+			return new FilterDAO(name + " isNotNull", () -> field.isNotNull(), field);
 		}
 		@Override
 		public Filter like(Date date) {
@@ -209,12 +267,23 @@ public class FilterDAO implements Filter {
 		
 		@Override
 		public Filter between(Date min, Date max) {
-			return new FilterDAO(field.between(new java.sql.Date(min.getTime()), new java.sql.Date(max.getTime())));
+			java.sql.Date from = new java.sql.Date(min.getTime());
+			java.sql.Date to = new java.sql.Date(max.getTime());
+			return new FilterDAO(name + " between", () -> field.between(from, to), field, from, to);
 		}
 
 		@Override
 		public Filter notIn(Date[] t) {
-			return new FilterDAO(field.notIn(Arrays.asList(t)));
+			java.sql.Date[] d = padded(toSqlDates(t));
+			return new FilterDAO(name + " notIn " + d.length, () -> field.notIn(Arrays.asList(d)), field, (Object[]) d);
+		}
+
+		private static java.sql.Date[] toSqlDates(Date[] dates) {
+			java.sql.Date[] d = new java.sql.Date[dates.length];
+			for (int i = 0; i < dates.length; i++) {
+				d[i] = dates[i] == null ? null : new java.sql.Date(dates[i].getTime());
+			}
+			return d;
 		}
 		
 	}
@@ -223,20 +292,23 @@ public class FilterDAO implements Filter {
 		
 		private V value;
 		private Field<V> field;
+		private String name;
 		
 		public PropertyValueDAO(Field<V> field, V value) {
 			this.value = value;
 			this.field = field;
+			this.name = field.getQualifiedName().toString();
 		}
 
 		@Override
 		public FilterDAO eq(Boolean t) {
-			return new FilterDAO( t ? field.eq(value) : field.ne(value));
+			return t ? new FilterDAO(name + " eq", () -> field.eq(value), field, value)
+				: new FilterDAO(name + " ne", () -> field.ne(value), field, value);
 		}
 
 		@Override
 		public FilterDAO ne(Boolean t) {
-			return new FilterDAO( t ? field.ne(value) : field.ne(value));
+			return new FilterDAO(name + " ne", () -> field.ne(value), field, value);
 		}
 
 		@Override
@@ -266,12 +338,12 @@ public class FilterDAO implements Filter {
 
 		@Override
 		public Filter isNull() {
-			return new FilterDAO( field.isNull());
+			return new FilterDAO(name + " isNull", () -> field.isNull(), field);
 		}
 
 		@Override
 		public Filter isNotNull() {
-			return new FilterDAO( field.isNotNull());
+			return new FilterDAO(name + " isNotNull", () -> field.isNotNull(), field);
 		}
 
 		@Override
@@ -294,19 +366,23 @@ public class FilterDAO implements Filter {
 	public static class PropertyNullDAO implements Property<Boolean> {
 		
 		private Field<?> field;
+		private String name;
 		
 		public PropertyNullDAO(Field<?> field) {
 			this.field = field;
+			this.name = field.getQualifiedName().toString();
 		}
 
 		@Override
 		public FilterDAO eq(Boolean t) {
-			return new FilterDAO( t ? field.isNull() : field.isNotNull());
+			return t ? new FilterDAO(name + " isNull", () -> field.isNull(), field)
+				: new FilterDAO(name + " isNotNull", () -> field.isNotNull(), field);
 		}
 
 		@Override
 		public FilterDAO ne(Boolean t) {
-			return new FilterDAO( t ? field.isNotNull() : field.isNull());
+			return t ? new FilterDAO(name + " isNotNull", () -> field.isNotNull(), field)
+				: new FilterDAO(name + " isNull", () -> field.isNull(), field);
 		}
 
 		@Override
@@ -336,12 +412,12 @@ public class FilterDAO implements Filter {
 
 		@Override
 		public Filter isNull() {
-			return new FilterDAO( field.isNull());
+			return new FilterDAO(name + " isNull", () -> field.isNull(), field);
 		}
 
 		@Override
 		public Filter isNotNull() {
-			return new FilterDAO( field.isNotNull());
+			return new FilterDAO(name + " isNotNull", () -> field.isNotNull(), field);
 		}
 
 		@Override
@@ -360,31 +436,179 @@ public class FilterDAO implements Filter {
 		}
 	}
 
+	private Supplier<Condition> builder;
 	private Condition condition;
+	// Forma del filtro y valores a enlazar. Sin forma el filtro no se guarda compilado.
+	private String shape;
+	private List<Object> values;
+	private List<Field<?>> fields;
 	private Integer perPage;
 	private Integer page;
 
 	public FilterDAO(Condition condition) {
 		this.condition = condition;
+		this.values = Collections.emptyList();
+		this.fields = Collections.emptyList();
+	}
+
+	private FilterDAO(String shape, Supplier<Condition> builder, Field<?> field, Object... values) {
+		this.shape = shape;
+		this.builder = builder;
+		this.values = Arrays.asList(values);
+		this.fields = Collections.nCopies(values.length, field);
+	}
+
+	private FilterDAO(String shape, Supplier<Condition> builder, List<Object> values, List<Field<?>> fields) {
+		this.shape = shape;
+		this.builder = builder;
+		this.values = values;
+		this.fields = fields;
 	}
 
 	public Condition getCondition() {
+		if (condition == null) {
+			condition = builder.get();
+		}
 		return condition;
 	}
 
+	/**
+	 * Condicin para una consulta de <code>dsl</code>. Si la forma del filtro ya se ha usado
+	 * antes con el mismo dialecto y las mismas opciones de renderizado se reutiliza su SQL y
+	 * slo se enlazan los valores, cada uno como parmetro de su campo.
+	 */
+	public Condition getCondition(DSLContext dsl) {
+		if (shape == null || values.contains(null)) {
+			// Los nulos se enlazan sin tipo: se deja que jOOQ construya la condicin.
+			return getCondition();
+		}
+		String key = key(dsl, shape);
+		String sql = COMPILED.get(key);
+		if (sql != null) {
+			return DSL.condition(sql, params().toArray());
+		}
+		Condition built = getCondition();
+		Settings settings = SettingsTools.clone(dsl.settings());
+		settings.setParamType(ParamType.INDEXED);
+		DSLContext indexed = DSL.using(dsl.configuration().derive(settings));
+		// Slo se guarda si jOOQ enlaza los mismos valores, con los mismos tipos y en el mismo orden.
+		if (sameParams(new ArrayList<Param<?>>(indexed.extractParams(built).values()), params())) {
+			COMPILED.put(key, indexed.render(built));
+		}
+		return built;
+	}
+
+	private List<Param<?>> params() {
+		List<Param<?>> params = new ArrayList<Param<?>>(values.size());
+		for (int i = 0; i < values.size(); i++) {
+			params.add(DSL.val(values.get(i), fields.get(i)));
+		}
+		return params;
+	}
+
+	private static boolean sameParams(List<Param<?>> bound, List<Param<?>> params) {
+		if (bound.size() != params.size()) {
+			return false;
+		}
+		for (int i = 0; i < params.size(); i++) {
+			Param<?> a = bound.get(i);
+			Param<?> b = params.get(i);
+			if (!b.getValue().equals(a.getValue())
+				|| a.getDataType().getType() != b.getDataType().getType()
+				|| a.getDataType().getSQLDataType() != b.getDataType().getSQLDataType()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Clave del SQL guardado: el dialecto, las opciones de <code>dsl</code> que cambian cmo
+	 * se renderizan los nombres y las palabras clave, y la forma del filtro.
+	 */
+	private static String key(DSLContext dsl, String shape) {
+		Settings settings = dsl.settings();
+		StringBuilder key = new StringBuilder(dsl.dialect().name())
+			.append(':').append(settings.isRenderCatalog())
+			.append(':').append(settings.isRenderSchema())
+			.append(':').append(settings.getRenderNameStyle())
+			.append(':').append(settings.getRenderKeywordStyle())
+			.append(':').append(settings.isRenderFormatted())
+			.append(':').append(settings.getBackslashEscaping());
+		RenderMapping mapping = settings.getRenderMapping();
+		if (mapping != null) {
+			key.append(':').append(mapping.getDefaultSchema());
+			for (MappedSchema schema : mapping.getSchemata()) {
+				key.append(':').append(schema.getInput()).append('/').append(schema.getInputExpression())
+					.append('>').append(schema.getOutput());
+				for (MappedTable table : schema.getTables()) {
+					key.append(',').append(table.getInput()).append('/').append(table.getInputExpression())
+						.append('>').append(table.getOutput());
+				}
+			}
+		}
+		return key.append(':').append(shape).toString();
+	}
+
+	/**
+	 * Rellena la lista de un IN hasta la siguiente potencia de dos con el ltimo valor: el
+	 * resultado es el mismo y el nmero de formas distintas no crece con cada tamao.
+	 */
+	private static <T> T[] padded(T[] values) {
+		int length = values.length;
+		if (length < 2 || Integer.bitCount(length) == 1) {
+			return values;
+		}
+		T[] padded = Arrays.copyOf(values, Integer.highestOneBit(length) << 1);
+		Arrays.fill(padded, length, padded.length, values[length - 1]);
+		return padded;
+	}
+
+	private static String shape(FilterDAO a, String operator, FilterDAO b) {
+		if (a.shape == null || b.shape == null) {
+			return null;
+		}
+		return "(" + a.shape + ") " + operator + " (" + b.shape + ")";
+	}
+
+	private static List<Object> values(FilterDAO a, FilterDAO b) {
+		List<Object> values = new ArrayList<Object>(a.values.size() + b.values.size());
+		values.addAll(a.values);
+		values.addAll(b.values);
+		return values;
+	}
+
+	private static List<Field<?>> fields(FilterDAO a, FilterDAO b) {
+		List<Field<?>> fields = new ArrayList<Field<?>>(a.fields.size() + b.fields.size());
+		fields.addAll(a.fields);
+		fields.addAll(b.fields);
+		return fields;
+	}
+
 	@Override
 	public Filter or(Filter filter) {
-		return (filter == null)?this:new FilterDAO(condition.or(((FilterDAO)filter).condition));	
+		if (filter == null) {
+			return this;
+		}
+		FilterDAO other = (FilterDAO) filter;
+		return new FilterDAO(shape(this, "or", other), () -> getCondition().or(other.getCondition()), values(this, other), fields(this, other));
 	}
 
 	@Override
 	public Filter and(Filter filter) {
-		return (filter == null)?this:new FilterDAO(condition.and(((FilterDAO)filter).condition));
+		if (filter == null) {
+			return this;
+		}
+		FilterDAO other = (FilterDAO) filter;
+		return new FilterDAO(shape(this, "and", other), () -> getCondition().and(other.getCondition()), values(this, other), fields(this, other));
 	}
 	
 	@Override
 	public Filter not(Filter filter) {
-		return (filter == null)?this:new FilterDAO(condition.not());
+		if (filter == null) {
+			return this;
+		}
+		return new FilterDAO(shape == null ? null : "not (" + shape + ")", () -> getCondition().not(), values, fields);
 	}
 
 	@Override
@@ -408,14 +632,14 @@ public class FilterDAO implements Filter {
 		return perPage;
 	}
 	
-	public Select<Record> build(SelectJoinStep<Record> select) {
+	public Select<Record> build(DSLContext dsl, SelectJoinStep<Record> select) {
+		Condition condition = getCondition(dsl);
 		if(perPage != null && page != null) {
-			return select.where(getCondition()).limit(perPage)
+			return select.where(condition).limit(perPage)
 				.offset(perPage * (page -1));
 		} else if(perPage != null ){
-			return select.where(getCondition()).limit(perPage);
+			return select.where(condition).limit(perPage);
 		}
-		return select.where(getCondition());
+		return select.where(condition);
 	}
-	
 }
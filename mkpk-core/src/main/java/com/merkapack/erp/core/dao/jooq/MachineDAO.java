@@ -6,16 +6,23 @@ import java.sql.Timestamp;
 import java.util.LinkedList;
 import java.util.stream.Collectors;
 
+import org.jooq.Record;
+import org.jooq.SelectConditionStep;
+
 import com.merkapack.erp.core.basic.DBContext;
 import com.merkapack.erp.core.dao.jooq.Mapper.MachineMapper;
 import com.merkapack.erp.core.model.Machine;
 import com.merkapack.watson.util.MkpkStringUtils;
 
 public class MachineDAO {
-	public static Machine getMachine(DBContext ctx, Integer id) {
+	private static SelectConditionStep<Record> getSelect(DBContext ctx) {
 		return ctx.getDslContext().select()
-			.from( MACHINE )
-			.where(MACHINE.ID.eq(id))
+				.from( MACHINE )
+				.where(DomainDAO.of(ctx, MACHINE.DOMAIN));
+	}
+	public static Machine getMachine(DBContext ctx, Integer id) {
+		return getSelect(ctx)
+			.and(MACHINE.ID.eq(id))
 			.orderBy(MACHINE.NAME)
 			.fetch()
 			.stream()
@@ -24,8 +31,7 @@ public class MachineDAO {
 			.orElse(null);
 	}
 	public static LinkedList<Machine> getMachines(DBContext ctx) {
-		return ctx.getDslContext().select()
-			.from( MACHINE )
+		return getSelect(ctx)
 			.orderBy(MACHINE.NAME)
 			.fetch()
 			.stream()
@@ -35,14 +41,16 @@ public class MachineDAO {
 	public static LinkedList<Machine> getMachines(DBContext ctx, String query) {
 		query = MkpkStringUtils.prependIfMissing(query, "%");
 		query = MkpkStringUtils.appendIfMissing(query, "%");
-		return ctx.getDslContext().select()
-			.from( MACHINE )
-			.where(MACHINE.NAME.like(query))
+		return getSelect(ctx)
+			.and(MACHINE.NAME.like(query))
 			.fetch()
 			.stream()
 			.map( new MachineMapper() )
 			.collect(Collectors.toCollection(LinkedList::new));
 	}
+	public static String getVersion(DBContext ctx) {
+		return VersionDAO.getVersion(ctx, MACHINE, MACHINE.DOMAIN, MACHINE.ID, MACHINE.CREATION_DATE, MACHINE.MODIFICATION_DATE);
+	}
 	public static Machine save(DBContext ctx, Machine machine) {
 		if (machine.getId() == null) {
 			return insert(ctx, machine);
@@ -50,37 +58,60 @@ public class MachineDAO {
 		return update(ctx, machine);
 	}
 	public static Machine insert(DBContext ctx,Machine machine) {
+		long start = System.nanoTime();
+		Timestamp now = new Timestamp( System.currentTimeMillis());
 		Integer id = ctx.getDslContext()
 			.insertInto(MACHINE)
-			.set(MACHINE.DOMAIN,machine.getDomain())
+			.set(MACHINE.DOMAIN,ctx.getDomain())
 			.set(MACHINE.NAME,machine.getName())
 			.set(MACHINE.BLOWS,machine.getBlows())
 			.set(MACHINE.CREATION_USER,ctx.getUser())
-			.set(MACHINE.CREATION_DATE, new Timestamp( System.currentTimeMillis()) )
+			.set(MACHINE.CREATION_DATE, now)
+			.set(MACHINE.VERSION, 0)
 			.returning(MACHINE.ID)
 			.fetchOne()
 			.getValue(MACHINE.ID);
-		ctx.log().info("INSERT MACHINE: (id) " + id);		
-		return getMachine(ctx, id);
+		ctx.log().write("INSERT", "MACHINE", id, 1, start);		
+		return machine
+			.setId(id)
+			.setDomain(ctx.getDomain())
+			.setCreationUser(ctx.getUser())
+			.setCreationDate(now)
+			.setVersion(0)
+			.setDirty(false);
 	}
 	public static Machine update(DBContext ctx, Machine machine) {
+		long start = System.nanoTime();
+		Timestamp now = new Timestamp( System.currentTimeMillis());
 		int count = ctx.getDslContext()
 			.update(MACHINE)
 			.set(MACHINE.NAME,machine.getName())
 			.set(MACHINE.BLOWS,machine.getBlows())
 			.set(MACHINE.MODIFICATION_USER,ctx.getUser())
-			.set(MACHINE.MODIFICATION_DATE, new Timestamp( System.currentTimeMillis()) )
+			.set(MACHINE.MODIFICATION_DATE, now)
+			.set(MACHINE.VERSION, MACHINE.VERSION.plus(1))
 			.where(MACHINE.ID.equal( machine.getId()))
+			.and(MACHINE.VERSION.equal( machine.getVersion()))
+			.and(DomainDAO.of(ctx, MACHINE.DOMAIN))
 			.execute();
-		ctx.log().info("UPDATE MACHINE ("+count+" filas) : (id) " + machine.getId());		
-		return getMachine(ctx, machine.getId());
+		VersionDAO.checkRow(count, "MACHINE", machine.getId());
+		ctx.log().write("UPDATE", "MACHINE", machine.getId(), count, start);		
+		return machine
+			.setModificationUser(ctx.getUser())
+			.setModificationDate(now)
+			.setVersion(machine.getVersion() + 1)
+			.setDirty(false);
 	}
 	public static void delete(DBContext ctx, Machine machine) {
+		long start = System.nanoTime();
 		int count = ctx.getDslContext()
 				.delete(MACHINE)
 				.where(MACHINE.ID.equal( machine.getId()))
+				.and(MACHINE.VERSION.equal( machine.getVersion()))
+				.and(DomainDAO.of(ctx, MACHINE.DOMAIN))
 				.execute();
-			ctx.log().info("DELETE MACHINE ("+count+" filas) : (id) " + machine.getId());		
+		VersionDAO.checkRow(count, "MACHINE", machine.getId());
+			ctx.log().write("DELETE", "MACHINE", machine.getId(), count, start);		
 	}
 
 }
@@ -35,6 +35,7 @@ public class Mapper {
 				.setCreationDate(rec.getValue(CLIENT.CREATION_DATE))
 				.setModificationUser(rec.getValue(CLIENT.MODIFICATION_USER))
 				.setModificationDate(rec.getValue(CLIENT.MODIFICATION_DATE))
+				.setVersion(rec.getValue(CLIENT.VERSION))
 				.setDirty(false);
 		}
 		
@@ -53,6 +54,7 @@ public class Mapper {
 				.setCreationDate(rec.getValue(MACHINE.CREATION_DATE))
 				.setModificationUser(rec.getValue(MACHINE.MODIFICATION_USER))
 				.setModificationDate(rec.getValue(MACHINE.MODIFICATION_DATE))
+				.setVersion(rec.getValue(MACHINE.VERSION))
 				.setDirty(false);
 		}
 		
@@ -79,6 +81,7 @@ public class Mapper {
 				.setCreationDate(rec.getValue(materialTable.CREATION_DATE))
 				.setModificationUser(rec.getValue(materialTable.MODIFICATION_USER))
 				.setModificationDate(rec.getValue(materialTable.MODIFICATION_DATE))
+				.setVersion(rec.getValue(materialTable.VERSION))
 				.setDirty(false);
 		}
 		
@@ -95,10 +98,12 @@ public class Mapper {
 				.setName(rec.get(ROLL.NAME))
 				.setWidth(rec.get(ROLL.WIDTH))
 				.setLength(rec.get(ROLL.LENGTH))
+				.setRemaining(rec.get(ROLL.REMAINING))
 				.setCreationUser(rec.getValue(ROLL.CREATION_USER))
 				.setCreationDate(rec.getValue(ROLL.CREATION_DATE))
 				.setModificationUser(rec.getValue(ROLL.MODIFICATION_USER))
 				.setModificationDate(rec.getValue(ROLL.MODIFICATION_DATE))
+				.setVersion(rec.getValue(ROLL.VERSION))
 				.setDirty(false);
 		}
 		
@@ -123,6 +128,7 @@ public class Mapper {
 				.setCreationDate(rec.getValue(PRODUCT.CREATION_DATE))
 				.setModificationUser(rec.getValue(PRODUCT.MODIFICATION_USER))
 				.setModificationDate(rec.getValue(PRODUCT.MODIFICATION_DATE))
+				.setVersion(rec.getValue(PRODUCT.VERSION))
 				.setDirty(false);
 		}
 		
@@ -160,6 +166,7 @@ public class Mapper {
 				.setCreationDate(rec.getValue(PLANNING.CREATION_DATE))
 				.setModificationUser(rec.getValue(PLANNING.MODIFICATION_USER))
 				.setModificationDate(rec.getValue(PLANNING.MODIFICATION_DATE))
+				.setVersion(rec.getValue(PLANNING.VERSION))
 				.setDirty(false);
 		}
 		
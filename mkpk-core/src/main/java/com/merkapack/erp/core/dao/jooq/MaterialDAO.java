@@ -6,16 +6,23 @@ import java.sql.Timestamp;
 import java.util.LinkedList;
 import java.util.stream.Collectors;
 
+import org.jooq.Record;
+import org.jooq.SelectConditionStep;
+
 import com.merkapack.erp.core.basic.DBContext;
 import com.merkapack.erp.core.dao.jooq.Mapper.MaterialMapper;
 import com.merkapack.erp.core.model.Material;
 import com.merkapack.watson.util.MkpkStringUtils;
 
 public class MaterialDAO {
-	public static Material getMaterial(DBContext ctx, Integer id) {
+	private static SelectConditionStep<Record> getSelect(DBContext ctx) {
 		return ctx.getDslContext().select()
-			.from( MATERIAL )
-			.where(MATERIAL.ID.eq(id))
+				.from( MATERIAL )
+				.where(DomainDAO.of(ctx, MATERIAL.DOMAIN));
+	}
+	public static Material getMaterial(DBContext ctx, Integer id) {
+		return getSelect(ctx)
+			.and(MATERIAL.ID.eq(id))
 			.orderBy(MATERIAL.NAME)
 			.fetch()
 			.stream()
@@ -24,8 +31,7 @@ public class MaterialDAO {
 			.orElse(null);
 	}
 	public static LinkedList<Material> getMaterials(DBContext ctx) {
-		return ctx.getDslContext().select()
-			.from( MATERIAL )
+		return getSelect(ctx)
 			.orderBy(MATERIAL.NAME)
 			.fetch()
 			.stream()
@@ -35,9 +41,8 @@ public class MaterialDAO {
 	public static LinkedList<Material> getMaterials(DBContext ctx, String query) {
 		query = MkpkStringUtils.prependIfMissing(query, "%");
 		query = MkpkStringUtils.appendIfMissing(query, "%");
-		return ctx.getDslContext().select()
-				.from( MATERIAL )
-				.where(MATERIAL.CODE.like(query)
+		return getSelect(ctx)
+				.and(MATERIAL.CODE.like(query)
 					.or(MATERIAL.NAME.like(query))
 				)
 				.orderBy(MATERIAL.CODE)
@@ -47,6 +52,9 @@ public class MaterialDAO {
 				.map( new MaterialMapper(MATERIAL) )
 				.collect(Collectors.toCollection(LinkedList::new));
 	}
+	public static String getVersion(DBContext ctx) {
+		return VersionDAO.getVersion(ctx, MATERIAL, MATERIAL.DOMAIN, MATERIAL.ID, MATERIAL.CREATION_DATE, MATERIAL.MODIFICATION_DATE);
+	}
 	public static Material save(DBContext ctx, Material material) {
 		if (material.getId() == null) {
 			return insert(ctx, material);
@@ -54,23 +62,34 @@ public class MaterialDAO {
 		return update(ctx, material);
 	}
 	public static Material insert(DBContext ctx,Material material) {
+		long start = System.nanoTime();
+		Timestamp now = new Timestamp( System.currentTimeMillis());
 		Integer id = ctx.getDslContext()
 			.insertInto(MATERIAL)
-			.set(MATERIAL.DOMAIN,material.getDomain())
+			.set(MATERIAL.DOMAIN,ctx.getDomain())
 			.set(MATERIAL.CODE,material.getCode())
 			.set(MATERIAL.NAME,material.getName())
 			.set(MATERIAL.RAW_MATERIAL,material.getRawMaterial())
 			.set(MATERIAL.RAW_COMPOSITION,material.getRawComposition())
 			.set(MATERIAL.THICKNESS,material.getThickness())
 			.set(MATERIAL.CREATION_USER,ctx.getUser())
-			.set(MATERIAL.CREATION_DATE, new Timestamp( System.currentTimeMillis()) )
+			.set(MATERIAL.CREATION_DATE, now)
+			.set(MATERIAL.VERSION, 0)
 			.returning(MATERIAL.ID)
 			.fetchOne()
 			.getValue(MATERIAL.ID);
-		ctx.log().info("INSERT MATERIAL: (id) " + id);		
-		return getMaterial(ctx, id);
+		ctx.log().write("INSERT", "MATERIAL", id, 1, start);		
+		return material
+			.setId(id)
+			.setDomain(ctx.getDomain())
+			.setCreationUser(ctx.getUser())
+			.setCreationDate(now)
+			.setVersion(0)
+			.setDirty(false);
 	}
 	public static Material update(DBContext ctx, Material material) {
+		long start = System.nanoTime();
+		Timestamp now = new Timestamp( System.currentTimeMillis());
 		int count = ctx.getDslContext()
 			.update(MATERIAL)
 			.set(MATERIAL.CODE,material.getCode())
@@ -79,18 +98,30 @@ public class MaterialDAO {
 			.set(MATERIAL.RAW_COMPOSITION,material.getRawComposition())
 			.set(MATERIAL.THICKNESS,material.getThickness())
 			.set(MATERIAL.MODIFICATION_USER,ctx.getUser())
-			.set(MATERIAL.MODIFICATION_DATE, new Timestamp( System.currentTimeMillis()) )
+			.set(MATERIAL.MODIFICATION_DATE, now)
+			.set(MATERIAL.VERSION, MATERIAL.VERSION.plus(1))
 			.where(MATERIAL.ID.equal( material.getId()))
+			.and(MATERIAL.VERSION.equal( material.getVersion()))
+			.and(DomainDAO.of(ctx, MATERIAL.DOMAIN))
 			.execute();
-		ctx.log().info("UPDATE MATERIAL ("+count+" filas) : (id) " + material.getId());		
-		return getMaterial(ctx, material.getId());
+		VersionDAO.checkRow(count, "MATERIAL", material.getId());
+		ctx.log().write("UPDATE", "MATERIAL", material.getId(), count, start);		
+		return material
+			.setModificationUser(ctx.getUser())
+			.setModificationDate(now)
+			.setVersion(material.getVersion() + 1)
+			.setDirty(false);
 	}
 	public static void delete(DBContext ctx, Material material) {
+		long start = System.nanoTime();
 		int count = ctx.getDslContext()
 				.delete(MATERIAL)
 				.where(MATERIAL.ID.equal( material.getId()))
+				.and(MATERIAL.VERSION.equal( material.getVersion()))
+				.and(DomainDAO.of(ctx, MATERIAL.DOMAIN))
 				.execute();
-			ctx.log().info("DELETE MATERIAL ("+count+" filas) : (id) " + material.getId());		
+		VersionDAO.checkRow(count, "MATERIAL", material.getId());
+			ctx.log().write("DELETE", "MATERIAL", material.getId(), count, start);		
 	}
 
 }
@@ -1,5 +1,6 @@
 package com.merkapack.erp.core.dao.jooq;
 
+import static com.merkapack.erp.master.jooq.tables.Client.CLIENT;
 import static com.merkapack.erp.master.jooq.tables.Machine.MACHINE;
 import static com.merkapack.erp.master.jooq.tables.Material.MATERIAL;
 import static com.merkapack.erp.master.jooq.tables.Planning.PLANNING;
@@ -9,18 +10,23 @@ import static com.merkapack.erp.master.jooq.tables.Roll.ROLL;
 import java.sql.Date;
 import java.sql.Timestamp;
 import java.util.LinkedList;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.jooq.Condition;
+import org.jooq.Cursor;
 import org.jooq.Record;
-import org.jooq.SelectOnConditionStep;
+import org.jooq.SelectConditionStep;
 import org.jooq.impl.DSL;
 
 import com.merkapack.erp.core.basic.DBContext;
 import com.merkapack.erp.core.dao.jooq.Mapper.PlanningMapper;
+import com.merkapack.erp.core.model.Client;
 import com.merkapack.erp.core.model.Filter.PlanningFilter;
 import com.merkapack.erp.core.model.Filter.Property;
+import com.merkapack.erp.core.model.Machine;
 import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.core.model.Product;
 import com.merkapack.erp.core.model.Properties.PlanningProperties;
 import com.merkapack.erp.master.jooq.tables.Material;
 import com.merkapack.erp.master.jooq.tables.Roll;
@@ -32,64 +38,100 @@ public class PlanningDAO {
 	private static Roll ROLL_UP = ROLL.as("ROLL_UP");
 	private static Roll ROLL_DOWN = ROLL.as("ROLL_DOWN");
 	
+	private static final int EXPORT_FETCH_SIZE = 500;
+	
 	private static final PlanningPropertiesDAO PLANNING_PROPERTIES = new PlanningPropertiesDAO();
 	
 	protected static class PlanningPropertiesDAO implements PlanningProperties {
-		protected Condition[] getConditions(PlanningFilter filter) {
+		private final Property<Integer> id = new FilterDAO.PropertyDAO<Integer>(PLANNING.ID);
+		private final Property<Integer> domain = new FilterDAO.PropertyDAO<Integer>(PLANNING.DOMAIN);
+		private final Property<Date> date = new FilterDAO.PropertyDAO<Date>(PLANNING.DATE);
+		private final Property<Integer> order = new FilterDAO.PropertyDAO<Integer>(PLANNING.ORDER);
+		private final Property<Integer> machineId = new FilterDAO.PropertyDAO<Integer>(MACHINE.ID);
+		private final Property<String> machineName = new FilterDAO.PropertyDAO<String>(MACHINE.NAME);
+		private final Property<Integer> productId = new FilterDAO.PropertyDAO<Integer>(PRODUCT.ID);
+		private final Property<String> productName = new FilterDAO.PropertyDAO<String>(PRODUCT.NAME);
+		private final Property<Double> width = new FilterDAO.PropertyDAO<Double>(PLANNING.WIDTH);
+		private final Property<Double> length = new FilterDAO.PropertyDAO<Double>(PLANNING.LENGTH);
+		private final Property<Integer> materialUpId = new FilterDAO.PropertyDAO<Integer>(MATERIAL_UP.ID);
+		private final Property<String> materialUpName = new FilterDAO.PropertyDAO<String>(MATERIAL_UP.NAME);
+		private final Property<Integer> rollUpId = new FilterDAO.PropertyDAO<Integer>(ROLL_UP.ID);
+		private final Property<String> rollUpName = new FilterDAO.PropertyDAO<String>(ROLL_UP.NAME);
+		private final Property<Double> rollUpWidth = new FilterDAO.PropertyDAO<Double>(PLANNING.ROLL_UP_WIDTH);
+		private final Property<Double> rollUpLength = new FilterDAO.PropertyDAO<Double>(PLANNING.ROLL_UP_LENGTH);
+		private final Property<Integer> materialDownId = new FilterDAO.PropertyDAO<Integer>(MATERIAL_DOWN.ID);
+		private final Property<String> materialDownName = new FilterDAO.PropertyDAO<String>(MATERIAL_DOWN.NAME);
+		private final Property<Integer> rollDownId = new FilterDAO.PropertyDAO<Integer>(ROLL_DOWN.ID);
+		private final Property<String> rollDownName = new FilterDAO.PropertyDAO<String>(ROLL_DOWN.NAME);
+		private final Property<Double> rollDownWidth = new FilterDAO.PropertyDAO<Double>(PLANNING.ROLL_DOWN_WIDTH);
+		private final Property<Double> rollDownLength = new FilterDAO.PropertyDAO<Double>(PLANNING.ROLL_DOWN_LENGTH);
+		private final Property<Double> amount = new FilterDAO.PropertyDAO<Double>(PLANNING.AMOUNT);
+		private final Property<Integer> blowUnits = new FilterDAO.PropertyDAO<Integer>(PLANNING.BLOW_UNITS);
+		private final Property<Double> meters = new FilterDAO.PropertyDAO<Double>(PLANNING.METERS);
+		private final Property<Double> blows = new FilterDAO.PropertyDAO<Double>(PLANNING.BLOWS);
+		private final Property<Double> blowsMinute = new FilterDAO.PropertyDAO<Double>(PLANNING.BLOWS_MINUTE);
+		private final Property<Double> minute = new FilterDAO.PropertyDAO<Double>(PLANNING.MINUTES);
+		private final Property<String> creationUser = new FilterDAO.PropertyDAO<String>(PLANNING.CREATION_USER);
+		private final Property<Timestamp> creationDate = new FilterDAO.PropertyDAO<Timestamp>(PLANNING.CREATION_DATE);
+		private final Property<String> modificationUser = new FilterDAO.PropertyDAO<String>(PLANNING.MODIFICATION_USER);
+		private final Property<Timestamp> modificationDate = new FilterDAO.PropertyDAO<Timestamp>(PLANNING.MODIFICATION_DATE);
+
+		protected Condition[] getConditions(DBContext ctx, PlanningFilter filter) {
 			if (filter == null) return new Condition[] { DSL.trueCondition() }; 
 			FilterDAO filterDAO = (FilterDAO) filter.filter(this);
 			if (filterDAO == null) return new Condition[0];
-			return new Condition[] { filterDAO.getCondition() };
+			return new Condition[] { filterDAO.getCondition(ctx.getDslContext()) };
 		}
-		@Override public Property<Integer> getIdProperty() {return new FilterDAO.PropertyDAO<Integer>(PLANNING.ID);} 
-		@Override public Property<Integer> getDomainProperty() {return new FilterDAO.PropertyDAO<Integer>(PLANNING.DOMAIN);}
-		@Override public Property<Date> getDateProperty() {return new FilterDAO.PropertyDAO<Date>(PLANNING.DATE);} 
-		@Override public Property<Integer> getOrderProperty() {return new FilterDAO.PropertyDAO<Integer>(PLANNING.ORDER);} 
-		@Override public Property<Integer> getMachineIdProperty() {return new FilterDAO.PropertyDAO<Integer>(MACHINE.ID);} 
-		@Override public Property<String> getMachineNameProperty() {return new FilterDAO.PropertyDAO<String>(MACHINE.NAME);}
-		@Override public Property<Integer> getProductIdProperty() {return new FilterDAO.PropertyDAO<Integer>(PRODUCT.ID);} 
-		@Override public Property<String> getProductNameProperty() {return new FilterDAO.PropertyDAO<String>(PRODUCT.NAME);}
-		@Override public Property<Double> getWidthProperty() {return new FilterDAO.PropertyDAO<Double>(PLANNING.WIDTH);}
-		@Override public Property<Double> getLengthProperty() {return new FilterDAO.PropertyDAO<Double>(PLANNING.LENGTH);}
-		@Override public Property<Integer> getMaterialUpIdProperty() {return new FilterDAO.PropertyDAO<Integer>(MATERIAL_UP.ID);} 
-		@Override public Property<String> getMaterialUpNameProperty() {return new FilterDAO.PropertyDAO<String>(MATERIAL_UP.NAME);}
-		@Override public Property<Integer> getRollUpIdProperty() {return new FilterDAO.PropertyDAO<Integer>(ROLL_UP.ID);} 
-		@Override public Property<String> getRollUpNameProperty() {return new FilterDAO.PropertyDAO<String>(ROLL_UP.NAME);}
-		@Override public Property<Double> getRollUpWidthProperty() {return new FilterDAO.PropertyDAO<Double>(PLANNING.ROLL_UP_WIDTH);}
-		@Override public Property<Double> getRollUpLengthProperty() {return new FilterDAO.PropertyDAO<Double>(PLANNING.ROLL_UP_LENGTH);}
-		@Override public Property<Integer> getMaterialDownIdProperty() {return new FilterDAO.PropertyDAO<Integer>(MATERIAL_DOWN.ID);} 
-		@Override public Property<String> getMaterialDownNameProperty() {return new FilterDAO.PropertyDAO<String>(MATERIAL_DOWN.NAME);}
-		@Override public Property<Integer> getRollDownIdProperty() {return new FilterDAO.PropertyDAO<Integer>(ROLL_DOWN.ID);} 
-		@Override public Property<String> getRollDownNameProperty() {return new FilterDAO.PropertyDAO<String>(ROLL_DOWN.NAME);}
-		@Override public Property<Double> getRollDownWidthProperty() {return new FilterDAO.PropertyDAO<Double>(PLANNING.ROLL_DOWN_WIDTH);}
-		@Override public Property<Double> getRollDownLengthProperty() {return new FilterDAO.PropertyDAO<Double>(PLANNING.ROLL_DOWN_LENGTH);}
-		@Override public Property<Double> getAmountProperty() {return new FilterDAO.PropertyDAO<Double>(PLANNING.AMOUNT);}
-		@Override public Property<Integer> getBlowUnitsProperty() {return new FilterDAO.PropertyDAO<Integer>(PLANNING.BLOW_UNITS);}
-		@Override public Property<Double> getMetersProperty() {return new FilterDAO.PropertyDAO<Double>(PLANNING.METERS);}
-		@Override public Property<Double> getBlowsProperty() {return new FilterDAO.PropertyDAO<Double>(PLANNING.BLOWS);}
-		@Override public Property<Double> getBlowsMinuteProperty() {return new FilterDAO.PropertyDAO<Double>(PLANNING.BLOWS_MINUTE);}
-		@Override public Property<Double> getMinuteProperty() {return new FilterDAO.PropertyDAO<Double>(PLANNING.MINUTES);}
+		@Override public Property<Integer> getIdProperty() {return id;}
+		@Override public Property<Integer> getDomainProperty() {return domain;}
+		@Override public Property<Date> getDateProperty() {return date;}
+		@Override public Property<Integer> getOrderProperty() {return order;}
+		@Override public Property<Integer> getMachineIdProperty() {return machineId;}
+		@Override public Property<String> getMachineNameProperty() {return machineName;}
+		@Override public Property<Integer> getProductIdProperty() {return productId;}
+		@Override public Property<String> getProductNameProperty() {return productName;}
+		@Override public Property<Double> getWidthProperty() {return width;}
+		@Override public Property<Double> getLengthProperty() {return length;}
+		@Override public Property<Integer> getMaterialUpIdProperty() {return materialUpId;}
+		@Override public Property<String> getMaterialUpNameProperty() {return materialUpName;}
+		@Override public Property<Integer> getRollUpIdProperty() {return rollUpId;}
+		@Override public Property<String> getRollUpNameProperty() {return rollUpName;}
+		@Override public Property<Double> getRollUpWidthProperty() {return rollUpWidth;}
+		@Override public Property<Double> getRollUpLengthProperty() {return rollUpLength;}
+		@Override public Property<Integer> getMaterialDownIdProperty() {return materialDownId;}
+		@Override public Property<String> getMaterialDownNameProperty() {return materialDownName;}
+		@Override public Property<Integer> getRollDownIdProperty() {return rollDownId;}
+		@Override public Property<String> getRollDownNameProperty() {return rollDownName;}
+		@Override public Property<Double> getRollDownWidthProperty() {return rollDownWidth;}
+		@Override public Property<Double> getRollDownLengthProperty() {return rollDownLength;}
+		@Override public Property<Double> getAmountProperty() {return amount;}
+		@Override public Property<Integer> getBlowUnitsProperty() {return blowUnits;}
+		@Override public Property<Double> getMetersProperty() {return meters;}
+		@Override public Property<Double> getBlowsProperty() {return blows;}
+		@Override public Property<Double> getBlowsMinuteProperty() {return blowsMinute;}
+		@Override public Property<Double> getMinuteProperty() {return minute;}
 		
-		@Override public Property<String> getCreationUserProperty() {return new FilterDAO.PropertyDAO<String>(PLANNING.CREATION_USER);}
-		@Override public Property<Timestamp> getCreationDateProperty() {return new FilterDAO.PropertyDAO<Timestamp>(PLANNING.CREATION_DATE);}
-		@Override public Property<String> getModificationUserProperty() {return new FilterDAO.PropertyDAO<String>(PLANNING.MODIFICATION_USER);}
-		@Override public Property<Timestamp> getModificationDateProperty() {return new FilterDAO.PropertyDAO<Timestamp>(PLANNING.MODIFICATION_DATE);}
+		@Override public Property<String> getCreationUserProperty() {return creationUser;}
+		@Override public Property<Timestamp> getCreationDateProperty() {return creationDate;}
+		@Override public Property<String> getModificationUserProperty() {return modificationUser;}
+		@Override public Property<Timestamp> getModificationDateProperty() {return modificationDate;}
 	}
-	private static SelectOnConditionStep<Record> getSelect(DBContext ctx) {
+	private static SelectConditionStep<Record> getSelect(DBContext ctx) {
 		return ctx.getDslContext().select()
 				.from( PLANNING )
-				.join(MACHINE).on(PLANNING.MACHINE.eq(MACHINE.ID))
-				.join(PRODUCT).on(PLANNING.PRODUCT.eq(PRODUCT.ID))
-				.join(MATERIAL_UP).on(PLANNING.MATERIAL_UP.eq(MATERIAL.ID))
-				.join(ROLL_UP).on(PLANNING.ROLL_UP.eq(ROLL.ID))
-				.join(MATERIAL_DOWN).on(PLANNING.MATERIAL_DOWN.eq(MATERIAL.ID))
-				.join(ROLL_DOWN).on(PLANNING.ROLL_DOWN.eq(ROLL.ID))
+				.join(MACHINE).on(DomainDAO.on(ctx, PLANNING.MACHINE, MACHINE.ID, MACHINE.DOMAIN))
+				.join(PRODUCT).on(DomainDAO.on(ctx, PLANNING.PRODUCT, PRODUCT.ID, PRODUCT.DOMAIN))
+				.join(MATERIAL_UP).on(DomainDAO.on(ctx, PLANNING.MATERIAL_UP, MATERIAL_UP.ID, MATERIAL_UP.DOMAIN))
+				.join(ROLL_UP).on(DomainDAO.on(ctx, PLANNING.ROLL_UP, ROLL_UP.ID, ROLL_UP.DOMAIN))
+				.join(MATERIAL_DOWN).on(DomainDAO.on(ctx, PLANNING.MATERIAL_DOWN, MATERIAL_DOWN.ID, MATERIAL_DOWN.DOMAIN))
+				.join(ROLL_DOWN).on(DomainDAO.on(ctx, PLANNING.ROLL_DOWN, ROLL_DOWN.ID, ROLL_DOWN.DOMAIN))
+				.where(DomainDAO.of(ctx, PLANNING.DOMAIN))
 				;
 	}
 	
 	public static Planning getPlanning(DBContext ctx, Integer id) {
 		return getSelect(ctx)
-			.where(PLANNING.ID.eq(id))
+			.and(PLANNING.ID.eq(id))
 			.fetch()
 			.stream()
 			.map( new PlanningMapper() )
@@ -99,13 +141,59 @@ public class PlanningDAO {
 	
 	public static LinkedList<Planning> getPlannings(DBContext ctx, PlanningFilter filter){
 		return getSelect(ctx)
-			.where(PLANNING_PROPERTIES.getConditions(filter))
+			.and(DSL.and(PLANNING_PROPERTIES.getConditions(ctx, filter)))
 			.fetch()
 			.stream()
 			.map( new PlanningMapper() )
 			.collect(Collectors.toCollection(LinkedList::new));
 	}
 	
+	/**
+	 * Recorre las l&iacute;neas del filtro ordenadas por fecha, m&aacute;quina y orden sin cargarlas en memoria:
+	 * se leen del cursor de <code>EXPORT_FETCH_SIZE</code> en <code>EXPORT_FETCH_SIZE</code> filas y cada una
+	 * se entrega a <code>consumer</code> en cuanto llega. Solo se rellenan los datos que se exportan.
+	 * 
+	 * @return las l&iacute;neas recorridas
+	 */
+	public static int forEachPlanning(DBContext ctx, PlanningFilter filter, Consumer<Planning> consumer) {
+		int count = 0;
+		try (Cursor<Record> cursor = ctx.getDslContext()
+				.select(PLANNING.DATE, PLANNING.ORDER, MACHINE.NAME, PRODUCT.CODE, PRODUCT.NAME, CLIENT.NAME
+					, PLANNING.WIDTH, PLANNING.LENGTH, ROLL_UP.NAME, ROLL_DOWN.NAME, PLANNING.AMOUNT
+					, PLANNING.METERS, PLANNING.BLOWS, PLANNING.MINUTES, PLANNING.COMMENT)
+				.from( PLANNING )
+				.join(MACHINE).on(DomainDAO.on(ctx, PLANNING.MACHINE, MACHINE.ID, MACHINE.DOMAIN))
+				.join(PRODUCT).on(DomainDAO.on(ctx, PLANNING.PRODUCT, PRODUCT.ID, PRODUCT.DOMAIN))
+				.leftJoin(CLIENT).on(DomainDAO.on(ctx, PLANNING.CLIENT, CLIENT.ID, CLIENT.DOMAIN))
+				.leftJoin(ROLL_UP).on(DomainDAO.on(ctx, PLANNING.ROLL_UP, ROLL_UP.ID, ROLL_UP.DOMAIN))
+				.leftJoin(ROLL_DOWN).on(DomainDAO.on(ctx, PLANNING.ROLL_DOWN, ROLL_DOWN.ID, ROLL_DOWN.DOMAIN))
+				.where(DomainDAO.of(ctx, PLANNING.DOMAIN))
+				.and(DSL.and(PLANNING_PROPERTIES.getConditions(ctx, filter)))
+				.orderBy(PLANNING.DATE, MACHINE.NAME, PLANNING.ORDER)
+				.fetchSize(EXPORT_FETCH_SIZE)
+				.fetchLazy()) {
+			for (Record rec : cursor) {
+				consumer.accept(new Planning()
+					.setDate(rec.get(PLANNING.DATE))
+					.setOrder(rec.get(PLANNING.ORDER))
+					.setMachine(new Machine().setName(rec.get(MACHINE.NAME)))
+					.setProduct(new Product().setCode(rec.get(PRODUCT.CODE)).setName(rec.get(PRODUCT.NAME)))
+					.setClient(new Client().setName(rec.get(CLIENT.NAME)))
+					.setWidth(rec.get(PLANNING.WIDTH))
+					.setLength(rec.get(PLANNING.LENGTH))
+					.setRollUp(new com.merkapack.erp.core.model.Roll().setName(rec.get(ROLL_UP.NAME)))
+					.setRollDown(new com.merkapack.erp.core.model.Roll().setName(rec.get(ROLL_DOWN.NAME)))
+					.setAmount(rec.get(PLANNING.AMOUNT))
+					.setMeters(rec.get(PLANNING.METERS))
+					.setBlows(rec.get(PLANNING.BLOWS))
+					.setMinutes(rec.get(PLANNING.MINUTES))
+					.setComments(rec.get(PLANNING.COMMENT)));
+				count++;
+			}
+		}
+		return count;
+	}
+	
 	public static LinkedList<Planning> getPlannings(DBContext ctx) {
 		return getSelect(ctx)
 			.orderBy(PRODUCT.NAME)
@@ -131,11 +219,15 @@ public class PlanningDAO {
 	}
 	
 	public static Planning insert(DBContext ctx,Planning planning) {
+		long start = System.nanoTime();
+		Timestamp now = new Timestamp( System.currentTimeMillis());
+		checkDomain(ctx, planning);
 		Integer id = ctx.getDslContext()
 			.insertInto(PLANNING)
-			.set(PLANNING.DOMAIN,planning.getDomain())
+			.set(PLANNING.DOMAIN,ctx.getDomain())
 			.set(PLANNING.DATE,new Date( planning.getDate().getTime()) )
 			.set(PLANNING.ORDER,planning.getOrder())
+			.set(PLANNING.MACHINE,planning.getMachine().getId())
 			.set(PLANNING.PRODUCT,planning.getProduct().getId())
 			.set(PLANNING.WIDTH,planning.getWidth())
 			.set(PLANNING.LENGTH,planning.getLength())
@@ -156,19 +248,32 @@ public class PlanningDAO {
 			.set(PLANNING.CLIENT,planning.getClient().getId())
 			.set(PLANNING.COMMENT,planning.getComments())
 			.set(PLANNING.CREATION_USER,ctx.getUser())
-			.set(PLANNING.CREATION_DATE, new Timestamp( System.currentTimeMillis()) )
+			.set(PLANNING.CREATION_DATE, now)
+			.set(PLANNING.VERSION, 0)
 			.returning(PLANNING.ID)
 			.fetchOne()
 			.getValue(PLANNING.ID);
-		ctx.log().info("INSERT PLANNING: (id) " + id);		
-		return getPlanning(ctx, id);
+		apply(ctx, id);
+		ctx.log().write("INSERT", "PLANNING", id, 1, start);		
+		return planning
+			.setId(id)
+			.setDomain(ctx.getDomain())
+			.setCreationUser(ctx.getUser())
+			.setCreationDate(now)
+			.setVersion(0)
+			.setDirty(false);
 	}
 	
 	public static Planning update(DBContext ctx, Planning planning) {
+		long start = System.nanoTime();
+		Timestamp now = new Timestamp( System.currentTimeMillis());
+		checkDomain(ctx, planning);
+		revert(ctx, planning.getId());
 		int count = ctx.getDslContext()
 			.update(PLANNING)
 			.set(PLANNING.DATE,new Date( planning.getDate().getTime()) )
 			.set(PLANNING.ORDER,planning.getOrder())
+			.set(PLANNING.MACHINE,planning.getMachine().getId())
 			.set(PLANNING.PRODUCT,planning.getProduct().getId())
 			.set(PLANNING.WIDTH,planning.getWidth())
 			.set(PLANNING.LENGTH,planning.getLength())
@@ -189,18 +294,60 @@ public class PlanningDAO {
 			.set(PLANNING.CLIENT,planning.getClient().getId())
 			.set(PLANNING.COMMENT,planning.getComments())
 			.set(PLANNING.MODIFICATION_USER,ctx.getUser())
-			.set(PLANNING.MODIFICATION_DATE, new Timestamp( System.currentTimeMillis()) )
+			.set(PLANNING.MODIFICATION_DATE, now)
+			.set(PLANNING.VERSION, PLANNING.VERSION.plus(1))
 			.where(PLANNING.ID.equal( planning.getId()))
+			.and(PLANNING.VERSION.equal( planning.getVersion()))
+			.and(DomainDAO.of(ctx, PLANNING.DOMAIN))
 			.execute();
-		ctx.log().info("UPDATE PLANNING ("+count+" filas) : (id) " + planning.getId());		
-		return getPlanning(ctx, planning.getId());
+		VersionDAO.checkRow(count, "PLANNING", planning.getId());
+		apply(ctx, planning.getId());
+		ctx.log().write("UPDATE", "PLANNING", planning.getId(), count, start);		
+		return planning
+			.setModificationUser(ctx.getUser())
+			.setModificationDate(now)
+			.setVersion(planning.getVersion() + 1)
+			.setDirty(false);
 	}
 	public static void delete(DBContext ctx, Planning planning) {
+		long start = System.nanoTime();
+		revert(ctx, planning.getId());
 		int count = ctx.getDslContext()
 				.delete(PLANNING)
 				.where(PLANNING.ID.equal( planning.getId()))
+				.and(PLANNING.VERSION.equal( planning.getVersion()))
+				.and(DomainDAO.of(ctx, PLANNING.DOMAIN))
 				.execute();
-			ctx.log().info("DELETE PLANNING ("+count+" filas) : (id) " + planning.getId());		
+		VersionDAO.checkRow(count, "PLANNING", planning.getId());
+			ctx.log().write("DELETE", "PLANNING", planning.getId(), count, start);		
+	}
+
+	/**
+	 * Los ids de m&aacute;quina, producto, materiales, bobinas y cliente tienen que ser del dominio.
+	 */
+	private static void checkDomain(DBContext ctx, Planning planning) {
+		DomainDAO.check(ctx, MACHINE, MACHINE.ID, MACHINE.DOMAIN, planning.getMachine().getId());
+		DomainDAO.check(ctx, PRODUCT, PRODUCT.ID, PRODUCT.DOMAIN, planning.getProduct().getId());
+		DomainDAO.check(ctx, MATERIAL, MATERIAL.ID, MATERIAL.DOMAIN
+			, planning.getMaterialUp().getId(), planning.getMaterialDown().getId());
+		DomainDAO.check(ctx, ROLL, ROLL.ID, ROLL.DOMAIN, planning.getRollUp().getId(), planning.getRollDown().getId());
+		DomainDAO.check(ctx, CLIENT, CLIENT.ID, CLIENT.DOMAIN, planning.getClient().getId());
+	}
+
+	/**
+	 * Suma la l&iacute;nea grabada a los totales diarios y consume sus metros de las bobinas.
+	 */
+	private static void apply(DBContext ctx, Integer id) {
+		PlanningStatsDAO.add(ctx, id);
+		RollStockDAO.consume(ctx, id);
+	}
+
+	/**
+	 * Deshace {@link #apply(DBContext, Integer)} con la l&iacute;nea tal como est&aacute; grabada.
+	 */
+	private static void revert(DBContext ctx, Integer id) {
+		PlanningStatsDAO.remove(ctx, id);
+		RollStockDAO.release(ctx, id);
 	}
 
 }
@@ -0,0 +1,161 @@
+package com.merkapack.erp.core.dao.jooq;
+
+import static com.merkapack.erp.master.jooq.tables.Client.CLIENT;
+import static com.merkapack.erp.master.jooq.tables.Machine.MACHINE;
+import static com.merkapack.erp.master.jooq.tables.Planning.PLANNING;
+import static com.merkapack.erp.master.jooq.tables.PlanningStats.PLANNING_STATS;
+import static com.merkapack.erp.master.jooq.tables.Product.PRODUCT;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.LinkedList;
+import java.util.stream.Collectors;
+
+import org.jooq.Condition;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+
+import com.merkapack.erp.core.basic.DBContext;
+import com.merkapack.erp.core.model.PlanningStats;
+import com.merkapack.erp.core.model.StatsParams;
+
+/**
+ * Totales diarios del plan de fabricaci&oacute;n por (dominio, fecha, m&aacute;quina, art&iacute;culo, cliente).
+ * <p>
+ * {@link PlanningDAO} los mantiene en la misma transacci&oacute;n que cada alta, baja o modificaci&oacute;n:
+ * resta la fila antigua y suma la nueva, tal como quedan grabadas en <code>planning</code>. Las
+ * consultas de estad&iacute;sticas solo leen esta tabla, sin el join del plan.
+ */
+public class PlanningStatsDAO {
+
+	private static final Field<BigDecimal> PLANNINGS = DSL.sum(PLANNING_STATS.PLANNINGS).as("sum_plannings");
+	private static final Field<BigDecimal> AMOUNT = DSL.sum(PLANNING_STATS.AMOUNT).as("sum_amount");
+	private static final Field<BigDecimal> METERS = DSL.sum(PLANNING_STATS.METERS).as("sum_meters");
+	private static final Field<BigDecimal> BLOWS = DSL.sum(PLANNING_STATS.BLOWS).as("sum_blows");
+	private static final Field<BigDecimal> MINUTES = DSL.sum(PLANNING_STATS.MINUTES).as("sum_minutes");
+	private static final Field<Integer> YEAR = DSL.year(PLANNING_STATS.DATE).as("stats_year");
+	private static final Field<Integer> MONTH = DSL.month(PLANNING_STATS.DATE).as("stats_month");
+
+	public static void add(DBContext ctx, Integer planning) {
+		apply(ctx, planning, 1);
+	}
+
+	public static void remove(DBContext ctx, Integer planning) {
+		apply(ctx, planning, -1);
+	}
+
+	private static void apply(DBContext ctx, Integer planning, int sign) {
+		Record rec = ctx.getDslContext()
+			.select(PLANNING.DOMAIN, PLANNING.DATE, PLANNING.MACHINE, PLANNING.PRODUCT, PLANNING.CLIENT
+				, PLANNING.AMOUNT, PLANNING.METERS, PLANNING.BLOWS, PLANNING.MINUTES)
+			.from(PLANNING)
+			.where(PLANNING.ID.eq(planning))
+			.and(DomainDAO.of(ctx, PLANNING.DOMAIN))
+			.fetchOne();
+		if (rec == null || rec.get(PLANNING.DATE) == null) {
+			return;
+		}
+		double amount = sign * nvl(rec.get(PLANNING.AMOUNT));
+		double meters = sign * nvl(rec.get(PLANNING.METERS));
+		double blows = sign * nvl(rec.get(PLANNING.BLOWS));
+		double minutes = sign * nvl(rec.get(PLANNING.MINUTES));
+		Condition key = PLANNING_STATS.DOMAIN.eq(rec.get(PLANNING.DOMAIN))
+			.and(PLANNING_STATS.DATE.eq(rec.get(PLANNING.DATE)))
+			.and(PLANNING_STATS.MACHINE.eq(rec.get(PLANNING.MACHINE)))
+			.and(PLANNING_STATS.PRODUCT.eq(rec.get(PLANNING.PRODUCT)))
+			.and(PLANNING_STATS.CLIENT.eq(rec.get(PLANNING.CLIENT)));
+		ctx.getDslContext()
+			.insertInto(PLANNING_STATS)
+			.set(PLANNING_STATS.DOMAIN, rec.get(PLANNING.DOMAIN))
+			.set(PLANNING_STATS.DATE, rec.get(PLANNING.DATE))
+			.set(PLANNING_STATS.MACHINE, rec.get(PLANNING.MACHINE))
+			.set(PLANNING_STATS.PRODUCT, rec.get(PLANNING.PRODUCT))
+			.set(PLANNING_STATS.CLIENT, rec.get(PLANNING.CLIENT))
+			.set(PLANNING_STATS.PLANNINGS, sign)
+			.set(PLANNING_STATS.AMOUNT, amount)
+			.set(PLANNING_STATS.METERS, meters)
+			.set(PLANNING_STATS.BLOWS, blows)
+			.set(PLANNING_STATS.MINUTES, minutes)
+			.onDuplicateKeyUpdate()
+			.set(PLANNING_STATS.PLANNINGS, PLANNING_STATS.PLANNINGS.plus(sign))
+			.set(PLANNING_STATS.AMOUNT, PLANNING_STATS.AMOUNT.plus(amount))
+			.set(PLANNING_STATS.METERS, PLANNING_STATS.METERS.plus(meters))
+			.set(PLANNING_STATS.BLOWS, PLANNING_STATS.BLOWS.plus(blows))
+			.set(PLANNING_STATS.MINUTES, PLANNING_STATS.MINUTES.plus(minutes))
+			.execute();
+		if (sign < 0) {
+			ctx.getDslContext()
+				.delete(PLANNING_STATS)
+				.where(key)
+				.and(PLANNING_STATS.PLANNINGS.le(0))
+				.execute();
+		}
+	}
+
+	public static LinkedList<PlanningStats> getStats(DBContext ctx, StatsParams params) {
+		Condition condition = DomainDAO.of(ctx, PLANNING_STATS.DOMAIN)
+			.and(PLANNING_STATS.DATE.between(new Date(params.getFrom().getTime()), new Date(params.getTo().getTime())));
+		if (StatsParams.GROUP_MACHINE.equals(params.getGroup())) {
+			return getStats(ctx, condition, MACHINE, PLANNING_STATS.MACHINE, MACHINE.ID, MACHINE.DOMAIN, MACHINE.NAME);
+		}
+		if (StatsParams.GROUP_PRODUCT.equals(params.getGroup())) {
+			return getStats(ctx, condition, PRODUCT, PLANNING_STATS.PRODUCT, PRODUCT.ID, PRODUCT.DOMAIN, PRODUCT.NAME);
+		}
+		if (StatsParams.GROUP_CLIENT.equals(params.getGroup())) {
+			return getStats(ctx, condition, CLIENT, PLANNING_STATS.CLIENT, CLIENT.ID, CLIENT.DOMAIN, CLIENT.NAME);
+		}
+		if (StatsParams.GROUP_MONTH.equals(params.getGroup())) {
+			return ctx.getDslContext()
+				.select(YEAR, MONTH, PLANNINGS, AMOUNT, METERS, BLOWS, MINUTES)
+				.from(PLANNING_STATS)
+				.where(condition)
+				.groupBy(YEAR, MONTH)
+				.orderBy(YEAR, MONTH)
+				.fetch()
+				.stream()
+				.map(rec -> map(rec).setDate(Date.valueOf(LocalDate.of(rec.get(YEAR), rec.get(MONTH), 1))))
+				.collect(Collectors.toCollection(LinkedList::new));
+		}
+		return ctx.getDslContext()
+			.select(PLANNING_STATS.DATE, PLANNINGS, AMOUNT, METERS, BLOWS, MINUTES)
+			.from(PLANNING_STATS)
+			.where(condition)
+			.groupBy(PLANNING_STATS.DATE)
+			.orderBy(PLANNING_STATS.DATE)
+			.fetch()
+			.stream()
+			.map(rec -> map(rec).setDate(rec.get(PLANNING_STATS.DATE)))
+			.collect(Collectors.toCollection(LinkedList::new));
+	}
+
+	private static LinkedList<PlanningStats> getStats(DBContext ctx, Condition condition, Table<?> table
+			, Field<Integer> key, Field<Integer> id, Field<Integer> domain, Field<String> name) {
+		return ctx.getDslContext()
+			.select(id, name, PLANNINGS, AMOUNT, METERS, BLOWS, MINUTES)
+			.from(PLANNING_STATS)
+			.join(table).on(DomainDAO.on(ctx, key, id, domain))
+			.where(condition)
+			.groupBy(id, name)
+			.orderBy(MINUTES.desc())
+			.fetch()
+			.stream()
+			.map(rec -> map(rec).setId(rec.get(id)).setName(rec.get(name)))
+			.collect(Collectors.toCollection(LinkedList::new));
+	}
+
+	private static PlanningStats map(Record rec) {
+		return new PlanningStats()
+			.setPlannings(rec.get(PLANNINGS, Integer.class))
+			.setAmount(rec.get(AMOUNT, Double.class))
+			.setMeters(rec.get(METERS, Double.class))
+			.setBlows(rec.get(BLOWS, Double.class))
+			.setMinutes(rec.get(MINUTES, Double.class));
+	}
+
+	private static double nvl(Double value) {
+		return value == null ? 0d : value;
+	}
+}
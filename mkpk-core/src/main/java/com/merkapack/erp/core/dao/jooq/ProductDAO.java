@@ -10,8 +10,9 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.jooq.Condition;
+import org.jooq.Field;
 import org.jooq.Record;
-import org.jooq.SelectOnConditionStep;
+import org.jooq.SelectConditionStep;
 import org.jooq.impl.DSL;
 
 import com.merkapack.erp.core.basic.DBContext;
@@ -20,6 +21,7 @@ import com.merkapack.erp.core.model.Filter.ProductFilter;
 import com.merkapack.erp.core.model.Filter.Property;
 import com.merkapack.erp.core.model.MkpkCoreException;
 import com.merkapack.erp.core.model.Product;
+import com.merkapack.erp.core.model.ProductParams;
 import com.merkapack.erp.core.model.Properties.ProductProperties;
 import com.merkapack.erp.master.jooq.tables.Material;
 
@@ -33,40 +35,58 @@ public class ProductDAO {
 	private static final ProductPropertiesDAO PRODUCT_PROPERTIES = new ProductPropertiesDAO();
 	
 	protected static class ProductPropertiesDAO implements ProductProperties {
-		protected Condition[] getConditions(ProductFilter filter) {
+		private final Property<Integer> id = new FilterDAO.PropertyDAO<Integer>(PRODUCT.ID);
+		private final Property<Integer> domain = new FilterDAO.PropertyDAO<Integer>(PRODUCT.DOMAIN);
+		private final Property<String> code = new FilterDAO.PropertyDAO<String>(PRODUCT.CODE);
+		private final Property<String> name = new FilterDAO.PropertyDAO<String>(PRODUCT.NAME);
+		private final Property<Integer> materialUpId = new FilterDAO.PropertyDAO<Integer>(MATERIAL_UP.ID);
+		private final Property<String> materialUpName = new FilterDAO.PropertyDAO<String>(MATERIAL_UP.NAME);
+		private final Property<Integer> materialDownId = new FilterDAO.PropertyDAO<Integer>(MATERIAL_DOWN.ID);
+		private final Property<String> materialDownName = new FilterDAO.PropertyDAO<String>(MATERIAL_DOWN.NAME);
+		private final Property<Double> width = new FilterDAO.PropertyDAO<Double>(PRODUCT.WIDTH);
+		private final Property<Double> length = new FilterDAO.PropertyDAO<Double>(PRODUCT.LENGTH);
+		private final Property<Double> boxUnits = new FilterDAO.PropertyDAO<Double>(PRODUCT.BOX_UNITS);
+		private final Property<String> mold = new FilterDAO.PropertyDAO<String>(PRODUCT.MOLD);
+		private final Property<String> creationUser = new FilterDAO.PropertyDAO<String>(PRODUCT.CREATION_USER);
+		private final Property<Timestamp> creationDate = new FilterDAO.PropertyDAO<Timestamp>(PRODUCT.CREATION_DATE);
+		private final Property<String> modificationUser = new FilterDAO.PropertyDAO<String>(PRODUCT.MODIFICATION_USER);
+		private final Property<Timestamp> modificationDate = new FilterDAO.PropertyDAO<Timestamp>(PRODUCT.MODIFICATION_DATE);
+
+		protected Condition[] getConditions(DBContext ctx, ProductFilter filter) {
 			if (filter == null) return new Condition[] { DSL.trueCondition() }; 
 			FilterDAO filterDAO = (FilterDAO) filter.filter(this);
 			if (filterDAO == null) return new Condition[0];
-			return new Condition[] { filterDAO.getCondition() };
+			return new Condition[] { filterDAO.getCondition(ctx.getDslContext()) };
 		}
-		@Override public Property<Integer> getIdProperty() {return new FilterDAO.PropertyDAO<Integer>(PRODUCT.ID);} 
-		@Override public Property<Integer> getDomainProperty() {return new FilterDAO.PropertyDAO<Integer>(PRODUCT.DOMAIN);}
-		@Override public Property<String> getCodeProperty() {return new FilterDAO.PropertyDAO<String>(PRODUCT.CODE);}
-		@Override public Property<String> getNameProperty() {return new FilterDAO.PropertyDAO<String>(PRODUCT.NAME);}
-		@Override public Property<Integer> getMaterialUpIdProperty() {return new FilterDAO.PropertyDAO<Integer>(MATERIAL_UP.ID);} 
-		@Override public Property<String> getMaterialUpNameProperty() {return new FilterDAO.PropertyDAO<String>(MATERIAL_UP.NAME);}
-		@Override public Property<Integer> getMaterialDownIdProperty() {return new FilterDAO.PropertyDAO<Integer>(MATERIAL_DOWN.ID);} 
-		@Override public Property<String> getMaterialDownNameProperty() {return new FilterDAO.PropertyDAO<String>(MATERIAL_DOWN.NAME);}
-		@Override public Property<Double> getWidthProperty() {return new FilterDAO.PropertyDAO<Double>(PRODUCT.WIDTH);}
-		@Override public Property<Double> getLengthProperty() {return new FilterDAO.PropertyDAO<Double>(PRODUCT.LENGTH);}
-		@Override public Property<Double> getBoxUnitsProperty() {return new FilterDAO.PropertyDAO<Double>(PRODUCT.BOX_UNITS);}
-		@Override public Property<String> getMoldProperty() {return new FilterDAO.PropertyDAO<String>(PRODUCT.MOLD);}
-		@Override public Property<String> getCreationUserProperty() {return new FilterDAO.PropertyDAO<String>(PRODUCT.CREATION_USER);}
-		@Override public Property<Timestamp> getCreationDateProperty() {return new FilterDAO.PropertyDAO<Timestamp>(PRODUCT.CREATION_DATE);}
-		@Override public Property<String> getModificationUserProperty() {return new FilterDAO.PropertyDAO<String>(PRODUCT.MODIFICATION_USER);}
-		@Override public Property<Timestamp> getModificationDateProperty() {return new FilterDAO.PropertyDAO<Timestamp>(PRODUCT.MODIFICATION_DATE);}
+		@Override public Property<Integer> getIdProperty() {return id;}
+		@Override public Property<Integer> getDomainProperty() {return domain;}
+		@Override public Property<String> getCodeProperty() {return code;}
+		@Override public Property<String> getNameProperty() {return name;}
+		@Override public Property<Integer> getMaterialUpIdProperty() {return materialUpId;}
+		@Override public Property<String> getMaterialUpNameProperty() {return materialUpName;}
+		@Override public Property<Integer> getMaterialDownIdProperty() {return materialDownId;}
+		@Override public Property<String> getMaterialDownNameProperty() {return materialDownName;}
+		@Override public Property<Double> getWidthProperty() {return width;}
+		@Override public Property<Double> getLengthProperty() {return length;}
+		@Override public Property<Double> getBoxUnitsProperty() {return boxUnits;}
+		@Override public Property<String> getMoldProperty() {return mold;}
+		@Override public Property<String> getCreationUserProperty() {return creationUser;}
+		@Override public Property<Timestamp> getCreationDateProperty() {return creationDate;}
+		@Override public Property<String> getModificationUserProperty() {return modificationUser;}
+		@Override public Property<Timestamp> getModificationDateProperty() {return modificationDate;}
 	}
-	private static SelectOnConditionStep<Record> getSelect(DBContext ctx) {
+	private static SelectConditionStep<Record> getSelect(DBContext ctx) {
 		return ctx.getDslContext().select()
 				.from( PRODUCT )
-				.join(MATERIAL_UP).on(PRODUCT.MATERIAL_UP.eq(MATERIAL_UP.ID))
-				.join(MATERIAL_DOWN).on(PRODUCT.MATERIAL_DOWN.eq(MATERIAL_DOWN.ID))
+				.join(MATERIAL_UP).on(DomainDAO.on(ctx, PRODUCT.MATERIAL_UP, MATERIAL_UP.ID, MATERIAL_UP.DOMAIN))
+				.join(MATERIAL_DOWN).on(DomainDAO.on(ctx, PRODUCT.MATERIAL_DOWN, MATERIAL_DOWN.ID, MATERIAL_DOWN.DOMAIN))
+				.where(DomainDAO.of(ctx, PRODUCT.DOMAIN))
 				;
 	}
 	
 	public static Stream<Product> getProducts(DBContext ctx, int offset, int count, ProductFilter filter){
 		return getSelect(ctx)
-			.where(PRODUCT_PROPERTIES.getConditions(filter))
+			.and(DSL.and(PRODUCT_PROPERTIES.getConditions(ctx, filter)))
 			.limit(offset,count)
 			.fetch()
 			.stream()
@@ -74,8 +94,32 @@ public class ProductDAO {
 			;
 	}
 	
+	/**
+	 * P&aacute;gina ordenada por la columna pedida y despu&eacute;s por id, para que las p&aacute;ginas no se solapen.
+	 */
+	public static LinkedList<Product> getProductList(DBContext ctx, int offset, int count, ProductFilter filter
+			, String sort, boolean ascending){
+		Field<?> field = getSortField(sort);
+		return getSelect(ctx)
+			.and(DSL.and(PRODUCT_PROPERTIES.getConditions(ctx, filter)))
+			.orderBy(ascending?field.asc():field.desc(), PRODUCT.ID.asc())
+			.limit(offset,count)
+			.fetch()
+			.stream()
+			.map( new ProductMapper() )
+			.collect(Collectors.toCollection(LinkedList::new));
+	}
+
+	private static Field<?> getSortField(String sort) {
+		if (ProductParams.SORT_NAME.equals(sort)) return PRODUCT.NAME;
+		if (ProductParams.SORT_MATERIAL_UP.equals(sort)) return MATERIAL_UP.NAME;
+		if (ProductParams.SORT_MATERIAL_DOWN.equals(sort)) return MATERIAL_DOWN.NAME;
+		if (ProductParams.SORT_LENGTH.equals(sort)) return PRODUCT.LENGTH;
+		if (ProductParams.SORT_WIDTH.equals(sort)) return PRODUCT.WIDTH;
+		return PRODUCT.CODE;
+	}
+
 	public static LinkedList<Product> getProductList(DBContext ctx, int offset, int count, ProductFilter filter){
-		System.out.println("getProductList");
 		return getProducts(ctx, offset, count,filter)
 				.collect(Collectors.toCollection(LinkedList::new));
 	}
@@ -92,6 +136,8 @@ public class ProductDAO {
 				return insert(ctx, product);
 			} 
 			return update(ctx, product);
+		} catch (MkpkCoreException e) {
+			throw e;
 		} catch (Throwable t) {
 			LOGGER.severe(t.getMessage());
 			t.printStackTrace();
@@ -99,9 +145,13 @@ public class ProductDAO {
 		}
 	}
 	public static Product insert(DBContext ctx,Product product) {
+		long start = System.nanoTime();
+		Timestamp now = new Timestamp( System.currentTimeMillis());
+		DomainDAO.check(ctx, MATERIAL, MATERIAL.ID, MATERIAL.DOMAIN
+			, product.getMaterialUp().getId(), product.getMaterialDown().getId());
 		Integer id = ctx.getDslContext()
 			.insertInto(PRODUCT)
-			.set(PRODUCT.DOMAIN,product.getDomain())
+			.set(PRODUCT.DOMAIN,ctx.getDomain())
 			.set(PRODUCT.CODE,product.getCode())
 			.set(PRODUCT.NAME,product.getName())
 			.set(PRODUCT.MATERIAL_UP,product.getMaterialUp().getId())
@@ -111,15 +161,26 @@ public class ProductDAO {
 			.set(PRODUCT.BOX_UNITS,product.getBoxUnits())
 			.set(PRODUCT.MOLD,product.getMold())
 			.set(PRODUCT.CREATION_USER,ctx.getUser())
-			.set(PRODUCT.CREATION_DATE, new Timestamp( System.currentTimeMillis()) )
+			.set(PRODUCT.CREATION_DATE, now)
+			.set(PRODUCT.VERSION, 0)
 			.returning(PRODUCT.ID)
 			.fetchOne()
 			.getValue(PRODUCT.ID);
-		ctx.log().info("INSERT PRODUCT: (id) " + id);		
-		return getProduct(ctx, id);
+		ctx.log().write("INSERT", "PRODUCT", id, 1, start);		
+		return product
+			.setId(id)
+			.setDomain(ctx.getDomain())
+			.setCreationUser(ctx.getUser())
+			.setCreationDate(now)
+			.setVersion(0)
+			.setDirty(false);
 	}
 	
 	public static Product update(DBContext ctx, Product product) {
+		long start = System.nanoTime();
+		Timestamp now = new Timestamp( System.currentTimeMillis());
+		DomainDAO.check(ctx, MATERIAL, MATERIAL.ID, MATERIAL.DOMAIN
+			, product.getMaterialUp().getId(), product.getMaterialDown().getId());
 		int count = ctx.getDslContext()
 			.update(PRODUCT)
 			.set(PRODUCT.NAME,product.getName())
@@ -128,18 +189,30 @@ public class ProductDAO {
 			.set(PRODUCT.WIDTH,product.getWidth())
 			.set(PRODUCT.LENGTH,product.getLength())
 			.set(PRODUCT.MODIFICATION_USER,ctx.getUser())
-			.set(PRODUCT.MODIFICATION_DATE, new Timestamp( System.currentTimeMillis()) )
+			.set(PRODUCT.MODIFICATION_DATE, now)
+			.set(PRODUCT.VERSION, PRODUCT.VERSION.plus(1))
 			.where(PRODUCT.ID.equal( product.getId()))
+			.and(PRODUCT.VERSION.equal( product.getVersion()))
+			.and(DomainDAO.of(ctx, PRODUCT.DOMAIN))
 			.execute();
-		ctx.log().info("UPDATE PRODUCT ("+count+" filas) : (id) " + product.getId());		
-		return getProduct(ctx, product.getId());
+		VersionDAO.checkRow(count, "PRODUCT", product.getId());
+		ctx.log().write("UPDATE", "PRODUCT", product.getId(), count, start);		
+		return product
+			.setModificationUser(ctx.getUser())
+			.setModificationDate(now)
+			.setVersion(product.getVersion() + 1)
+			.setDirty(false);
 	}
 	public static void delete(DBContext ctx, Product product) {
+		long start = System.nanoTime();
 		int count = ctx.getDslContext()
 				.delete(PRODUCT)
 				.where(PRODUCT.ID.equal( product.getId()))
+				.and(PRODUCT.VERSION.equal( product.getVersion()))
+				.and(DomainDAO.of(ctx, PRODUCT.DOMAIN))
 				.execute();
-			ctx.log().info("DELETE PRODUCT ("+count+" filas) : (id) " + product.getId());		
+		VersionDAO.checkRow(count, "PRODUCT", product.getId());
+			ctx.log().write("DELETE", "PRODUCT", product.getId(), count, start);		
 	}
 
 }
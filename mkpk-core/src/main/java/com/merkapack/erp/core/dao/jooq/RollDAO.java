@@ -2,14 +2,17 @@ package com.merkapack.erp.core.dao.jooq;
 
 import static com.merkapack.erp.master.jooq.tables.Material.MATERIAL;
 import static com.merkapack.erp.master.jooq.tables.Roll.ROLL;
+import static com.merkapack.erp.master.jooq.tables.RollMovement.ROLL_MOVEMENT;
 
+import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.util.LinkedList;
 import java.util.stream.Collectors;
 
 import org.jooq.Condition;
+import org.jooq.Field;
 import org.jooq.Record;
-import org.jooq.SelectOnConditionStep;
+import org.jooq.SelectConditionStep;
 import org.jooq.impl.DSL;
 
 import com.merkapack.erp.core.basic.DBContext;
@@ -25,33 +28,48 @@ public class RollDAO {
 	private static final RollPropertiesDAO ROLL_PROPERTIES = new RollPropertiesDAO();
 
 	protected static class RollPropertiesDAO implements RollProperties {
-		protected Condition[] getConditions(RollFilter filter) {
+		private final Property<Integer> id = new FilterDAO.PropertyDAO<Integer>(ROLL.ID);
+		private final Property<Integer> domain = new FilterDAO.PropertyDAO<Integer>(ROLL.DOMAIN);
+		private final Property<String> name = new FilterDAO.PropertyDAO<String>(ROLL.NAME);
+		private final Property<Double> width = new FilterDAO.PropertyDAO<Double>(ROLL.WIDTH);
+		private final Property<Double> length = new FilterDAO.PropertyDAO<Double>(ROLL.LENGTH);
+		private final Property<Double> remaining = new FilterDAO.PropertyDAO<Double>(ROLL.REMAINING);
+		private final Property<Integer> materialId = new FilterDAO.PropertyDAO<Integer>(MATERIAL.ID);
+		private final Property<String> materialName = new FilterDAO.PropertyDAO<String>(MATERIAL.NAME);
+		private final Property<String> creationUser = new FilterDAO.PropertyDAO<String>(ROLL.CREATION_USER);
+		private final Property<Timestamp> creationDate = new FilterDAO.PropertyDAO<Timestamp>(ROLL.CREATION_DATE);
+		private final Property<String> modificationUser = new FilterDAO.PropertyDAO<String>(ROLL.MODIFICATION_USER);
+		private final Property<Timestamp> modificationDate = new FilterDAO.PropertyDAO<Timestamp>(ROLL.MODIFICATION_DATE);
+
+		protected Condition[] getConditions(DBContext ctx, RollFilter filter) {
 			FilterDAO filterDAO = (FilterDAO) filter.filter(this);
 			if (filterDAO == null) return new Condition[0];
-			return new Condition[] { filterDAO.getCondition() };
+			return new Condition[] { filterDAO.getCondition(ctx.getDslContext()) };
 		}
-		@Override public Property<Integer> getIdProperty() {return new FilterDAO.PropertyDAO<Integer>(ROLL.ID);} 
-		@Override public Property<Integer> getDomainProperty() {return new FilterDAO.PropertyDAO<Integer>(ROLL.DOMAIN);}
-		@Override public Property<String> getNameProperty() {return new FilterDAO.PropertyDAO<String>(ROLL.NAME);}
-		@Override public Property<Double> getWidthProperty() {return new FilterDAO.PropertyDAO<Double>(ROLL.WIDTH);}
-		@Override public Property<Double> getLengthProperty() {return new FilterDAO.PropertyDAO<Double>(ROLL.LENGTH);}
-		@Override public Property<Integer> getMaterialIdProperty() {return new FilterDAO.PropertyDAO<Integer>(MATERIAL.ID);} 
-		@Override public Property<String> getMaterialNameProperty() {return new FilterDAO.PropertyDAO<String>(MATERIAL.NAME);}
-		@Override public Property<String> getCreationUserProperty() {return new FilterDAO.PropertyDAO<String>(ROLL.CREATION_USER);}
-		@Override public Property<Timestamp> getCreationDateProperty() {return new FilterDAO.PropertyDAO<Timestamp>(ROLL.CREATION_DATE);}
-		@Override public Property<String> getModificationUserProperty() {return new FilterDAO.PropertyDAO<String>(ROLL.MODIFICATION_USER);}
-		@Override public Property<Timestamp> getModificationDateProperty() {return new FilterDAO.PropertyDAO<Timestamp>(ROLL.MODIFICATION_DATE);}
+		@Override public Property<Integer> getIdProperty() {return id;}
+		@Override public Property<Integer> getDomainProperty() {return domain;}
+		@Override public Property<String> getNameProperty() {return name;}
+		@Override public Property<Double> getWidthProperty() {return width;}
+		@Override public Property<Double> getLengthProperty() {return length;}
+		@Override public Property<Double> getRemainingProperty() {return remaining;}
+		@Override public Property<Integer> getMaterialIdProperty() {return materialId;}
+		@Override public Property<String> getMaterialNameProperty() {return materialName;}
+		@Override public Property<String> getCreationUserProperty() {return creationUser;}
+		@Override public Property<Timestamp> getCreationDateProperty() {return creationDate;}
+		@Override public Property<String> getModificationUserProperty() {return modificationUser;}
+		@Override public Property<Timestamp> getModificationDateProperty() {return modificationDate;}
 	}
 
-	private static SelectOnConditionStep<Record> getSelect(DBContext ctx) {
+	private static SelectConditionStep<Record> getSelect(DBContext ctx) {
 		return ctx.getDslContext().select()
 				.from( ROLL )
-				.join(MATERIAL).on(ROLL.MATERIAL.eq(MATERIAL.ID));
+				.join(MATERIAL).on(DomainDAO.on(ctx, ROLL.MATERIAL, MATERIAL.ID, MATERIAL.DOMAIN))
+				.where(DomainDAO.of(ctx, ROLL.DOMAIN));
 	}
 	
 	public static Roll getRoll(DBContext ctx, Integer id) {
 		return getSelect(ctx)
-			.where(ROLL.ID.eq(id))
+			.and(ROLL.ID.eq(id))
 			.orderBy(MATERIAL.NAME,ROLL.NAME)
 			.fetch()
 			.stream()
@@ -62,7 +80,7 @@ public class RollDAO {
 	
 	public static LinkedList<Roll> getRolls(DBContext ctx, RollFilter filter){
 		return getSelect(ctx)
-			.where(ROLL_PROPERTIES.getConditions(filter))
+			.and(DSL.and(ROLL_PROPERTIES.getConditions(ctx, filter)))
 			.orderBy(ROLL.WIDTH.desc())
 			.fetch()
 			.stream()
@@ -80,11 +98,26 @@ public class RollDAO {
 	}
 	
 	public static LinkedList<Roll> getRolls(DBContext ctx, String query, Integer material) {
+		return getRolls(ctx, query, material, null);
+	}
+
+	public static LinkedList<Roll> getRolls(DBContext ctx, String query, Integer material, Double meters) {
+		return getRolls(ctx, query, material, meters, null);
+	}
+
+	/**
+	 * @param meters si no es <code>null</code>, solo las bobinas a las que les quedan al menos esos metros
+	 * (usa el &iacute;ndice por dominio, material y metros restantes)
+	 * @param planning l&iacute;nea que se est&aacute; editando (o <code>null</code>): lo que ya consume
+	 * de cada bobina se le devuelve antes de comparar, porque al guardarla se libera
+	 */
+	public static LinkedList<Roll> getRolls(DBContext ctx, String query, Integer material, Double meters, Integer planning) {
 		query = MkpkStringUtils.prependIfMissing(query, "%");
 		query = MkpkStringUtils.appendIfMissing(query, "%");
 		return getSelect(ctx)
-			.where(ROLL.NAME.like(query))
+			.and(ROLL.NAME.like(query))
 			.and(material == null?DSL.trueCondition():ROLL.MATERIAL.eq(material))
+			.and(meters == null?DSL.trueCondition():remainingAtLeast(ctx, meters, planning))
 			.fetch()
 			.stream()
 			.limit(30)
@@ -92,6 +125,25 @@ public class RollDAO {
 			.collect(Collectors.toCollection(LinkedList::new));
 	}
 	
+	private static Condition remainingAtLeast(DBContext ctx, double meters, Integer planning) {
+		if (planning == null) {
+			return ROLL.REMAINING.ge(meters);
+		}
+		// Los consumos de la lnea son movimientos negativos: restar su suma los devuelve.
+		Field<Double> consumed = DSL.field(DSL
+			.select(DSL.coalesce(DSL.sum(ROLL_MOVEMENT.METERS), BigDecimal.ZERO))
+			.from(ROLL_MOVEMENT)
+			.where(ROLL_MOVEMENT.ROLL.eq(ROLL.ID))
+			.and(ROLL_MOVEMENT.PLANNING.eq(planning))
+			.and(DomainDAO.of(ctx, ROLL_MOVEMENT.DOMAIN)))
+			.cast(Double.class);
+		return ROLL.REMAINING.ge(meters).or(ROLL.REMAINING.minus(consumed).ge(meters));
+	}
+
+	public static String getVersion(DBContext ctx) {
+		return VersionDAO.getVersion(ctx, ROLL, ROLL.DOMAIN, ROLL.ID, ROLL.CREATION_DATE, ROLL.MODIFICATION_DATE);
+	}
+	
 	public static Roll save(DBContext ctx, Roll roll) {
 		if (roll.getId() == null) {
 			return insert(ctx, roll);
@@ -99,42 +151,79 @@ public class RollDAO {
 		return update(ctx, roll);
 	}
 	public static Roll insert(DBContext ctx,Roll roll) {
+		long start = System.nanoTime();
+		Timestamp now = new Timestamp( System.currentTimeMillis());
+		DomainDAO.check(ctx, MATERIAL, MATERIAL.ID, MATERIAL.DOMAIN, roll.getMaterial().getId());
 		Integer id = ctx.getDslContext()
 			.insertInto(ROLL)
-			.set(ROLL.DOMAIN,roll.getDomain())
+			.set(ROLL.DOMAIN,ctx.getDomain())
 			.set(ROLL.NAME,roll.getName())
 			.set(ROLL.MATERIAL,roll.getMaterial().getId())
 			.set(ROLL.WIDTH,roll.getWidth())
 			.set(ROLL.LENGTH,roll.getLength())
+			.set(ROLL.REMAINING,roll.getLength())
 			.set(ROLL.CREATION_USER,ctx.getUser())
-			.set(ROLL.CREATION_DATE, new Timestamp( System.currentTimeMillis()) )
+			.set(ROLL.CREATION_DATE, now)
+			.set(ROLL.VERSION, 0)
 			.returning(ROLL.ID)
 			.fetchOne()
 			.getValue(ROLL.ID);
-		ctx.log().info("INSERT ROLL: (id) " + id);		
-		return getRoll(ctx, id);
+		ctx.log().write("INSERT", "ROLL", id, 1, start);		
+		return roll
+			.setId(id)
+			.setDomain(ctx.getDomain())
+			.setCreationUser(ctx.getUser())
+			.setCreationDate(now)
+			.setRemaining(roll.getLength())
+			.setVersion(0)
+			.setDirty(false);
 	}
 	
 	public static Roll update(DBContext ctx, Roll roll) {
+		long start = System.nanoTime();
+		Timestamp now = new Timestamp( System.currentTimeMillis());
+		DomainDAO.check(ctx, MATERIAL, MATERIAL.ID, MATERIAL.DOMAIN, roll.getMaterial().getId());
 		int count = ctx.getDslContext()
 			.update(ROLL)
 			.set(ROLL.NAME,roll.getName())
 			.set(ROLL.MATERIAL,roll.getMaterial().getId())
 			.set(ROLL.WIDTH,roll.getWidth())
+			// Antes que LENGTH: MariaDB aplica los SET en orden y aqu hace falta el largo anterior.
+			.set(ROLL.REMAINING,ROLL.REMAINING.plus(DSL.val(roll.getLength()).minus(ROLL.LENGTH)))
 			.set(ROLL.LENGTH,roll.getLength())
 			.set(ROLL.MODIFICATION_USER,ctx.getUser())
-			.set(ROLL.MODIFICATION_DATE, new Timestamp( System.currentTimeMillis()) )
+			.set(ROLL.MODIFICATION_DATE, now)
+			.set(ROLL.VERSION, ROLL.VERSION.plus(1))
 			.where(ROLL.ID.equal( roll.getId()))
+			.and(ROLL.VERSION.equal( roll.getVersion()))
+			.and(DomainDAO.of(ctx, ROLL.DOMAIN))
 			.execute();
-		ctx.log().info("UPDATE ROLL ("+count+" filas) : (id) " + roll.getId());		
-		return getRoll(ctx, roll.getId());
+		VersionDAO.checkRow(count, "ROLL", roll.getId());
+		ctx.log().write("UPDATE", "ROLL", roll.getId(), count, start);		
+		// Lo que queda lo cambian tambin los consumos del plan, que no tocan la versin.
+		Double remaining = ctx.getDslContext()
+			.select(ROLL.REMAINING)
+			.from(ROLL)
+			.where(ROLL.ID.equal( roll.getId()))
+			.and(DomainDAO.of(ctx, ROLL.DOMAIN))
+			.fetchOne(ROLL.REMAINING);
+		return roll
+			.setRemaining(remaining)
+			.setModificationUser(ctx.getUser())
+			.setModificationDate(now)
+			.setVersion(roll.getVersion() + 1)
+			.setDirty(false);
 	}
 	public static void delete(DBContext ctx, Roll roll) {
+		long start = System.nanoTime();
 		int count = ctx.getDslContext()
 				.delete(ROLL)
 				.where(ROLL.ID.equal( roll.getId()))
+				.and(ROLL.VERSION.equal( roll.getVersion()))
+				.and(DomainDAO.of(ctx, ROLL.DOMAIN))
 				.execute();
-			ctx.log().info("DELETE ROLL ("+count+" filas) : (id) " + roll.getId());		
+		VersionDAO.checkRow(count, "ROLL", roll.getId());
+			ctx.log().write("DELETE", "ROLL", roll.getId(), count, start);		
 	}
 
 }
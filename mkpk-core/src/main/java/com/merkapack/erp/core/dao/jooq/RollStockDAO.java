@@ -0,0 +1,81 @@
+package com.merkapack.erp.core.dao.jooq;
+
+import static com.merkapack.erp.master.jooq.tables.Planning.PLANNING;
+import static com.merkapack.erp.master.jooq.tables.Roll.ROLL;
+import static com.merkapack.erp.master.jooq.tables.RollMovement.ROLL_MOVEMENT;
+
+import java.sql.Timestamp;
+
+import org.jooq.Record;
+import org.jooq.impl.DSL;
+
+import com.merkapack.erp.core.basic.DBContext;
+
+/**
+ * Existencias de bobinas. Cada l&iacute;nea del plan consume sus metros de la bobina superior y de la
+ * inferior. Los consumos se apuntan en <code>roll_movement</code>, que solo crece: al modificar o
+ * borrar una l&iacute;nea se apunta la devoluci&oacute;n de lo que consum&iacute;a. A la vez se actualiza
+ * <code>roll.remaining</code>, as&iacute; que los metros que quedan se leen sin sumar el hist&oacute;rico.
+ * <p>
+ * {@link PlanningDAO} lo llama en la misma transacci&oacute;n que cada alta, baja o modificaci&oacute;n.
+ */
+public class RollStockDAO {
+
+	public static void consume(DBContext ctx, Integer planning) {
+		apply(ctx, planning, -1);
+	}
+
+	public static void release(DBContext ctx, Integer planning) {
+		apply(ctx, planning, 1);
+	}
+
+	private static void apply(DBContext ctx, Integer planning, int sign) {
+		Record rec = ctx.getDslContext()
+			.select(PLANNING.DOMAIN, PLANNING.ROLL_UP, PLANNING.ROLL_DOWN, PLANNING.METERS)
+			.from(PLANNING)
+			.where(PLANNING.ID.eq(planning))
+			.and(DomainDAO.of(ctx, PLANNING.DOMAIN))
+			.fetchOne();
+		if (rec == null || rec.get(PLANNING.METERS) == null || rec.get(PLANNING.METERS) == 0) {
+			return;
+		}
+		double meters = sign * rec.get(PLANNING.METERS);
+		move(ctx, rec.get(PLANNING.DOMAIN), rec.get(PLANNING.ROLL_UP), planning, meters);
+		move(ctx, rec.get(PLANNING.DOMAIN), rec.get(PLANNING.ROLL_DOWN), planning, meters);
+	}
+
+	private static void move(DBContext ctx, Integer domain, Integer roll, Integer planning, double meters) {
+		if (roll == null) {
+			return;
+		}
+		ctx.getDslContext()
+			.insertInto(ROLL_MOVEMENT)
+			.set(ROLL_MOVEMENT.DOMAIN, domain)
+			.set(ROLL_MOVEMENT.ROLL, roll)
+			.set(ROLL_MOVEMENT.PLANNING, planning)
+			.set(ROLL_MOVEMENT.METERS, meters)
+			.set(ROLL_MOVEMENT.CREATION_USER, ctx.getUser())
+			.set(ROLL_MOVEMENT.CREATION_DATE, new Timestamp( System.currentTimeMillis()) )
+			.execute();
+		ctx.getDslContext()
+			.update(ROLL)
+			.set(ROLL.REMAINING, ROLL.REMAINING.plus(meters))
+			.where(ROLL.ID.eq(roll))
+			.and(DomainDAO.of(ctx, ROLL.DOMAIN))
+			.execute();
+	}
+
+	/**
+	 * Cambia con cada movimiento: forma parte del sello de versi&oacute;n de las bobinas.
+	 */
+	public static String getVersion(DBContext ctx) {
+		Integer last = ctx.getDslContext()
+			.select(DSL.max(ROLL_MOVEMENT.ID))
+			.from(ROLL_MOVEMENT)
+			.where(DomainDAO.of(ctx, ROLL_MOVEMENT.DOMAIN))
+			.fetchOne()
+			.value1();
+		return String.valueOf(last == null ? 0 : last);
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.merkapack.erp.core.dao.jooq;
+
+import java.sql.Timestamp;
+
+import org.jooq.Field;
+import org.jooq.Record4;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+
+import com.merkapack.erp.core.basic.DBContext;
+import com.merkapack.erp.core.model.MkpkCoreException;
+
+/**
+ * Sello de versi&oacute;n de una tabla maestra en el dominio del contexto: n&uacute;mero de filas, &uacute;ltimo id y &uacute;ltimas
+ * fechas de alta y modificaci&oacute;n. Cambia con cualquier alta, baja o modificaci&oacute;n
+ * hecha por los DAO, que siempre rellenan las columnas de auditor&iacute;a.
+ * Tambi&eacute;n comprueba el resultado de las escrituras con bloqueo optimista.
+ */
+public class VersionDAO {
+
+	public static String getVersion(DBContext ctx, Table<?> table, Field<Integer> domain, Field<Integer> id
+			, Field<Timestamp> creationDate, Field<Timestamp> modificationDate) {
+		Record4<Integer, Integer, Timestamp, Timestamp> record = ctx.getDslContext()
+			.select(DSL.count(), DSL.max(id), DSL.max(creationDate), DSL.max(modificationDate))
+			.from(table)
+			.where(DomainDAO.of(ctx, domain))
+			.fetchOne();
+		return record.value1()
+			+ "." + (record.value2() == null ? 0 : record.value2())
+			+ "." + (record.value3() == null ? 0 : record.value3().getTime())
+			+ "." + (record.value4() == null ? 0 : record.value4().getTime());
+	}
+
+	/**
+	 * Las modificaciones y bajas van con <code>WHERE id=? AND version=?</code>: si no han tocado
+	 * ninguna fila es que otro usuario ha cambiado o borrado el registro desde que se ley&oacute;.
+	 */
+	public static void checkRow(int count, String table, Integer id) throws MkpkCoreException {
+		if (count == 0) {
+			throw new MkpkCoreException("El registro [" + table + ":" + id + "] ha sido modificado o borrado por otro usuario. Vuelva a cargarlo.");
+		}
+	}
+
+}
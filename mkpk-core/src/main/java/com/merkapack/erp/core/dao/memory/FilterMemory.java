@@ -0,0 +1,351 @@
+package com.merkapack.erp.core.dao.memory;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import com.merkapack.erp.core.model.Filter;
+import com.merkapack.watson.util.MkpkDayUtils;
+import com.merkapack.watson.util.MkpkStringUtils;
+
+/**
+ * Filtro evaluado en memoria sobre objetos del modelo, con la misma semntica que
+ * {@link com.merkapack.erp.core.dao.jooq.FilterDAO} en MariaDB:
+ * <ul>
+ * <li>lgica de tres valores: comparar con NULL es desconocido y NOT(desconocido) tambin;</li>
+ * <li>eq(null) y ne(null) equivalen a isNull() e isNotNull(), como en jOOQ;</li>
+ * <li>los textos se comparan como latin1_spanish_ci: sin distinguir maysculas ni acentos
+ * (salvo la ) y sin tener en cuenta los espacios finales;</li>
+ * <li>las fechas (DATE) se comparan por da.</li>
+ * </ul>
+ * Los valores se preparan al construir el filtro (conjuntos de in, patrn de like) y el
+ * predicado resultante se puede reutilizar.
+ */
+public class FilterMemory<T> implements Filter {
+
+	static final int FALSE = 0;
+	static final int TRUE = 1;
+	static final int UNKNOWN = 2;
+
+	@FunctionalInterface
+	interface Condition<T> {
+		int eval(T t);
+	}
+
+	public static class PropertyMemory<T,V> implements Property<V> {
+
+		private Function<T,?> getter;
+
+		public PropertyMemory(Function<T,?> getter) {
+			this.getter = getter;
+		}
+
+		/**
+		 * Valor comparable equivalente al de la base de datos.
+		 */
+		protected Object key(Object value) {
+			if (value == null) {
+				return null;
+			}
+			if (value instanceof String) {
+				return stripEnd(fold((String) value));
+			}
+			if (value instanceof Date) {
+				return ((Date) value).getTime();
+			}
+			if (value instanceof Number) {
+				return ((Number) value).doubleValue();
+			}
+			return value;
+		}
+
+		private Object get(T t) {
+			return key(getter.apply(t));
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private FilterMemory<T> compare(V value, Function<Integer,Boolean> test) {
+			final Comparable k = (Comparable) key(value);
+			return new FilterMemory<T>(t -> {
+				Object v = get(t);
+				if (v == null || k == null) {
+					return UNKNOWN;
+				}
+				return test.apply(((Comparable) v).compareTo(k)) ? TRUE : FALSE;
+			});
+		}
+
+		@Override
+		public FilterMemory<T> eq(V value) {
+			if (value == null) {
+				return isNull();
+			}
+			return compare(value, c -> c == 0);
+		}
+
+		@Override
+		public FilterMemory<T> ne(V value) {
+			if (value == null) {
+				return isNotNull();
+			}
+			return compare(value, c -> c != 0);
+		}
+
+		@Override
+		public FilterMemory<T> le(V value) {
+			return compare(value, c -> c <= 0);
+		}
+
+		@Override
+		public FilterMemory<T> lt(V value) {
+			return compare(value, c -> c < 0);
+		}
+
+		@Override
+		public FilterMemory<T> gt(V value) {
+			return compare(value, c -> c > 0);
+		}
+
+		@Override
+		public FilterMemory<T> ge(V value) {
+			return compare(value, c -> c >= 0);
+		}
+
+		@Override
+		public FilterMemory<T> in(V[] values) {
+			final HashSet<Object> keys = keys(values);
+			final boolean hasNull = keys.remove(null);
+			return new FilterMemory<T>(t -> {
+				Object v = get(t);
+				if (v == null) {
+					return UNKNOWN;
+				}
+				if (keys.contains(v)) {
+					return TRUE;
+				}
+				return hasNull ? UNKNOWN : FALSE;
+			});
+		}
+
+		@Override
+		public FilterMemory<T> notIn(V[] values) {
+			final HashSet<Object> keys = keys(values);
+			final boolean hasNull = keys.remove(null);
+			return new FilterMemory<T>(t -> {
+				Object v = get(t);
+				if (v == null) {
+					return UNKNOWN;
+				}
+				if (keys.contains(v)) {
+					return FALSE;
+				}
+				return hasNull ? UNKNOWN : TRUE;
+			});
+		}
+
+		private HashSet<Object> keys(V[] values) {
+			HashSet<Object> keys = new HashSet<Object>();
+			for (V value : values) {
+				keys.add(key(value));
+			}
+			return keys;
+		}
+
+		@Override
+		public FilterMemory<T> isNull() {
+			return new FilterMemory<T>(t -> getter.apply(t) == null ? TRUE : FALSE);
+		}
+
+		@Override
+		public FilterMemory<T> isNotNull() {
+			return new FilterMemory<T>(t -> getter.apply(t) != null ? TRUE : FALSE);
+		}
+
+		@Override
+		public FilterMemory<T> like(V value) {
+			if (!(value instanceof String)) {
+				throw new UnsupportedOperationException();
+			}
+			final Pattern pattern = compileLike((String) value);
+			return new FilterMemory<T>(t -> {
+				Object v = getter.apply(t);
+				if (v == null) {
+					return UNKNOWN;
+				}
+				return pattern.matcher(fold(v.toString())).matches() ? TRUE : FALSE;
+			});
+		}
+
+		@Override
+		public FilterMemory<T> between(V min, V max) {
+			return ge(min).and(le(max));
+		}
+	}
+
+	/**
+	 * Propiedad de tipo DATE: se compara el da, no la hora.
+	 */
+	public static class DatePropertyMemory<T> extends PropertyMemory<T,java.sql.Date> {
+
+		public DatePropertyMemory(Function<T,Date> getter) {
+			super(getter);
+		}
+
+		@Override
+		protected Object key(Object value) {
+			return value == null ? null : MkpkDayUtils.of((Date) value);
+		}
+	}
+
+	private Condition<T> condition;
+	private Integer perPage;
+	private Integer page;
+
+	public FilterMemory(Condition<T> condition) {
+		this.condition = condition;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public FilterMemory<T> or(Filter filter) {
+		if (filter == null) {
+			return this;
+		}
+		final Condition<T> a = condition;
+		final Condition<T> b = ((FilterMemory<T>) filter).condition;
+		return new FilterMemory<T>(t -> {
+			int x = a.eval(t);
+			if (x == TRUE) {
+				return TRUE;
+			}
+			int y = b.eval(t);
+			if (y == TRUE) {
+				return TRUE;
+			}
+			return (x == FALSE && y == FALSE) ? FALSE : UNKNOWN;
+		});
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public FilterMemory<T> and(Filter filter) {
+		if (filter == null) {
+			return this;
+		}
+		final Condition<T> a = condition;
+		final Condition<T> b = ((FilterMemory<T>) filter).condition;
+		return new FilterMemory<T>(t -> {
+			int x = a.eval(t);
+			if (x == FALSE) {
+				return FALSE;
+			}
+			int y = b.eval(t);
+			if (y == FALSE) {
+				return FALSE;
+			}
+			return (x == TRUE && y == TRUE) ? TRUE : UNKNOWN;
+		});
+	}
+
+	/**
+	 * Igual que FilterDAO: niega este filtro.
+	 */
+	@Override
+	public FilterMemory<T> not(Filter filter) {
+		if (filter == null) {
+			return this;
+		}
+		final Condition<T> a = condition;
+		return new FilterMemory<T>(t -> {
+			int x = a.eval(t);
+			return x == UNKNOWN ? UNKNOWN : (x == TRUE ? FALSE : TRUE);
+		});
+	}
+
+	@Override
+	public Filter page(Integer page) {
+		this.page = page;
+		return this;
+	}
+
+	@Override
+	public Filter perPage(Integer perPage) {
+		this.perPage = perPage;
+		return this;
+	}
+
+	public Integer getPage() {
+		return page;
+	}
+
+	public Integer getPerPage() {
+		return perPage;
+	}
+
+	/**
+	 * Como en SQL, slo pasan los objetos para los que el filtro es cierto (no desconocido).
+	 */
+	public Predicate<T> getPredicate() {
+		final Condition<T> c = condition;
+		return t -> c.eval(t) == TRUE;
+	}
+
+	/**
+	 * Texto como lo compara latin1_spanish_ci: maysculas y sin acentos, salvo la .
+	 */
+	static String fold(String value) {
+		String upper = value.toUpperCase(Locale.ROOT);
+		String stripped = MkpkStringUtils.stripAccents(upper);
+		if (upper.indexOf('') < 0) {
+			return stripped;
+		}
+		char[] chars = stripped.toCharArray();
+		for (int i = 0; i < chars.length; i++) {
+			if (upper.charAt(i) == '') {
+				chars[i] = '';
+			}
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Como el PAD SPACE de MariaDB: los espacios finales no cuentan al comparar.
+	 */
+	static String stripEnd(String value) {
+		int end = value.length();
+		while (end > 0 && value.charAt(end - 1) == ' ') {
+			end--;
+		}
+		return end == value.length() ? value : value.substring(0, end);
+	}
+
+	/**
+	 * Convierte un patrn LIKE (%, _ y \ como escape) en una expresin regular.
+	 */
+	static Pattern compileLike(String like) {
+		String folded = fold(like);
+		StringBuilder regex = new StringBuilder(folded.length() + 8);
+		StringBuilder literal = new StringBuilder();
+		for (int i = 0; i < folded.length(); i++) {
+			char c = folded.charAt(i);
+			if (c == '\\' && i + 1 < folded.length()) {
+				literal.append(folded.charAt(++i));
+			} else if (c == '%' || c == '_') {
+				if (literal.length() > 0) {
+					regex.append(Pattern.quote(literal.toString()));
+					literal.setLength(0);
+				}
+				regex.append(c == '%' ? ".*" : ".");
+			} else {
+				literal.append(c);
+			}
+		}
+		if (literal.length() > 0) {
+			regex.append(Pattern.quote(literal.toString()));
+		}
+		return Pattern.compile(regex.toString(), Pattern.DOTALL);
+	}
+}
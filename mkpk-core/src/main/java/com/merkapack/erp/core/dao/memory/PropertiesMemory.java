@@ -0,0 +1,280 @@
+package com.merkapack.erp.core.dao.memory;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.merkapack.erp.core.dao.memory.FilterMemory.DatePropertyMemory;
+import com.merkapack.erp.core.dao.memory.FilterMemory.PropertyMemory;
+import com.merkapack.erp.core.model.Client;
+import com.merkapack.erp.core.model.Filter;
+import com.merkapack.erp.core.model.Filter.ClientFilter;
+import com.merkapack.erp.core.model.Filter.PlanningFilter;
+import com.merkapack.erp.core.model.Filter.ProductFilter;
+import com.merkapack.erp.core.model.Filter.Property;
+import com.merkapack.erp.core.model.Filter.RollFilter;
+import com.merkapack.erp.core.model.HasAudit;
+import com.merkapack.erp.core.model.Machine;
+import com.merkapack.erp.core.model.Material;
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.core.model.Product;
+import com.merkapack.erp.core.model.Properties.AuditProperties;
+import com.merkapack.erp.core.model.Properties.ClientProperties;
+import com.merkapack.erp.core.model.Properties.PlanningProperties;
+import com.merkapack.erp.core.model.Properties.ProductProperties;
+import com.merkapack.erp.core.model.Properties.RollProperties;
+import com.merkapack.erp.core.model.Roll;
+
+/**
+ * Propiedades del modelo para evaluar filtros en memoria. Son el equivalente de los
+ * PropertiesDAO: el mismo ProductFilter, RollFilter, ... sirve para consultar la base de
+ * datos o para filtrar una lista ya cargada.
+ * <pre>
+ * Predicate&lt;Planning&gt; p = PropertiesMemory.PLANNING.getPredicate(filter);
+ * </pre>
+ */
+public class PropertiesMemory {
+
+	public static final ProductPropertiesMemory PRODUCT = new ProductPropertiesMemory();
+	public static final RollPropertiesMemory ROLL = new RollPropertiesMemory();
+	public static final ClientPropertiesMemory CLIENT = new ClientPropertiesMemory();
+	public static final PlanningPropertiesMemory PLANNING = new PlanningPropertiesMemory();
+
+	private static Integer getId(Material material) {
+		return material == null ? null : material.getId();
+	}
+	private static String getName(Material material) {
+		return material == null ? null : material.getName();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Predicate<T> getPredicate(Filter filter) {
+		if (filter == null) {
+			return t -> true;
+		}
+		return ((FilterMemory<T>) filter).getPredicate();
+	}
+
+	/**
+	 * Aplica el filtro y, si lo tiene, la paginacin (pgina 1 = primera).
+	 */
+	private static <T> List<T> filter(Collection<T> values, Filter filter) {
+		Predicate<T> predicate = getPredicate(filter);
+		int skip = 0;
+		int limit = Integer.MAX_VALUE;
+		if (filter != null) {
+			FilterMemory<?> memory = (FilterMemory<?>) filter;
+			if (memory.getPerPage() != null) {
+				limit = memory.getPerPage();
+				if (memory.getPage() != null) {
+					skip = (memory.getPage() - 1) * limit;
+				}
+			}
+		}
+		List<T> result = new ArrayList<T>();
+		for (T value : values) {
+			if (result.size() >= limit) {
+				break;
+			}
+			if (predicate.test(value)) {
+				if (skip > 0) {
+					skip--;
+				} else {
+					result.add(value);
+				}
+			}
+		}
+		return result;
+	}
+
+	private abstract static class AuditPropertiesMemory<T extends HasAudit> implements AuditProperties {
+		private final Property<String> creationUser = property(T::getCreationUser);
+		private final Property<Timestamp> creationDate = property(T::getCreationDate);
+		private final Property<String> modificationUser = property(T::getModificationUser);
+		private final Property<Timestamp> modificationDate = property(T::getModificationDate);
+
+		protected <V> Property<V> property(Function<T,?> getter) {
+			return new PropertyMemory<T,V>(getter);
+		}
+
+		@Override public Property<String> getCreationUserProperty() {return creationUser;}
+		@Override public Property<Timestamp> getCreationDateProperty() {return creationDate;}
+		@Override public Property<String> getModificationUserProperty() {return modificationUser;}
+		@Override public Property<Timestamp> getModificationDateProperty() {return modificationDate;}
+	}
+
+	public static class ProductPropertiesMemory extends AuditPropertiesMemory<Product> implements ProductProperties {
+		private final Property<Integer> id = property(Product::getId);
+		private final Property<Integer> domain = property(Product::getDomain);
+		private final Property<String> code = property(Product::getCode);
+		private final Property<String> name = property(Product::getName);
+		private final Property<Integer> materialUpId = property(p -> getId(p.getMaterialUp()));
+		private final Property<String> materialUpName = property(p -> getName(p.getMaterialUp()));
+		private final Property<Integer> materialDownId = property(p -> getId(p.getMaterialDown()));
+		private final Property<String> materialDownName = property(p -> getName(p.getMaterialDown()));
+		private final Property<Double> width = property(Product::getWidth);
+		private final Property<Double> length = property(Product::getLength);
+		private final Property<Double> boxUnits = property(Product::getBoxUnits);
+		private final Property<String> mold = property(Product::getMold);
+
+		private ProductPropertiesMemory() {
+		}
+
+		public Predicate<Product> getPredicate(ProductFilter filter) {
+			return PropertiesMemory.getPredicate(filter == null ? null : filter.filter(this));
+		}
+		public List<Product> filter(Collection<Product> products, ProductFilter filter) {
+			return PropertiesMemory.filter(products, filter == null ? null : filter.filter(this));
+		}
+
+		@Override public Property<Integer> getIdProperty() {return id;}
+		@Override public Property<Integer> getDomainProperty() {return domain;}
+		@Override public Property<String> getCodeProperty() {return code;}
+		@Override public Property<String> getNameProperty() {return name;}
+		@Override public Property<Integer> getMaterialUpIdProperty() {return materialUpId;}
+		@Override public Property<String> getMaterialUpNameProperty() {return materialUpName;}
+		@Override public Property<Integer> getMaterialDownIdProperty() {return materialDownId;}
+		@Override public Property<String> getMaterialDownNameProperty() {return materialDownName;}
+		@Override public Property<Double> getWidthProperty() {return width;}
+		@Override public Property<Double> getLengthProperty() {return length;}
+		@Override public Property<Double> getBoxUnitsProperty() {return boxUnits;}
+		@Override public Property<String> getMoldProperty() {return mold;}
+	}
+
+	public static class RollPropertiesMemory extends AuditPropertiesMemory<Roll> implements RollProperties {
+		private final Property<Integer> id = property(Roll::getId);
+		private final Property<Integer> domain = property(Roll::getDomain);
+		private final Property<String> name = property(Roll::getName);
+		private final Property<Double> width = property(Roll::getWidth);
+		private final Property<Double> length = property(Roll::getLength);
+		private final Property<Double> remaining = property(Roll::getRemaining);
+		private final Property<Integer> materialId = property(r -> getId(r.getMaterial()));
+		private final Property<String> materialName = property(r -> getName(r.getMaterial()));
+
+		private RollPropertiesMemory() {
+		}
+
+		public Predicate<Roll> getPredicate(RollFilter filter) {
+			return PropertiesMemory.getPredicate(filter == null ? null : filter.filter(this));
+		}
+		public List<Roll> filter(Collection<Roll> rolls, RollFilter filter) {
+			return PropertiesMemory.filter(rolls, filter == null ? null : filter.filter(this));
+		}
+
+		@Override public Property<Integer> getIdProperty() {return id;}
+		@Override public Property<Integer> getDomainProperty() {return domain;}
+		@Override public Property<String> getNameProperty() {return name;}
+		@Override public Property<Double> getWidthProperty() {return width;}
+		@Override public Property<Double> getLengthProperty() {return length;}
+		@Override public Property<Double> getRemainingProperty() {return remaining;}
+		@Override public Property<Integer> getMaterialIdProperty() {return materialId;}
+		@Override public Property<String> getMaterialNameProperty() {return materialName;}
+	}
+
+	public static class ClientPropertiesMemory extends AuditPropertiesMemory<Client> implements ClientProperties {
+		private final Property<Integer> id = property(Client::getId);
+		private final Property<Integer> domain = property(Client::getDomain);
+		private final Property<String> name = property(Client::getName);
+
+		private ClientPropertiesMemory() {
+		}
+
+		public Predicate<Client> getPredicate(ClientFilter filter) {
+			return PropertiesMemory.getPredicate(filter == null ? null : filter.filter(this));
+		}
+		public List<Client> filter(Collection<Client> clients, ClientFilter filter) {
+			return PropertiesMemory.filter(clients, filter == null ? null : filter.filter(this));
+		}
+
+		@Override public Property<Integer> getIdProperty() {return id;}
+		@Override public Property<Integer> getDomainProperty() {return domain;}
+		@Override public Property<String> getNameProperty() {return name;}
+	}
+
+	public static class PlanningPropertiesMemory extends AuditPropertiesMemory<Planning> implements PlanningProperties {
+		private final Property<Integer> id = property(Planning::getId);
+		private final Property<Integer> domain = property(Planning::getDomain);
+		private final Property<Date> date = new DatePropertyMemory<Planning>(Planning::getDate);
+		private final Property<Integer> order = property(Planning::getOrder);
+		private final Property<Double> amount = property(Planning::getAmount);
+		private final Property<Integer> machineId = property(p -> getMachineId(p.getMachine()));
+		private final Property<String> machineName = property(p -> getMachineName(p.getMachine()));
+		private final Property<Integer> productId = property(p -> p.getProduct() == null ? null : p.getProduct().getId());
+		private final Property<String> productName = property(p -> p.getProduct() == null ? null : p.getProduct().getName());
+		private final Property<Double> width = property(Planning::getWidth);
+		private final Property<Double> length = property(Planning::getLength);
+		private final Property<Integer> materialUpId = property(p -> getId(p.getMaterialUp()));
+		private final Property<String> materialUpName = property(p -> getName(p.getMaterialUp()));
+		private final Property<Integer> rollUpId = property(p -> getRollId(p.getRollUp()));
+		private final Property<String> rollUpName = property(p -> getRollName(p.getRollUp()));
+		private final Property<Double> rollUpWidth = property(Planning::getRollUpWidth);
+		private final Property<Double> rollUpLength = property(Planning::getRollUpLength);
+		private final Property<Integer> materialDownId = property(p -> getId(p.getMaterialDown()));
+		private final Property<String> materialDownName = property(p -> getName(p.getMaterialDown()));
+		private final Property<Integer> rollDownId = property(p -> getRollId(p.getRollDown()));
+		private final Property<String> rollDownName = property(p -> getRollName(p.getRollDown()));
+		private final Property<Double> rollDownWidth = property(Planning::getRollDownWidth);
+		private final Property<Double> rollDownLength = property(Planning::getRollDownLength);
+		private final Property<Integer> blowUnits = property(Planning::getBlowUnits);
+		private final Property<Double> meters = property(Planning::getMeters);
+		private final Property<Double> blows = property(Planning::getBlows);
+		private final Property<Double> blowsMinute = property(Planning::getBlowsMinute);
+		private final Property<Double> minutes = property(Planning::getMinutes);
+
+		private PlanningPropertiesMemory() {
+		}
+
+		private static Integer getMachineId(Machine machine) {
+			return machine == null ? null : machine.getId();
+		}
+		private static String getMachineName(Machine machine) {
+			return machine == null ? null : machine.getName();
+		}
+		private static Integer getRollId(Roll roll) {
+			return roll == null ? null : roll.getId();
+		}
+		private static String getRollName(Roll roll) {
+			return roll == null ? null : roll.getName();
+		}
+
+		public Predicate<Planning> getPredicate(PlanningFilter filter) {
+			return PropertiesMemory.getPredicate(filter == null ? null : filter.filter(this));
+		}
+		public List<Planning> filter(Collection<Planning> plannings, PlanningFilter filter) {
+			return PropertiesMemory.filter(plannings, filter == null ? null : filter.filter(this));
+		}
+
+		@Override public Property<Integer> getIdProperty() {return id;}
+		@Override public Property<Integer> getDomainProperty() {return domain;}
+		@Override public Property<Date> getDateProperty() {return date;}
+		@Override public Property<Integer> getOrderProperty() {return order;}
+		@Override public Property<Double> getAmountProperty() {return amount;}
+		@Override public Property<Integer> getMachineIdProperty() {return machineId;}
+		@Override public Property<String> getMachineNameProperty() {return machineName;}
+		@Override public Property<Integer> getProductIdProperty() {return productId;}
+		@Override public Property<String> getProductNameProperty() {return productName;}
+		@Override public Property<Double> getWidthProperty() {return width;}
+		@Override public Property<Double> getLengthProperty() {return length;}
+		@Override public Property<Integer> getMaterialUpIdProperty() {return materialUpId;}
+		@Override public Property<String> getMaterialUpNameProperty() {return materialUpName;}
+		@Override public Property<Integer> getRollUpIdProperty() {return rollUpId;}
+		@Override public Property<String> getRollUpNameProperty() {return rollUpName;}
+		@Override public Property<Double> getRollUpWidthProperty() {return rollUpWidth;}
+		@Override public Property<Double> getRollUpLengthProperty() {return rollUpLength;}
+		@Override public Property<Integer> getMaterialDownIdProperty() {return materialDownId;}
+		@Override public Property<String> getMaterialDownNameProperty() {return materialDownName;}
+		@Override public Property<Integer> getRollDownIdProperty() {return rollDownId;}
+		@Override public Property<String> getRollDownNameProperty() {return rollDownName;}
+		@Override public Property<Double> getRollDownWidthProperty() {return rollDownWidth;}
+		@Override public Property<Double> getRollDownLengthProperty() {return rollDownLength;}
+		@Override public Property<Integer> getBlowUnitsProperty() {return blowUnits;}
+		@Override public Property<Double> getMetersProperty() {return meters;}
+		@Override public Property<Double> getBlowsProperty() {return blows;}
+		@Override public Property<Double> getBlowsMinuteProperty() {return blowsMinute;}
+		@Override public Property<Double> getMinuteProperty() {return minutes;}
+	}
+}
@@ -0,0 +1,215 @@
+package com.merkapack.erp.core.match;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+
+import com.merkapack.erp.core.model.Client;
+import com.merkapack.watson.util.MkpkStringUtils;
+import com.merkapack.watson.util.collection.IntArrayList;
+import com.merkapack.watson.util.collection.IntIntMap;
+
+/**
+ * Bsqueda aproximada de clientes por nombre, en memoria.
+ *
+ * Los nombres se normalizan (sin acentos, en maysculas, sin signos y sin la forma
+ * jurdica final: S.L., S.A., ...) y se indexan por palabra. Los candidatos que
+ * comparten alguna palabra con el nombre buscado se ordenan por distancia de
+ * Levenshtein acotada. Antes se prueba el nombre exacto y, como haca el antiguo
+ * <code>LIKE '%nombre%'</code>, los clientes que lo contienen. Los resultados se guardan,
+ * as que una instancia por importacin evita repetir bsquedas de un mismo nombre.
+ */
+public class ClientMatcher {
+
+	private static final HashSet<String> LEGAL_SUFFIXES = new HashSet<String>(Arrays.asList(
+		"SL", "SLU", "SLL", "SLNE", "SA", "SAU", "SAL", "SC", "SCOOP", "SCP", "SCA", "CB", "COOP",
+		"LTD", "LTDA", "LDA", "SRL", "SPA", "SAS", "SARL", "GMBH", "INC", "LLC", "BV"));
+	private static final HashSet<String> STOP_WORDS = new HashSet<String>(Arrays.asList(
+		"DE", "DEL", "LA", "LAS", "LOS", "EL", "Y", "E"));
+	// Distancia mxima aceptada: una edicin por cada cuatro caracteres.
+	private static final int CHARS_PER_EDIT = 4;
+
+	private final Client[] clients;
+	private final String[] names;
+	private final HashMap<String,Integer> exact = new HashMap<String,Integer>();
+	private final HashMap<String,int[]> index = new HashMap<String,int[]>();
+	// Las palabras del ndice, ordenadas para buscar por el principio.
+	private final String[] words;
+	private final HashMap<String,Client> cache = new HashMap<String,Client>();
+
+	public ClientMatcher(Collection<Client> clients) {
+		this.clients = clients.toArray(new Client[clients.size()]);
+		this.names = new String[this.clients.length];
+		HashMap<String,IntArrayList> tokens = new HashMap<String,IntArrayList>();
+		for (int i = 0; i < this.clients.length; i++) {
+			names[i] = normalize(this.clients[i].getName());
+			if (!exact.containsKey(names[i])) {
+				exact.put(names[i], i);
+			}
+			for (String token : tokens(names[i])) {
+				IntArrayList postings = tokens.get(token);
+				if (postings == null) {
+					postings = new IntArrayList(4);
+					tokens.put(token, postings);
+				}
+				postings.add(i);
+			}
+		}
+		for (String token : tokens.keySet()) {
+			index.put(token, tokens.get(token).toArray());
+		}
+		words = tokens.keySet().toArray(new String[tokens.size()]);
+		Arrays.sort(words);
+	}
+
+	/**
+	 * @param name nombre tal y como viene en el fichero
+	 * @return el cliente ms parecido o nulo si ninguno se parece lo suficiente
+	 */
+	public Client match(String name) {
+		if (cache.containsKey(name)) {
+			return cache.get(name);
+		}
+		Client client = find(name);
+		cache.put(name, client);
+		return client;
+	}
+
+	private Client find(String name) {
+		String normalized = normalize(name);
+		if (MkpkStringUtils.isEmpty(normalized)) {
+			return null;
+		}
+		Integer hit = exact.get(normalized);
+		if (hit != null) {
+			return clients[hit];
+		}
+		int contained = findContaining(normalized);
+		if (contained >= 0) {
+			return clients[contained];
+		}
+		// Candidatos: clientes con alguna palabra en comn, contando cuntas comparten.
+		IntIntMap candidates = new IntIntMap();
+		for (String token : tokens(normalized)) {
+			int[] postings = index.get(token);
+			if (postings != null) {
+				for (int id : postings) {
+					candidates.addTo(id, 1);
+				}
+			}
+		}
+		// Sin ninguna palabra en comn no se compara con todos los nombres: no se parece lo suficiente.
+		int threshold = Math.max(1, normalized.length() / CHARS_PER_EDIT);
+		int best = -1;
+		int bestDistance = Integer.MAX_VALUE;
+		int bestShared = 0;
+		for (int c = candidates.first(); c >= 0; c = candidates.next(c)) {
+			int id = candidates.keyAt(c);
+			int shared = candidates.valueAt(c);
+			// El lmite se va ajustando a la mejor distancia encontrada.
+			int limit = Math.min(threshold, bestDistance);
+			int distance = MkpkStringUtils.getLevenshteinDistance(normalized, names[id], limit);
+			if (distance < 0) {
+				continue;
+			}
+			// A igualdad, el que ms palabras comparte y despus el primero de la lista.
+			if (distance < bestDistance || (distance == bestDistance
+					&& (shared > bestShared || (shared == bestShared && id < best)))) {
+				best = id;
+				bestDistance = distance;
+				bestShared = shared;
+			}
+		}
+		return best < 0 ? null : clients[best];
+	}
+
+	/**
+	 * Clientes cuyo nombre contiene el buscado a partir del principio de una palabra; la ltima
+	 * palabra buscada puede estar a medias ("PLASTICOS GARC"). Los candidatos salen del ndice:
+	 * los que tienen una palabra que empieza por la primera palabra buscada. Gana el que empieza
+	 * por el nombre buscado, despus el nombre ms corto y despus el primero de la lista.
+	 * @return posicin del cliente o -1
+	 */
+	private int findContaining(String normalized) {
+		List<String> tokens = tokens(normalized);
+		if (tokens.isEmpty()) {
+			return -1;
+		}
+		String first = tokens.get(0);
+		int from = Arrays.binarySearch(words, first);
+		int best = -1;
+		int bestAt = -1;
+		for (int w = from < 0 ? -from - 1 : from; w < words.length && words[w].startsWith(first); w++) {
+			for (int id : index.get(words[w])) {
+				int at = indexOfWords(names[id], normalized);
+				if (at < 0) {
+					continue;
+				}
+				if (best < 0 || (at == 0 && bestAt != 0) || ((at == 0) == (bestAt == 0)
+						&& (names[id].length() < names[best].length()
+						|| (names[id].length() == names[best].length() && id < best)))) {
+					best = id;
+					bestAt = at;
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @return posicin de <code>words</code> en <code>name</code> empezando en una palabra, o -1
+	 */
+	private static int indexOfWords(String name, String words) {
+		int at = name.indexOf(words);
+		while (at > 0 && name.charAt(at - 1) != ' ') {
+			at = name.indexOf(words, at + 1);
+		}
+		return at;
+	}
+
+	/**
+	 * Normaliza un nombre de cliente: sin acentos, maysculas, slo letras y nmeros
+	 * separados por un espacio y sin la forma jurdica del final.
+	 * <pre>
+	 * normalize("Plsticos Garca, S.L.") = "PLASTICOS GARCIA"
+	 * </pre>
+	 * @param name nombre
+	 * @return nombre normalizado, nunca nulo
+	 */
+	public static String normalize(String name) {
+		if (name == null) {
+			return MkpkStringUtils.EMPTY;
+		}
+		String folded = MkpkStringUtils.stripAccents(name).toUpperCase(Locale.ROOT);
+		StringBuilder sb = new StringBuilder(folded.length());
+		for (int i = 0; i < folded.length(); i++) {
+			char c = folded.charAt(i);
+			if (Character.isLetterOrDigit(c)) {
+				sb.append(c);
+			} else if (c != '.' && sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+				// Los puntos se eliminan para que "S.L." quede como "SL".
+				sb.append(' ');
+			}
+		}
+		LinkedList<String> words = new LinkedList<String>(Arrays.asList(MkpkStringUtils.split(sb.toString(), ' ')));
+		while (words.size() > 1 && LEGAL_SUFFIXES.contains(words.getLast())) {
+			words.removeLast();
+		}
+		return MkpkStringUtils.join(words, ' ');
+	}
+
+	private static List<String> tokens(String normalized) {
+		List<String> tokens = new ArrayList<String>();
+		for (String word : MkpkStringUtils.split(normalized, ' ')) {
+			if (!STOP_WORDS.contains(word) && !tokens.contains(word)) {
+				tokens.add(word);
+			}
+		}
+		return tokens;
+	}
+}
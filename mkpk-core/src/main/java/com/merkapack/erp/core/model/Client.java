@@ -15,6 +15,7 @@ public class Client implements Serializable, HasAudit {
 	private Date creationDate;
 	private String modificationUser;
 	private Date modificationDate;
+	private int version;
 	
 	private boolean dirty = true;
 
@@ -80,5 +81,12 @@ public class Client implements Serializable, HasAudit {
 		this.modificationDate = modificationDate;
 		return this;
 	}
+	public int getVersion() {
+		return version;
+	}
+	public Client setVersion(int version) {
+		this.version = version;
+		return this;
+	}
 	
 }
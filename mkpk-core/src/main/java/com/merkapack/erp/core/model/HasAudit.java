@@ -9,4 +9,10 @@ public interface HasAudit {
 	String getModificationUser();
 	Date getModificationDate();
 
+	/**
+	 * Versi&oacute;n de la fila: sube en cada modificaci&oacute;n. Una modificaci&oacute;n o un borrado con
+	 * una versi&oacute;n que ya no es la grabada fallan en vez de pisar el cambio de otro usuario.
+	 */
+	int getVersion();
+
 }
@@ -16,6 +16,7 @@ public class Machine implements Serializable, HasAudit {
 	private Date creationDate;
 	private String modificationUser;
 	private Date modificationDate;
+	private int version;
 	
 	private boolean dirty = true;
 
@@ -93,5 +94,13 @@ public class Machine implements Serializable, HasAudit {
 		this.modificationDate = modificationDate;
 		return this;
 	}
+	@Override
+	public int getVersion() {
+		return version;
+	}
+	public Machine setVersion(int version) {
+		this.version = version;
+		return this;
+	}
 	
 }
@@ -19,6 +19,7 @@ public class Material implements Serializable, HasAudit {
 	private Date creationDate;
 	private String modificationUser;
 	private Date modificationDate;
+	private int version;
 	
 	private boolean dirty = true;
 
@@ -120,5 +121,13 @@ public class Material implements Serializable, HasAudit {
 		this.modificationDate = modificationDate;
 		return this;
 	}
+	@Override
+	public int getVersion() {
+		return version;
+	}
+	public Material setVersion(int version) {
+		this.version = version;
+		return this;
+	}
 	
 }
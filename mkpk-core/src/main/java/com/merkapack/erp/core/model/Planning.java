@@ -36,6 +36,7 @@ public class Planning implements Serializable, HasAudit, Cloneable {
 	private Date creationDate;
 	private String modificationUser;
 	private Date modificationDate;
+	private int version;
 	
 	private boolean dirty = true;
 	private boolean selected;
@@ -296,6 +297,14 @@ public class Planning implements Serializable, HasAudit, Cloneable {
 		this.modificationDate = modificationDate;
 		return this;
 	}
+	@Override
+	public int getVersion() {
+		return version;
+	}
+	public Planning setVersion(int version) {
+		this.version = version;
+		return this;
+	}
 	
 	public void initialize() {
 		this.setWidth(0);
@@ -340,6 +349,7 @@ public class Planning implements Serializable, HasAudit, Cloneable {
 			.setCreationDate(this.creationDate) 
 			.setModificationUser(this.modificationUser) 
 			.setModificationDate(this.modificationDate)
+			.setVersion(this.version)
 			.setSelected(this.isSelected())
 			;
 	}
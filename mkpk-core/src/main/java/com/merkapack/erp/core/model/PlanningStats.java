@@ -0,0 +1,79 @@
+package com.merkapack.erp.core.model;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Totales del plan de fabricaci&oacute;n para un grupo: un d&iacute;a, un mes, una m&aacute;quina,
+ * un art&iacute;culo o un cliente, seg&uacute;n {@link StatsParams#getGroup()}.
+ */
+public class PlanningStats implements Serializable {
+
+	private static final long serialVersionUID = 2214739165027604457L;
+
+	private Integer id;
+	private String name;
+	private Date date;
+	private int plannings;
+	private double amount;
+	private double meters;
+	private double blows;
+	private double minutes;
+
+	public Integer getId() {
+		return id;
+	}
+	public PlanningStats setId(Integer id) {
+		this.id = id;
+		return this;
+	}
+	public String getName() {
+		return name;
+	}
+	public PlanningStats setName(String name) {
+		this.name = name;
+		return this;
+	}
+	public Date getDate() {
+		return date;
+	}
+	public PlanningStats setDate(Date date) {
+		this.date = date;
+		return this;
+	}
+	public int getPlannings() {
+		return plannings;
+	}
+	public PlanningStats setPlannings(int plannings) {
+		this.plannings = plannings;
+		return this;
+	}
+	public double getAmount() {
+		return amount;
+	}
+	public PlanningStats setAmount(double amount) {
+		this.amount = amount;
+		return this;
+	}
+	public double getMeters() {
+		return meters;
+	}
+	public PlanningStats setMeters(double meters) {
+		this.meters = meters;
+		return this;
+	}
+	public double getBlows() {
+		return blows;
+	}
+	public PlanningStats setBlows(double blows) {
+		this.blows = blows;
+		return this;
+	}
+	public double getMinutes() {
+		return minutes;
+	}
+	public PlanningStats setMinutes(double minutes) {
+		this.minutes = minutes;
+		return this;
+	}
+}
@@ -22,6 +22,7 @@ public class Product implements Serializable, HasAudit {
 	private Date creationDate;
 	private String modificationUser;
 	private Date modificationDate;
+	private int version;
 	
 	private boolean dirty = true;
 
@@ -149,5 +150,13 @@ public class Product implements Serializable, HasAudit {
 		this.modificationDate = modificationDate;
 		return this;
 	}
+	@Override
+	public int getVersion() {
+		return version;
+	}
+	public Product setVersion(int version) {
+		this.version = version;
+		return this;
+	}
 	
 }
@@ -4,4 +4,30 @@ public class ProductParams extends Product {
 
 	private static final long serialVersionUID = 7948471775197295352L;
 
+	public static final String SORT_CODE = "code";
+	public static final String SORT_NAME = "name";
+	public static final String SORT_MATERIAL_UP = "materialUp";
+	public static final String SORT_MATERIAL_DOWN = "materialDown";
+	public static final String SORT_LENGTH = "length";
+	public static final String SORT_WIDTH = "width";
+
+	private String sort = SORT_CODE;
+	private boolean ascending = true;
+
+	public String getSort() {
+		return sort;
+	}
+	public ProductParams setSort(String sort) {
+		this.sort = sort;
+		return this;
+	}
+
+	public boolean isAscending() {
+		return ascending;
+	}
+	public ProductParams setAscending(boolean ascending) {
+		this.ascending = ascending;
+		return this;
+	}
+
 }
@@ -35,6 +35,7 @@ public interface Properties {
 		Property<String> getNameProperty();
 		Property<Double> getWidthProperty();
 		Property<Double> getLengthProperty();
+		Property<Double> getRemainingProperty();
 		Property<Integer> getMaterialIdProperty();
 		Property<String> getMaterialNameProperty();
 	}
@@ -13,11 +13,13 @@ public class Roll implements Serializable, HasAudit {
 	private String name;
 	private double width;
 	private double length;
+	private double remaining;
 	
 	private String creationUser;
 	private Date creationDate;
 	private String modificationUser;
 	private Date modificationDate;
+	private int version;
 	
 	private boolean dirty = true;
 
@@ -67,6 +69,18 @@ public class Roll implements Serializable, HasAudit {
 		this.length = length;
 		return this;
 	}
+
+	/**
+	 * Metros que quedan en la bobina: el largo menos lo consumido por el plan de fabricaci&oacute;n.
+	 * Lo mantiene el servidor, no se guarda desde el cliente.
+	 */
+	public double getRemaining() {
+		return remaining;
+	}
+	public Roll setRemaining(double remaining) {
+		this.remaining = remaining;
+		return this;
+	}
 	
 	// ---------------------------------------------------------- DIRTY
 	public boolean isDirty() {
@@ -110,5 +124,13 @@ public class Roll implements Serializable, HasAudit {
 		this.modificationDate = modificationDate;
 		return this;
 	}
+	@Override
+	public int getVersion() {
+		return version;
+	}
+	public Roll setVersion(int version) {
+		this.version = version;
+		return this;
+	}
 	
 }
@@ -0,0 +1,44 @@
+package com.merkapack.erp.core.model;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Consulta de totales del plan de fabricaci&oacute;n entre dos fechas (ambas incluidas).
+ */
+public class StatsParams implements Serializable {
+
+	private static final long serialVersionUID = -3390548126774075180L;
+
+	public static final String GROUP_DAY = "day";
+	public static final String GROUP_MONTH = "month";
+	public static final String GROUP_MACHINE = "machine";
+	public static final String GROUP_PRODUCT = "product";
+	public static final String GROUP_CLIENT = "client";
+
+	private Date from;
+	private Date to;
+	private String group = GROUP_DAY;
+
+	public Date getFrom() {
+		return from;
+	}
+	public StatsParams setFrom(Date from) {
+		this.from = from;
+		return this;
+	}
+	public Date getTo() {
+		return to;
+	}
+	public StatsParams setTo(Date to) {
+		this.to = to;
+		return this;
+	}
+	public String getGroup() {
+		return group;
+	}
+	public StatsParams setGroup(String group) {
+		this.group = group;
+		return this;
+	}
+}
@@ -0,0 +1,50 @@
+package com.merkapack.erp.core.basic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.merkapack.erp.core.basic.ILogger.Level;
+
+public class AsyncLogTest {
+
+	@After
+	public void restart() {
+		AsyncLog.start();
+	}
+
+	private static boolean isRunning() {
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if ("mkpk-log".equals(thread.getName()) && thread.isAlive()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Test
+	public void testLevel() {
+		assertEquals(Level.DEBUG, AsyncLog.level(" debug "));
+		assertEquals(Level.WARN, AsyncLog.level("WARN"));
+		// Mal escrito o sin definir: INFO, sin romper la carga de la clase.
+		assertEquals(Level.INFO, AsyncLog.level("DEGUB"));
+		assertEquals(Level.INFO, AsyncLog.level(""));
+		assertEquals(Level.INFO, AsyncLog.level(null));
+	}
+
+	@Test
+	public void testStopAndStart() throws InterruptedException {
+		AsyncLog.start();
+		assertTrue(isRunning());
+		AsyncLog.stop();
+		assertFalse(isRunning());
+		// Despus de parar, una lnea no vuelve a arrancar el hilo.
+		AsyncLog.publish(Level.INFO, 1, "test", "INSERT", "CLIENT", 1, 1, 0, null, null);
+		assertFalse(isRunning());
+		AsyncLog.start();
+		assertTrue(isRunning());
+	}
+}
@@ -0,0 +1,35 @@
+package com.merkapack.erp.core.basic;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTransientConnectionException;
+
+import org.jooq.exception.DataAccessException;
+import org.junit.Test;
+
+/**
+ * Slo los errores de conexin apartan la rplica; los de la consulta no.
+ */
+public class DBContextTest {
+
+	@Test
+	public void testConnectionErrors() {
+		assertTrue(DBContext.isConnectionError(new DataAccessException("x", new SQLNonTransientConnectionException("Connection reset", "08000"))));
+		assertTrue(DBContext.isConnectionError(new DataAccessException("x", new SQLException("Communications link failure", "08S01"))));
+		assertTrue(DBContext.isConnectionError(new DataAccessException("x", new SQLTransientConnectionException("timeout"))));
+		// La causa puede venir envuelta.
+		assertTrue(DBContext.isConnectionError(new DataAccessException("x", new RuntimeException(new SQLException("closed", "08003")))));
+	}
+
+	@Test
+	public void testQueryErrors() {
+		assertFalse(DBContext.isConnectionError(new DataAccessException("x", new SQLSyntaxErrorException("Table doesn't exist", "42S02"))));
+		assertFalse(DBContext.isConnectionError(new DataAccessException("x", new SQLException("Deadlock", "40001"))));
+		assertFalse(DBContext.isConnectionError(new DataAccessException("x", new SQLException("sin estado"))));
+		assertFalse(DBContext.isConnectionError(new DataAccessException("x")));
+	}
+}
@@ -0,0 +1,156 @@
+package com.merkapack.erp.core.dao.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.Test;
+
+import com.merkapack.erp.core.model.Client;
+import com.merkapack.erp.core.model.Filter.ClientFilter;
+import com.merkapack.erp.core.model.Filter.PlanningFilter;
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.watson.util.MkpkDayUtils;
+
+@SuppressWarnings("deprecation")
+public class FilterMemoryTest {
+
+	private static Client client(int id, String name) {
+		return new Client().setId(id).setDomain(1).setName(name);
+	}
+
+	private static boolean test(ClientFilter filter, String name) {
+		return PropertiesMemory.CLIENT.getPredicate(filter).test(client(1, name));
+	}
+
+	private static List<Integer> ids(List<Client> clients) {
+		List<Integer> ids = new LinkedList<Integer>();
+		for (Client client : clients) {
+			ids.add(client.getId());
+		}
+		return ids;
+	}
+
+	@Test
+	public void testLike() {
+		assertTrue(test(p -> p.getNameProperty().like("%garc_a%"), "Plsticos Garca"));
+		assertTrue(test(p -> p.getNameProperty().like("PLAS%"), "plsticos"));
+		assertFalse(test(p -> p.getNameProperty().like("PLAS"), "plsticos"));
+		assertFalse(test(p -> p.getNameProperty().like("_"), ""));
+		assertTrue(test(p -> p.getNameProperty().like("%"), ""));
+	}
+
+	@Test
+	public void testLikeEscape() {
+		assertTrue(test(p -> p.getNameProperty().like("50\\%"), "50%"));
+		assertFalse(test(p -> p.getNameProperty().like("50\\%"), "500"));
+		assertTrue(test(p -> p.getNameProperty().like("A\\_B"), "A_B"));
+		assertFalse(test(p -> p.getNameProperty().like("A\\_B"), "AXB"));
+		assertTrue(test(p -> p.getNameProperty().like("C:\\\\%"), "C:\\TEMP"));
+		// Un escape al final queda como literal.
+		assertTrue(test(p -> p.getNameProperty().like("A\\"), "A\\"));
+	}
+
+	@Test
+	public void testLikeRegexCharacters() {
+		assertTrue(test(p -> p.getNameProperty().like("S.L. (%)"), "S.L. (MADRID)"));
+		assertFalse(test(p -> p.getNameProperty().like("S.L."), "SXLX"));
+		assertTrue(test(p -> p.getNameProperty().like("%[1]$^"), "X[1]$^"));
+		assertTrue(test(p -> p.getNameProperty().like("%\\E%"), "A\\EB"));
+		assertTrue(test(p -> p.getNameProperty().like("A%B"), "A\nB"));
+	}
+
+	@Test
+	public void testCollation() {
+		assertTrue(test(p -> p.getNameProperty().eq("PLASTICOS GARCIA"), "Plsticos Garca"));
+		assertTrue(test(p -> p.getNameProperty().eq("ABC"), "abc   "));
+		assertFalse(test(p -> p.getNameProperty().eq("ESPANA"), "Espaa"));
+		assertTrue(test(p -> p.getNameProperty().eq("ESPAA"), "espaa"));
+		assertTrue(test(p -> p.getNameProperty().lt("B"), "baco"));
+	}
+
+	@Test
+	public void testNull() {
+		// Comparar con NULL es desconocido: no pasa ni la condicin ni su negacin.
+		assertFalse(test(p -> p.getNameProperty().eq("A"), null));
+		assertFalse(test(p -> p.getNameProperty().ne("A"), null));
+		assertFalse(test(p -> p.getNameProperty().eq("A").not(p.getIdProperty().eq(1)), null));
+		assertFalse(test(p -> p.getNameProperty().gt(null), "A"));
+		// eq(null) y ne(null) son isNull() e isNotNull().
+		assertTrue(test(p -> p.getNameProperty().eq(null), null));
+		assertFalse(test(p -> p.getNameProperty().eq(null), "A"));
+		assertTrue(test(p -> p.getNameProperty().ne(null), "A"));
+		assertTrue(test(p -> p.getNameProperty().isNull(), null));
+		assertFalse(test(p -> p.getNameProperty().like("%"), null));
+	}
+
+	@Test
+	public void testNullAndOr() {
+		// Desconocido OR cierto = cierto; desconocido AND falso = falso.
+		assertTrue(test(p -> p.getNameProperty().eq("A").or(p.getIdProperty().eq(1)), null));
+		assertFalse(test(p -> p.getNameProperty().eq("A").or(p.getIdProperty().eq(2)), null));
+		assertFalse(test(p -> p.getNameProperty().eq("A").and(p.getIdProperty().eq(1)), null));
+		// NOT(desconocido AND falso) = NOT(falso) = cierto.
+		assertTrue(test(p -> p.getNameProperty().eq("A").and(p.getIdProperty().eq(2)).not(p.getIdProperty().eq(1)), null));
+	}
+
+	@Test
+	public void testIn() {
+		assertTrue(test(p -> p.getNameProperty().in(new String[] { "A", "garca" }), "GARCIA"));
+		assertFalse(test(p -> p.getNameProperty().in(new String[] { "A", "B" }), "C"));
+		assertFalse(test(p -> p.getNameProperty().in(new String[] { "A" }), null));
+		assertTrue(test(p -> p.getNameProperty().notIn(new String[] { "A", "B" }), "C"));
+		assertFalse(test(p -> p.getNameProperty().notIn(new String[] { "A", "B" }), "a"));
+		// x NOT IN (.., NULL) nunca es cierto; x IN (.., NULL) slo si est.
+		assertFalse(test(p -> p.getNameProperty().notIn(new String[] { "A", null }), "C"));
+		assertTrue(test(p -> p.getNameProperty().in(new String[] { "C", null }), "C"));
+		assertFalse(test(p -> p.getNameProperty().in(new String[] { "A", null }), "C"));
+		assertFalse(test(p -> p.getNameProperty().in(new String[0]), "C"));
+	}
+
+	@Test
+	public void testNumbers() {
+		assertTrue(test(p -> p.getIdProperty().between(1, 3), "A"));
+		assertTrue(test(p -> p.getIdProperty().ge(1).and(p.getIdProperty().lt(2)), "A"));
+		assertTrue(test(p -> p.getIdProperty().in(new Integer[] { 1, 2 }), "A"));
+	}
+
+	@Test
+	public void testDateByDay() {
+		Planning pl = new Planning().setDate(new java.util.Date(118, 10, 5, 17, 30));
+		PlanningFilter filter = p -> p.getDateProperty().eq(new java.sql.Date(118, 10, 5));
+		assertTrue(PropertiesMemory.PLANNING.getPredicate(filter).test(pl));
+		filter = p -> p.getDateProperty().lt(new java.sql.Date(118, 10, 5));
+		assertFalse(PropertiesMemory.PLANNING.getPredicate(filter).test(pl));
+		filter = p -> p.getDateProperty().ge(new java.sql.Date(MkpkDayUtils.toDate(MkpkDayUtils.of(2018, 11, 5)).getTime()));
+		assertTrue(PropertiesMemory.PLANNING.getPredicate(filter).test(pl));
+	}
+
+	@Test
+	public void testReusablePredicate() {
+		Predicate<Client> predicate = PropertiesMemory.CLIENT.getPredicate(p -> p.getNameProperty().like("A%"));
+		assertTrue(predicate.test(client(1, "AB")));
+		assertFalse(predicate.test(client(2, "BA")));
+		assertTrue(predicate.test(client(3, "ab")));
+		assertTrue(PropertiesMemory.CLIENT.getPredicate(null).test(client(4, null)));
+	}
+
+	@Test
+	public void testPages() {
+		List<Client> clients = new LinkedList<Client>();
+		for (int i = 1; i <= 10; i++) {
+			clients.add(client(i, i % 2 == 0 ? "PAR" : "IMPAR"));
+		}
+		assertEquals(Arrays.asList(2, 4, 6, 8, 10), ids(PropertiesMemory.CLIENT.filter(clients, p -> p.getNameProperty().eq("PAR"))));
+		assertEquals(Arrays.asList(2, 4), ids(PropertiesMemory.CLIENT.filter(clients, p -> p.getNameProperty().eq("PAR").perPage(2))));
+		assertEquals(Arrays.asList(6, 8), ids(PropertiesMemory.CLIENT.filter(clients, p -> p.getNameProperty().eq("PAR").page(2).perPage(2))));
+		assertEquals(Arrays.asList(10), ids(PropertiesMemory.CLIENT.filter(clients, p -> p.getNameProperty().eq("PAR").page(3).perPage(2))));
+		assertEquals(Arrays.asList(), ids(PropertiesMemory.CLIENT.filter(clients, p -> p.getNameProperty().eq("PAR").page(4).perPage(2))));
+		assertEquals(10, PropertiesMemory.CLIENT.filter(clients, null).size());
+	}
+}
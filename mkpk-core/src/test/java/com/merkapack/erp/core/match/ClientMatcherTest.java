@@ -0,0 +1,90 @@
+package com.merkapack.erp.core.match;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.LinkedList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.merkapack.erp.core.model.Client;
+
+public class ClientMatcherTest {
+
+	private ClientMatcher matcher;
+
+	@Before
+	public void init() {
+		LinkedList<Client> clients = new LinkedList<Client>();
+		String[] names = {
+			"Plsticos Garca, S.L.",
+			"Envases del Norte S.A.",
+			"Envases",
+			"Envases Levante SL",
+			"Grupo Envases",
+			"Bolsas y Sacos Martnez"
+		};
+		for (int i = 0; i < names.length; i++) {
+			clients.add(new Client().setId(i + 1).setDomain(1).setName(names[i]));
+		}
+		matcher = new ClientMatcher(clients);
+	}
+
+	private Integer match(String name) {
+		Client client = matcher.match(name);
+		return client == null ? null : client.getId();
+	}
+
+	@Test
+	public void testNormalize() {
+		assertEquals("PLASTICOS GARCIA", ClientMatcher.normalize("Plsticos Garca, S.L."));
+		assertEquals("ENVASES DEL NORTE", ClientMatcher.normalize("  envases  del norte s.a.u. "));
+		assertEquals("SL", ClientMatcher.normalize("S.L."));
+		assertEquals("", ClientMatcher.normalize(null));
+	}
+
+	@Test
+	public void testExact() {
+		assertEquals(Integer.valueOf(1), match("PLASTICOS GARCIA SL"));
+		assertEquals(Integer.valueOf(3), match("Envases"));
+	}
+
+	@Test
+	public void testAccents() {
+		assertEquals(Integer.valueOf(1), match("plasticos garcia"));
+		assertEquals(Integer.valueOf(6), match("BOLSAS Y SACOS MARTINEZ S.L."));
+	}
+
+	@Test
+	public void testPrefix() {
+		assertEquals(Integer.valueOf(1), match("Plsticos Garc"));
+		assertEquals(Integer.valueOf(2), match("Envases del N"));
+		// El ms corto de los que empiezan igual.
+		assertEquals(Integer.valueOf(3), match("Envas"));
+		assertEquals(Integer.valueOf(4), match("Envases Lev"));
+	}
+
+	@Test
+	public void testContains() {
+		assertEquals(Integer.valueOf(2), match("Norte"));
+		assertEquals(Integer.valueOf(6), match("Sacos Martnez"));
+		// Slo desde el principio de una palabra.
+		assertNull(match("ARCIA"));
+	}
+
+	@Test
+	public void testTypo() {
+		assertEquals(Integer.valueOf(1), match("Plasticos Garsia"));
+		assertEquals(Integer.valueOf(2), match("Envazes del Norte"));
+		assertEquals(Integer.valueOf(6), match("Bolsas y Sacos Martines"));
+	}
+
+	@Test
+	public void testNoMatch() {
+		assertNull(match("Transportes Prez"));
+		assertNull(match("Plasticos Lopez Hermanos"));
+		assertNull(match(""));
+		assertNull(match(null));
+	}
+}
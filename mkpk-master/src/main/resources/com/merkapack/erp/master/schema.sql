@@ -18,8 +18,9 @@ CREATE TABLE `machine` (
 	,`creation_date` datetime DEFAULT NULL COMMENT 'Fecha de creacion'
 	,`modification_user` varchar(16) COLLATE latin1_spanish_ci DEFAULT NULL COMMENT 'Usuario de modificacion'
 	,`modification_date` datetime DEFAULT NULL COMMENT 'Fecha de modificacion'
+	,`version` int(11) NOT NULL DEFAULT 0 COMMENT 'Version de la fila para el bloqueo optimista'
 	,PRIMARY KEY (`id`)
-	,KEY `IDX_MACHINE_DOMAIN` (`domain`)
+	,KEY `IDX_MACHINE_DOMAIN` (`domain`,`name`)
 	,CONSTRAINT `FK_MACHINE_DOMAIN` FOREIGN KEY (`domain`) REFERENCES `domain` (`id`)	
 ) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_spanish_ci COMMENT='Maquinas';
 
@@ -35,8 +36,9 @@ CREATE TABLE `material` (
 	,`creation_date` datetime DEFAULT NULL COMMENT 'Fecha de creacion'
 	,`modification_user` varchar(16) COLLATE latin1_spanish_ci DEFAULT NULL COMMENT 'Usuario de modificacion'
 	,`modification_date` datetime DEFAULT NULL COMMENT 'Fecha de modificacion'
+	,`version` int(11) NOT NULL DEFAULT 0 COMMENT 'Version de la fila para el bloqueo optimista'
 	,PRIMARY KEY (`id`)
-	,KEY `IDX_MATERIAL_DOMAIN` (`domain`)
+	,KEY `IDX_MATERIAL_DOMAIN` (`domain`,`code`)
 	,CONSTRAINT `FK_MATERIAL_DOMAIN` FOREIGN KEY (`domain`) REFERENCES `domain` (`id`)	
 ) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_spanish_ci COMMENT='Materiales';
 
@@ -47,12 +49,15 @@ CREATE TABLE `roll` (
 	,`name` varchar(32) COLLATE latin1_spanish_ci NOT NULL COMMENT 'Nombre de la bobina'
 	,`width` double(8,2) DEFAULT '0.00' COMMENT 'Ancho bobina'
 	,`length` double(8,2) DEFAULT '0.00' COMMENT 'Largo bobina'
+	,`remaining` double(10,2) NOT NULL DEFAULT '0.00' COMMENT 'Metros que quedan: largo mas los movimientos de roll_movement'
 	,`creation_user` varchar(16) COLLATE latin1_spanish_ci DEFAULT NULL COMMENT 'Usuario de creacion'
 	,`creation_date` datetime DEFAULT NULL COMMENT 'Fecha de creacion'
 	,`modification_user` varchar(16) COLLATE latin1_spanish_ci DEFAULT NULL COMMENT 'Usuario de modificacion'
 	,`modification_date` datetime DEFAULT NULL COMMENT 'Fecha de modificacion'
+	,`version` int(11) NOT NULL DEFAULT 0 COMMENT 'Version de la fila para el bloqueo optimista'
 	,PRIMARY KEY (`id`)
-	,KEY `IDX_ROLL_DOMAIN` (`domain`)
+	,KEY `IDX_ROLL_DOMAIN` (`domain`,`name`)
+	,KEY `IDX_ROLL_STOCK` (`domain`,`material`,`remaining`)
 	,CONSTRAINT `FK_ROLL_DOMAIN` FOREIGN KEY (`domain`) REFERENCES `domain` (`id`)	
 	,CONSTRAINT `FK_ROLL_MATERIAL` FOREIGN KEY (`material`) REFERENCES `material` (`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_spanish_ci COMMENT='Bobinas';
@@ -72,9 +77,10 @@ CREATE TABLE `product` (
 	,`creation_date` datetime DEFAULT NULL COMMENT 'Fecha de creacion'
 	,`modification_user` varchar(16) COLLATE latin1_spanish_ci DEFAULT NULL COMMENT 'Usuario de modificacion'
 	,`modification_date` datetime DEFAULT NULL COMMENT 'Fecha de modificacion'
+	,`version` int(11) NOT NULL DEFAULT 0 COMMENT 'Version de la fila para el bloqueo optimista'
 	,PRIMARY KEY (`id`)
-	,KEY `IDX_PRODUCT_DOMAIN` (`domain`)
-	,KEY `IDX_PRODUCT_MATERIAL` (`domain`)
+	,KEY `IDX_PRODUCT_DOMAIN` (`domain`,`code`)
+	,KEY `IDX_PRODUCT_MATERIAL` (`domain`,`material_up`,`material_down`)
 	,CONSTRAINT `FK_PRODUCT_DOMAIN` FOREIGN KEY (`domain`) REFERENCES `domain` (`id`)	
 	,CONSTRAINT `FK_PRODUCT_MATERIAL_UP` FOREIGN KEY (`material_up`) REFERENCES `material` (`id`)
 	,CONSTRAINT `FK_PRODUCT_MATERIAL_DOWN` FOREIGN KEY (`material_down`) REFERENCES `material` (`id`)
@@ -101,8 +107,9 @@ CREATE TABLE `client` (
 	,`creation_date` datetime DEFAULT NULL COMMENT 'Fecha de creacion'
 	,`modification_user` varchar(16) COLLATE latin1_spanish_ci DEFAULT NULL COMMENT 'Usuario de modificacion'
 	,`modification_date` datetime DEFAULT NULL COMMENT 'Fecha de modificacion'
+	,`version` int(11) NOT NULL DEFAULT 0 COMMENT 'Version de la fila para el bloqueo optimista'
 	,PRIMARY KEY (`id`)
-	,KEY `IDX_CLIENT_DOMAIN` (`domain`)
+	,KEY `IDX_CLIENT_DOMAIN` (`domain`,`name`)
 	,CONSTRAINT `FK_CLIENT_DOMAIN` FOREIGN KEY (`domain`) REFERENCES `domain` (`id`)	
 ) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_spanish_ci COMMENT='Clientes';
 
@@ -135,8 +142,9 @@ CREATE TABLE `planning` (
 	,`creation_date` datetime DEFAULT NULL COMMENT 'Fecha de creacion'
 	,`modification_user` varchar(16) COLLATE latin1_spanish_ci DEFAULT NULL COMMENT 'Usuario de modificacion'
 	,`modification_date` datetime DEFAULT NULL COMMENT 'Fecha de modificacion'
+	,`version` int(11) NOT NULL DEFAULT 0 COMMENT 'Version de la fila para el bloqueo optimista'
 	,PRIMARY KEY (`id`)
-	,KEY `IDX_PLANNING_DOMAIN` (`domain`)
+	,KEY `IDX_PLANNING_DOMAIN` (`domain`,`date`,`order`)
 	,KEY `IDX_PLANNING_MACHINE` (`machine`)
 	,KEY `IDX_PLANNING_PRODUCT` (`product`)
 	,KEY `IDX_PLANNING_MATERIAL_UP` (`material_up`)
@@ -154,6 +162,53 @@ CREATE TABLE `planning` (
 	,CONSTRAINT `FK_PLANNING_CLIENT` FOREIGN KEY (`client`) REFERENCES `client` (`id`)  
 ) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_spanish_ci COMMENT='Plan de fabricacion';
 
+CREATE TABLE `planning_stats` (
+	 `domain` int(4) NOT NULL COMMENT 'Identificador del Dominio'
+	,`date` date NOT NULL COMMENT 'Fecha del plan'
+	,`machine` int(4) NOT NULL COMMENT 'Identificador de la maquina'
+	,`product` int(4) NOT NULL COMMENT 'Identificador del producto'
+	,`client` int(4) NOT NULL COMMENT 'Identificador del cliente'
+	,`plannings` int(11) NOT NULL DEFAULT 0 COMMENT 'Numero de lineas del plan'
+	,`amount` double(14,2) NOT NULL DEFAULT '0.00' COMMENT 'Cantidad'
+	,`meters` double(14,2) NOT NULL DEFAULT '0.00' COMMENT 'Metros'
+	,`blows` double(14,2) NOT NULL DEFAULT '0.00' COMMENT 'Golpes'
+	,`minutes` double(14,2) NOT NULL DEFAULT '0.00' COMMENT 'Minutos'
+	,PRIMARY KEY (`domain`,`date`,`machine`,`product`,`client`)
+) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_spanish_ci COMMENT='Totales diarios del plan de fabricacion';
+
+-- Carga inicial de los totales para una base de datos con planes ya grabados.
+-- Despues los mantiene PlanningDAO en la misma transaccion que cada alta, baja o modificacion.
+INSERT INTO `planning_stats` (`domain`,`date`,`machine`,`product`,`client`,`plannings`,`amount`,`meters`,`blows`,`minutes`)
+	SELECT `domain`,`date`,`machine`,`product`,`client`,COUNT(*)
+		,COALESCE(SUM(`amount`),0),COALESCE(SUM(`meters`),0),COALESCE(SUM(`blows`),0),COALESCE(SUM(`minutes`),0)
+	FROM `planning`
+	WHERE `date` IS NOT NULL
+	GROUP BY `domain`,`date`,`machine`,`product`,`client`;
+
+CREATE TABLE `roll_movement` (
+	 `id` int(11) NOT NULL AUTO_INCREMENT COMMENT 'Identificador unico'
+	,`domain` int(4) NOT NULL COMMENT 'Identificador del Dominio'
+	,`roll` int(4) NOT NULL COMMENT 'Identificador de la bobina'
+	,`planning` int(4) DEFAULT NULL COMMENT 'Linea del plan que lo origina (sin FK: el apunte queda aunque se borre)'
+	,`meters` double(10,2) NOT NULL DEFAULT '0.00' COMMENT 'Metros: negativo consumo, positivo devolucion'
+	,`creation_user` varchar(16) COLLATE latin1_spanish_ci DEFAULT NULL COMMENT 'Usuario de creacion'
+	,`creation_date` datetime DEFAULT NULL COMMENT 'Fecha de creacion'
+	,PRIMARY KEY (`id`)
+	,KEY `IDX_ROLL_MOVEMENT_DOMAIN` (`domain`,`id`)
+	,KEY `IDX_ROLL_MOVEMENT_ROLL` (`roll`)
+	,KEY `IDX_ROLL_MOVEMENT_PLANNING` (`planning`)
+	,CONSTRAINT `FK_ROLL_MOVEMENT_DOMAIN` FOREIGN KEY (`domain`) REFERENCES `domain` (`id`)
+	,CONSTRAINT `FK_ROLL_MOVEMENT_ROLL` FOREIGN KEY (`roll`) REFERENCES `roll` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_spanish_ci COMMENT='Movimientos de existencias de bobinas (solo altas)';
+
+-- Carga inicial: un consumo por bobina superior e inferior de cada plan ya grabado y los metros que quedan.
+INSERT INTO `roll_movement` (`domain`,`roll`,`planning`,`meters`,`creation_user`,`creation_date`)
+	SELECT `domain`,`roll_up`,`id`,-`meters`,'admin',NOW() FROM `planning` WHERE `meters` <> 0
+	UNION ALL
+	SELECT `domain`,`roll_down`,`id`,-`meters`,'admin',NOW() FROM `planning` WHERE `meters` <> 0;
+UPDATE `roll` SET `remaining` = `length`
+	+ COALESCE((SELECT SUM(`meters`) FROM `roll_movement` WHERE `roll_movement`.`roll` = `roll`.`id`),0);
+
 CREATE TABLE `db_version` (
   `version_number` varchar(10) COLLATE latin1_spanish_ci NOT NULL COMMENT 'Numero de Version de la Base de Datos',
   PRIMARY KEY (`version_number`)
@@ -1,14 +1,24 @@
 package com.merkapack.watson.server;
 
-import static java.util.Calendar.DAY_OF_MONTH;
-import static java.util.Calendar.DAY_OF_YEAR;
-
 import java.util.Calendar;
 import java.util.Date;
+import java.util.TimeZone;
 import java.util.function.LongFunction;
 
+import com.merkapack.watson.util.MkpkDayUtils;
+
+/**
+ * Fechas en el servidor. Los clculos por das, meses y aos van con los nmeros de da
+ * de {@link MkpkDayUtils}, sin Calendar, y conservan la hora de la fecha de partida (como
+ * haca Calendar, tambin en los cambios de hora). Slo los campos de la hora del da
+ * (HOUR_OF_DAY, MINUTE, ...) y los que dependen de la configuracin regional al consultarlos
+ * (WEEK_OF_YEAR, ...) siguen pasando por Calendar.
+ */
+@SuppressWarnings("deprecation")
 public class MkpkServerDateUtils {
 
+	private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
 	public static Date max(Date a, Date b) {
 		return compare(a, b) > 0 ? a : b;
 	}
@@ -23,13 +33,10 @@ public class MkpkServerDateUtils {
 		}
 		return b == null ? -1 : a.compareTo(b);
 	}
-	
+
 	public static <T extends Date> T getFirstDayOfYear(T date,
 			LongFunction<T> longFunction) {
-		Calendar calendar = Calendar.getInstance();
-		calendar.setTime(date);
-		calendar.set(DAY_OF_YEAR, 1);
-		return longFunction.apply(calendar.getTimeInMillis());
+		return longFunction.apply(atTimeOf(date, MkpkDayUtils.getFirstDayOfYear(MkpkDayUtils.of(date))));
 	}
 
 	public static Date getFirstDayOfYear(Date date) {
@@ -37,15 +44,12 @@ public class MkpkServerDateUtils {
 	}
 
 	public static java.sql.Date getFirstDayOfYear(java.sql.Date date) {
-		return getFirstDayOfYear(date, java.sql.Date::new);
+		return toSqlDate(MkpkDayUtils.getFirstDayOfYear(MkpkDayUtils.of(date)));
 	}
 
 	public static <T extends Date> T getLastDayOfYear(T date,
 			LongFunction<T> longFunction) {
-		Calendar calendar = Calendar.getInstance();
-		calendar.setTime(date);
-		calendar.set(DAY_OF_YEAR, calendar.getActualMaximum(DAY_OF_YEAR));
-		return longFunction.apply(calendar.getTimeInMillis());
+		return longFunction.apply(atTimeOf(date, MkpkDayUtils.getLastDayOfYear(MkpkDayUtils.of(date))));
 	}
 
 	public static Date getLastDayOfYear(Date date) {
@@ -53,15 +57,12 @@ public class MkpkServerDateUtils {
 	}
 
 	public static java.sql.Date getLastDayOfYear(java.sql.Date date) {
-		return getLastDayOfYear(date, java.sql.Date::new);
+		return toSqlDate(MkpkDayUtils.getLastDayOfYear(MkpkDayUtils.of(date)));
 	}
 
 	public static <T extends Date> T getFirstDayOfMonth(T date,
 			LongFunction<T> longFunction) {
-		Calendar calendar = Calendar.getInstance();
-		calendar.setTime(date);
-		calendar.set(DAY_OF_MONTH, 1);
-		return longFunction.apply(calendar.getTimeInMillis());
+		return longFunction.apply(atTimeOf(date, MkpkDayUtils.getFirstDayOfMonth(MkpkDayUtils.of(date))));
 	}
 
 	public static Date getFirstDayOfMonth(Date date) {
@@ -69,15 +70,12 @@ public class MkpkServerDateUtils {
 	}
 
 	public static java.sql.Date getFirstDayOfMonth(java.sql.Date date) {
-		return getFirstDayOfMonth(date, java.sql.Date::new);
+		return toSqlDate(MkpkDayUtils.getFirstDayOfMonth(MkpkDayUtils.of(date)));
 	}
 
 	public static <T extends Date> T getLastDayOfMonth(T date,
 			LongFunction<T> longFunction) {
-		Calendar calendar = Calendar.getInstance();
-		calendar.setTime(date);
-		calendar.set(DAY_OF_MONTH, calendar.getActualMaximum(DAY_OF_MONTH));
-		return longFunction.apply(calendar.getTimeInMillis());
+		return longFunction.apply(atTimeOf(date, MkpkDayUtils.getLastDayOfMonth(MkpkDayUtils.of(date))));
 	}
 
 	public static Date getLastDayOfMonth(Date date) {
@@ -85,25 +83,78 @@ public class MkpkServerDateUtils {
 	}
 
 	public static java.sql.Date getLastDayOfMonth(java.sql.Date date) {
-		return getLastDayOfMonth(date, java.sql.Date::new);
+		return toSqlDate(MkpkDayUtils.getLastDayOfMonth(MkpkDayUtils.of(date)));
 	}
 
+	/**
+	 * @param field campo de Calendar; YEAR, MONTH, DAY_OF_MONTH, DAY_OF_YEAR y DAY_OF_WEEK
+	 * se calculan sin Calendar
+	 */
 	public static <T extends Date> int get(T date, int field) {
-		Calendar calendar = Calendar.getInstance();
-		calendar.setTime(date);
-		return calendar.get(field);
+		int day = MkpkDayUtils.of(date);
+		switch (field) {
+			case Calendar.YEAR:
+				return MkpkDayUtils.getYear(day);
+			case Calendar.MONTH:
+				return MkpkDayUtils.getMonth(day) - 1;
+			case Calendar.DAY_OF_MONTH:
+				return MkpkDayUtils.getDayOfMonth(day);
+			case Calendar.DAY_OF_YEAR:
+				return day - MkpkDayUtils.getFirstDayOfYear(day) + 1;
+			case Calendar.DAY_OF_WEEK:
+				return MkpkDayUtils.getDayOfWeek(day) + 1;
+			default:
+				Calendar calendar = Calendar.getInstance();
+				calendar.setTime(date);
+				return calendar.get(field);
+		}
 	}
 
 	public static Date addDays(Date date, int value) {
-		return add(date, DAY_OF_MONTH, value);
+		return add(date, Calendar.DAY_OF_MONTH, value);
+	}
+
+	public static java.sql.Date addDays(java.sql.Date date, int value) {
+		return toSqlDate(MkpkDayUtils.of(date) + value);
 	}
 
+	/**
+	 * @param day da (MkpkDayUtils)
+	 * @return la fecha SQL del da
+	 */
+	public static java.sql.Date toSqlDate(int day) {
+		return new java.sql.Date(MkpkDayUtils.toDate(day).getTime());
+	}
+
+	/**
+	 * @param field campo de Calendar; los das, semanas, meses y aos se suman sin Calendar
+	 * y, como en Calendar, el da del mes se ajusta al ltimo si el mes de llegada es ms corto
+	 */
 	public static <T extends Date> T add(T date, int field, int value,
 			LongFunction<T> longFunction) {
-		Calendar calendar = Calendar.getInstance();
-		calendar.setTime(date);
-		calendar.add(field, value);
-		return longFunction.apply(calendar.getTimeInMillis());
+		if (value == 0) {
+			return longFunction.apply(date.getTime());
+		}
+		int day = MkpkDayUtils.of(date);
+		switch (field) {
+			case Calendar.DAY_OF_MONTH:
+			case Calendar.DAY_OF_YEAR:
+			case Calendar.DAY_OF_WEEK:
+				return longFunction.apply(withDay(date, day + value));
+			case Calendar.WEEK_OF_YEAR:
+			case Calendar.WEEK_OF_MONTH:
+			case Calendar.DAY_OF_WEEK_IN_MONTH:
+				return longFunction.apply(withDay(date, day + 7 * value));
+			case Calendar.MONTH:
+				return longFunction.apply(atTimeOf(date, addMonths(day, value)));
+			case Calendar.YEAR:
+				return longFunction.apply(atTimeOf(date, addMonths(day, 12 * value)));
+			default:
+				Calendar calendar = Calendar.getInstance();
+				calendar.setTime(date);
+				calendar.add(field, value);
+				return longFunction.apply(calendar.getTimeInMillis());
+		}
 	}
 
 	public static Date add(Date date, int field, int value) {
@@ -114,10 +165,57 @@ public class MkpkServerDateUtils {
 		return add(date, field, value, java.sql.Date::new);
 	}
 
+	/**
+	 * @param field campo de Calendar; DAY_OF_MONTH y DAY_OF_YEAR se calculan sin Calendar
+	 */
 	public static <T extends Date> int getMax(T date, int field) {
-		Calendar calendar = Calendar.getInstance();
-		calendar.setTime(date);
-		return calendar.getActualMaximum(field);
+		int day = MkpkDayUtils.of(date);
+		switch (field) {
+			case Calendar.DAY_OF_MONTH:
+				return MkpkDayUtils.lengthOfMonth(MkpkDayUtils.getYear(day), MkpkDayUtils.getMonth(day));
+			case Calendar.DAY_OF_YEAR:
+				return MkpkDayUtils.isLeapYear(MkpkDayUtils.getYear(day)) ? 366 : 365;
+			default:
+				Calendar calendar = Calendar.getInstance();
+				calendar.setTime(date);
+				return calendar.getActualMaximum(field);
+		}
+	}
+
+	private static int addMonths(int day, int months) {
+		int key = MkpkDayUtils.toKey(day);
+		int month = (key / 10000) * 12 + (key / 100) % 100 - 1 + months;
+		int year = Math.floorDiv(month, 12);
+		month = Math.floorMod(month, 12) + 1;
+		return MkpkDayUtils.of(year, month, Math.min(key % 100, MkpkDayUtils.lengthOfMonth(year, month)));
+	}
+
+	/**
+	 * Milisegundos de <code>day</code> a la misma hora local que <code>date</code>, como
+	 * cuando se cambia el da, el mes o el ao con Calendar.set.
+	 */
+	private static long atTimeOf(Date date, int day) {
+		// Hora local a partir de los milisegundos: java.sql.Date no deja usar getHours().
+		long time = Math.floorMod(date.getTime() - date.getTimezoneOffset() * 60000L, DAY_MILLIS);
+		int key = MkpkDayUtils.toKey(day);
+		int seconds = (int) (time / 1000);
+		return new Date(key / 10000 - 1900, (key / 100) % 100 - 1, key % 100
+			, seconds / 3600, (seconds / 60) % 60, seconds % 60).getTime() + time % 1000;
+	}
+
+	/**
+	 * Como {@link #atTimeOf(Date, int)}, pero si entre los dos das cambia la hora
+	 * (verano/invierno) se ajusta igual que Calendar.add con los campos de das.
+	 */
+	private static long withDay(Date date, int day) {
+		TimeZone zone = TimeZone.getDefault();
+		int offset = zone.getOffset(date.getTime());
+		long millis = day * DAY_MILLIS + Math.floorMod(date.getTime() + offset, DAY_MILLIS) - offset;
+		int delta = offset - zone.getOffset(millis);
+		if (delta != 0 && Math.floorDiv(millis + delta + zone.getOffset(millis + delta), DAY_MILLIS) == day) {
+			millis = millis + delta;
+		}
+		return millis;
 	}
 
 }
@@ -0,0 +1,132 @@
+package com.merkapack.watson.util;
+
+import java.util.Date;
+
+/**
+ * Das como nmero entero: das transcurridos desde el 01/01/1970 en el calendario local.
+ *
+ * Sumar das, comparar o buscar el primer da del mes se hace con aritmtica de enteros,
+ * sin Calendar ni objetos Date. Las fechas slo se convierten en los extremos con
+ * {@link #of(Date)} y {@link #toDate(int)}. Sirve tanto en el servidor como en el cliente GWT.
+ * Vlido para fechas a partir del ao 1.
+ */
+@SuppressWarnings("deprecation")
+public class MkpkDayUtils {
+
+	private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+	/**
+	 * @param year ao (p.e. 2018)
+	 * @param month mes (1 = enero ... 12 = diciembre)
+	 * @param day da del mes (1 ... 31)
+	 * @return nmero de da
+	 */
+	public static int of(int year, int month, int day) {
+		int y = month <= 2 ? year - 1 : year;
+		int era = (y >= 0 ? y : y - 399) / 400;
+		int yoe = y - era * 400;
+		int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+		int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+		return era * 146097 + doe - 719468;
+	}
+
+	/**
+	 * @param date fecha (se ignora la hora)
+	 * @return nmero de da de la fecha en el calendario local
+	 */
+	public static int of(Date date) {
+		long local = date.getTime() - date.getTimezoneOffset() * 60000L;
+		long day = local / DAY_MILLIS;
+		if (local < 0 && day * DAY_MILLIS != local) {
+			day--;
+		}
+		return (int) day;
+	}
+
+	/**
+	 * @param day nmero de da
+	 * @return fecha a las 00:00 del da en el calendario local
+	 */
+	public static Date toDate(int day) {
+		int key = toKey(day);
+		return new Date(key / 10000 - 1900, (key / 100) % 100 - 1, key % 100);
+	}
+
+	public static int getYear(int day) {
+		return toKey(day) / 10000;
+	}
+
+	/**
+	 * @return mes (1 = enero ... 12 = diciembre)
+	 */
+	public static int getMonth(int day) {
+		return (toKey(day) / 100) % 100;
+	}
+
+	public static int getDayOfMonth(int day) {
+		return toKey(day) % 100;
+	}
+
+	/**
+	 * @return da de la semana, igual que Date.getDay() (0 = domingo ... 6 = sbado)
+	 */
+	public static int getDayOfWeek(int day) {
+		// El 01/01/1970 fue jueves.
+		int weekday = (day + 4) % 7;
+		return weekday < 0 ? weekday + 7 : weekday;
+	}
+
+	public static int getFirstDayOfMonth(int day) {
+		return day - getDayOfMonth(day) + 1;
+	}
+
+	public static int getLastDayOfMonth(int day) {
+		int key = toKey(day);
+		return day - key % 100 + lengthOfMonth(key / 10000, (key / 100) % 100);
+	}
+
+	public static int getFirstDayOfYear(int day) {
+		return of(getYear(day), 1, 1);
+	}
+
+	public static int getLastDayOfYear(int day) {
+		return of(getYear(day), 12, 31);
+	}
+
+	/**
+	 * @return el da en formato aaaammdd (p.e. 20181105)
+	 */
+	public static int toKey(int day) {
+		int z = day + 719468;
+		int era = (z >= 0 ? z : z - 146096) / 146097;
+		int doe = z - era * 146097;
+		int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		int mp = (5 * doy + 2) / 153;
+		int d = doy - (153 * mp + 2) / 5 + 1;
+		int m = mp < 10 ? mp + 3 : mp - 9;
+		int y = yoe + era * 400 + (m <= 2 ? 1 : 0);
+		return y * 10000 + m * 100 + d;
+	}
+
+	public static boolean isLeapYear(int year) {
+		return (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+	}
+
+	/**
+	 * @param month mes (1 = enero ... 12 = diciembre)
+	 */
+	public static int lengthOfMonth(int year, int month) {
+		switch (month) {
+			case 2:
+				return isLeapYear(year) ? 29 : 28;
+			case 4:
+			case 6:
+			case 9:
+			case 11:
+				return 30;
+			default:
+				return 31;
+		}
+	}
+}
@@ -4,6 +4,19 @@ public class MkpkNumberUtils {
 
 	public static final Integer INTEGER_ZERO = new Integer(0);
 	public static final Integer INTEGER_ONE = new Integer(1);
+
+	public static final char SPANISH_DECIMAL = ',';
+	public static final char SPANISH_GROUPING = '.';
+
+	// Cifras significativas que caben en un long sin desbordar.
+	private static final int MAX_DIGITS = 18;
+	// Mayor entero que un double representa exactamente (2^53).
+	private static final long MAX_EXACT = 1L << 53;
+	// Potencias de diez exactas en un double.
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
 	
 	public static boolean isValid(Double number) {
 		return number != null && !number.isNaN() && !number.isInfinite();
@@ -96,6 +109,194 @@ public class MkpkNumberUtils {
 		return 0;		
 	}
 
+	/**
+	 * Igual que {@link #parseDouble(CharSequence, char, char, double)} con el formato espaol:
+	 * coma decimal y punto de miles.
+	 */
+	public static double parseDouble(CharSequence text, double invalid) {
+		return parseDouble(text, 0, text == null ? 0 : text.length(), SPANISH_DECIMAL, SPANISH_GROUPING, invalid);
+	}
+
+	public static double parseDouble(CharSequence text, char decimalSeparator, char groupingSeparator, double invalid) {
+		return parseDouble(text, 0, text == null ? 0 : text.length(), decimalSeparator, groupingSeparator, invalid);
+	}
+
+	/**
+	 * Lee un nmero de un texto sin crear objetos ni lanzar excepciones, pensado para
+	 * celdas de Excel y campos de formulario.
+	 * <ul>
+	 * <li>Se ignoran los espacios (tambin el de no separacin) del principio y del final.</li>
+	 * <li>Admite signo, separador de miles en grupos de tres cifras, separador decimal y
+	 * exponente (1,5E3).</li>
+	 * <li>Si el separador de miles aparece una sola vez, sin decimales y sin formar un grupo
+	 * de tres cifras, se toma como separador decimal: "12.5" es 12,5 pero "1.500" es 1500.
+	 * Con un cero delante no hay miles: "0.500" es 0,5.</li>
+	 * <li>Un nmero que no cabe en un double (1E400) no es vlido.</li>
+	 * </ul>
+	 * <pre>
+	 * parseDouble(" 1.234,56 ", 0, 10, ',', '.', -1) = 1234.56
+	 * parseDouble("abc", 0, 3, ',', '.', -1)        = -1
+	 * </pre>
+	 * @param text texto
+	 * @param start primer carcter
+	 * @param end carcter siguiente al ltimo
+	 * @param decimalSeparator separador decimal
+	 * @param groupingSeparator separador de miles
+	 * @param invalid valor a devolver si el texto est vaco o no es un nmero (p.e. Double.NaN)
+	 * @return el nmero o <code>invalid</code>
+	 */
+	public static double parseDouble(CharSequence text, int start, int end, char decimalSeparator, char groupingSeparator, double invalid) {
+		if (text == null) {
+			return invalid;
+		}
+		while (start < end && isSpace(text.charAt(start))) {
+			start++;
+		}
+		while (end > start && isSpace(text.charAt(end - 1))) {
+			end--;
+		}
+		int i = start;
+		boolean negative = false;
+		if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+			negative = text.charAt(i) == '-';
+			i++;
+		}
+		long mantissa = 0;
+		int significant = 0;
+		int fraction = 0;
+		boolean digits = false;
+		boolean decimal = false;
+		boolean precise = true;
+		// Separadores de miles: cuntos hay, cifras desde el ltimo y si los grupos son vlidos.
+		int groups = 0;
+		int groupDigits = 0;
+		boolean grouping = true;
+		for (; i < end; i++) {
+			char c = text.charAt(i);
+			if (c >= '0' && c <= '9') {
+				digits = true;
+				if (!decimal) {
+					groupDigits++;
+				}
+				if (significant < MAX_DIGITS) {
+					mantissa = mantissa * 10 + (c - '0');
+					if (mantissa > 0) {
+						significant++;
+					}
+					if (decimal) {
+						fraction++;
+					}
+				} else {
+					precise = false;
+				}
+			} else if (c == decimalSeparator) {
+				if (decimal || (groups > 0 && groupDigits != 3)) {
+					return invalid;
+				}
+				decimal = true;
+			} else if (c == groupingSeparator) {
+				if (decimal || groupDigits == 0) {
+					return invalid;
+				}
+				if (groups == 0 ? (groupDigits > 3 || (mantissa == 0 && significant == 0)) : groupDigits != 3) {
+					grouping = false;
+				}
+				groups++;
+				groupDigits = 0;
+			} else if (c == 'e' || c == 'E') {
+				break;
+			} else {
+				return invalid;
+			}
+		}
+		if (!digits) {
+			return invalid;
+		}
+		if (groups > 0 && !decimal && groupDigits != 3) {
+			grouping = false;
+		}
+		if (!grouping) {
+			if (groups > 1 || decimal || groupDigits == 0) {
+				return invalid;
+			}
+			// Un nico separador de miles que no forma grupo: es el decimal.
+			fraction = groupDigits;
+		}
+		int exponent = 0;
+		if (i < end) {
+			// Exponente: E seguido de un entero con signo.
+			i++;
+			boolean negativeExponent = false;
+			if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+				negativeExponent = text.charAt(i) == '-';
+				i++;
+			}
+			if (i == end) {
+				return invalid;
+			}
+			for (; i < end; i++) {
+				char c = text.charAt(i);
+				if (c < '0' || c > '9' || exponent > 9999) {
+					return invalid;
+				}
+				exponent = exponent * 10 + (c - '0');
+			}
+			if (negativeExponent) {
+				exponent = -exponent;
+			}
+		}
+		double value;
+		if (precise && exponent == 0 && mantissa <= MAX_EXACT && fraction < POWERS_OF_TEN.length) {
+			// Mantisa y potencia de diez exactas: una sola divisin, correctamente redondeada.
+			value = mantissa / POWERS_OF_TEN[fraction];
+		} else {
+			value = parseSlow(text, start, end, decimalSeparator, groupingSeparator, grouping);
+			if (Double.isInfinite(value)) {
+				// No cabe en un double: como cualquier otro texto que no es un nmero.
+				return invalid;
+			}
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Entero en formato espaol (admite punto de miles), sin lanzar excepciones.
+	 * @return el entero o <code>invalid</code> si no es un entero o no cabe en un int
+	 */
+	public static int parseInt(CharSequence text, int invalid) {
+		double d = parseDouble(text, Double.NaN);
+		if (Double.isNaN(d) || d != Math.rint(d) || d < Integer.MIN_VALUE || d > Integer.MAX_VALUE) {
+			return invalid;
+		}
+		return (int) d;
+	}
+
+	private static boolean isSpace(char c) {
+		return c == ' ' || c == '\t' || c == '\u00A0';
+	}
+
+	/**
+	 * Camino lento para los casos raros (ms de 18 cifras o exponente): el texto ya se ha
+	 * validado, as que Double.parseDouble no falla.
+	 */
+	private static double parseSlow(CharSequence text, int start, int end, char decimalSeparator, char groupingSeparator, boolean grouping) {
+		StringBuilder sb = new StringBuilder(end - start);
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c == '-' || c == '+') {
+				// El signo lo aplica quien llama, salvo el del exponente.
+				if (i > start) {
+					sb.append(c);
+				}
+			} else if (c == decimalSeparator || (c == groupingSeparator && !grouping)) {
+				sb.append('.');
+			} else if (c != groupingSeparator) {
+				sb.append(c);
+			}
+		}
+		return Double.parseDouble(sb.toString());
+	}
+
 	public static String toString(Integer value) {
 		if (value == null) return null;
 		return value.toString();
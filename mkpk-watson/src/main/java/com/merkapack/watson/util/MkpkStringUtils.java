@@ -6560,6 +6560,10 @@ public class MkpkStringUtils {
 			n = m;
 			m = t.length();
 		}
+		// the length difference alone already exceeds the threshold
+		if (m - n > threshold) {
+			return -1;
+		}
 		int p[] = new int[n + 1]; // 'previous' cost array, horizontally
 		int d[] = new int[n + 1]; // cost array, horizontally
 		int _d[]; // placeholder to assist in swapping p and d
@@ -6590,6 +6594,7 @@ public class MkpkStringUtils {
 				d[min - 1] = Integer.MAX_VALUE;
 			}
 			// iterates through [min, max] in s
+			int rowMin = Integer.MAX_VALUE;
 			for (int i = min; i <= max; i++) {
 				if (s.charAt(i - 1) == t_j) {
 					// diagonally left and up
@@ -6599,6 +6604,12 @@ public class MkpkStringUtils {
 					// left and up
 					d[i] = 1 + Math.min(Math.min(d[i - 1], p[i]), p[i - 1]);
 				}
+				rowMin = Math.min(rowMin, d[i]);
+			}
+			// costs never decrease from one row to the next, so once the whole
+			// stripe is over the threshold the distance is too
+			if (rowMin > threshold) {
+				return -1;
 			}
 			// copy current distance counts to 'previous row' distance counts
 			_d = p;
@@ -6614,6 +6625,51 @@ public class MkpkStringUtils {
 		return -1;
 	}
 
+	// Accents
+	// -----------------------------------------------------------------------
+	private static final String ACCENTED = "";
+	private static final String UNACCENTED = "AAAAAACEEEEIIIINOOOOOOUUUUYaaaaaaceeeeiiiinoooooouuuuyy";
+
+	/**
+	 * <p>
+	 * Removes diacritics (~= accents) from a string. The case will not be
+	 * altered. Only the Latin-1 range is folded, so it can be used on the
+	 * client side as well (no {@code java.text.Normalizer}).
+	 * </p>
+	 *
+	 * <pre>
+	 * StringUtils.stripAccents(null)                = null
+	 * StringUtils.stripAccents("")                  = ""
+	 * StringUtils.stripAccents("control")           = "control"
+	 * StringUtils.stripAccents("&eacute;clair")     = "eclair"
+	 * StringUtils.stripAccents("Compa&ntilde;&iacute;a") = "Compania"
+	 * </pre>
+	 *
+	 * @param input
+	 *            String to be stripped
+	 * @return input text with diacritics removed
+	 */
+	public static String stripAccents(final String input) {
+		if (input == null) {
+			return null;
+		}
+		char[] chars = null;
+		for (int i = 0; i < input.length(); i++) {
+			final char c = input.charAt(i);
+			if (c < '\u00c0') {
+				continue;
+			}
+			final int index = ACCENTED.indexOf(c);
+			if (index >= 0) {
+				if (chars == null) {
+					chars = input.toCharArray();
+				}
+				chars[i] = UNACCENTED.charAt(index);
+			}
+		}
+		return chars == null ? input : new String(chars);
+	}
+
 	// startsWith
 	// -----------------------------------------------------------------------
 	/**
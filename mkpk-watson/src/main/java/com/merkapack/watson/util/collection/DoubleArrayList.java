@@ -0,0 +1,186 @@
+package com.merkapack.watson.util.collection;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Lista de double sin objetos Double. Se recorre por ndice, como {@link IntArrayList}.
+ */
+public class DoubleArrayList implements Serializable {
+
+	private static final long serialVersionUID = -1544271815086357322L;
+	private static final int DEFAULT_CAPACITY = 10;
+
+	private double[] elements;
+	private int size;
+
+	public DoubleArrayList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public DoubleArrayList(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Capacidad negativa: " + capacity);
+		}
+		this.elements = new double[capacity];
+	}
+
+	public static DoubleArrayList of(double... values) {
+		DoubleArrayList list = new DoubleArrayList(values.length);
+		System.arraycopy(values, 0, list.elements, 0, values.length);
+		list.size = values.length;
+		return list;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public double get(int index) {
+		checkIndex(index);
+		return elements[index];
+	}
+
+	/**
+	 * @return el valor anterior
+	 */
+	public double set(int index, double value) {
+		checkIndex(index);
+		double previous = elements[index];
+		elements[index] = value;
+		return previous;
+	}
+
+	public DoubleArrayList add(double value) {
+		ensureCapacity(size + 1);
+		elements[size++] = value;
+		return this;
+	}
+
+	public DoubleArrayList add(int index, double value) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		ensureCapacity(size + 1);
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = value;
+		size++;
+		return this;
+	}
+
+	public DoubleArrayList addAll(DoubleArrayList values) {
+		ensureCapacity(size + values.size);
+		System.arraycopy(values.elements, 0, elements, size, values.size);
+		size += values.size;
+		return this;
+	}
+
+	/**
+	 * @return el valor eliminado
+	 */
+	public double removeAt(int index) {
+		checkIndex(index);
+		double previous = elements[index];
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		size--;
+		return previous;
+	}
+
+	/**
+	 * Busca el valor con la misma igualdad que Double.equals (NaN es igual a NaN).
+	 */
+	public int indexOf(double value) {
+		for (int i = 0; i < size; i++) {
+			if (Double.compare(elements[i], value) == 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public boolean contains(double value) {
+		return indexOf(value) >= 0;
+	}
+
+	public double sum() {
+		double sum = 0;
+		for (int i = 0; i < size; i++) {
+			sum += elements[i];
+		}
+		return sum;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public void sort() {
+		Arrays.sort(elements, 0, size);
+	}
+
+	public double[] toArray() {
+		double[] array = new double[size];
+		System.arraycopy(elements, 0, array, 0, size);
+		return array;
+	}
+
+	public void ensureCapacity(int capacity) {
+		if (capacity > elements.length) {
+			int grown = Math.max(capacity, elements.length + (elements.length >> 1) + 1);
+			double[] e = new double[grown];
+			System.arraycopy(elements, 0, e, 0, size);
+			elements = e;
+		}
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DoubleArrayList)) {
+			return false;
+		}
+		DoubleArrayList other = (DoubleArrayList) obj;
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (Double.compare(elements[i], other.elements[i]) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < size; i++) {
+			hash = 31 * hash + Double.valueOf(elements[i]).hashCode();
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(elements[i]);
+		}
+		return sb.append(']').toString();
+	}
+}
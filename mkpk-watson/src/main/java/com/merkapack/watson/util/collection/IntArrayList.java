@@ -0,0 +1,180 @@
+package com.merkapack.watson.util.collection;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Lista de int sin objetos Integer. Se recorre por ndice:
+ * <pre>
+ * for (int i = 0; i &lt; list.size(); i++) {
+ *     int value = list.get(i);
+ * }
+ * </pre>
+ */
+public class IntArrayList implements Serializable {
+
+	private static final long serialVersionUID = 3364718212874011905L;
+	private static final int DEFAULT_CAPACITY = 10;
+
+	private int[] elements;
+	private int size;
+
+	public IntArrayList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public IntArrayList(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Capacidad negativa: " + capacity);
+		}
+		this.elements = new int[capacity];
+	}
+
+	public static IntArrayList of(int... values) {
+		IntArrayList list = new IntArrayList(values.length);
+		System.arraycopy(values, 0, list.elements, 0, values.length);
+		list.size = values.length;
+		return list;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int get(int index) {
+		checkIndex(index);
+		return elements[index];
+	}
+
+	/**
+	 * @return el valor anterior
+	 */
+	public int set(int index, int value) {
+		checkIndex(index);
+		int previous = elements[index];
+		elements[index] = value;
+		return previous;
+	}
+
+	public IntArrayList add(int value) {
+		ensureCapacity(size + 1);
+		elements[size++] = value;
+		return this;
+	}
+
+	public IntArrayList add(int index, int value) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		ensureCapacity(size + 1);
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = value;
+		size++;
+		return this;
+	}
+
+	public IntArrayList addAll(IntArrayList values) {
+		ensureCapacity(size + values.size);
+		System.arraycopy(values.elements, 0, elements, size, values.size);
+		size += values.size;
+		return this;
+	}
+
+	/**
+	 * @return el valor eliminado
+	 */
+	public int removeAt(int index) {
+		checkIndex(index);
+		int previous = elements[index];
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		size--;
+		return previous;
+	}
+
+	public int indexOf(int value) {
+		for (int i = 0; i < size; i++) {
+			if (elements[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public boolean contains(int value) {
+		return indexOf(value) >= 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public void sort() {
+		Arrays.sort(elements, 0, size);
+	}
+
+	public int[] toArray() {
+		int[] array = new int[size];
+		System.arraycopy(elements, 0, array, 0, size);
+		return array;
+	}
+
+	public void ensureCapacity(int capacity) {
+		if (capacity > elements.length) {
+			int grown = Math.max(capacity, elements.length + (elements.length >> 1) + 1);
+			int[] e = new int[grown];
+			System.arraycopy(elements, 0, e, 0, size);
+			elements = e;
+		}
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof IntArrayList)) {
+			return false;
+		}
+		IntArrayList other = (IntArrayList) obj;
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (elements[i] != other.elements[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < size; i++) {
+			hash = 31 * hash + elements[i];
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(elements[i]);
+		}
+		return sb.append(']').toString();
+	}
+}
@@ -0,0 +1,250 @@
+package com.merkapack.watson.util.collection;
+
+import static com.merkapack.watson.util.collection.IntHashing.FREE;
+
+import java.io.Serializable;
+
+/**
+ * Conjunto de int con direccionamiento abierto, sin objetos Integer.
+ *
+ * Se recorre con un cursor, sin crear iteradores:
+ * <pre>
+ * for (int c = set.first(); c &gt;= 0; c = set.next(c)) {
+ *     int key = set.keyAt(c);
+ * }
+ * </pre>
+ * El conjunto no se debe modificar mientras se recorre.
+ */
+public class IntHashSet implements Serializable {
+
+	private static final long serialVersionUID = -3206934962391386211L;
+
+	private int[] keys;
+	private boolean hasZero;
+	private int size;
+	private int threshold;
+
+	public IntHashSet() {
+		this(0);
+	}
+
+	/**
+	 * @param expected nmero de elementos previsto
+	 */
+	public IntHashSet(int expected) {
+		allocate(IntHashing.capacityFor(expected));
+	}
+
+	public static IntHashSet of(int... values) {
+		IntHashSet set = new IntHashSet(values.length);
+		for (int value : values) {
+			set.add(value);
+		}
+		return set;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean contains(int key) {
+		if (key == FREE) {
+			return hasZero;
+		}
+		return slot(key) >= 0;
+	}
+
+	/**
+	 * @return true si el elemento no estaba
+	 */
+	public boolean add(int key) {
+		if (key == FREE) {
+			if (hasZero) {
+				return false;
+			}
+			hasZero = true;
+			size++;
+			return true;
+		}
+		int mask = keys.length - 1;
+		int i = IntHashing.mix(key) & mask;
+		while (keys[i] != FREE) {
+			if (keys[i] == key) {
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		size++;
+		if (size > threshold) {
+			rehash(IntHashing.grow(keys.length));
+		}
+		return true;
+	}
+
+	public void addAll(IntHashSet other) {
+		for (int c = other.first(); c >= 0; c = other.next(c)) {
+			add(other.keyAt(c));
+		}
+	}
+
+	/**
+	 * @return true si el elemento estaba
+	 */
+	public boolean remove(int key) {
+		if (key == FREE) {
+			if (!hasZero) {
+				return false;
+			}
+			hasZero = false;
+			size--;
+			return true;
+		}
+		int slot = slot(key);
+		if (slot < 0) {
+			return false;
+		}
+		shift(slot);
+		size--;
+		return true;
+	}
+
+	public void clear() {
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = FREE;
+		}
+		hasZero = false;
+		size = 0;
+	}
+
+	public int[] toArray() {
+		int[] array = new int[size];
+		int n = 0;
+		for (int c = first(); c >= 0; c = next(c)) {
+			array[n++] = keyAt(c);
+		}
+		return array;
+	}
+
+	/**
+	 * @return cursor del primer elemento o -1 si est vaco
+	 */
+	public int first() {
+		return next(-1);
+	}
+
+	/**
+	 * @return cursor del siguiente elemento o -1 si no hay ms
+	 */
+	public int next(int cursor) {
+		for (int i = cursor + 1; i < keys.length; i++) {
+			if (keys[i] != FREE) {
+				return i;
+			}
+		}
+		// El 0 no ocupa hueco en la tabla: va despus de la ltima posicin.
+		if (cursor < keys.length && hasZero) {
+			return keys.length;
+		}
+		return -1;
+	}
+
+	public int keyAt(int cursor) {
+		return cursor == keys.length ? FREE : keys[cursor];
+	}
+
+	private int slot(int key) {
+		int mask = keys.length - 1;
+		int i = IntHashing.mix(key) & mask;
+		while (keys[i] != FREE) {
+			if (keys[i] == key) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Borra un hueco desplazando hacia atrs los elementos que lo necesitan para seguir
+	 * siendo accesibles (sin marcas de borrado).
+	 */
+	private void shift(int gap) {
+		int mask = keys.length - 1;
+		int i = (gap + 1) & mask;
+		while (keys[i] != FREE) {
+			int home = IntHashing.mix(keys[i]) & mask;
+			if (((i - home) & mask) >= ((i - gap) & mask)) {
+				keys[gap] = keys[i];
+				gap = i;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[gap] = FREE;
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		threshold = IntHashing.threshold(capacity);
+	}
+
+	private void rehash(int capacity) {
+		int[] old = keys;
+		allocate(capacity);
+		int mask = capacity - 1;
+		for (int key : old) {
+			if (key != FREE) {
+				int i = IntHashing.mix(key) & mask;
+				while (keys[i] != FREE) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = key;
+			}
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof IntHashSet)) {
+			return false;
+		}
+		IntHashSet other = (IntHashSet) obj;
+		if (size != other.size) {
+			return false;
+		}
+		for (int c = first(); c >= 0; c = next(c)) {
+			if (!other.contains(keyAt(c))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (int c = first(); c >= 0; c = next(c)) {
+			hash += keyAt(c);
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int c = first(); c >= 0; c = next(c)) {
+			if (sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(keyAt(c));
+		}
+		return sb.append(']').toString();
+	}
+}
@@ -0,0 +1,54 @@
+package com.merkapack.watson.util.collection;
+
+/**
+ * Utilidades comunes de las tablas hash de claves int (direccionamiento abierto con
+ * sondeo lineal). La clave 0 se usa como hueco libre y se guarda aparte.
+ */
+class IntHashing {
+
+	static final int FREE = 0;
+	static final int MIN_CAPACITY = 8;
+	static final int MAX_CAPACITY = 1 << 30;
+
+	private IntHashing() {
+	}
+
+	/**
+	 * Dispersin de Thomas Wang slo con desplazamientos y sumas, para que d lo mismo en
+	 * Java y en JavaScript (GWT) sin depender del desbordamiento de la multiplicacin.
+	 */
+	static int mix(int key) {
+		int h = ~key + (key << 15);
+		h = h ^ (h >>> 12);
+		h = h + (h << 2);
+		h = h ^ (h >>> 4);
+		h = h + (h << 3) + (h << 11);
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * @param expected nmero de elementos previsto
+	 * @return capacidad (potencia de dos) para guardarlos sin pasar del 75% de ocupacin
+	 */
+	static int capacityFor(int expected) {
+		if (expected < 0) {
+			throw new IllegalArgumentException("Capacidad negativa: " + expected);
+		}
+		int capacity = MIN_CAPACITY;
+		while (capacity < MAX_CAPACITY && capacity - (capacity >> 2) <= expected) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	static int grow(int capacity) {
+		if (capacity >= MAX_CAPACITY) {
+			throw new IllegalStateException("Tabla llena: " + capacity);
+		}
+		return capacity << 1;
+	}
+
+	static int threshold(int capacity) {
+		return capacity - (capacity >> 2);
+	}
+}
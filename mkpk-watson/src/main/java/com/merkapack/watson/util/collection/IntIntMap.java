@@ -0,0 +1,295 @@
+package com.merkapack.watson.util.collection;
+
+import static com.merkapack.watson.util.collection.IntHashing.FREE;
+
+import java.io.Serializable;
+
+/**
+ * Mapa de int a int con direccionamiento abierto, sin objetos Integer. Una clave que
+ * no est vale 0, as que sirve directamente para contar o acumular:
+ * <pre>
+ * counts.addTo(id, 1);
+ * </pre>
+ * Se recorre con un cursor, como {@link IntHashSet}:
+ * <pre>
+ * for (int c = map.first(); c &gt;= 0; c = map.next(c)) {
+ *     int key = map.keyAt(c);
+ *     int value = map.valueAt(c);
+ * }
+ * </pre>
+ */
+public class IntIntMap implements Serializable {
+
+	private static final long serialVersionUID = 5104718046229735317L;
+
+	private int[] keys;
+	private int[] values;
+	private boolean hasZero;
+	private int zeroValue;
+	private int size;
+	private int threshold;
+
+	public IntIntMap() {
+		this(0);
+	}
+
+	/**
+	 * @param expected nmero de claves previsto
+	 */
+	public IntIntMap(int expected) {
+		allocate(IntHashing.capacityFor(expected));
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean containsKey(int key) {
+		if (key == FREE) {
+			return hasZero;
+		}
+		return slot(key) >= 0;
+	}
+
+	/**
+	 * @return el valor de la clave o 0 si no est
+	 */
+	public int get(int key) {
+		return get(key, 0);
+	}
+
+	/**
+	 * @return el valor de la clave o <code>defaultValue</code> si no est
+	 */
+	public int get(int key, int defaultValue) {
+		if (key == FREE) {
+			return hasZero ? zeroValue : defaultValue;
+		}
+		int slot = slot(key);
+		return slot < 0 ? defaultValue : values[slot];
+	}
+
+	/**
+	 * @return el valor anterior o 0 si no estaba
+	 */
+	public int put(int key, int value) {
+		if (key == FREE) {
+			int previous = zeroValue;
+			if (!hasZero) {
+				hasZero = true;
+				size++;
+			}
+			zeroValue = value;
+			return previous;
+		}
+		int mask = keys.length - 1;
+		int i = IntHashing.mix(key) & mask;
+		while (keys[i] != FREE) {
+			if (keys[i] == key) {
+				int previous = values[i];
+				values[i] = value;
+				return previous;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = value;
+		size++;
+		if (size > threshold) {
+			rehash(IntHashing.grow(keys.length));
+		}
+		return 0;
+	}
+
+	/**
+	 * Suma <code>delta</code> al valor de la clave (0 si no estaba).
+	 * @return el nuevo valor
+	 */
+	public int addTo(int key, int delta) {
+		if (key == FREE) {
+			if (!hasZero) {
+				hasZero = true;
+				size++;
+			}
+			zeroValue += delta;
+			return zeroValue;
+		}
+		int mask = keys.length - 1;
+		int i = IntHashing.mix(key) & mask;
+		while (keys[i] != FREE) {
+			if (keys[i] == key) {
+				values[i] += delta;
+				return values[i];
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = delta;
+		size++;
+		if (size > threshold) {
+			rehash(IntHashing.grow(keys.length));
+		}
+		return delta;
+	}
+
+	/**
+	 * @return el valor que tena o 0 si no estaba
+	 */
+	public int remove(int key) {
+		if (key == FREE) {
+			if (!hasZero) {
+				return 0;
+			}
+			int previous = zeroValue;
+			hasZero = false;
+			zeroValue = 0;
+			size--;
+			return previous;
+		}
+		int slot = slot(key);
+		if (slot < 0) {
+			return 0;
+		}
+		int previous = values[slot];
+		shift(slot);
+		size--;
+		return previous;
+	}
+
+	public void clear() {
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = FREE;
+			values[i] = 0;
+		}
+		hasZero = false;
+		zeroValue = 0;
+		size = 0;
+	}
+
+	/**
+	 * @return cursor de la primera clave o -1 si est vaco
+	 */
+	public int first() {
+		return next(-1);
+	}
+
+	/**
+	 * @return cursor de la siguiente clave o -1 si no hay ms
+	 */
+	public int next(int cursor) {
+		for (int i = cursor + 1; i < keys.length; i++) {
+			if (keys[i] != FREE) {
+				return i;
+			}
+		}
+		if (cursor < keys.length && hasZero) {
+			return keys.length;
+		}
+		return -1;
+	}
+
+	public int keyAt(int cursor) {
+		return cursor == keys.length ? FREE : keys[cursor];
+	}
+
+	public int valueAt(int cursor) {
+		return cursor == keys.length ? zeroValue : values[cursor];
+	}
+
+	private int slot(int key) {
+		int mask = keys.length - 1;
+		int i = IntHashing.mix(key) & mask;
+		while (keys[i] != FREE) {
+			if (keys[i] == key) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void shift(int gap) {
+		int mask = keys.length - 1;
+		int i = (gap + 1) & mask;
+		while (keys[i] != FREE) {
+			int home = IntHashing.mix(keys[i]) & mask;
+			if (((i - home) & mask) >= ((i - gap) & mask)) {
+				keys[gap] = keys[i];
+				values[gap] = values[i];
+				gap = i;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[gap] = FREE;
+		values[gap] = 0;
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new int[capacity];
+		threshold = IntHashing.threshold(capacity);
+	}
+
+	private void rehash(int capacity) {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(capacity);
+		int mask = capacity - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldKeys[j] != FREE) {
+				int i = IntHashing.mix(oldKeys[j]) & mask;
+				while (keys[i] != FREE) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof IntIntMap)) {
+			return false;
+		}
+		IntIntMap other = (IntIntMap) obj;
+		if (size != other.size) {
+			return false;
+		}
+		for (int c = first(); c >= 0; c = next(c)) {
+			int key = keyAt(c);
+			if (!other.containsKey(key) || other.get(key) != valueAt(c)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (int c = first(); c >= 0; c = next(c)) {
+			hash += keyAt(c) ^ valueAt(c);
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int c = first(); c >= 0; c = next(c)) {
+			if (sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(keyAt(c)).append('=').append(valueAt(c));
+		}
+		return sb.append('}').toString();
+	}
+}
@@ -0,0 +1,260 @@
+package com.merkapack.watson.util.collection;
+
+import static com.merkapack.watson.util.collection.IntHashing.FREE;
+
+import java.io.Serializable;
+
+/**
+ * Mapa de int a objeto con direccionamiento abierto, sin objetos Integer para las claves.
+ * Pensado para bsquedas por identificador (id -&gt; Material, id -&gt; Roll...).
+ * Se recorre con un cursor, como {@link IntHashSet}:
+ * <pre>
+ * for (int c = map.first(); c &gt;= 0; c = map.next(c)) {
+ *     int id = map.keyAt(c);
+ *     Material material = map.valueAt(c);
+ * }
+ * </pre>
+ */
+public class IntObjectMap<V> implements Serializable {
+
+	private static final long serialVersionUID = -6687425326129541842L;
+
+	private int[] keys;
+	private Object[] values;
+	private boolean hasZero;
+	private V zeroValue;
+	private int size;
+	private int threshold;
+
+	public IntObjectMap() {
+		this(0);
+	}
+
+	/**
+	 * @param expected nmero de claves previsto
+	 */
+	public IntObjectMap(int expected) {
+		allocate(IntHashing.capacityFor(expected));
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean containsKey(int key) {
+		if (key == FREE) {
+			return hasZero;
+		}
+		return slot(key) >= 0;
+	}
+
+	/**
+	 * @return el valor de la clave o nulo si no est
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		if (key == FREE) {
+			return zeroValue;
+		}
+		int slot = slot(key);
+		return slot < 0 ? null : (V) values[slot];
+	}
+
+	/**
+	 * @return el valor anterior o nulo si no estaba
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		if (key == FREE) {
+			V previous = zeroValue;
+			if (!hasZero) {
+				hasZero = true;
+				size++;
+			}
+			zeroValue = value;
+			return previous;
+		}
+		int mask = keys.length - 1;
+		int i = IntHashing.mix(key) & mask;
+		while (keys[i] != FREE) {
+			if (keys[i] == key) {
+				V previous = (V) values[i];
+				values[i] = value;
+				return previous;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = value;
+		size++;
+		if (size > threshold) {
+			rehash(IntHashing.grow(keys.length));
+		}
+		return null;
+	}
+
+	/**
+	 * @return el valor que tena o nulo si no estaba
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key) {
+		if (key == FREE) {
+			V previous = zeroValue;
+			if (hasZero) {
+				hasZero = false;
+				zeroValue = null;
+				size--;
+			}
+			return previous;
+		}
+		int slot = slot(key);
+		if (slot < 0) {
+			return null;
+		}
+		V previous = (V) values[slot];
+		shift(slot);
+		size--;
+		return previous;
+	}
+
+	public void clear() {
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = FREE;
+			values[i] = null;
+		}
+		hasZero = false;
+		zeroValue = null;
+		size = 0;
+	}
+
+	/**
+	 * @return cursor de la primera clave o -1 si est vaco
+	 */
+	public int first() {
+		return next(-1);
+	}
+
+	/**
+	 * @return cursor de la siguiente clave o -1 si no hay ms
+	 */
+	public int next(int cursor) {
+		for (int i = cursor + 1; i < keys.length; i++) {
+			if (keys[i] != FREE) {
+				return i;
+			}
+		}
+		if (cursor < keys.length && hasZero) {
+			return keys.length;
+		}
+		return -1;
+	}
+
+	public int keyAt(int cursor) {
+		return cursor == keys.length ? FREE : keys[cursor];
+	}
+
+	@SuppressWarnings("unchecked")
+	public V valueAt(int cursor) {
+		return cursor == keys.length ? zeroValue : (V) values[cursor];
+	}
+
+	private int slot(int key) {
+		int mask = keys.length - 1;
+		int i = IntHashing.mix(key) & mask;
+		while (keys[i] != FREE) {
+			if (keys[i] == key) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void shift(int gap) {
+		int mask = keys.length - 1;
+		int i = (gap + 1) & mask;
+		while (keys[i] != FREE) {
+			int home = IntHashing.mix(keys[i]) & mask;
+			if (((i - home) & mask) >= ((i - gap) & mask)) {
+				keys[gap] = keys[i];
+				values[gap] = values[i];
+				gap = i;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[gap] = FREE;
+		values[gap] = null;
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new Object[capacity];
+		threshold = IntHashing.threshold(capacity);
+	}
+
+	private void rehash(int capacity) {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(capacity);
+		int mask = capacity - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldKeys[j] != FREE) {
+				int i = IntHashing.mix(oldKeys[j]) & mask;
+				while (keys[i] != FREE) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof IntObjectMap)) {
+			return false;
+		}
+		IntObjectMap<?> other = (IntObjectMap<?>) obj;
+		if (size != other.size) {
+			return false;
+		}
+		for (int c = first(); c >= 0; c = next(c)) {
+			int key = keyAt(c);
+			V value = valueAt(c);
+			Object o = other.get(key);
+			if (!other.containsKey(key) || (value == null ? o != null : !value.equals(o))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (int c = first(); c >= 0; c = next(c)) {
+			V value = valueAt(c);
+			hash += keyAt(c) ^ (value == null ? 0 : value.hashCode());
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int c = first(); c >= 0; c = next(c)) {
+			if (sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(keyAt(c)).append('=').append(valueAt(c));
+		}
+		return sb.append('}').toString();
+	}
+}
@@ -0,0 +1,95 @@
+package com.merkapack.watson.server;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Los resultados tienen que ser los mismos que con Calendar, tambi&eacute;n en los cambios de hora.
+ */
+@SuppressWarnings("deprecation")
+public class MkpkServerDateUtilsTest {
+
+	private static final String[] ZONES = { "Europe/Madrid", "America/New_York", "UTC", "Australia/Lord_Howe" };
+	private static final int[] ADD_FIELDS = { Calendar.DAY_OF_MONTH, Calendar.DAY_OF_YEAR, Calendar.DAY_OF_WEEK
+		, Calendar.WEEK_OF_YEAR, Calendar.DAY_OF_WEEK_IN_MONTH, Calendar.MONTH, Calendar.YEAR, Calendar.HOUR_OF_DAY };
+	private static final int[] GET_FIELDS = { Calendar.YEAR, Calendar.MONTH, Calendar.DAY_OF_MONTH
+		, Calendar.DAY_OF_YEAR, Calendar.DAY_OF_WEEK };
+
+	private final TimeZone zone = TimeZone.getDefault();
+
+	@After
+	public void restore() {
+		TimeZone.setDefault(zone);
+	}
+
+	private static Calendar calendar(Date date) {
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTime(date);
+		return calendar;
+	}
+
+	@Test
+	public void testSameAsCalendar() {
+		for (String id : ZONES) {
+			TimeZone.setDefault(TimeZone.getTimeZone(id));
+			Random random = new Random(1);
+			for (int i = 0; i < 20000; i++) {
+				long time = -2000000000000L + (long) (random.nextDouble() * 4500000000000L);
+				Date date = random.nextBoolean() ? new Date(time) : new java.sql.Date(time);
+				String msg = id + " " + date.getTime();
+
+				int field = ADD_FIELDS[random.nextInt(ADD_FIELDS.length)];
+				int value = random.nextInt(100) - 50;
+				Calendar calendar = calendar(date);
+				calendar.add(field, value);
+				assertEquals(msg + " add " + field + " " + value, calendar.getTimeInMillis()
+					, MkpkServerDateUtils.add(date, field, value, Date::new).getTime());
+
+				for (int get : GET_FIELDS) {
+					assertEquals(msg + " get " + get, calendar(date).get(get), MkpkServerDateUtils.get(date, get));
+				}
+				assertEquals(msg, calendar(date).getActualMaximum(Calendar.DAY_OF_MONTH)
+					, MkpkServerDateUtils.getMax(date, Calendar.DAY_OF_MONTH));
+				assertEquals(msg, calendar(date).getActualMaximum(Calendar.DAY_OF_YEAR)
+					, MkpkServerDateUtils.getMax(date, Calendar.DAY_OF_YEAR));
+
+				calendar = calendar(date);
+				calendar.set(Calendar.DAY_OF_MONTH, 1);
+				assertEquals(msg, calendar.getTimeInMillis(), MkpkServerDateUtils.getFirstDayOfMonth(date, Date::new).getTime());
+				calendar = calendar(date);
+				calendar.set(Calendar.DAY_OF_MONTH, calendar.getActualMaximum(Calendar.DAY_OF_MONTH));
+				assertEquals(msg, calendar.getTimeInMillis(), MkpkServerDateUtils.getLastDayOfMonth(date, Date::new).getTime());
+				calendar = calendar(date);
+				calendar.set(Calendar.DAY_OF_YEAR, 1);
+				assertEquals(msg, calendar.getTimeInMillis(), MkpkServerDateUtils.getFirstDayOfYear(date, Date::new).getTime());
+				calendar = calendar(date);
+				calendar.set(Calendar.DAY_OF_YEAR, calendar.getActualMaximum(Calendar.DAY_OF_YEAR));
+				assertEquals(msg, calendar.getTimeInMillis(), MkpkServerDateUtils.getLastDayOfYear(date, Date::new).getTime());
+			}
+		}
+	}
+
+	@Test
+	public void testEndOfMonth() {
+		Date date = new Date(120, 0, 31, 10, 30);
+		assertEquals(new Date(120, 1, 29, 10, 30), MkpkServerDateUtils.add(date, Calendar.MONTH, 1));
+		assertEquals(new Date(121, 1, 28, 10, 30), MkpkServerDateUtils.add(date, Calendar.MONTH, 13));
+		assertEquals(new Date(119, 11, 31, 10, 30), MkpkServerDateUtils.add(date, Calendar.MONTH, -1));
+		assertEquals(new Date(121, 1, 28, 10, 30), MkpkServerDateUtils.add(new Date(120, 1, 29, 10, 30), Calendar.YEAR, 1));
+	}
+
+	@Test
+	public void testSqlDate() {
+		java.sql.Date date = java.sql.Date.valueOf("2018-11-05");
+		assertEquals(java.sql.Date.valueOf("2018-11-30"), MkpkServerDateUtils.getLastDayOfMonth(date));
+		assertEquals(java.sql.Date.valueOf("2019-01-01"), MkpkServerDateUtils.add(date, Calendar.DAY_OF_MONTH, 57));
+		assertEquals(java.sql.Date.valueOf("2018-10-29"), MkpkServerDateUtils.addDays(date, -7));
+	}
+}
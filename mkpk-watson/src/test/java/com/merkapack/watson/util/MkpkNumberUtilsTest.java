@@ -0,0 +1,112 @@
+package com.merkapack.watson.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class MkpkNumberUtilsTest {
+
+	private static double parse(String text) {
+		return MkpkNumberUtils.parseDouble(text, Double.NaN);
+	}
+
+	private static void assertInvalid(String text) {
+		assertTrue(text, Double.isNaN(parse(text)));
+	}
+
+	@Test
+	public void testSpanishFormat() {
+		assertEquals(1234.5, parse("1.234,5"), 0);
+		assertEquals(1234567, parse("1.234.567"), 0);
+		assertEquals(123456.789, parse("123.456,789"), 0);
+		assertEquals(0.1, parse("0,1"), 0);
+		assertEquals(0.5, parse(",5"), 0);
+		assertEquals(-0.5, parse("-,5"), 0);
+		assertEquals(5, parse("5,"), 0);
+		assertEquals(1234.56, parse(" 1.234,56\t"), 0);
+		assertEquals(1.5, parse("\u00A01,5\u00A0"), 0);
+		assertEquals(1500, parse("1,5E3"), 0);
+		assertEquals(-1500, parse("-1,5e+3"), 0);
+	}
+
+	@Test
+	public void testPointAsDecimal() {
+		// Un solo punto que no forma un grupo de tres cifras es el decimal.
+		assertEquals(12.5, parse("12.5"), 0);
+		assertEquals(1.2345, parse("1.2345"), 0);
+		assertEquals(1500, parse("1.500"), 0);
+		assertEquals(0.5, parse("0.500"), 0);
+	}
+
+	@Test
+	public void testInvalid() {
+		assertInvalid("");
+		assertInvalid("   ");
+		assertInvalid("-");
+		assertInvalid("+");
+		assertInvalid(",");
+		assertInvalid("1,2,3");
+		assertInvalid("1..2");
+		assertInvalid("1.23.4");
+		assertInvalid("1 234");
+		assertInvalid("12a");
+		assertInvalid("1E");
+		assertInvalid("1E+");
+		assertInvalid("--1");
+		assertInvalid(null);
+		assertEquals(-1, MkpkNumberUtils.parseDouble("abc", -1), 0);
+	}
+
+	@Test
+	public void testOverflow() {
+		assertInvalid("1E400");
+		assertInvalid("-1E400");
+		assertInvalid("1E99999");
+		assertEquals(0, parse("1E-400"), 0);
+		// Ms cifras de las que caben en la mantisa: se redondea como Double.parseDouble.
+		assertEquals(1e20, parse("99999999999999999999"), 0);
+		assertEquals(Double.parseDouble("1234567890123456789012.5"), parse("1.234.567.890.123.456.789.012,5"), 0);
+		assertEquals(Double.parseDouble("0.12345678901234567890123"), parse("0,12345678901234567890123"), 0);
+	}
+
+	@Test
+	public void testSameAsDoubleParse() {
+		String[] texts = { "0,1", "0,3", "2,675", "1,005", "123456789,123456789", "9007199254740993", "0,000001" };
+		for (String text : texts) {
+			assertEquals(text, Double.parseDouble(text.replace(',', '.')), parse(text), 0);
+		}
+	}
+
+	@Test
+	public void testParseInt() {
+		assertEquals(1234, MkpkNumberUtils.parseInt("1.234", -1));
+		assertEquals(2147483647, MkpkNumberUtils.parseInt("2.147.483.647", -1));
+		assertEquals(-2147483648, MkpkNumberUtils.parseInt("-2147483648", -1));
+		assertEquals(-1, MkpkNumberUtils.parseInt("2147483648", -1));
+		assertEquals(-1, MkpkNumberUtils.parseInt("1,5", -1));
+		assertEquals(-1, MkpkNumberUtils.parseInt("-", -1));
+		assertEquals(-1, MkpkNumberUtils.parseInt("", -1));
+		assertEquals(-1, MkpkNumberUtils.parseInt("1E400", -1));
+		assertEquals(0, MkpkNumberUtils.toint(null));
+		assertEquals(0, MkpkNumberUtils.toint("x"));
+		// toint sigue siendo Integer.parseInt: sin puntos de miles.
+		assertEquals(0, MkpkNumberUtils.toint("1.000"));
+	}
+
+	@Test
+	public void testToDouble() {
+		// toDouble y todouble siguen siendo Double.parseDouble, con punto decimal.
+		assertNull(MkpkNumberUtils.toDouble(""));
+		assertNull(MkpkNumberUtils.toDouble(null));
+		assertEquals(Double.valueOf(1.125), MkpkNumberUtils.toDouble("1.125"));
+		assertEquals(0, MkpkNumberUtils.todouble("-"), 0);
+		assertEquals(0, MkpkNumberUtils.todouble("1,5"), 0);
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testToDoubleInvalid() {
+		MkpkNumberUtils.toDouble("-");
+	}
+}
@@ -0,0 +1,55 @@
+package com.merkapack.watson.util.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DoubleArrayListTest {
+
+	@Test
+	public void testGrowth() {
+		DoubleArrayList list = new DoubleArrayList(0);
+		for (int i = 0; i < 1000; i++) {
+			list.add(i * 0.5);
+		}
+		assertEquals(1000, list.size());
+		assertEquals(499.5, list.get(999), 0);
+		assertEquals(249750, list.sum(), 0);
+	}
+
+	@Test
+	public void testInsertAndRemove() {
+		DoubleArrayList list = DoubleArrayList.of(1.5, 3.5);
+		list.add(1, 2.5).add(0, 0.5);
+		assertArrayEquals(new double[] { 0.5, 1.5, 2.5, 3.5 }, list.toArray(), 0);
+		assertEquals(1.5, list.removeAt(1), 0);
+		assertEquals(3.5, list.removeAt(2), 0);
+		assertArrayEquals(new double[] { 0.5, 2.5 }, list.toArray(), 0);
+		list.clear();
+		assertTrue(list.isEmpty());
+		assertEquals(0, list.sum(), 0);
+	}
+
+	@Test
+	public void testIndexOf() {
+		DoubleArrayList list = DoubleArrayList.of(0.0, Double.NaN, -0.0);
+		assertEquals(1, list.indexOf(Double.NaN));
+		// Igual que Double.equals: 0.0 y -0.0 son distintos.
+		assertEquals(0, list.indexOf(0.0));
+		assertEquals(2, list.indexOf(-0.0));
+		assertEquals(-1, list.indexOf(1.0));
+	}
+
+	@Test
+	public void testEquals() {
+		DoubleArrayList a = new DoubleArrayList(100).add(1.5).add(Double.NaN);
+		DoubleArrayList b = DoubleArrayList.of(1.5, Double.NaN, 2);
+		assertNotEquals(a, b);
+		b.removeAt(2);
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+	}
+}
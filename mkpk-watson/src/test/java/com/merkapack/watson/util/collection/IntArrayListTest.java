@@ -0,0 +1,69 @@
+package com.merkapack.watson.util.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class IntArrayListTest {
+
+	@Test
+	public void testGrowth() {
+		IntArrayList list = new IntArrayList(0);
+		for (int i = 0; i < 1000; i++) {
+			list.add(i);
+		}
+		assertEquals(1000, list.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, list.get(i));
+		}
+		list.addAll(IntArrayList.of(-1, -2));
+		assertEquals(1002, list.size());
+		assertEquals(-2, list.get(1001));
+	}
+
+	@Test
+	public void testInsertAndRemove() {
+		IntArrayList list = IntArrayList.of(1, 2, 4);
+		list.add(2, 3).add(0, 0).add(5, 5);
+		assertArrayEquals(new int[] { 0, 1, 2, 3, 4, 5 }, list.toArray());
+		assertEquals(0, list.removeAt(0));
+		assertEquals(5, list.removeAt(4));
+		assertEquals(3, list.removeAt(2));
+		assertArrayEquals(new int[] { 1, 2, 4 }, list.toArray());
+		assertEquals(2, list.set(1, 7));
+		assertEquals(1, list.indexOf(7));
+		assertFalse(list.contains(2));
+		list.clear();
+		assertTrue(list.isEmpty());
+		assertEquals(-1, list.indexOf(1));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetPastSize() {
+		// La capacidad no cuenta: slo los elementos aadidos.
+		new IntArrayList(10).add(1).get(1);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRemovePastSize() {
+		IntArrayList.of(1, 2).removeAt(2);
+	}
+
+	@Test
+	public void testEquals() {
+		IntArrayList a = new IntArrayList(100).add(1).add(2);
+		IntArrayList b = IntArrayList.of(1, 2, 3);
+		assertNotEquals(a, b);
+		b.removeAt(2);
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertEquals("[1, 2]", a.toString());
+		b.sort();
+		a.add(0, 9).sort();
+		assertArrayEquals(new int[] { 1, 2, 9 }, a.toArray());
+	}
+}
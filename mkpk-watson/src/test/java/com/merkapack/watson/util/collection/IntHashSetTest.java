@@ -0,0 +1,101 @@
+package com.merkapack.watson.util.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class IntHashSetTest {
+
+	private static Set<Integer> keys(IntHashSet set) {
+		Set<Integer> keys = new HashSet<Integer>();
+		for (int c = set.first(); c >= 0; c = set.next(c)) {
+			assertTrue(keys.add(set.keyAt(c)));
+		}
+		return keys;
+	}
+
+	@Test
+	public void testZero() {
+		IntHashSet set = new IntHashSet();
+		assertFalse(set.contains(0));
+		assertTrue(set.add(0));
+		assertFalse(set.add(0));
+		assertTrue(set.contains(0));
+		assertEquals(1, set.size());
+		assertEquals(0, set.keyAt(set.first()));
+		assertEquals(-1, set.next(set.first()));
+		assertTrue(set.remove(0));
+		assertFalse(set.remove(0));
+		assertTrue(set.isEmpty());
+		assertEquals(-1, set.first());
+	}
+
+	@Test
+	public void testSameAsHashSet() {
+		Random random = new Random(1);
+		IntHashSet set = new IntHashSet(0);
+		Set<Integer> expected = new HashSet<Integer>();
+		for (int i = 0; i < 100000; i++) {
+			// Pocas claves para que haya muchas colisiones, borrados y vuelta a aadir.
+			int key = random.nextInt(2000) - 1000;
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), set.remove(key));
+			} else {
+				assertEquals(expected.add(key), set.add(key));
+			}
+			assertEquals(expected.size(), set.size());
+		}
+		assertEquals(expected, keys(set));
+		for (int key = -1000; key < 1000; key++) {
+			assertEquals(expected.contains(key), set.contains(key));
+		}
+		assertEquals(expected.size(), set.toArray().length);
+	}
+
+	@Test
+	public void testRemoveKeepsCollisions() {
+		// Claves que caen en el mismo hueco de la tabla mnima (8 posiciones).
+		IntHashSet set = new IntHashSet(0);
+		int[] same = new int[5];
+		int n = 0;
+		int slot = IntHashing.mix(1) & 7;
+		for (int key = 1; n < same.length; key++) {
+			if ((IntHashing.mix(key) & 7) == slot) {
+				same[n++] = key;
+			}
+		}
+		for (int i = 0; i < 4; i++) {
+			set.add(same[i]);
+		}
+		assertTrue(set.remove(same[0]));
+		for (int i = 1; i < 4; i++) {
+			assertTrue(set.contains(same[i]));
+		}
+		assertFalse(set.contains(same[4]));
+	}
+
+	@Test
+	public void testEquals() {
+		IntHashSet a = IntHashSet.of(3, 0, -7, 1000000);
+		IntHashSet b = new IntHashSet(1000);
+		b.add(1000000);
+		b.add(-7);
+		b.add(0);
+		assertNotEquals(a, b);
+		b.add(3);
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		b.addAll(IntHashSet.of(5));
+		assertNotEquals(a, b);
+		a.clear();
+		assertTrue(a.isEmpty());
+		assertEquals(-1, a.first());
+	}
+}
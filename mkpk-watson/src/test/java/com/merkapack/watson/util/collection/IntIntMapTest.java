@@ -0,0 +1,92 @@
+package com.merkapack.watson.util.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntIntMapTest {
+
+	private static Map<Integer, Integer> entries(IntIntMap map) {
+		Map<Integer, Integer> entries = new HashMap<Integer, Integer>();
+		for (int c = map.first(); c >= 0; c = map.next(c)) {
+			assertNull(entries.put(map.keyAt(c), map.valueAt(c)));
+		}
+		return entries;
+	}
+
+	@Test
+	public void testAbsentKey() {
+		IntIntMap map = new IntIntMap();
+		assertEquals(0, map.get(5));
+		assertEquals(-1, map.get(5, -1));
+		assertFalse(map.containsKey(5));
+		map.put(5, 0);
+		assertTrue(map.containsKey(5));
+		assertEquals(0, map.get(5, -1));
+		assertEquals(0, map.remove(6));
+	}
+
+	@Test
+	public void testZero() {
+		IntIntMap map = new IntIntMap();
+		assertEquals(0, map.put(0, 7));
+		assertEquals(7, map.put(0, 8));
+		assertEquals(10, map.addTo(0, 2));
+		assertEquals(1, map.size());
+		assertEquals(0, map.keyAt(map.first()));
+		assertEquals(10, map.valueAt(map.first()));
+		assertEquals(10, map.remove(0));
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void testSameAsHashMap() {
+		Random random = new Random(1);
+		IntIntMap map = new IntIntMap(0);
+		Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+		for (int i = 0; i < 100000; i++) {
+			int key = random.nextInt(2000) - 1000;
+			int value = random.nextInt(100);
+			switch (random.nextInt(3)) {
+				case 0:
+					Integer removed = expected.remove(key);
+					assertEquals(removed == null ? 0 : removed.intValue(), map.remove(key));
+					break;
+				case 1:
+					Integer previous = expected.put(key, value);
+					assertEquals(previous == null ? 0 : previous.intValue(), map.put(key, value));
+					break;
+				default:
+					Integer sum = expected.merge(key, value, Integer::sum);
+					assertEquals(sum.intValue(), map.addTo(key, value));
+			}
+			assertEquals(expected.size(), map.size());
+		}
+		assertEquals(expected, entries(map));
+	}
+
+	@Test
+	public void testEquals() {
+		IntIntMap a = new IntIntMap();
+		IntIntMap b = new IntIntMap(1000);
+		for (int i = -50; i < 50; i++) {
+			a.put(i, i * 2);
+			b.put(-i - 1, (-i - 1) * 2);
+		}
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		b.addTo(10, 1);
+		assertNotEquals(a, b);
+		b.clear();
+		assertTrue(b.isEmpty());
+		assertEquals(-1, b.first());
+	}
+}
@@ -0,0 +1,79 @@
+package com.merkapack.watson.util.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntObjectMapTest {
+
+	private static Map<Integer, String> entries(IntObjectMap<String> map) {
+		Map<Integer, String> entries = new HashMap<Integer, String>();
+		for (int c = map.first(); c >= 0; c = map.next(c)) {
+			assertFalse(entries.containsKey(map.keyAt(c)));
+			entries.put(map.keyAt(c), map.valueAt(c));
+		}
+		return entries;
+	}
+
+	@Test
+	public void testNullValue() {
+		IntObjectMap<String> map = new IntObjectMap<String>();
+		assertNull(map.put(1, null));
+		assertTrue(map.containsKey(1));
+		assertFalse(map.containsKey(2));
+		assertNull(map.get(1));
+		assertNull(map.put(0, "cero"));
+		assertEquals("cero", map.get(0));
+		assertEquals(2, map.size());
+		assertEquals("cero", map.remove(0));
+		assertFalse(map.containsKey(0));
+	}
+
+	@Test
+	public void testSameAsHashMap() {
+		Random random = new Random(1);
+		IntObjectMap<String> map = new IntObjectMap<String>(0);
+		Map<Integer, String> expected = new HashMap<Integer, String>();
+		for (int i = 0; i < 100000; i++) {
+			int key = random.nextInt(2000) - 1000;
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), map.remove(key));
+			} else {
+				String value = String.valueOf(random.nextInt(100));
+				assertEquals(expected.put(key, value), map.put(key, value));
+			}
+			assertEquals(expected.size(), map.size());
+		}
+		assertEquals(expected, entries(map));
+		for (int key = -1000; key < 1000; key++) {
+			assertEquals(expected.get(key), map.get(key));
+		}
+	}
+
+	@Test
+	public void testEquals() {
+		IntObjectMap<String> a = new IntObjectMap<String>();
+		IntObjectMap<String> b = new IntObjectMap<String>(1000);
+		a.put(0, "a");
+		a.put(1, null);
+		b.put(1, null);
+		assertNotEquals(a, b);
+		b.put(0, "a");
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		b.put(1, "b");
+		assertNotEquals(a, b);
+		// Un nulo no es lo mismo que una clave que no est.
+		b.remove(1);
+		b.put(2, null);
+		assertNotEquals(a, b);
+	}
+}
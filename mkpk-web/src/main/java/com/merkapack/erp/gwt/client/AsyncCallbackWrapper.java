@@ -2,24 +2,31 @@ package com.merkapack.erp.gwt.client;
 
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.merkapack.erp.gwt.client.common.MKPK;
+import com.merkapack.erp.gwt.client.telemetry.Telemetry;
 
 public class AsyncCallbackWrapper<T> implements AsyncCallback<T> {
 
+	private String operation;
+	private double start;
 	private AsyncCallback<T> asyncCallback;
 
-	public AsyncCallbackWrapper(AsyncCallback<T> asyncCallback) {
+	public AsyncCallbackWrapper(String operation, AsyncCallback<T> asyncCallback) {
+		this.operation = operation;
+		this.start = Telemetry.now();
 		this.asyncCallback = asyncCallback;
 	}
 
 	@Override
 	public void onSuccess(T result) {
+		double millis = Telemetry.now() - start;
 		asyncCallback.onSuccess(result);
-		MKPK.stop();
+		MKPK.stop(operation, millis);
 	}
 
 	@Override
 	public void onFailure(Throwable caught) {
+		double millis = Telemetry.now() - start;
 		asyncCallback.onFailure(caught);
-		MKPK.fail();
+		MKPK.fail(operation, millis);
 	}
-}
\ No newline at end of file
+}
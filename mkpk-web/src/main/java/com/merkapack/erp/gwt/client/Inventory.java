@@ -1,24 +1,87 @@
 package com.merkapack.erp.gwt.client;
 
+import java.util.LinkedList;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.gwt.user.client.ui.FlexTable;
 import com.google.gwt.user.client.ui.Label;
+import com.google.gwt.user.client.ui.ScrollPanel;
+import com.google.gwt.user.client.ui.VerticalPanel;
 import com.google.gwt.user.client.ui.Widget;
+import com.merkapack.erp.core.model.Roll;
 import com.merkapack.erp.gwt.client.common.MKPK;
+import com.merkapack.erp.gwt.client.rpc.RollService;
+import com.merkapack.erp.gwt.client.rpc.RollServiceAsync;
+import com.merkapack.erp.gwt.client.rpc.RollServiceAsyncDecorator;
 import com.merkapack.erp.gwt.client.widget.MkpkDockLayout;
 
+/**
+ * Existencias de bobinas: los metros que quedan de cada una, tal como los mantiene el servidor.
+ */
 public class Inventory extends MkpkDockLayout  {
-	
+
+	private static RollServiceAsync SERVICE;
+
 	public Inventory() {
+		RollServiceAsync serviceRaw = GWT.create(RollService.class);
+		SERVICE = new RollServiceAsyncDecorator(serviceRaw);
 		add(getContent());
 	}
 
 	private Widget getContent() {
-		FlexTable tab = new FlexTable();
-		tab.setStyleName(MKPK.CSS.mkpkBlockCenter());
-		
-		Label planning = new Label(MKPK.MSG.manufacturingInventory());
-		tab.setWidget(0, 0, planning);
-		
-		return tab;		
+		ScrollPanel container = new ScrollPanel();
+		VerticalPanel panel = new VerticalPanel();
+		panel.setStyleName(MKPK.CSS.mkpkBlockCenter());
+		container.setWidget(panel);
+
+		Label title = new Label(MKPK.MSG.manufacturingInventory());
+		title.setStyleName(MKPK.CSS.mkpkBold());
+		title.addStyleName(MKPK.CSS.mkpkMarginBottom());
+		panel.add(title);
+
+		final FlexTable tab = new FlexTable();
+		tab.setStyleName(MKPK.CSS.mkpkTable());
+		tab.addStyleName(MKPK.CSS.mkpkBlockCenter());
+		String[] headers = { MKPK.MSG.material(), MKPK.MSG.roll(), MKPK.MSG.width(), MKPK.MSG.length(), MKPK.MSG.remaining() };
+		for (int col = 0; col < headers.length; col++) {
+			tab.setText(0, col, headers[col]);
+			tab.getCellFormatter().setStyleName(0, col, MKPK.CSS.mkpkTableHeader());
+		}
+		panel.add(tab);
+
+		SERVICE.getRolls(new AsyncCallback<LinkedList<Roll>>() {
+
+			@Override
+			public void onSuccess(LinkedList<Roll> rolls) {
+				int row = 1;
+				for (Roll roll : rolls) {
+					paintRow(tab, row++, roll);
+				}
+			}
+
+			@Override
+			public void onFailure(Throwable caught) {
+				Inventory.this.showError( caught );
+			}
+		});
+		return container;
+	}
+
+	private void paintRow(FlexTable tab, int row, Roll roll) {
+		tab.setText(row, 0, roll.getMaterial() == null ? null : roll.getMaterial().getName());
+		tab.setText(row, 1, roll.getName());
+		tab.setText(row, 2, MKPK.FMT.format(roll.getWidth()));
+		tab.setText(row, 3, MKPK.FMT.format(roll.getLength()));
+		tab.setText(row, 4, MKPK.FMT.format(roll.getRemaining()));
+		for (int col = 2; col <= 4; col++) {
+			tab.getCellFormatter().setStyleName(row, col, MKPK.CSS.mkpkTextRight());
+		}
+		if (roll.getRemaining() <= 0) {
+			tab.getCellFormatter().addStyleName(row, 4, MKPK.CSS.mkpkColorRed());
+		}
+		if (row % 2 == 0) {
+			tab.getRowFormatter().addStyleName(row, MKPK.CSS.mkpkOddBakcground());
+		}
 	}
 }
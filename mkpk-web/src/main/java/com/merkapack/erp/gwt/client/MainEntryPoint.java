@@ -1,6 +1,9 @@
 package com.merkapack.erp.gwt.client;
 
 import com.google.gwt.core.client.EntryPoint;
+import com.google.gwt.dom.client.Document;
+import com.google.gwt.dom.client.Element;
+import com.merkapack.erp.gwt.client.cache.ReferenceCache;
 import com.merkapack.erp.gwt.client.common.MKPK;
 
 public class MainEntryPoint implements EntryPoint {
@@ -8,6 +11,12 @@ public class MainEntryPoint implements EntryPoint {
 	@Override
 	public void onModuleLoad() {
 		MKPK.ensureInjected();
+		// Aviso de index.html mientras se descarga el fragmento inicial
+		Element loading = Document.get().getElementById("mkpkLoading");
+		if (loading != null) {
+			loading.removeFromParent();
+		}
+		ReferenceCache.checkVersions();
 		Menu menu = new Menu();
 		menu.onModuleLoad();
 	}
@@ -1,5 +1,7 @@
 package com.merkapack.erp.gwt.client;
 
+import com.google.gwt.core.client.EntryPoint;
+import com.google.gwt.core.client.GWT;
 import com.google.gwt.event.dom.client.ClickEvent;
 import com.google.gwt.event.dom.client.ClickHandler;
 import com.google.gwt.user.client.ui.Button;
@@ -14,6 +16,10 @@ import com.merkapack.erp.gwt.client.view.ProductView;
 import com.merkapack.erp.gwt.client.view.RollView;
 import com.merkapack.erp.gwt.client.widget.MkpkDockLayout;
 
+/**
+ * Men&uacute; principal. Cada pantalla va en su propio fragmento: aqu&iacute; solo se nombran
+ * dentro de <code>GWT.runAsync</code>, as&iacute; que el arranque descarga solo el men&uacute;.
+ */
 public class Menu extends MkpkDockLayout {
 	
 	public Menu() {
@@ -39,8 +45,12 @@ public class Menu extends MkpkDockLayout {
 			
 			@Override
 			public void onClick(ClickEvent event) {
-				PlanningView planning = new PlanningView();
-				planning.onModuleLoad();
+				GWT.runAsync(PlanningView.class, new ViewLoader() {
+					@Override
+					protected EntryPoint create() {
+						return new PlanningView();
+					}
+				});
 			}
 		});
 		planning.setStyleName(MKPK.CSS.mkpkImgPlanning());
@@ -52,8 +62,12 @@ public class Menu extends MkpkDockLayout {
 			
 			@Override
 			public void onClick(ClickEvent event) {
-				Inventory inventory = new Inventory();
-				inventory.onModuleLoad();
+				GWT.runAsync(Inventory.class, new ViewLoader() {
+					@Override
+					protected EntryPoint create() {
+						return new Inventory();
+					}
+				});
 			}
 		});
 		tab.setWidget(1, 0, inventory);
@@ -64,8 +78,12 @@ public class Menu extends MkpkDockLayout {
 			
 			@Override
 			public void onClick(ClickEvent event) {
-				Stats stats = new Stats();
-				stats.onModuleLoad();
+				GWT.runAsync(Stats.class, new ViewLoader() {
+					@Override
+					protected EntryPoint create() {
+						return new Stats();
+					}
+				});
 			}
 		});
 		tab.setWidget(2, 0, stats);
@@ -84,8 +102,12 @@ public class Menu extends MkpkDockLayout {
 			
 			@Override
 			public void onClick(ClickEvent event) {
-				MachineView machine = new MachineView();
-				machine.onModuleLoad();
+				GWT.runAsync(MachineView.class, new ViewLoader() {
+					@Override
+					protected EntryPoint create() {
+						return new MachineView();
+					}
+				});
 			}
 		});
 		toc.setWidget(row, 0, machines);
@@ -97,8 +119,12 @@ public class Menu extends MkpkDockLayout {
 			
 			@Override
 			public void onClick(ClickEvent event) {
-				MaterialView material = new MaterialView();
-				material.onModuleLoad();
+				GWT.runAsync(MaterialView.class, new ViewLoader() {
+					@Override
+					protected EntryPoint create() {
+						return new MaterialView();
+					}
+				});
 			}
 		});
 		toc.setWidget(row, 0, materials);
@@ -110,8 +136,12 @@ public class Menu extends MkpkDockLayout {
 			
 			@Override
 			public void onClick(ClickEvent event) {
-				ProductView product = new ProductView();
-				product.onModuleLoad();
+				GWT.runAsync(ProductView.class, new ViewLoader() {
+					@Override
+					protected EntryPoint create() {
+						return new ProductView();
+					}
+				});
 			}
 		});
 		toc.setWidget(row, 0, products);
@@ -123,8 +153,12 @@ public class Menu extends MkpkDockLayout {
 			
 			@Override
 			public void onClick(ClickEvent event) {
-				RollView roll = new RollView();
-				roll.onModuleLoad();
+				GWT.runAsync(RollView.class, new ViewLoader() {
+					@Override
+					protected EntryPoint create() {
+						return new RollView();
+					}
+				});
 			}
 		});
 		toc.setWidget(row, 0, rolls);
@@ -136,8 +170,12 @@ public class Menu extends MkpkDockLayout {
 			
 			@Override
 			public void onClick(ClickEvent event) {
-				ClientView client = new ClientView();
-				client.onModuleLoad();
+				GWT.runAsync(ClientView.class, new ViewLoader() {
+					@Override
+					protected EntryPoint create() {
+						return new ClientView();
+					}
+				});
 			}
 		});
 		toc.setWidget(row, 0, clients);
@@ -1,24 +1,253 @@
 package com.merkapack.erp.gwt.client;
 
+import java.util.Date;
+import java.util.LinkedList;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.event.dom.client.ChangeEvent;
+import com.google.gwt.event.dom.client.ChangeHandler;
+import com.google.gwt.event.dom.client.ClickEvent;
+import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.event.logical.shared.ValueChangeEvent;
+import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.google.gwt.i18n.client.DateTimeFormat;
+import com.google.gwt.i18n.client.DateTimeFormat.PredefinedFormat;
+import com.google.gwt.http.client.URL;
+import com.google.gwt.user.client.Window;
+import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.gwt.user.client.ui.FlexTable;
+import com.google.gwt.user.client.ui.HorizontalPanel;
+import com.google.gwt.user.client.ui.InlineLabel;
 import com.google.gwt.user.client.ui.Label;
+import com.google.gwt.user.client.ui.ListBox;
+import com.google.gwt.user.client.ui.ScrollPanel;
+import com.google.gwt.user.client.ui.VerticalPanel;
 import com.google.gwt.user.client.ui.Widget;
+import com.merkapack.erp.core.model.PlanningStats;
+import com.merkapack.erp.core.model.StatsParams;
 import com.merkapack.erp.gwt.client.common.MKPK;
+import com.merkapack.erp.gwt.client.rpc.PlanningService;
+import com.merkapack.erp.gwt.client.rpc.PlanningServiceAsync;
+import com.merkapack.erp.gwt.client.rpc.PlanningServiceAsyncDecorator;
+import com.merkapack.erp.gwt.client.util.GWTDateUtils;
+import com.merkapack.erp.gwt.client.widget.MkpkButton;
+import com.merkapack.erp.gwt.client.widget.MkpkDateBox;
 import com.merkapack.erp.gwt.client.widget.MkpkDockLayout;
 
+/**
+ * Totales del plan de fabricaci&oacute;n de la semana, el mes o el a&ntilde;o de una fecha.
+ * Se leen de los totales diarios que mantiene el servidor, no del plan.
+ */
 public class Stats extends MkpkDockLayout  {
-	
+
+	private static final String WEEK = "week";
+	private static final String MONTH = "month";
+	private static final String YEAR = "year";
+
+	private static final DateTimeFormat MONTH_FORMAT = DateTimeFormat.getFormat(PredefinedFormat.YEAR_MONTH);
+	private static final DateTimeFormat ISO_FORMAT = DateTimeFormat.getFormat("yyyy-MM-dd");
+
+	private static PlanningServiceAsync SERVICE;
+
+	private MkpkDateBox date = new MkpkDateBox();
+	private ListBox period = new ListBox();
+	private ListBox group = new ListBox();
+	private FlexTable tab = new FlexTable();
+	private int sequence = 0;
+
 	public Stats() {
+		PlanningServiceAsync serviceRaw = GWT.create(PlanningService.class);
+		SERVICE = new PlanningServiceAsyncDecorator(serviceRaw);
 		add(getContent());
+		refresh();
 	}
-	
+
 	private Widget getContent() {
-		FlexTable tab = new FlexTable();
-		tab.setStyleName(MKPK.CSS.mkpkBlockCenter());
-		
-		Label planning = new Label(MKPK.MSG.manufacturingStats());
-		tab.setWidget(0, 0, planning);
-		
-		return tab;		
+		ScrollPanel container = new ScrollPanel();
+		VerticalPanel panel = new VerticalPanel();
+		panel.setStyleName(MKPK.CSS.mkpkBlockCenter());
+		container.setWidget(panel);
+
+		Label title = new Label(MKPK.MSG.manufacturingStats());
+		title.setStyleName(MKPK.CSS.mkpkBold());
+		title.addStyleName(MKPK.CSS.mkpkMarginBottom());
+		panel.add(title);
+		panel.add(getFilterPanel());
+
+		tab.setStyleName(MKPK.CSS.mkpkTable());
+		tab.addStyleName(MKPK.CSS.mkpkBlockCenter());
+		tab.addStyleName(MKPK.CSS.mkpkMarginTop());
+		panel.add(tab);
+		return container;
+	}
+
+	private Widget getFilterPanel() {
+		HorizontalPanel filter = new HorizontalPanel();
+
+		date.setValue(new Date(), false);
+		date.addValueChangeHandler(new ValueChangeHandler<Date>() {
+			@Override
+			public void onValueChange(ValueChangeEvent<Date> event) {
+				refresh();
+			}
+		});
+
+		period.addItem(MKPK.MSG.week(), WEEK);
+		period.addItem(MKPK.MSG.month(), MONTH);
+		period.addItem(MKPK.MSG.year(), YEAR);
+		period.setSelectedIndex(1);
+
+		group.addItem(MKPK.MSG.day(), StatsParams.GROUP_DAY);
+		group.addItem(MKPK.MSG.month(), StatsParams.GROUP_MONTH);
+		group.addItem(MKPK.MSG.machine(), StatsParams.GROUP_MACHINE);
+		group.addItem(MKPK.MSG.product(), StatsParams.GROUP_PRODUCT);
+		group.addItem(MKPK.MSG.client(), StatsParams.GROUP_CLIENT);
+
+		ChangeHandler refresh = new ChangeHandler() {
+			@Override
+			public void onChange(ChangeEvent event) {
+				refresh();
+			}
+		};
+		period.addChangeHandler(refresh);
+		group.addChangeHandler(refresh);
+
+		filter.add(getLabel(MKPK.MSG.date()));
+		filter.add(date);
+		filter.add(getLabel(MKPK.MSG.period()));
+		filter.add(period);
+		filter.add(getLabel(MKPK.MSG.groupBy()));
+		filter.add(group);
+
+		MkpkButton exportButton = new MkpkButton();
+		exportButton.addStyleName(MKPK.CSS.mkpkMarginLeft());
+		exportButton.setTitle(MKPK.MSG.exportExcel());
+		exportButton.setText(MKPK.MSG.exportExcel());
+		exportButton.addClickHandler(new ClickHandler() {
+			@Override
+			public void onClick(ClickEvent event) {
+				export();
+			}
+		});
+		filter.add(exportButton);
+		return filter;
+	}
+
+	private InlineLabel getLabel(String text) {
+		InlineLabel label = new InlineLabel(text);
+		label.setStyleName(MKPK.CSS.mkpkMarginRight());
+		label.addStyleName(MKPK.CSS.mkpkMarginLeft());
+		label.addStyleName(MKPK.CSS.mkpkBold());
+		return label;
+	}
+
+	private void refresh() {
+		if (date.getValue() == null) {
+			return;
+		}
+		final int current = ++sequence;
+		final String selected = group.getSelectedValue();
+		StatsParams params = getParams().setGroup(selected);
+		SERVICE.getStats(params, new AsyncCallback<LinkedList<PlanningStats>>() {
+			@Override
+			public void onSuccess(LinkedList<PlanningStats> result) {
+				if (current == sequence) {
+					paint(selected, result);
+				}
+			}
+
+			@Override
+			public void onFailure(Throwable caught) {
+				if (current == sequence) {
+					Stats.this.showError(caught);
+				}
+			}
+		});
+	}
+
+	private StatsParams getParams() {
+		StatsParams params = new StatsParams();
+		Date day = date.getValue();
+		if (WEEK.equals(period.getSelectedValue())) {
+			params.setFrom(GWTDateUtils.getFirstDayOfWorkWeek(day)).setTo(GWTDateUtils.getLastDayOfWorkWeek(day));
+		} else if (YEAR.equals(period.getSelectedValue())) {
+			params.setFrom(GWTDateUtils.getFirstDayOfYear(day)).setTo(GWTDateUtils.getLastDayOfYear(day));
+		} else {
+			params.setFrom(GWTDateUtils.getFirstDayOfMonth(day)).setTo(GWTDateUtils.getLastDayOfMonth(day));
+		}
+		return params;
+	}
+
+	/**
+	 * Descarga las l&iacute;neas del periodo. El servidor no las junta en memoria, pero manda el libro
+	 * cuando lo ha terminado: la descarga empieza al acabar la consulta.
+	 */
+	private void export() {
+		if (date.getValue() == null) {
+			return;
+		}
+		StatsParams params = getParams();
+		Window.open(URL.encode(GWT.getModuleBaseURL() + "MkpkPlanningExport"
+			+ "?from=" + ISO_FORMAT.format(params.getFrom())
+			+ "&to=" + ISO_FORMAT.format(params.getTo())), "_self", "");
+	}
+
+	private void paint(String selected, LinkedList<PlanningStats> list) {
+		tab.removeAllRows();
+		String first = MKPK.MSG.day();
+		if (StatsParams.GROUP_MONTH.equals(selected)) first = MKPK.MSG.month();
+		if (StatsParams.GROUP_MACHINE.equals(selected)) first = MKPK.MSG.machine();
+		if (StatsParams.GROUP_PRODUCT.equals(selected)) first = MKPK.MSG.product();
+		if (StatsParams.GROUP_CLIENT.equals(selected)) first = MKPK.MSG.client();
+		String[] headers = { first, MKPK.MSG.plannings(), MKPK.MSG.amount(), MKPK.MSG.meters()
+				, MKPK.MSG.blows(), MKPK.MSG.hours() };
+		for (int col = 0; col < headers.length; col++) {
+			tab.setText(0, col, headers[col]);
+			tab.getCellFormatter().setStyleName(0, col, MKPK.CSS.mkpkTableHeader());
+		}
+		if (list.isEmpty()) {
+			tab.setText(1, 0, MKPK.MSG.noData());
+			tab.getFlexCellFormatter().setColSpan(1, 0, headers.length);
+			tab.getCellFormatter().setStyleName(1, 0, MKPK.CSS.mkpkTextCenter());
+			return;
+		}
+		PlanningStats total = new PlanningStats().setName(MKPK.MSG.total());
+		int row = 1;
+		for (PlanningStats stats : list) {
+			paintRow(row++, getName(selected, stats), stats);
+			total.setPlannings(total.getPlannings() + stats.getPlannings())
+				.setAmount(total.getAmount() + stats.getAmount())
+				.setMeters(total.getMeters() + stats.getMeters())
+				.setBlows(total.getBlows() + stats.getBlows())
+				.setMinutes(total.getMinutes() + stats.getMinutes());
+		}
+		paintRow(row, total.getName(), total);
+		tab.getRowFormatter().addStyleName(row, MKPK.CSS.mkpkBold());
+		tab.getRowFormatter().addStyleName(row, MKPK.CSS.mkpkBorderTop());
+	}
+
+	private String getName(String selected, PlanningStats stats) {
+		if (StatsParams.GROUP_DAY.equals(selected)) {
+			return MKPK.DATE_FORMAT.format(stats.getDate());
+		}
+		if (StatsParams.GROUP_MONTH.equals(selected)) {
+			return MONTH_FORMAT.format(stats.getDate());
+		}
+		return stats.getName();
+	}
+
+	private void paintRow(int row, String name, PlanningStats stats) {
+		tab.setText(row, 0, name);
+		tab.setText(row, 1, MKPK.FMT_INT.format(stats.getPlannings()));
+		tab.setText(row, 2, MKPK.FMT.format(stats.getAmount()));
+		tab.setText(row, 3, MKPK.FMT.format(stats.getMeters()));
+		tab.setText(row, 4, MKPK.FMT.format(stats.getBlows()));
+		tab.setText(row, 5, MKPK.FMT.format(stats.getMinutes() / 60));
+		for (int col = 1; col <= 5; col++) {
+			tab.getCellFormatter().setStyleName(row, col, MKPK.CSS.mkpkTextRight());
+		}
+		if (row % 2 == 0) {
+			tab.getRowFormatter().addStyleName(row, MKPK.CSS.mkpkOddBakcground());
+		}
 	}
 }
@@ -0,0 +1,44 @@
+package com.merkapack.erp.gwt.client;
+
+import com.google.gwt.core.client.EntryPoint;
+import com.google.gwt.core.client.RunAsyncCallback;
+import com.google.gwt.user.client.ui.Label;
+import com.google.gwt.user.client.ui.PopupPanel;
+import com.merkapack.erp.gwt.client.cache.ReferenceCache;
+import com.merkapack.erp.gwt.client.common.MKPK;
+import com.merkapack.erp.gwt.client.widget.MkpkConfirmDialog;
+
+/**
+ * Abre una pantalla que est&aacute; en su propio fragmento (<code>GWT.runAsync</code>). Mientras
+ * se descarga se muestra un aviso de carga; la pantalla solo se referencia desde {@link #create()}.
+ * Mientras tanto se comprueban los sellos de las listas de referencia, para que la pantalla no
+ * abra con una lista que otro usuario ya ha cambiado.
+ */
+public abstract class ViewLoader implements RunAsyncCallback {
+
+	private final PopupPanel shell = new PopupPanel(false, true);
+
+	public ViewLoader() {
+		Label label = new Label(MKPK.MSG.loading());
+		label.setStyleName(MKPK.CSS.mkpkBold());
+		shell.setGlassEnabled(true);
+		shell.setWidget(label);
+		shell.center();
+		ReferenceCache.recheck();
+	}
+
+	protected abstract EntryPoint create();
+
+	@Override
+	public void onSuccess() {
+		shell.hide();
+		create().onModuleLoad();
+	}
+
+	@Override
+	public void onFailure(Throwable reason) {
+		shell.hide();
+		MkpkConfirmDialog dialog = new MkpkConfirmDialog();
+		dialog.accept("Error", MKPK.MSG.loadError(), null );
+	}
+}
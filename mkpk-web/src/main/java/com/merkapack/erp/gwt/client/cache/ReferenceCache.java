@@ -0,0 +1,356 @@
+package com.merkapack.erp.gwt.client.cache;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.function.Predicate;
+
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+import com.google.gwt.json.client.JSONArray;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONParser;
+import com.google.gwt.json.client.JSONString;
+import com.google.gwt.json.client.JSONValue;
+import com.google.gwt.storage.client.Storage;
+import com.google.gwt.user.client.Timer;
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.merkapack.erp.gwt.client.common.MKPK;
+import com.merkapack.erp.gwt.client.rpc.BatchDispatcher;
+import com.merkapack.erp.gwt.client.rpc.batch.GetVersions;
+import com.merkapack.watson.util.MkpkStringUtils;
+
+/**
+ * Lista de referencia (m&aacute;quinas, materiales, bobinas, clientes) guardada en memoria y en
+ * localStorage. Lo guardado solo se usa si su sello coincide con el que devuelve el servidor
+ * ({@link #checkVersions()}); sin sello se va siempre al servidor. Los sellos
+ * se vuelven a pedir cada {@link #CHECK_MILLIS}: si el de una lista ha cambiado (otro usuario
+ * la ha modificado) se olvida la que hay en memoria y la siguiente petici&oacute;n la recarga.
+ * Las peticiones simult&aacute;neas mientras se carga la lista comparten una sola llamada.
+ * En localStorage se guarda por dominio: dos plantas en el mismo navegador no comparten listas.
+ * Cualquier alta, baja o modificaci&oacute;n hecha desde el cliente debe llamar a {@link #invalidate()}.
+ */
+public class ReferenceCache<T> {
+
+	private static final String PREFIX = "mkpk.cache.";
+	private static final String VERSION = "version";
+	private static final String ITEMS = "items";
+	private static final int CHECK_MILLIS = 120000;
+
+	private static final HashMap<String,String> VERSIONS = new HashMap<String,String>();
+	private static final LinkedList<ReferenceCache<?>> CACHES = new LinkedList<ReferenceCache<?>>();
+	private static boolean checking = false;
+	private static Timer timer;
+
+	public static interface Loader<T> {
+		void load(AsyncCallback<LinkedList<T>> callback);
+	}
+
+	private final String name;
+	private final ReferenceCodec<T> codec;
+	private LinkedList<T> items;
+	// Sello con el que se carg <code>items</code> (nulo si an no haba sellos).
+	private String loaded;
+	private LinkedList<AsyncCallback<LinkedList<T>>> waiting;
+
+	public ReferenceCache(String name, ReferenceCodec<T> codec) {
+		this.name = name;
+		this.codec = codec;
+		CACHES.add(this);
+	}
+
+	/**
+	 * Pide al servidor los sellos de versi&oacute;n y los vuelve a pedir cada {@link #CHECK_MILLIS}.
+	 * Se llama una vez al arrancar la aplicaci&oacute;n.
+	 */
+	public static void checkVersions() {
+		if (timer == null) {
+			timer = new Timer() {
+				@Override
+				public void run() {
+					recheck();
+				}
+			};
+			timer.scheduleRepeating(CHECK_MILLIS);
+		}
+		recheck();
+	}
+
+	/**
+	 * Vuelve a pedir los sellos sin esperar al temporizador (p.e. al abrir una pantalla de edici&oacute;n).
+	 */
+	public static void recheck() {
+		if (timer == null || checking) {
+			return;
+		}
+		checking = true;
+		BatchDispatcher.call(new GetVersions(), MKPK.start("Cache.getVersions", new AsyncCallback<HashMap<String,String>>() {
+			@Override
+			public void onSuccess(HashMap<String,String> versions) {
+				checking = false;
+				update(versions);
+			}
+
+			@Override
+			public void onFailure(Throwable caught) {
+				// Sin sellos nuevos se sigue con los que haba; se reintenta en la siguiente vuelta.
+				checking = false;
+			}
+		}));
+	}
+
+	private static void update(HashMap<String,String> versions) {
+		String domain = VERSIONS.get(GetVersions.DOMAIN_KEY);
+		boolean sameDomain = domain == null || domain.equals(versions.get(GetVersions.DOMAIN_KEY));
+		VERSIONS.clear();
+		VERSIONS.putAll(versions);
+		for (ReferenceCache<?> cache : CACHES) {
+			cache.stale(sameDomain);
+		}
+	}
+
+	/**
+	 * Olvida la lista en memoria si no es la del sello actual. Una carga en curso se entrega
+	 * pero no se guarda: puede traer datos de antes del cambio.
+	 */
+	private void stale(boolean sameDomain) {
+		String version = VERSIONS.get(name);
+		if (sameDomain && version != null && version.equals(loaded)) {
+			return;
+		}
+		items = null;
+		loaded = null;
+		waiting = null;
+	}
+
+	/**
+	 * Devuelve una copia de la lista: de memoria, de localStorage o, si no est&aacute;, del servidor.
+	 * Los elementos tambi&eacute;n son copias, las pantallas de edici&oacute;n los modifican.
+	 */
+	public void get(Loader<T> loader, AsyncCallback<LinkedList<T>> callback) {
+		restoreIfMissing();
+		if (items != null) {
+			final LinkedList<T> copy = copy(items);
+			Scheduler.get().scheduleDeferred(new ScheduledCommand() {
+				public void execute() {
+					callback.onSuccess(copy);
+				}
+			});
+			return;
+		}
+		if (waiting != null) {
+			waiting.add(callback);
+			return;
+		}
+		final LinkedList<AsyncCallback<LinkedList<T>>> callbacks = new LinkedList<AsyncCallback<LinkedList<T>>>();
+		final String version = VERSIONS.get(name);
+		callbacks.add(callback);
+		waiting = callbacks;
+		loader.load(new AsyncCallback<LinkedList<T>>() {
+			@Override
+			public void onSuccess(LinkedList<T> result) {
+				// Si se invalid o cambi el sello mientras se cargaba, el resultado se entrega
+				// pero no se guarda.
+				if (waiting == callbacks) {
+					waiting = null;
+					items = result;
+					loaded = version;
+					store(result, version);
+				}
+				for (AsyncCallback<LinkedList<T>> cb : callbacks) {
+					cb.onSuccess(copy(result));
+				}
+			}
+
+			@Override
+			public void onFailure(Throwable caught) {
+				if (waiting == callbacks) {
+					waiting = null;
+				}
+				for (AsyncCallback<LinkedList<T>> cb : callbacks) {
+					cb.onFailure(caught);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Busca en la lista completa, sin ir al servidor si ya est&aacute; cargada. Si lo est&aacute;
+	 * se recorre la de memoria y solo se copian los elementos encontrados.
+	 * @param limit m&aacute;ximo de elementos devueltos (0 sin l&iacute;mite)
+	 */
+	public void find(Loader<T> loader, final Predicate<T> matcher, final int limit, final AsyncCallback<LinkedList<T>> callback) {
+		restoreIfMissing();
+		if (items != null) {
+			final LinkedList<T> found = copy(filter(items, matcher, limit));
+			Scheduler.get().scheduleDeferred(new ScheduledCommand() {
+				public void execute() {
+					callback.onSuccess(found);
+				}
+			});
+			return;
+		}
+		get(loader, new AsyncCallback<LinkedList<T>>() {
+			@Override
+			public void onSuccess(LinkedList<T> all) {
+				callback.onSuccess(filter(all, matcher, limit));
+			}
+
+			@Override
+			public void onFailure(Throwable caught) {
+				callback.onFailure(caught);
+			}
+		});
+	}
+
+	/**
+	 * Olvida la lista en memoria y en localStorage. El sello que ten&iacute;amos ya no vale
+	 * para lo que se cargue despu&eacute;s, as&iacute; que no se guarda hasta la pr&oacute;xima comprobaci&oacute;n.
+	 */
+	public void invalidate() {
+		items = null;
+		loaded = null;
+		waiting = null;
+		VERSIONS.remove(name);
+		Storage storage = Storage.getLocalStorageIfSupported();
+		String key = getKey();
+		if (storage != null && key != null) {
+			storage.removeItem(key);
+		}
+	}
+
+	/**
+	 * Envuelve la respuesta de un alta, baja o modificaci&oacute;n para invalidar la lista si va bien.
+	 */
+	public <R> AsyncCallback<R> invalidating(final AsyncCallback<R> callback) {
+		return new AsyncCallback<R>() {
+			@Override
+			public void onSuccess(R result) {
+				invalidate();
+				callback.onSuccess(result);
+			}
+
+			@Override
+			public void onFailure(Throwable caught) {
+				callback.onFailure(caught);
+			}
+		};
+	}
+
+	/**
+	 * La b&uacute;squeda local equivale a <code>LIKE '%query%'</code> solo si la consulta no trae comodines.
+	 */
+	public static boolean isLocal(String query) {
+		return !MkpkStringUtils.containsAny(query, '%', '_');
+	}
+
+	/**
+	 * <code>value</code> contiene <code>foldedQuery</code> (ya pasada por {@link #fold(String)}).
+	 */
+	public static boolean contains(String value, String foldedQuery) {
+		return value != null && fold(value).contains(foldedQuery);
+	}
+
+	/**
+	 * Como la intercalaci&oacute;n latin1_spanish_ci: sin may&uacute;sculas ni acentos, pero la &Ntilde; no es una N.
+	 */
+	public static String fold(String value) {
+		if (value == null) {
+			return MkpkStringUtils.EMPTY;
+		}
+		String upper = value.toUpperCase();
+		int from = 0;
+		StringBuilder sb = new StringBuilder(upper.length());
+		for (int i = upper.indexOf('\u00D1'); i >= 0; i = upper.indexOf('\u00D1', from)) {
+			sb.append(MkpkStringUtils.stripAccents(upper.substring(from, i))).append('\u00D1');
+			from = i + 1;
+		}
+		return sb.append(MkpkStringUtils.stripAccents(upper.substring(from))).toString();
+	}
+
+	private static <T> LinkedList<T> filter(LinkedList<T> list, Predicate<T> matcher, int limit) {
+		LinkedList<T> found = new LinkedList<T>();
+		for (T item : list) {
+			if (matcher.test(item)) {
+				found.add(item);
+				if (found.size() == limit) {
+					break;
+				}
+			}
+		}
+		return found;
+	}
+
+	private LinkedList<T> copy(LinkedList<T> list) {
+		LinkedList<T> copy = new LinkedList<T>();
+		for (T item : list) {
+			copy.add(codec.decode(codec.encode(item)));
+		}
+		return copy;
+	}
+
+	/**
+	 * Clave en localStorage, o <code>null</code> si a&uacute;n no sabemos el dominio.
+	 */
+	private String getKey() {
+		String domain = VERSIONS.get(GetVersions.DOMAIN_KEY);
+		return domain == null ? null : PREFIX + domain + "." + name;
+	}
+
+	private void restoreIfMissing() {
+		if (items == null) {
+			items = restore();
+			loaded = items == null ? null : VERSIONS.get(name);
+		}
+	}
+
+	private LinkedList<T> restore() {
+		String version = VERSIONS.get(name);
+		Storage storage = Storage.getLocalStorageIfSupported();
+		String key = getKey();
+		if (version == null || storage == null || key == null) {
+			return null;
+		}
+		String raw = storage.getItem(key);
+		if (raw == null) {
+			return null;
+		}
+		try {
+			JSONObject json = JSONParser.parseStrict(raw).isObject();
+			JSONValue stored = json.get(VERSION);
+			if (stored == null || stored.isString() == null || !version.equals(stored.isString().stringValue())) {
+				storage.removeItem(key);
+				return null;
+			}
+			JSONArray array = json.get(ITEMS).isArray();
+			LinkedList<T> list = new LinkedList<T>();
+			for (int i = 0; i < array.size(); i++) {
+				list.add(codec.decode(array.get(i)));
+			}
+			return list;
+		} catch (RuntimeException e) {
+			storage.removeItem(key);
+			return null;
+		}
+	}
+
+	private void store(LinkedList<T> list, String version) {
+		Storage storage = Storage.getLocalStorageIfSupported();
+		String key = getKey();
+		if (version == null || storage == null || key == null) {
+			return;
+		}
+		JSONArray array = new JSONArray();
+		int i = 0;
+		for (T item : list) {
+			array.set(i++, codec.encode(item));
+		}
+		JSONObject json = new JSONObject();
+		json.put(VERSION, new JSONString(version));
+		json.put(ITEMS, array);
+		try {
+			storage.setItem(key, json.toString());
+		} catch (RuntimeException e) {
+			// localStorage lleno o deshabilitado: queda solo en memoria.
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.merkapack.erp.gwt.client.cache;
+
+import com.merkapack.erp.core.model.Client;
+import com.merkapack.erp.core.model.Machine;
+import com.merkapack.erp.core.model.Material;
+import com.merkapack.erp.core.model.Roll;
+import com.merkapack.erp.gwt.client.rpc.batch.GetVersions;
+
+/**
+ * Listas de referencia compartidas por todos los decoradores de servicio de la aplicaci&oacute;n.
+ */
+public class ReferenceCaches {
+
+	public static final ReferenceCache<Machine> MACHINES = new ReferenceCache<Machine>(GetVersions.MACHINES, ReferenceCodecs.MACHINE);
+	public static final ReferenceCache<Material> MATERIALS = new ReferenceCache<Material>(GetVersions.MATERIALS, ReferenceCodecs.MATERIAL);
+	public static final ReferenceCache<Roll> ROLLS = new ReferenceCache<Roll>(GetVersions.ROLLS, ReferenceCodecs.ROLL);
+	public static final ReferenceCache<Client> CLIENTS = new ReferenceCache<Client>(GetVersions.CLIENTS, ReferenceCodecs.CLIENT);
+
+}
@@ -0,0 +1,14 @@
+package com.merkapack.erp.gwt.client.cache;
+
+import com.google.gwt.json.client.JSONValue;
+
+/**
+ * Conversi&oacute;n de un elemento de una lista de referencia a JSON para guardarlo en localStorage.
+ */
+public interface ReferenceCodec<T> {
+
+	JSONValue encode(T item);
+
+	T decode(JSONValue value);
+
+}
@@ -0,0 +1,195 @@
+package com.merkapack.erp.gwt.client.cache;
+
+import java.util.Date;
+
+import com.google.gwt.json.client.JSONNull;
+import com.google.gwt.json.client.JSONNumber;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONString;
+import com.google.gwt.json.client.JSONValue;
+import com.merkapack.erp.core.model.Client;
+import com.merkapack.erp.core.model.Machine;
+import com.merkapack.erp.core.model.Material;
+import com.merkapack.erp.core.model.Roll;
+
+public class ReferenceCodecs {
+
+	public static final ReferenceCodec<Machine> MACHINE = new ReferenceCodec<Machine>() {
+		@Override
+		public JSONValue encode(Machine machine) {
+			JSONObject json = new JSONObject();
+			putInteger(json, "id", machine.getId());
+			putDouble(json, "domain", machine.getDomain());
+			putString(json, "name", machine.getName());
+			putDouble(json, "blows", machine.getBlows());
+			putString(json, "creationUser", machine.getCreationUser());
+			putDate(json, "creationDate", machine.getCreationDate());
+			putString(json, "modificationUser", machine.getModificationUser());
+			putDate(json, "modificationDate", machine.getModificationDate());
+			putDouble(json, "version", machine.getVersion());
+			return json;
+		}
+
+		@Override
+		public Machine decode(JSONValue value) {
+			JSONObject json = value.isObject();
+			return new Machine()
+				.setId(getInteger(json, "id"))
+				.setDomain((int) getDouble(json, "domain"))
+				.setName(getString(json, "name"))
+				.setBlows(getDouble(json, "blows"))
+				.setCreationUser(getString(json, "creationUser"))
+				.setCreationDate(getDate(json, "creationDate"))
+				.setModificationUser(getString(json, "modificationUser"))
+				.setModificationDate(getDate(json, "modificationDate"))
+				.setVersion((int) getDouble(json, "version"))
+				.setDirty(false);
+		}
+	};
+
+	public static final ReferenceCodec<Material> MATERIAL = new ReferenceCodec<Material>() {
+		@Override
+		public JSONValue encode(Material material) {
+			JSONObject json = new JSONObject();
+			putInteger(json, "id", material.getId());
+			putDouble(json, "domain", material.getDomain());
+			putString(json, "code", material.getCode());
+			putString(json, "name", material.getName());
+			putString(json, "rawMaterial", material.getRawMaterial());
+			putString(json, "rawComposition", material.getRawComposition());
+			putDouble(json, "thickness", material.getThickness());
+			putString(json, "creationUser", material.getCreationUser());
+			putDate(json, "creationDate", material.getCreationDate());
+			putString(json, "modificationUser", material.getModificationUser());
+			putDate(json, "modificationDate", material.getModificationDate());
+			putDouble(json, "version", material.getVersion());
+			return json;
+		}
+
+		@Override
+		public Material decode(JSONValue value) {
+			JSONObject json = value.isObject();
+			return new Material()
+				.setId(getInteger(json, "id"))
+				.setDomain((int) getDouble(json, "domain"))
+				.setCode(getString(json, "code"))
+				.setName(getString(json, "name"))
+				.setRawMaterial(getString(json, "rawMaterial"))
+				.setRawComposition(getString(json, "rawComposition"))
+				.setThickness(getDouble(json, "thickness"))
+				.setCreationUser(getString(json, "creationUser"))
+				.setCreationDate(getDate(json, "creationDate"))
+				.setModificationUser(getString(json, "modificationUser"))
+				.setModificationDate(getDate(json, "modificationDate"))
+				.setVersion((int) getDouble(json, "version"))
+				.setDirty(false);
+		}
+	};
+
+	public static final ReferenceCodec<Roll> ROLL = new ReferenceCodec<Roll>() {
+		@Override
+		public JSONValue encode(Roll roll) {
+			JSONObject json = new JSONObject();
+			putInteger(json, "id", roll.getId());
+			putDouble(json, "domain", roll.getDomain());
+			json.put("material", roll.getMaterial() == null ? JSONNull.getInstance() : MATERIAL.encode(roll.getMaterial()));
+			putString(json, "name", roll.getName());
+			putDouble(json, "width", roll.getWidth());
+			putDouble(json, "length", roll.getLength());
+			putDouble(json, "remaining", roll.getRemaining());
+			putString(json, "creationUser", roll.getCreationUser());
+			putDate(json, "creationDate", roll.getCreationDate());
+			putString(json, "modificationUser", roll.getModificationUser());
+			putDate(json, "modificationDate", roll.getModificationDate());
+			putDouble(json, "version", roll.getVersion());
+			return json;
+		}
+
+		@Override
+		public Roll decode(JSONValue value) {
+			JSONObject json = value.isObject();
+			JSONValue material = json.get("material");
+			return new Roll()
+				.setId(getInteger(json, "id"))
+				.setDomain((int) getDouble(json, "domain"))
+				.setMaterial(material == null || material.isNull() != null ? null : MATERIAL.decode(material))
+				.setName(getString(json, "name"))
+				.setWidth(getDouble(json, "width"))
+				.setLength(getDouble(json, "length"))
+				.setRemaining(getDouble(json, "remaining"))
+				.setCreationUser(getString(json, "creationUser"))
+				.setCreationDate(getDate(json, "creationDate"))
+				.setModificationUser(getString(json, "modificationUser"))
+				.setModificationDate(getDate(json, "modificationDate"))
+				.setVersion((int) getDouble(json, "version"))
+				.setDirty(false);
+		}
+	};
+
+	public static final ReferenceCodec<Client> CLIENT = new ReferenceCodec<Client>() {
+		@Override
+		public JSONValue encode(Client client) {
+			JSONObject json = new JSONObject();
+			putInteger(json, "id", client.getId());
+			putDouble(json, "domain", client.getDomain());
+			putString(json, "name", client.getName());
+			putString(json, "creationUser", client.getCreationUser());
+			putDate(json, "creationDate", client.getCreationDate());
+			putString(json, "modificationUser", client.getModificationUser());
+			putDate(json, "modificationDate", client.getModificationDate());
+			putDouble(json, "version", client.getVersion());
+			return json;
+		}
+
+		@Override
+		public Client decode(JSONValue value) {
+			JSONObject json = value.isObject();
+			return new Client()
+				.setId(getInteger(json, "id"))
+				.setDomain((int) getDouble(json, "domain"))
+				.setName(getString(json, "name"))
+				.setCreationUser(getString(json, "creationUser"))
+				.setCreationDate(getDate(json, "creationDate"))
+				.setModificationUser(getString(json, "modificationUser"))
+				.setModificationDate(getDate(json, "modificationDate"))
+				.setVersion((int) getDouble(json, "version"))
+				.setDirty(false);
+		}
+	};
+
+	private static void putInteger(JSONObject json, String key, Integer value) {
+		json.put(key, value == null ? JSONNull.getInstance() : new JSONNumber(value));
+	}
+
+	private static void putDouble(JSONObject json, String key, double value) {
+		json.put(key, new JSONNumber(value));
+	}
+
+	private static void putString(JSONObject json, String key, String value) {
+		json.put(key, value == null ? JSONNull.getInstance() : new JSONString(value));
+	}
+
+	private static void putDate(JSONObject json, String key, Date value) {
+		json.put(key, value == null ? JSONNull.getInstance() : new JSONNumber(value.getTime()));
+	}
+
+	private static Integer getInteger(JSONObject json, String key) {
+		JSONValue value = json.get(key);
+		return value == null || value.isNumber() == null ? null : Integer.valueOf((int) value.isNumber().doubleValue());
+	}
+
+	private static double getDouble(JSONObject json, String key) {
+		JSONValue value = json.get(key);
+		return value == null || value.isNumber() == null ? 0 : value.isNumber().doubleValue();
+	}
+
+	private static String getString(JSONObject json, String key) {
+		JSONValue value = json.get(key);
+		return value == null || value.isString() == null ? null : value.isString().stringValue();
+	}
+
+	private static Date getDate(JSONObject json, String key) {
+		JSONValue value = json.get(key);
+		return value == null || value.isNumber() == null ? null : new Date((long) value.isNumber().doubleValue());
+	}
+}
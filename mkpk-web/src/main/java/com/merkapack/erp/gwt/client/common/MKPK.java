@@ -3,9 +3,12 @@ package com.merkapack.erp.gwt.client.common;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.i18n.client.DateTimeFormat;
 import com.google.gwt.i18n.client.NumberFormat;
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.merkapack.erp.gwt.client.AsyncCallbackWrapper;
 import com.merkapack.erp.gwt.client.common.css.CSS;
 import com.merkapack.erp.gwt.client.common.css.Resources;
 import com.merkapack.erp.gwt.client.common.i18n.MkpkMessages;
+import com.merkapack.erp.gwt.client.telemetry.Telemetry;
 
 public class MKPK {
 	
@@ -23,8 +26,14 @@ public class MKPK {
 	}
 	
 	// Controls for RPC Methods
-	public static void start() {}
-	public static void stop() {}
-	public static void fail() {}
+	public static <T> AsyncCallback<T> start(String operation, AsyncCallback<T> callback) {
+		return new AsyncCallbackWrapper<T>(operation, callback);
+	}
+	public static void stop(String operation, double millis) {
+		Telemetry.record(operation, millis, false);
+	}
+	public static void fail(String operation, double millis) {
+		Telemetry.record(operation, millis, true);
+	}
 
 }
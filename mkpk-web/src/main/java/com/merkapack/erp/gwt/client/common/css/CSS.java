@@ -140,6 +140,9 @@ public interface CSS extends CssResource {
 	@ClassName("mkpk-flex-panel-child-fill1")		String mkpkFlexPanelChildFill1();
 	@ClassName("mkpk-flex-panel-child-fill2")		String mkpkFlexPanelChildFill2();
 	
+	@ClassName("mkpk-grid")							String mkpkGrid();
+	@ClassName("mkpk-grid-row")						String mkpkGridRow();
+	
 	@ClassName("mkpk-context-menu-option")			String mkpkContextMenuOption();
 	@ClassName("mkpk-menu-left-cell")				String mkpkMenuLeftCell();
 	@ClassName("mkpk-menu-right-cell")				String mkpkMenuRightCell();
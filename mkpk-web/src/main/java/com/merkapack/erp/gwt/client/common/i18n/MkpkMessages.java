@@ -173,6 +173,48 @@ public interface MkpkMessages extends Messages {
 	@DefaultMessage("Jornada laboral")
 	String workHoursInADay();
 
+	@DefaultMessage("Cargando\u2026")
+	String loading();
+
+	@DefaultMessage("No se ha podido cargar la pantalla. Compruebe la conexi\u00F3n y vuelva a intentarlo.")
+	String loadError();
+
+	@DefaultMessage("Periodo")
+	String period();
+
+	@DefaultMessage("Semana")
+	String week();
+
+	@DefaultMessage("Mes")
+	String month();
+
+	@DefaultMessage("A\u00F1o")
+	String year();
+
+	@DefaultMessage("D\u00EDa")
+	String day();
+
+	@DefaultMessage("Agrupar por")
+	String groupBy();
+
+	@DefaultMessage("L\u00EDneas")
+	String plannings();
+
+	@DefaultMessage("Cantidad")
+	String amount();
+
+	@DefaultMessage("Horas")
+	String hours();
+
+	@DefaultMessage("Total")
+	String total();
+
+	@DefaultMessage("Quedan (m)")
+	String remaining();
+
+	@DefaultMessage("Exportar a Excel")
+	String exportExcel();
+
 	
 
 	
@@ -0,0 +1,69 @@
+package com.merkapack.erp.gwt.client.rpc;
+
+import java.util.ArrayList;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.merkapack.erp.gwt.client.rpc.batch.BatchCall;
+
+/**
+ * Junta en una sola petici&oacute;n al servidor todas las llamadas hechas en la misma vuelta del
+ * bucle de eventos (se env&iacute;an en un <code>scheduleFinally</code>) y reparte luego cada
+ * resultado o error a su callback. En el servidor el lote se ejecuta con una sola conexi&oacute;n.
+ */
+public class BatchDispatcher {
+
+	private static final BatchServiceAsync SERVICE = GWT.create(BatchService.class);
+
+	private static ArrayList<BatchCall<?>> calls;
+	private static ArrayList<AsyncCallback<?>> callbacks;
+
+	public static <R> void call(BatchCall<R> call, AsyncCallback<R> callback) {
+		if (calls == null) {
+			calls = new ArrayList<BatchCall<?>>();
+			callbacks = new ArrayList<AsyncCallback<?>>();
+			Scheduler.get().scheduleFinally(new ScheduledCommand() {
+				@Override
+				public void execute() {
+					flush();
+				}
+			});
+		}
+		calls.add(call);
+		callbacks.add(callback);
+	}
+
+	private static void flush() {
+		final ArrayList<AsyncCallback<?>> pending = callbacks;
+		ArrayList<BatchCall<?>> batch = calls;
+		calls = null;
+		callbacks = null;
+		SERVICE.execute(batch, new AsyncCallback<ArrayList<BatchCall<?>>>() {
+			@Override
+			public void onSuccess(ArrayList<BatchCall<?>> results) {
+				for (int i = 0; i < pending.size(); i++) {
+					deliver(results.get(i), pending.get(i));
+				}
+			}
+
+			@Override
+			public void onFailure(Throwable caught) {
+				for (AsyncCallback<?> callback : pending) {
+					callback.onFailure(caught);
+				}
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <R> void deliver(BatchCall<R> result, AsyncCallback<?> callback) {
+		AsyncCallback<R> cb = (AsyncCallback<R>) callback;
+		if (result.getError() != null) {
+			cb.onFailure(result.getError());
+		} else {
+			cb.onSuccess(result.getResult());
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package com.merkapack.erp.gwt.client.rpc;
+
+import java.util.ArrayList;
+
+import com.google.gwt.user.client.rpc.RemoteService;
+import com.google.gwt.user.client.rpc.RemoteServiceRelativePath;
+import com.merkapack.erp.core.model.MkpkCoreException;
+import com.merkapack.erp.gwt.client.rpc.batch.BatchCall;
+
+@RemoteServiceRelativePath("MkpkBatch")
+public interface BatchService extends RemoteService {
+
+	/**
+	 * @return las mismas llamadas, en el mismo orden, cada una con su resultado o su error
+	 */
+	ArrayList<BatchCall<?>> execute(ArrayList<BatchCall<?>> calls) throws MkpkCoreException;
+}
@@ -0,0 +1,11 @@
+package com.merkapack.erp.gwt.client.rpc;
+
+import java.util.ArrayList;
+
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.merkapack.erp.gwt.client.rpc.batch.BatchCall;
+
+public interface BatchServiceAsync {
+
+	void execute(ArrayList<BatchCall<?>> calls, AsyncCallback<ArrayList<BatchCall<?>>> callback);
+}
@@ -1,14 +1,24 @@
 package com.merkapack.erp.gwt.client.rpc;
 
 import java.util.LinkedList;
+import java.util.function.Predicate;
 
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.merkapack.erp.core.model.Client;
+import com.merkapack.erp.gwt.client.cache.ReferenceCache;
+import com.merkapack.erp.gwt.client.cache.ReferenceCaches;
 import com.merkapack.erp.gwt.client.common.MKPK;
+import com.merkapack.erp.gwt.client.rpc.batch.GetClients;
 
 public class ClientServiceAsyncDecorator implements ClientServiceAsync {
 
 	private ClientServiceAsync service;
+	private ReferenceCache.Loader<Client> loader = new ReferenceCache.Loader<Client>() {
+		@Override
+		public void load(AsyncCallback<LinkedList<Client>> callback) {
+			BatchDispatcher.call(new GetClients(), MKPK.start("Client.getClients", callback));
+		}
+	};
 	
 	public ClientServiceAsyncDecorator(ClientServiceAsync service) {
 		this.service = service;
@@ -16,28 +26,32 @@ public class ClientServiceAsyncDecorator implements ClientServiceAsync {
 
 	@Override
 	public void getClients(AsyncCallback<LinkedList<Client>> callback) {
-		MKPK.start();
-		service.getClients(callback);
-		
+		ReferenceCaches.CLIENTS.get(loader, callback);
 	}
 
 	@Override
 	public void getClients(String query, AsyncCallback<LinkedList<Client>> callback) {
-		MKPK.start();
-		service.getClients(query, callback);
-		
+		if (!ReferenceCache.isLocal(query)) {
+			service.getClients(query, MKPK.start("Client.getClients(query)", callback));
+			return;
+		}
+		final String folded = ReferenceCache.fold(query);
+		ReferenceCaches.CLIENTS.find(loader, new Predicate<Client>() {
+			@Override
+			public boolean test(Client client) {
+				return ReferenceCache.contains(client.getName(), folded);
+			}
+		}, 0, callback);
 	}
 
 	@Override
 	public void save(Client client, AsyncCallback<Client> callback) {
-		MKPK.start();
-		service.save(client, callback);
+		service.save(client, MKPK.start("Client.save", ReferenceCaches.CLIENTS.invalidating(callback)));
 	}
 
 	@Override
 	public void delete(Client client, AsyncCallback<Void> callback) {
-		MKPK.start();
-		service.delete(client, callback);
+		service.delete(client, MKPK.start("Client.delete", ReferenceCaches.CLIENTS.invalidating(callback)));
 	}
 
 }
@@ -1,14 +1,24 @@
 package com.merkapack.erp.gwt.client.rpc;
 
 import java.util.LinkedList;
+import java.util.function.Predicate;
 
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.merkapack.erp.core.model.Machine;
+import com.merkapack.erp.gwt.client.cache.ReferenceCache;
+import com.merkapack.erp.gwt.client.cache.ReferenceCaches;
 import com.merkapack.erp.gwt.client.common.MKPK;
+import com.merkapack.erp.gwt.client.rpc.batch.GetMachines;
 
 public class MachineServiceAsyncDecorator implements MachineServiceAsync {
 
 	private MachineServiceAsync service;
+	private ReferenceCache.Loader<Machine> loader = new ReferenceCache.Loader<Machine>() {
+		@Override
+		public void load(AsyncCallback<LinkedList<Machine>> callback) {
+			BatchDispatcher.call(new GetMachines(), MKPK.start("Machine.getMachines", callback));
+		}
+	};
 	
 	public MachineServiceAsyncDecorator(MachineServiceAsync service) {
 		this.service = service;
@@ -16,26 +26,32 @@ public class MachineServiceAsyncDecorator implements MachineServiceAsync {
 
 	@Override
 	public void getMachines(AsyncCallback<LinkedList<Machine>> callback) {
-		MKPK.start();
-		service.getMachines(callback);
+		ReferenceCaches.MACHINES.get(loader, callback);
 	}
 
 	@Override
 	public void getMachines(String query, AsyncCallback<LinkedList<Machine>> callback) {
-		MKPK.start();
-		service.getMachines(query, callback);
+		if (!ReferenceCache.isLocal(query)) {
+			service.getMachines(query, MKPK.start("Machine.getMachines(query)", callback));
+			return;
+		}
+		final String folded = ReferenceCache.fold(query);
+		ReferenceCaches.MACHINES.find(loader, new Predicate<Machine>() {
+			@Override
+			public boolean test(Machine machine) {
+				return ReferenceCache.contains(machine.getName(), folded);
+			}
+		}, 0, callback);
 	}
 
 	@Override
 	public void save(Machine machine, AsyncCallback<Machine> callback) {
-		MKPK.start();
-		service.save(machine, callback);
+		service.save(machine, MKPK.start("Machine.save", ReferenceCaches.MACHINES.invalidating(callback)));
 	}
 
 	@Override
 	public void delete(Machine machine, AsyncCallback<Void> callback) {
-		MKPK.start();
-		service.delete(machine, callback);
+		service.delete(machine, MKPK.start("Machine.delete", ReferenceCaches.MACHINES.invalidating(callback)));
 	}
 
 }
@@ -1,14 +1,28 @@
 package com.merkapack.erp.gwt.client.rpc;
 
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
+import java.util.function.Predicate;
 
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.merkapack.erp.core.model.Material;
+import com.merkapack.erp.gwt.client.cache.ReferenceCache;
+import com.merkapack.erp.gwt.client.cache.ReferenceCaches;
 import com.merkapack.erp.gwt.client.common.MKPK;
+import com.merkapack.erp.gwt.client.rpc.batch.GetMaterials;
 
 public class MaterialServiceAsyncDecorator implements MaterialServiceAsync {
 
+	private static final int LIMIT = 30;
+
 	private MaterialServiceAsync service;
+	private ReferenceCache.Loader<Material> loader = new ReferenceCache.Loader<Material>() {
+		@Override
+		public void load(AsyncCallback<LinkedList<Material>> callback) {
+			BatchDispatcher.call(new GetMaterials(), MKPK.start("Material.getMaterials", callback));
+		}
+	};
 	
 	public MaterialServiceAsyncDecorator(MaterialServiceAsync service) {
 		this.service = service;
@@ -16,28 +30,60 @@ public class MaterialServiceAsyncDecorator implements MaterialServiceAsync {
 
 	@Override
 	public void getMaterials(AsyncCallback<LinkedList<Material>> callback) {
-		MKPK.start();
-		service.getMaterials(callback);
-		
+		ReferenceCaches.MATERIALS.get(loader, callback);
 	}
 
 	@Override
-	public void getMaterials(String query, AsyncCallback<LinkedList<Material>> callback) {
-		MKPK.start();
-		service.getMaterials(query, callback);
-		
+	public void getMaterials(String query, final AsyncCallback<LinkedList<Material>> callback) {
+		if (!ReferenceCache.isLocal(query)) {
+			service.getMaterials(query, MKPK.start("Material.getMaterials(query)", callback));
+			return;
+		}
+		final String folded = ReferenceCache.fold(query);
+		ReferenceCaches.MATERIALS.find(loader, new Predicate<Material>() {
+			@Override
+			public boolean test(Material material) {
+				return ReferenceCache.contains(material.getCode(), folded)
+					|| ReferenceCache.contains(material.getName(), folded);
+			}
+		}, 0, new AsyncCallback<LinkedList<Material>>() {
+			@Override
+			public void onSuccess(LinkedList<Material> found) {
+				// La lista completa va por nombre; el servidor devuelve los primeros por cdigo.
+				Collections.sort(found, new Comparator<Material>() {
+					@Override
+					public int compare(Material m1, Material m2) {
+						return ReferenceCache.fold(m1.getCode()).compareTo(ReferenceCache.fold(m2.getCode()));
+					}
+				});
+				while (found.size() > LIMIT) {
+					found.removeLast();
+				}
+				callback.onSuccess(found);
+			}
+
+			@Override
+			public void onFailure(Throwable caught) {
+				callback.onFailure(caught);
+			}
+		});
 	}
 
 	@Override
 	public void save(Material material, AsyncCallback<Material> callback) {
-		MKPK.start();
-		service.save(material, callback);
+		service.save(material, MKPK.start("Material.save", materialsChanged(callback)));
 	}
 
 	@Override
 	public void delete(Material material, AsyncCallback<Void> callback) {
-		MKPK.start();
-		service.delete(material, callback);
+		service.delete(material, MKPK.start("Material.delete", materialsChanged(callback)));
+	}
+
+	/**
+	 * Las bobinas llevan su material dentro, as&iacute; que tambi&eacute;n se invalidan.
+	 */
+	private <R> AsyncCallback<R> materialsChanged(AsyncCallback<R> callback) {
+		return ReferenceCaches.ROLLS.invalidating(ReferenceCaches.MATERIALS.invalidating(callback));
 	}
 
 }
@@ -7,6 +7,8 @@ import com.google.gwt.user.client.rpc.RemoteServiceRelativePath;
 import com.merkapack.erp.core.model.MkpkCoreException;
 import com.merkapack.erp.core.model.Planning;
 import com.merkapack.erp.core.model.PlanningParams;
+import com.merkapack.erp.core.model.PlanningStats;
+import com.merkapack.erp.core.model.StatsParams;
 
 @RemoteServiceRelativePath("MkpkPlanning")
 public interface PlanningService extends RemoteService {
@@ -15,4 +17,5 @@ public interface PlanningService extends RemoteService {
 	Planning save(Planning planning) throws MkpkCoreException;
 	LinkedList<Planning> save(LinkedList<Planning> list) throws MkpkCoreException;
 	void delete(Planning planning) throws MkpkCoreException;
+	LinkedList<PlanningStats> getStats(StatsParams params) throws MkpkCoreException;
 }
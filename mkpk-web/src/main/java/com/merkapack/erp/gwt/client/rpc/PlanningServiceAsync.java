@@ -5,6 +5,8 @@ import java.util.LinkedList;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.merkapack.erp.core.model.Planning;
 import com.merkapack.erp.core.model.PlanningParams;
+import com.merkapack.erp.core.model.PlanningStats;
+import com.merkapack.erp.core.model.StatsParams;
 
 public interface PlanningServiceAsync {
 
@@ -12,5 +14,6 @@ public interface PlanningServiceAsync {
 	void save(Planning planning, AsyncCallback<Planning> callback);
 	void save(LinkedList<Planning> list, AsyncCallback<LinkedList<Planning>> callback);
 	void delete(Planning planning, AsyncCallback<Void> callback);
+	void getStats(StatsParams params, AsyncCallback<LinkedList<PlanningStats>> callback);
 
 }
@@ -5,7 +5,11 @@ import java.util.LinkedList;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.merkapack.erp.core.model.Planning;
 import com.merkapack.erp.core.model.PlanningParams;
+import com.merkapack.erp.core.model.PlanningStats;
+import com.merkapack.erp.core.model.StatsParams;
+import com.merkapack.erp.gwt.client.cache.ReferenceCaches;
 import com.merkapack.erp.gwt.client.common.MKPK;
+import com.merkapack.erp.gwt.client.rpc.batch.GetPlannings;
 
 public class PlanningServiceAsyncDecorator implements PlanningServiceAsync {
 
@@ -17,27 +21,29 @@ public class PlanningServiceAsyncDecorator implements PlanningServiceAsync {
 
 	@Override
 	public void getPlannings(PlanningParams params, AsyncCallback<LinkedList<Planning>> callback) {
-		MKPK.start();
-		service.getPlannings(params,callback);
+		BatchDispatcher.call(new GetPlannings(params), MKPK.start("Planning.getPlannings", callback));
 		
 	}
 
 	@Override
 	public void save(LinkedList<Planning> list, AsyncCallback<LinkedList<Planning>> callback) {
-		MKPK.start();
-		service.save(list, callback);
+		// Las lneas consumen metros de las bobinas: la lista guardada ya no vale.
+		service.save(list, MKPK.start("Planning.save(list)", ReferenceCaches.ROLLS.invalidating(callback)));
 	}
 
 	@Override
 	public void save(Planning planning, AsyncCallback<Planning> callback) {
-		MKPK.start();
-		service.save(planning, callback);
+		service.save(planning, MKPK.start("Planning.save", ReferenceCaches.ROLLS.invalidating(callback)));
 	}
 
 	@Override
 	public void delete(Planning planning, AsyncCallback<Void> callback) {
-		MKPK.start();
-		service.delete(planning, callback);
+		service.delete(planning, MKPK.start("Planning.delete", ReferenceCaches.ROLLS.invalidating(callback)));
+	}
+
+	@Override
+	public void getStats(StatsParams params, AsyncCallback<LinkedList<PlanningStats>> callback) {
+		service.getStats(params, MKPK.start("Planning.getStats", callback));
 	}
 
 }
@@ -17,28 +17,24 @@ public class ProductServiceAsyncDecorator implements ProductServiceAsync {
 
 	@Override
 	public void getProducts(ProductParams params, int offset, int count,AsyncCallback<LinkedList<Product>> callback) {
-		MKPK.start();
-		service.getProducts(params,offset, count, callback);
+		service.getProducts(params,offset, count, MKPK.start("Product.getProducts", callback));
 		
 	}
 
 	@Override
 	public void getProducts(int offset, int count,String query, AsyncCallback<LinkedList<Product>> callback) {
-		MKPK.start();
-		service.getProducts(offset, count, query,callback);
+		service.getProducts(offset, count, query,MKPK.start("Product.getProducts(query)", callback));
 		
 	}
 
 	@Override
 	public void save(Product product, AsyncCallback<Product> callback) {
-		MKPK.start();
-		service.save(product, callback);
+		service.save(product, MKPK.start("Product.save", callback));
 	}
 
 	@Override
 	public void delete(Product product, AsyncCallback<Void> callback) {
-		MKPK.start();
-		service.delete(product, callback);
+		service.delete(product, MKPK.start("Product.delete", callback));
 	}
 
 }
@@ -11,6 +11,11 @@ import com.merkapack.erp.core.model.Roll;
 public interface RollService extends RemoteService {
 	LinkedList<Roll> getRolls() throws MkpkCoreException;
 	LinkedList<Roll> getRolls(String query,Integer material) throws MkpkCoreException;
+	/**
+	 * @param planning l&iacute;nea que se est&aacute; editando (o <code>null</code>): sus propios metros
+	 * no cuentan como consumidos
+	 */
+	LinkedList<Roll> getRolls(String query,Integer material,double meters,Integer planning) throws MkpkCoreException;
 	Roll save(Roll roll) throws MkpkCoreException;
 	void delete(Roll roll) throws MkpkCoreException;
 }
@@ -9,6 +9,7 @@ public interface RollServiceAsync {
 
 	void getRolls(AsyncCallback<LinkedList<Roll>> callback);
 	void getRolls(String query,Integer material,AsyncCallback<LinkedList<Roll>> callback);
+	void getRolls(String query,Integer material,double meters,Integer planning,AsyncCallback<LinkedList<Roll>> callback);
 	void save(Roll roll, AsyncCallback<Roll> callback);
 	void delete(Roll roll, AsyncCallback<Void> asyncCallback);
 
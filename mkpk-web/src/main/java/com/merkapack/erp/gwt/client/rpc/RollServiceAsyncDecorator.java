@@ -1,14 +1,24 @@
 package com.merkapack.erp.gwt.client.rpc;
 
 import java.util.LinkedList;
+import java.util.function.Predicate;
 
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.merkapack.erp.core.model.Roll;
+import com.merkapack.erp.gwt.client.cache.ReferenceCache;
+import com.merkapack.erp.gwt.client.cache.ReferenceCaches;
 import com.merkapack.erp.gwt.client.common.MKPK;
+import com.merkapack.erp.gwt.client.rpc.batch.GetRolls;
 
 public class RollServiceAsyncDecorator implements RollServiceAsync {
 
 	private RollServiceAsync service;
+	private ReferenceCache.Loader<Roll> loader = new ReferenceCache.Loader<Roll>() {
+		@Override
+		public void load(AsyncCallback<LinkedList<Roll>> callback) {
+			BatchDispatcher.call(new GetRolls(), MKPK.start("Roll.getRolls", callback));
+		}
+	};
 	
 	public RollServiceAsyncDecorator(RollServiceAsync service) {
 		this.service = service;
@@ -16,28 +26,48 @@ public class RollServiceAsyncDecorator implements RollServiceAsync {
 
 	@Override
 	public void getRolls(AsyncCallback<LinkedList<Roll>> callback) {
-		MKPK.start();
-		service.getRolls(callback);
-		
+		ReferenceCaches.ROLLS.get(loader, callback);
 	}
 
 	@Override
-	public void getRolls(String query,Integer material, AsyncCallback<LinkedList<Roll>> callback) {
-		MKPK.start();
-		service.getRolls(query,material,callback);
-		
+	public void getRolls(String query,final Integer material, AsyncCallback<LinkedList<Roll>> callback) {
+		if (!ReferenceCache.isLocal(query)) {
+			service.getRolls(query,material,MKPK.start("Roll.getRolls(query)", callback));
+			return;
+		}
+		find(query, material, null, callback);
+	}
+
+	@Override
+	public void getRolls(String query,final Integer material,double meters,Integer planning, AsyncCallback<LinkedList<Roll>> callback) {
+		// Los metros que ya consume una lnea guardada solo los sabe el servidor.
+		if (planning != null || !ReferenceCache.isLocal(query)) {
+			service.getRolls(query,material,meters,planning,MKPK.start("Roll.getRolls(query,meters)", callback));
+			return;
+		}
+		find(query, material, meters, callback);
+	}
+
+	private void find(String query, final Integer material, final Double meters, AsyncCallback<LinkedList<Roll>> callback) {
+		final String folded = ReferenceCache.fold(query);
+		ReferenceCaches.ROLLS.find(loader, new Predicate<Roll>() {
+			@Override
+			public boolean test(Roll roll) {
+				return ReferenceCache.contains(roll.getName(), folded)
+					&& (material == null || (roll.getMaterial() != null && material.equals(roll.getMaterial().getId())))
+					&& (meters == null || roll.getRemaining() >= meters);
+			}
+		}, 30, callback);
 	}
 
 	@Override
 	public void save(Roll roll, AsyncCallback<Roll> callback) {
-		MKPK.start();
-		service.save(roll, callback);
+		service.save(roll, MKPK.start("Roll.save", ReferenceCaches.ROLLS.invalidating(callback)));
 	}
 
 	@Override
 	public void delete(Roll roll, AsyncCallback<Void> callback) {
-		MKPK.start();
-		service.delete(roll, callback);
+		service.delete(roll, MKPK.start("Roll.delete", ReferenceCaches.ROLLS.invalidating(callback)));
 	}
 
 }
@@ -0,0 +1,17 @@
+package com.merkapack.erp.gwt.client.rpc;
+
+import java.util.Date;
+import java.util.LinkedList;
+
+import com.google.gwt.user.client.rpc.RemoteService;
+import com.google.gwt.user.client.rpc.RemoteServiceRelativePath;
+import com.merkapack.erp.core.model.MkpkCoreException;
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.gwt.shared.PlanningCalculatorParams;
+import com.merkapack.erp.gwt.shared.PlanningSimulation;
+
+@RemoteServiceRelativePath("MkpkSimulation")
+public interface SimulationService extends RemoteService {
+
+	LinkedList<PlanningSimulation> simulate(LinkedList<Planning> plan, LinkedList<PlanningCalculatorParams> variants, Date deadline) throws MkpkCoreException;
+}
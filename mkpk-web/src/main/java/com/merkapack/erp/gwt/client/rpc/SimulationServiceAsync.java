@@ -0,0 +1,15 @@
+package com.merkapack.erp.gwt.client.rpc;
+
+import java.util.Date;
+import java.util.LinkedList;
+
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.gwt.shared.PlanningCalculatorParams;
+import com.merkapack.erp.gwt.shared.PlanningSimulation;
+
+public interface SimulationServiceAsync {
+
+	void simulate(LinkedList<Planning> plan, LinkedList<PlanningCalculatorParams> variants, Date deadline, AsyncCallback<LinkedList<PlanningSimulation>> callback);
+
+}
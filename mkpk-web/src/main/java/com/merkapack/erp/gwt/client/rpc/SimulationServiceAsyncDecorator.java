@@ -0,0 +1,25 @@
+package com.merkapack.erp.gwt.client.rpc;
+
+import java.util.Date;
+import java.util.LinkedList;
+
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.gwt.client.common.MKPK;
+import com.merkapack.erp.gwt.shared.PlanningCalculatorParams;
+import com.merkapack.erp.gwt.shared.PlanningSimulation;
+
+public class SimulationServiceAsyncDecorator implements SimulationServiceAsync {
+
+	private SimulationServiceAsync service;
+	
+	public SimulationServiceAsyncDecorator(SimulationServiceAsync service) {
+		this.service = service;
+	}
+
+	@Override
+	public void simulate(LinkedList<Planning> plan, LinkedList<PlanningCalculatorParams> variants, Date deadline, AsyncCallback<LinkedList<PlanningSimulation>> callback) {
+		service.simulate(plan, variants, deadline, MKPK.start("Simulation.simulate", callback));
+	}
+
+}
@@ -0,0 +1,12 @@
+package com.merkapack.erp.gwt.client.rpc;
+
+import java.util.ArrayList;
+
+import com.google.gwt.user.client.rpc.RemoteService;
+import com.google.gwt.user.client.rpc.RemoteServiceRelativePath;
+import com.merkapack.erp.gwt.client.telemetry.TelemetrySample;
+
+@RemoteServiceRelativePath("MkpkTelemetry")
+public interface TelemetryService extends RemoteService {
+	void record(ArrayList<TelemetrySample> samples);
+}
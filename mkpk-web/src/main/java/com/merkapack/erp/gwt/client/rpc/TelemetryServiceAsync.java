@@ -0,0 +1,12 @@
+package com.merkapack.erp.gwt.client.rpc;
+
+import java.util.ArrayList;
+
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.merkapack.erp.gwt.client.telemetry.TelemetrySample;
+
+public interface TelemetryServiceAsync {
+
+	void record(ArrayList<TelemetrySample> samples, AsyncCallback<Void> callback);
+
+}
@@ -0,0 +1,28 @@
+package com.merkapack.erp.gwt.client.rpc.batch;
+
+import java.io.Serializable;
+
+import com.merkapack.erp.core.model.MkpkCoreException;
+
+/**
+ * Llamada que viaja dentro de un lote. El servidor la ejecuta y la devuelve con el resultado
+ * o con el error; cada subclase declara el tipo concreto del resultado para que GWT-RPC
+ * solo serialice lo necesario.
+ */
+public abstract class BatchCall<R> implements Serializable {
+
+	private static final long serialVersionUID = 6142335771046405521L;
+
+	private MkpkCoreException error;
+
+	public abstract R getResult();
+	public abstract BatchCall<R> setResult(R result);
+
+	public MkpkCoreException getError() {
+		return error;
+	}
+	public BatchCall<R> setError(MkpkCoreException error) {
+		this.error = error;
+		return this;
+	}
+}
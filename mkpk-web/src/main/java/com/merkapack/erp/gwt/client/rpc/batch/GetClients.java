@@ -0,0 +1,22 @@
+package com.merkapack.erp.gwt.client.rpc.batch;
+
+import java.util.LinkedList;
+
+import com.merkapack.erp.core.model.Client;
+
+public class GetClients extends BatchCall<LinkedList<Client>> {
+
+	private static final long serialVersionUID = 1L;
+
+	private LinkedList<Client> result;
+
+	@Override
+	public LinkedList<Client> getResult() {
+		return result;
+	}
+	@Override
+	public GetClients setResult(LinkedList<Client> result) {
+		this.result = result;
+		return this;
+	}
+}
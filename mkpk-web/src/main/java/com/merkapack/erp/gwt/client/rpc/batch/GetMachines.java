@@ -0,0 +1,22 @@
+package com.merkapack.erp.gwt.client.rpc.batch;
+
+import java.util.LinkedList;
+
+import com.merkapack.erp.core.model.Machine;
+
+public class GetMachines extends BatchCall<LinkedList<Machine>> {
+
+	private static final long serialVersionUID = 1L;
+
+	private LinkedList<Machine> result;
+
+	@Override
+	public LinkedList<Machine> getResult() {
+		return result;
+	}
+	@Override
+	public GetMachines setResult(LinkedList<Machine> result) {
+		this.result = result;
+		return this;
+	}
+}
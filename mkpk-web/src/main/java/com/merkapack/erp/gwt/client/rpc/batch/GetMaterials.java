@@ -0,0 +1,22 @@
+package com.merkapack.erp.gwt.client.rpc.batch;
+
+import java.util.LinkedList;
+
+import com.merkapack.erp.core.model.Material;
+
+public class GetMaterials extends BatchCall<LinkedList<Material>> {
+
+	private static final long serialVersionUID = 1L;
+
+	private LinkedList<Material> result;
+
+	@Override
+	public LinkedList<Material> getResult() {
+		return result;
+	}
+	@Override
+	public GetMaterials setResult(LinkedList<Material> result) {
+		this.result = result;
+		return this;
+	}
+}
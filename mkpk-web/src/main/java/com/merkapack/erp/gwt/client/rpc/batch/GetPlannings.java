@@ -0,0 +1,34 @@
+package com.merkapack.erp.gwt.client.rpc.batch;
+
+import java.util.LinkedList;
+
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.core.model.PlanningParams;
+
+public class GetPlannings extends BatchCall<LinkedList<Planning>> {
+
+	private static final long serialVersionUID = 1L;
+
+	private PlanningParams params;
+	private LinkedList<Planning> result;
+
+	public GetPlannings() {
+	}
+	public GetPlannings(PlanningParams params) {
+		this.params = params;
+	}
+
+	public PlanningParams getParams() {
+		return params;
+	}
+
+	@Override
+	public LinkedList<Planning> getResult() {
+		return result;
+	}
+	@Override
+	public GetPlannings setResult(LinkedList<Planning> result) {
+		this.result = result;
+		return this;
+	}
+}
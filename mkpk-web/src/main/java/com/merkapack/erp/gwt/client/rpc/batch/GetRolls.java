@@ -0,0 +1,22 @@
+package com.merkapack.erp.gwt.client.rpc.batch;
+
+import java.util.LinkedList;
+
+import com.merkapack.erp.core.model.Roll;
+
+public class GetRolls extends BatchCall<LinkedList<Roll>> {
+
+	private static final long serialVersionUID = 1L;
+
+	private LinkedList<Roll> result;
+
+	@Override
+	public LinkedList<Roll> getResult() {
+		return result;
+	}
+	@Override
+	public GetRolls setResult(LinkedList<Roll> result) {
+		this.result = result;
+		return this;
+	}
+}
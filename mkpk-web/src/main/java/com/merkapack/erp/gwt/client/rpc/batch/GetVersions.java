@@ -0,0 +1,32 @@
+package com.merkapack.erp.gwt.client.rpc.batch;
+
+import java.util.HashMap;
+
+/**
+ * Sello de versi&oacute;n de cada lista de referencia, por nombre de lista.
+ */
+public class GetVersions extends BatchCall<HashMap<String,String>> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final String MACHINES = "machines";
+	public static final String MATERIALS = "materials";
+	public static final String ROLLS = "rolls";
+	public static final String CLIENTS = "clients";
+	/**
+	 * No es una lista: el dominio con el que se han calculado los sellos.
+	 */
+	public static final String DOMAIN_KEY = "domain";
+
+	private HashMap<String,String> result;
+
+	@Override
+	public HashMap<String,String> getResult() {
+		return result;
+	}
+	@Override
+	public GetVersions setResult(HashMap<String,String> result) {
+		this.result = result;
+		return this;
+	}
+}
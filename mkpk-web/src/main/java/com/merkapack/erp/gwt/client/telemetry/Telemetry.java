@@ -0,0 +1,88 @@
+package com.merkapack.erp.gwt.client.telemetry;
+
+import java.util.ArrayList;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+import com.google.gwt.user.client.Timer;
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.merkapack.erp.gwt.client.rpc.TelemetryService;
+import com.merkapack.erp.gwt.client.rpc.TelemetryServiceAsync;
+
+/**
+ * Recoge las medidas del cliente y las manda al servidor en lotes: cada {@link #FLUSH_MILLIS}
+ * o al juntar {@link #BATCH_SIZE}. Si el servidor no contesta, las medidas se pierden; nunca
+ * se acumulan m&aacute;s de {@link #MAX_BUFFER}.
+ */
+public class Telemetry {
+
+	private static final int BATCH_SIZE = 50;
+	private static final int MAX_BUFFER = 500;
+	private static final int FLUSH_MILLIS = 30000;
+
+	private static final TelemetryServiceAsync SERVICE = GWT.create(TelemetryService.class);
+
+	private static ArrayList<TelemetrySample> buffer = new ArrayList<TelemetrySample>();
+	private static boolean sending = false;
+	private static Timer timer;
+
+	public static double now() {
+		return Duration.currentTimeMillis();
+	}
+
+	public static void record(String operation, double millis, boolean failed) {
+		if (buffer.size() >= MAX_BUFFER) {
+			return;
+		}
+		buffer.add(new TelemetrySample()
+			.setOperation(operation)
+			.setMillis((int) Math.round(millis))
+			.setFailed(failed));
+		if (buffer.size() >= BATCH_SIZE) {
+			flush();
+		} else if (timer == null) {
+			timer = new Timer() {
+				@Override
+				public void run() {
+					flush();
+				}
+			};
+			timer.scheduleRepeating(FLUSH_MILLIS);
+		}
+	}
+
+	/**
+	 * Mide hasta que el navegador termina de pintar: se cierra en la siguiente vuelta del bucle de eventos.
+	 * @param start instante de {@link #now()} al empezar a pintar
+	 */
+	public static void rendered(final String operation, final double start) {
+		Scheduler.get().scheduleDeferred(new ScheduledCommand() {
+			@Override
+			public void execute() {
+				record(operation, now() - start, false);
+			}
+		});
+	}
+
+	private static void flush() {
+		if (sending || buffer.isEmpty()) {
+			return;
+		}
+		ArrayList<TelemetrySample> samples = buffer;
+		buffer = new ArrayList<TelemetrySample>();
+		sending = true;
+		SERVICE.record(samples, new AsyncCallback<Void>() {
+			@Override
+			public void onSuccess(Void nothing) {
+				sending = false;
+			}
+
+			@Override
+			public void onFailure(Throwable caught) {
+				sending = false;
+			}
+		});
+	}
+}
@@ -0,0 +1,39 @@
+package com.merkapack.erp.gwt.client.telemetry;
+
+import java.io.Serializable;
+
+/**
+ * Una medida del cliente: una llamada RPC (de la petici&oacute;n a la respuesta) o el pintado de una pantalla.
+ */
+public class TelemetrySample implements Serializable {
+
+	private static final long serialVersionUID = -2874125106624381923L;
+
+	private String operation;
+	private int millis;
+	private boolean failed;
+
+	public String getOperation() {
+		return operation;
+	}
+	public TelemetrySample setOperation(String operation) {
+		this.operation = operation;
+		return this;
+	}
+
+	public int getMillis() {
+		return millis;
+	}
+	public TelemetrySample setMillis(int millis) {
+		this.millis = millis;
+		return this;
+	}
+
+	public boolean isFailed() {
+		return failed;
+	}
+	public TelemetrySample setFailed(boolean failed) {
+		this.failed = failed;
+		return this;
+	}
+}
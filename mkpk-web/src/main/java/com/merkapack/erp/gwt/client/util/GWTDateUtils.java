@@ -3,6 +3,7 @@ package com.merkapack.erp.gwt.client.util;
 import java.util.Date;
 
 import com.google.gwt.user.datepicker.client.CalendarUtil;
+import com.merkapack.watson.util.MkpkDayUtils;
 
 @SuppressWarnings("deprecation")
 public class GWTDateUtils {
@@ -172,13 +173,7 @@ public class GWTDateUtils {
 	}
 
 	public static int getDaysBetween(Date start, Date finish) {
-		Date a = copyDateOnly(start);
-		Date b = copyDateOnly(finish);
-		// Convert the dates to the same time
-		long aTime = a.getTime();
-		long bTime = b.getTime();
-
-		return (int) ((bTime - aTime) / (24 * 60 * 60 * 1000));
+		return MkpkDayUtils.of(finish) - MkpkDayUtils.of(start);
 	}
 
 	public static boolean equals(Date d1, Date d2) {
@@ -200,9 +195,7 @@ public class GWTDateUtils {
 		if (d1 == null)
 			return -1;
 
-		return ((d0.getYear() - d1.getYear()) * 372)
-				+ ((d0.getMonth() - d1.getMonth()) * 31) + // max = 11*31
-				(d0.getDate() - d1.getDate()); // max = 30
+		return MkpkDayUtils.of(d0) - MkpkDayUtils.of(d1);
 
 	}
 
@@ -0,0 +1,60 @@
+package com.merkapack.erp.gwt.client.util;
+
+import java.util.IdentityHashMap;
+
+import com.google.gwt.user.client.rpc.AsyncCallback;
+
+/**
+ * Guardados de las filas de una pantalla de mantenimiento. Cada fila se guarda de una en una vez:
+ * si se edita mientras su guardado anterior est&aacute; en curso, el nuevo espera a que vuelva y
+ * sale despu&eacute;s, ya con la versi&oacute;n (y el id, si era nueva) que ha devuelto el servidor.
+ * Varias ediciones durante la espera se juntan en un solo guardado: la fila es el mismo objeto y ya
+ * lleva todos los cambios.
+ */
+public class RowSaver<T> {
+
+	public static interface Save<T> {
+		void save(T row, AsyncCallback<T> callback);
+	}
+
+	private final Save<T> save;
+	// Filas con un guardado en curso y, si lo hay, la respuesta del que espera detrs.
+	private final IdentityHashMap<T, AsyncCallback<T>> saving = new IdentityHashMap<T, AsyncCallback<T>>();
+
+	public RowSaver(Save<T> save) {
+		this.save = save;
+	}
+
+	/**
+	 * @param callback tiene que copiar en la fila la versi&oacute;n (y el id) del resultado: se
+	 * llama antes de enviar el siguiente guardado de la misma fila
+	 */
+	public void save(final T row, final AsyncCallback<T> callback) {
+		if (saving.containsKey(row)) {
+			saving.put(row, callback);
+			return;
+		}
+		saving.put(row, null);
+		save.save(row, new AsyncCallback<T>() {
+
+			@Override
+			public void onSuccess(T result) {
+				callback.onSuccess(result);
+				next(row);
+			}
+
+			@Override
+			public void onFailure(Throwable caught) {
+				callback.onFailure(caught);
+				next(row);
+			}
+		});
+	}
+
+	private void next(T row) {
+		AsyncCallback<T> pending = saving.remove(row);
+		if (pending != null) {
+			save(row, pending);
+		}
+	}
+}
@@ -21,6 +21,7 @@ import com.merkapack.erp.gwt.client.common.MKPK;
 import com.merkapack.erp.gwt.client.rpc.ClientService;
 import com.merkapack.erp.gwt.client.rpc.ClientServiceAsync;
 import com.merkapack.erp.gwt.client.rpc.ClientServiceAsyncDecorator;
+import com.merkapack.erp.gwt.client.util.RowSaver;
 import com.merkapack.erp.gwt.client.widget.MkpkButton;
 import com.merkapack.erp.gwt.client.widget.MkpkConfirmDialog;
 import com.merkapack.erp.gwt.client.widget.MkpkConfirmDialog.MkpkConfirmDialogCallback;
@@ -30,6 +31,13 @@ import com.merkapack.erp.gwt.client.widget.MkpkTextBox;
 public class ClientView extends MkpkDockLayout  {
 	
 	private static ClientServiceAsync SERVICE;
+	private final RowSaver<Client> saver = new RowSaver<Client>(new RowSaver.Save<Client>() {
+
+		@Override
+		public void save(Client row, AsyncCallback<Client> callback) {
+			SERVICE.save(row, callback);
+		}
+	});
 	private SimpleLayoutPanel content;
 	private final int deleteColumnIndex = 1; 
 	
@@ -118,10 +126,11 @@ public class ClientView extends MkpkDockLayout  {
 			@Override
 			public void onValueChange(ValueChangeEvent<String> event) {
 				client.setName( nameBox.getValue() ); 
-				SERVICE.save(client, new AsyncCallback<Client>() {
+				saver.save(client, new AsyncCallback<Client>() {
 					
 					@Override
 					public void onSuccess(Client result) {
+						client.setVersion(result.getVersion());
 						if (client.getId() == null) {
 							client.setId(result.getId());
 							paintDeleteButton(tab,row,client);							
@@ -21,6 +21,7 @@ import com.merkapack.erp.gwt.client.common.MKPK;
 import com.merkapack.erp.gwt.client.rpc.MachineService;
 import com.merkapack.erp.gwt.client.rpc.MachineServiceAsync;
 import com.merkapack.erp.gwt.client.rpc.MachineServiceAsyncDecorator;
+import com.merkapack.erp.gwt.client.util.RowSaver;
 import com.merkapack.erp.gwt.client.widget.MkpkButton;
 import com.merkapack.erp.gwt.client.widget.MkpkConfirmDialog;
 import com.merkapack.erp.gwt.client.widget.MkpkConfirmDialog.MkpkConfirmDialogCallback;
@@ -31,6 +32,13 @@ import com.merkapack.erp.gwt.client.widget.MkpkTextBox;
 public class MachineView extends MkpkDockLayout  {
 	
 	private static MachineServiceAsync SERVICE;
+	private final RowSaver<Machine> saver = new RowSaver<Machine>(new RowSaver.Save<Machine>() {
+
+		@Override
+		public void save(Machine row, AsyncCallback<Machine> callback) {
+			SERVICE.save(row, callback);
+		}
+	});
 	private SimpleLayoutPanel content;
 	private final int deleteButtonColumn = 2; 
 	
@@ -190,10 +198,11 @@ public class MachineView extends MkpkDockLayout  {
 	}
 	
 	private void save(FlexTable tab, int row, Machine machine) {
-		SERVICE.save(machine, new AsyncCallback<Machine>() {
+		saver.save(machine, new AsyncCallback<Machine>() {
 			
 			@Override
 			public void onSuccess(Machine result) {
+				machine.setVersion(result.getVersion());
 				if (machine.getId() == null) {
 					machine.setId(result.getId());
 					paintDeleteButton(tab,row,machine);							
@@ -21,6 +21,7 @@ import com.merkapack.erp.gwt.client.common.MKPK;
 import com.merkapack.erp.gwt.client.rpc.MaterialService;
 import com.merkapack.erp.gwt.client.rpc.MaterialServiceAsync;
 import com.merkapack.erp.gwt.client.rpc.MaterialServiceAsyncDecorator;
+import com.merkapack.erp.gwt.client.util.RowSaver;
 import com.merkapack.erp.gwt.client.widget.MkpkButton;
 import com.merkapack.erp.gwt.client.widget.MkpkConfirmDialog;
 import com.merkapack.erp.gwt.client.widget.MkpkConfirmDialog.MkpkConfirmDialogCallback;
@@ -31,6 +32,13 @@ import com.merkapack.erp.gwt.client.widget.MkpkTextBox;
 public class MaterialView extends MkpkDockLayout  {
 	
 	private static MaterialServiceAsync SERVICE;
+	private final RowSaver<Material> saver = new RowSaver<Material>(new RowSaver.Save<Material>() {
+
+		@Override
+		public void save(Material row, AsyncCallback<Material> callback) {
+			SERVICE.save(row, callback);
+		}
+	});
 	private SimpleLayoutPanel content;
 	 
 	public MaterialView() {
@@ -263,10 +271,11 @@ public class MaterialView extends MkpkDockLayout  {
 	}
 
 	private void save(FlexTable tab, int row, Material material) {
-		SERVICE.save(material, new AsyncCallback<Material>() {
+		saver.save(material, new AsyncCallback<Material>() {
 			
 			@Override
 			public void onSuccess(Material result) {
+				material.setVersion(result.getVersion());
 				if (material.getId() == null) {
 					material.setId(result.getId());
 					paintDeleteButton(tab,row,5,material);							
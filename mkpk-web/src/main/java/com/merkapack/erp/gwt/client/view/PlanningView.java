@@ -21,11 +21,9 @@ import com.google.gwt.event.logical.shared.ValueChangeEvent;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import com.google.gwt.event.shared.HandlerRegistration;
 import com.google.gwt.http.client.URL;
-import com.google.gwt.user.client.Window;
 import com.google.gwt.user.client.ui.FileUpload;
 import com.google.gwt.user.client.ui.FlexTable;
 import com.google.gwt.user.client.ui.FlowPanel;
-import com.google.gwt.user.client.ui.FocusPanel;
 import com.google.gwt.user.client.ui.Focusable;
 import com.google.gwt.user.client.ui.FormPanel;
 import com.google.gwt.user.client.ui.FormPanel.SubmitCompleteEvent;
@@ -33,7 +31,6 @@ import com.google.gwt.user.client.ui.FormPanel.SubmitCompleteHandler;
 import com.google.gwt.user.client.ui.HorizontalPanel;
 import com.google.gwt.user.client.ui.InlineLabel;
 import com.google.gwt.user.client.ui.Label;
-import com.google.gwt.user.client.ui.ScrollPanel;
 import com.google.gwt.user.client.ui.SimpleLayoutPanel;
 import com.google.gwt.user.client.ui.Widget;
 import com.merkapack.erp.core.model.Client;
@@ -44,7 +41,7 @@ import com.merkapack.erp.core.model.Product;
 import com.merkapack.erp.core.model.Roll;
 import com.merkapack.erp.gwt.client.common.MKPK;
 import com.merkapack.erp.gwt.client.js.JsPlanning;
-import com.merkapack.erp.gwt.client.util.GWTDateUtils;
+import com.merkapack.erp.gwt.client.telemetry.Telemetry;
 import com.merkapack.erp.gwt.client.widget.MkpkButton;
 import com.merkapack.erp.gwt.client.widget.MkpkClientBox;
 import com.merkapack.erp.gwt.client.widget.MkpkConfirmDialog;
@@ -72,7 +69,7 @@ public class PlanningView extends MkpkDockLayout {
 	private static final String FILEUPLOAD_ID = "fileUploadID";
 
 	private SimpleLayoutPanel contentContainer;
-	private ScrollPanel content;
+	private PlanningViewGrid content;
 	
 	private MkpkMachineBox machine;
 	private MkpkDateBox startDate;
@@ -89,6 +86,16 @@ public class PlanningView extends MkpkDockLayout {
 			Product pro = product.getSelected();
 			return (pro != null && pro.getMaterialUp() != null)?pro.getMaterialUp().getId():null;
 		}
+
+		@Override
+		public double getMeters() {
+			return meters.getValue() == null ? 0 : meters.getValue();
+		}
+
+		@Override
+		public Integer getPlanning() {
+			return planningRow.getPlanning() == null ? null : planningRow.getPlanning().getId();
+		}
 	});
 	private MkpkDoubleBox amount = new MkpkDoubleBox();
 	private MkpkIntegerBox blowUnits = new MkpkIntegerBox();
@@ -110,7 +117,43 @@ public class PlanningView extends MkpkDockLayout {
 		addNorth(getDateMachinePanel(), 35);
 		addNorth(getPlanningRowPanel(), 70);
 		contentContainer = new SimpleLayoutPanel();
-		content = new ScrollPanel();
+		content = new PlanningViewGrid(new PlanningViewTable.IPlanningCallback() {
+			@Override
+			public void onOpen(Planning planning) {
+				planningRow.setPlanning(planning);
+				planningRow.refresh(planning);
+				Scheduler.get().scheduleDeferred(new ScheduledCommand() {
+					public void execute() {
+						amount.setFocus(true);
+					}
+				});
+			}
+
+			@Override
+			public void onDelete(Planning planning) {
+				MkpkConfirmDialog cd = new MkpkConfirmDialog();
+				cd.confirm(MKPK.MSG.deleteConfirmation(), MKPK.MSG.delete(), new MkpkConfirmDialogCallback() {
+					@Override
+					public void onCancel() {
+					}
+
+					@Override
+					public void onAccept() {
+						list.remove(planning);
+						refreshList();
+					}
+				});
+			}
+
+			@Override
+			public void onEdit(Planning planning, PlanningCalculatorStrategy strategy) {
+				PlanningCalculator.calculate(getParams(), strategy, planning);
+				content.refreshRow(planning);
+				if (planning == planningRow.getPlanning()) {
+					planningRow.refresh(planning);
+				}
+			}
+		});
 		contentContainer.setWidget(content);
 		add(contentContainer);
 		
@@ -719,7 +762,7 @@ public class PlanningView extends MkpkDockLayout {
 
 		private void fire(Planning pl) {
 			refresh(pl);
-			refreshList();
+			content.refreshRow(pl);
 			ValueChangeEvent.fire(PlanningRow.this, getPlanning());
 		}
 
@@ -749,233 +792,27 @@ public class PlanningView extends MkpkDockLayout {
 	}
 	
 	private void validateMeters(Planning planning, Widget meters) {
-		if ( MkpkMathUtils.isNotZero(planning.getRollUpLength())) {
-			if ( MkpkMathUtils.isNotZero(planning.getMeters())) {
-				if ( planning.getMeters() > planning.getRollUpLength()) {
-					meters.addStyleName(MKPK.CSS.mkpkColorRed());
-				} else {
-					meters.removeStyleName(MKPK.CSS.mkpkColorRed());
-				}
-			}
+		if (PlanningViewTable.isMetersOverRoll(planning)) {
+			meters.addStyleName(MKPK.CSS.mkpkColorRed());
+		} else {
+			meters.removeStyleName(MKPK.CSS.mkpkColorRed());
 		}
 	}
 	
 	private void validateBlowUnitRoll(Planning planning, Widget blowUnits, Widget roll) {
-		if ( MkpkMathUtils.isNotZero(planning.getRollUpWidth())) {
-			if ( MkpkMathUtils.isNotZero(planning.getWidth())) {
-				if (MkpkMathUtils.isNotZero(MkpkMathUtils.round(planning.getRollUpWidth() % planning.getWidth()))) {
-					blowUnits.addStyleName(MKPK.CSS.mkpkColorRed());
-					roll.addStyleName(MKPK.CSS.mkpkColorRed());
-				} else {
-					blowUnits.removeStyleName(MKPK.CSS.mkpkColorRed());
-					roll.removeStyleName(MKPK.CSS.mkpkColorRed());
-				}
-			}
-		}
-	}
-	
-	private FocusPanel getLineWidget(Planning pl) {
-		FocusPanel focusContainer = new FocusPanel();
-		focusContainer.setStyleName(MKPK.CSS.mkpkPointer());
-		focusContainer.addClickHandler(new ClickHandler() {
-			@Override
-			public void onClick(ClickEvent event) {
-				Window.alert("Click ..: " + pl.getProduct().getCode() + pl.getProduct().getName());
-				planningRow.setPlanning(pl);
-				planningRow.refresh(pl);
-				Scheduler.get().scheduleDeferred(new ScheduledCommand() {
-					public void execute() {
-						amount.setFocus(true);
-					}
-				});
-			}
-		});
-		FlowPanel container = new FlowPanel();
-		focusContainer.setWidget(container);
-		container.setStyleName(MKPK.CSS.mkpkFlexPanel());
-		if (pl.isSelected()) {
-			container.addStyleName(MKPK.CSS.mkpkFlexPanelSelected());
-		}
-		
-		InlineLabel selector = new InlineLabel();
-		selector.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		selector.addStyleName(MKPK.CSS.mkpkFlexPanelChildSelector());
-		selector.addStyleName(pl.isSelected()?MKPK.CSS.mkpkIconChecked():MKPK.CSS.mkpkIconUnchecked());
-		selector.addStyleName(MKPK.CSS.mkpkPointer());
-		selector.addClickHandler(new ClickHandler() {
-			
-			@Override
-			public void onClick(ClickEvent event) {
-				event.preventDefault();
-				event.stopPropagation();
-				selector.removeStyleName(pl.isSelected()?MKPK.CSS.mkpkIconChecked():MKPK.CSS.mkpkIconUnchecked());
-				pl.setSelected(!pl.isSelected());
-				selector.addStyleName(pl.isSelected()?MKPK.CSS.mkpkIconChecked():MKPK.CSS.mkpkIconUnchecked());
-				if (pl.isSelected()) {
-					container.addStyleName(MKPK.CSS.mkpkFlexPanelSelected());
-				} else {
-					container.removeStyleName(MKPK.CSS.mkpkFlexPanelSelected());
-				}
-			}
-		});
-		container.add(selector);
-		
-		InlineLabel date = new InlineLabel(MKPK.DATE_FORMAT.format(pl.getDate()));
-		date.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		date.addStyleName(MKPK.CSS.mkpkFlexPanelChildDate());
-		container.add(date);
-
-		InlineLabel order = new InlineLabel(MkpkNumberUtils.toString(pl.getOrder()));
-		order.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		order.addStyleName(MKPK.CSS.mkpkFlexPanelChildOrder());
-		container.add(order);
-
-		InlineLabel product = new InlineLabel(pl.getProduct() != null ? pl.getProduct().getMeasure() : "" );
-		product.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		product.addStyleName(MKPK.CSS.mkpkFlexPanelChildProduct());
-		container.add(product);
-		
-		InlineLabel material = new InlineLabel(pl.getMaterialUp() != null ? pl.getMaterialUp().getName() : "");
-		material.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		material.addStyleName(MKPK.CSS.mkpkFlexPanelChildMaterial());
-		container.add(material);
-
-		InlineLabel roll = new InlineLabel(pl.getRollUp() != null ? pl.getRollUp().getName() : "");
-		roll.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		roll.addStyleName(MKPK.CSS.mkpkFlexPanelChildRoll());
-		container.add(roll);
-
-		InlineLabel amount = new InlineLabel(MKPK.FMT_INT.format(pl.getAmount()));
-		amount.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		amount.addStyleName(MKPK.CSS.mkpkFlexPanelChildAmount());
-		container.add(amount);
-		
-		InlineLabel blowUnits = new InlineLabel(MKPK.FMT_INT.format(pl.getBlowUnits()));
-		blowUnits.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		blowUnits.addStyleName(MKPK.CSS.mkpkFlexPanelChildBlowUnits());
-		container.add(blowUnits);
-		
-		InlineLabel meters = new InlineLabel(MKPK.FMT.format(pl.getMeters()));
-		meters.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		meters.addStyleName(MKPK.CSS.mkpkFlexPanelChildMeters());
-		container.add(meters);
-
-		InlineLabel blows = new InlineLabel(MKPK.FMT.format(pl.getBlows()));
-		blows.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		blows.addStyleName(MKPK.CSS.mkpkFlexPanelChildBlows());
-		container.add(blows);
-
-		InlineLabel blowsMinute = new InlineLabel(MKPK.FMT_INT.format(pl.getBlowsMinute()));
-		blowsMinute.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		blowsMinute.addStyleName(MKPK.CSS.mkpkFlexPanelChildBlowsMinute());
-		container.add(blowsMinute);
-		
-		InlineLabel hours = new InlineLabel(MKPK.FMT.format(pl.getHours()));
-		hours.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		hours.addStyleName(MKPK.CSS.mkpkFlexPanelChildHours());
-		container.add(hours);
-		
-		InlineLabel client = new InlineLabel(pl.getClient() != null ? pl.getClient().getName() : "");
-		client.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		client.addStyleName(MKPK.CSS.mkpkFlexPanelChildClient());
-		container.add(client);
-
-		InlineLabel comments = new InlineLabel(pl.getComments() != null ? pl.getComments() : "");
-		comments.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		comments.addStyleName(MKPK.CSS.mkpkFlexPanelChildComments());
-		container.add(comments);
-
-		InlineLabel delete = new InlineLabel();
-		delete.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		delete.addStyleName(MKPK.CSS.mkpkFlexPanelChildDelete());
-		delete.addStyleName(MKPK.CSS.mkpkIconDelete());
-		delete.addStyleName(MKPK.CSS.mkpkIconPaddingLeft());
-		delete.addStyleName(MKPK.CSS.mkpkPointer());
-		if (pl.isDirty()) {
-			delete.setText("*");
-			delete.addStyleName(MKPK.CSS.mkpkColorRed());
-			delete.addStyleName(MKPK.CSS.mkpkBold());
+		if (PlanningViewTable.isRollWidthMismatch(planning)) {
+			blowUnits.addStyleName(MKPK.CSS.mkpkColorRed());
+			roll.addStyleName(MKPK.CSS.mkpkColorRed());
+		} else {
+			blowUnits.removeStyleName(MKPK.CSS.mkpkColorRed());
+			roll.removeStyleName(MKPK.CSS.mkpkColorRed());
 		}
-		delete.addClickHandler(new ClickHandler() {
-			
-			@Override
-			public void onClick(ClickEvent event) {
-				MkpkConfirmDialog cd = new MkpkConfirmDialog();
-				cd.confirm(MKPK.MSG.deleteConfirmation(), MKPK.MSG.delete(), new MkpkConfirmDialogCallback() {
-					@Override
-					public void onCancel() {
-					}
-
-					@Override
-					public void onAccept() {
-						event.preventDefault();
-						event.stopPropagation();
-						list.remove(pl);
-						refreshList();
-					}
-				});
-			}
-		});
-		container.add(delete);
-		return focusContainer;
-	}
-
-	private Widget getTotalLine(double minutes) {
-		FlowPanel container = new FlowPanel();
-		container.setStyleName(MKPK.CSS.mkpkFlexPanel());
-
-		InlineLabel fill1 = new InlineLabel();
-		fill1.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		fill1.addStyleName(MKPK.CSS.mkpkFlexPanelChildFill1());
-		container.add(fill1);
-		
-		InlineLabel hours = new InlineLabel(MKPK.FMT.format(minutes / 60));
-		hours.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		hours.addStyleName(MKPK.CSS.mkpkFlexPanelChildHours());
-		hours.addStyleName(MKPK.CSS.mkpkBold());
-		container.add(hours);
-		
-		InlineLabel fill2 = new InlineLabel();
-		fill2.setStyleName(MKPK.CSS.mkpkFlexPanelChild());
-		fill2.addStyleName(MKPK.CSS.mkpkFlexPanelChildFill2());
-		container.add(fill2);
-		
-		return container;
 	}
 
 	private void refreshList() {
-		content.clear();
-		
-		FlowPanel mainContainer = new FlowPanel();
-		mainContainer.setStyleName(MKPK.CSS.mkpkPaddingTop());
-		mainContainer.addStyleName(MKPK.CSS.mkpkPaddingLeft());
-		mainContainer.addStyleName(MKPK.CSS.mkpkPaddingRight());
-		if (list != null && list.size() > 0) {
-			Date date = null;
-			double minutes = 0;
-			for (Planning pl : list) {
-				if (GWTDateUtils.compare(pl.getDate(), date) != 0) {
-					if ( date != null) {
-						mainContainer.add(getTotalLine( minutes ));	
-					}
-					date = pl.getDate();
-					minutes = 0;
-				}
-				minutes = minutes + pl.getMinutes();
-				FocusPanel focusContainer = getLineWidget( pl );
-				validateBlowUnitRoll(pl,blowUnits,roll);
-				validateMeters(pl,meters);
-				mainContainer.add(focusContainer);	
-			}
-			if (MkpkMathUtils.isNotZero(minutes)) {
-				mainContainer.add(getTotalLine( minutes ));				
-			}
-		} else {
-			Label lineLabel = new Label(MKPK.MSG.noData());
-			lineLabel.setStyleName(MKPK.CSS.mkpkTextCenter());
-			mainContainer.add(lineLabel);
-		}
-		content.setWidget(mainContainer);
+		double start = Telemetry.now();
+		content.refresh(list);
+		Telemetry.rendered("PlanningView.refreshList", start);
 	}
 
 }
@@ -0,0 +1,195 @@
+package com.merkapack.erp.gwt.client.view;
+
+import java.util.Date;
+import java.util.List;
+
+import com.google.gwt.cell.client.Cell.Context;
+import com.google.gwt.dom.client.BrowserEvents;
+import com.google.gwt.event.dom.client.ScrollEvent;
+import com.google.gwt.event.dom.client.ScrollHandler;
+import com.google.gwt.user.client.ui.FlowPanel;
+import com.google.gwt.user.client.ui.ResizeComposite;
+import com.google.gwt.user.client.ui.ScrollPanel;
+import com.google.gwt.user.client.ui.SimplePanel;
+import com.google.gwt.view.client.CellPreviewEvent;
+import com.google.gwt.view.client.ListDataProvider;
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.gwt.client.common.MKPK;
+import com.merkapack.erp.gwt.client.util.GWTDateUtils;
+import com.merkapack.erp.gwt.client.view.PlanningViewTable.IPlanningCallback;
+import com.merkapack.watson.util.MkpkMathUtils;
+
+/**
+ * Rejilla virtual de l&iacute;neas de planificaci&oacute;n. La tabla solo pinta las filas visibles
+ * (m&aacute;s un margen por arriba y por abajo) y dos espaciadores ocupan el alto del resto, as&iacute;
+ * que el tama&ntilde;o del DOM no depende de la longitud del plan. Todas las filas, tambi&eacute;n
+ * las de total del d&iacute;a, miden {@link #ROW_HEIGHT}.
+ */
+public class PlanningViewGrid extends ResizeComposite {
+
+	public static final int ROW_HEIGHT = 22;
+	private static final int OVERSCAN = 10;
+
+	private final ScrollPanel scroll = new ScrollPanel();
+	private final SimplePanel topSpacer = new SimplePanel();
+	private final SimplePanel bottomSpacer = new SimplePanel();
+	private final PlanningViewTable table;
+	private final ListDataProvider<Planning> provider = new ListDataProvider<Planning>();
+
+	private double[] dayTotals = new double[0];
+	// Fila visual de cada lnea contando los totales anteriores; la ltima posicin es el total de filas.
+	private int[] rowTops = new int[] {0};
+	private int start = 0;
+	private int length = 0;
+
+	public PlanningViewGrid(final IPlanningCallback callback) {
+		table = new PlanningViewTable(OVERSCAN, callback);
+		table.addCellPreviewHandler(new CellPreviewEvent.Handler<Planning>() {
+			@Override
+			public void onCellPreview(CellPreviewEvent<Planning> event) {
+				Context context = event.getContext();
+				if (!BrowserEvents.CLICK.equals(event.getNativeEvent().getType()) || context.getSubIndex() > 0) {
+					return;
+				}
+				Planning pl = event.getValue();
+				int column = event.getColumn();
+				if (column == PlanningViewTable.SELECTOR_COLUMN) {
+					pl.setSelected(!pl.isSelected());
+					refreshRow(pl);
+				} else if (column == PlanningViewTable.DELETE_COLUMN) {
+					callback.onDelete(pl);
+				} else if (!table.isEditable(column)) {
+					callback.onOpen(pl);
+				}
+			}
+		});
+		provider.addDataDisplay(table);
+
+		FlowPanel container = new FlowPanel();
+		container.setStyleName(MKPK.CSS.mkpkPaddingTop());
+		container.addStyleName(MKPK.CSS.mkpkPaddingLeft());
+		container.addStyleName(MKPK.CSS.mkpkPaddingRight());
+		container.add(topSpacer);
+		container.add(table);
+		container.add(bottomSpacer);
+
+		scroll.setStyleName(MKPK.CSS.mkpkGrid());
+		scroll.setWidget(container);
+		scroll.addScrollHandler(new ScrollHandler() {
+			@Override
+			public void onScroll(ScrollEvent event) {
+				updateWindow(false);
+			}
+		});
+		initWidget(scroll);
+	}
+
+	/**
+	 * Cambia toda la lista (altas, bajas, reordenaciones): se vuelven a pintar solo las filas visibles.
+	 */
+	public void refresh(List<Planning> list) {
+		layout(list);
+		provider.setList(list);
+		updateWindow(true);
+	}
+
+	/**
+	 * Vuelve a pintar solo la fila de la l&iacute;nea y, si cambia alg&uacute;n total de d&iacute;a,
+	 * la fila que lo lleva.
+	 */
+	public void refreshRow(Planning planning) {
+		List<Planning> list = provider.getList();
+		int index = list.indexOf(planning);
+		if (index < 0) {
+			return;
+		}
+		double[] previous = dayTotals;
+		layout(list);
+		list.set(index, planning);
+		for (int i = 0; i < dayTotals.length; i++) {
+			if (i != index && Double.compare(previous[i], dayTotals[i]) != 0) {
+				list.set(i, list.get(i));
+			}
+		}
+		updateWindow(false);
+	}
+
+	public void scrollToBottom() {
+		scroll.scrollToBottom();
+		updateWindow(false);
+	}
+
+	@Override
+	public void onResize() {
+		super.onResize();
+		updateWindow(true);
+	}
+
+	private void layout(List<Planning> list) {
+		int size = list.size();
+		double[] totals = new double[size];
+		int[] tops = new int[size + 1];
+		int extra = 0;
+		Date date = null;
+		double minutes = 0;
+		int i = 0;
+		for (Planning pl : list) {
+			totals[i] = Double.NaN;
+			if (GWTDateUtils.compare(pl.getDate(), date) != 0) {
+				if (date != null) {
+					totals[i - 1] = minutes;
+					extra++;
+				}
+				date = pl.getDate();
+				minutes = 0;
+			}
+			minutes = minutes + pl.getMinutes();
+			tops[i] = i + extra;
+			i++;
+		}
+		if (size > 0 && MkpkMathUtils.isNotZero(minutes)) {
+			totals[size - 1] = minutes;
+			extra++;
+		}
+		tops[size] = size + extra;
+		dayTotals = totals;
+		rowTops = tops;
+		table.setDayTotals(totals);
+	}
+
+	private void updateWindow(boolean force) {
+		int size = rowTops.length - 1;
+		int visible = Math.max(1, scroll.getOffsetHeight() / ROW_HEIGHT + 1);
+		int first = indexAt(scroll.getVerticalScrollPosition() / ROW_HEIGHT);
+		// Solo se mueve la ventana cuando lo visible se sale de ella.
+		if (force || first < start || first + visible > start + length || start >= Math.max(size, 1)) {
+			start = Math.max(0, first - OVERSCAN);
+			length = visible + 2 * OVERSCAN;
+			table.setVisibleRange(start, length);
+		}
+		int end = Math.min(size, start + length);
+		int top = rowTops[Math.min(start, size)];
+		topSpacer.setHeight(top * ROW_HEIGHT + "px");
+		bottomSpacer.setHeight((rowTops[size] - rowTops[end]) * ROW_HEIGHT + "px");
+	}
+
+	/**
+	 * @return la l&iacute;nea que ocupa la fila visual (la del total de un d&iacute;a cuenta como su &uacute;ltima l&iacute;nea)
+	 */
+	private int indexAt(int visualRow) {
+		int low = 0;
+		int high = rowTops.length - 2;
+		if (high < 0) {
+			return 0;
+		}
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (rowTops[mid] <= visualRow) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+}
@@ -1,31 +1,57 @@
 package com.merkapack.erp.gwt.client.view;
 
-import com.google.gwt.cell.client.ImageResourceCell;
+import com.google.gwt.cell.client.Cell.Context;
+import com.google.gwt.cell.client.EditTextCell;
+import com.google.gwt.cell.client.FieldUpdater;
 import com.google.gwt.core.client.GWT;
+import com.google.gwt.dom.builder.shared.TableRowBuilder;
 import com.google.gwt.dom.client.Style.Unit;
-import com.google.gwt.resources.client.ImageResource;
 import com.google.gwt.user.cellview.client.CellTable;
 import com.google.gwt.user.cellview.client.Column;
+import com.google.gwt.user.cellview.client.DefaultCellTableBuilder;
+import com.google.gwt.user.cellview.client.RowStyles;
 import com.google.gwt.user.cellview.client.TextColumn;
-import com.google.gwt.user.client.ui.HTML;
-import com.google.gwt.view.client.ProvidesKey;
-import com.google.gwt.view.client.SelectionChangeEvent;
+import com.google.gwt.user.client.ui.Label;
 import com.merkapack.erp.core.model.Planning;
 import com.merkapack.erp.gwt.client.common.MKPK;
 import com.merkapack.erp.gwt.client.common.css.MkpkCellTable;
+import com.merkapack.erp.gwt.shared.PlanningCalculatorStrategy;
+import com.merkapack.watson.util.MkpkMathUtils;
+import com.merkapack.watson.util.MkpkNumberUtils;
 import com.merkapack.watson.util.MkpkStringUtils;
 
+/**
+ * Tabla de l&iacute;neas de planificaci&oacute;n. Solo pinta celdas de texto: las columnas
+ * num&eacute;ricas editables usan un EditTextCell, que crea el &uacute;nico editor de la tabla
+ * sobre la celda activa. Tras la &uacute;ltima l&iacute;nea de cada d&iacute;a se pinta el total de horas.
+ */
 public class PlanningViewTable extends CellTable<Planning> {
 	private static final CellTable.Resources TABLE_STYLE = GWT.create(MkpkCellTable.class);
-	
 
-	public PlanningViewTable(ProvidesKey<Planning> providesKey) {
-		super(1,TABLE_STYLE, providesKey);
-		this.setKeyboardPagingPolicy(KeyboardPagingPolicy.CHANGE_PAGE);
-		this.setKeyboardSelectionPolicy(KeyboardSelectionPolicy.ENABLED);
-		
+	public static final int SELECTOR_COLUMN = 0;
+	public static final int AMOUNT_COLUMN = 6;
+	public static final int METERS_COLUMN = 8;
+	public static final int BLOWS_MINUTE_COLUMN = 10;
+	public static final int HOURS_COLUMN = 11;
+	public static final int DELETE_COLUMN = 14;
+
+	public static interface IPlanningCallback {
+		void onOpen(Planning planning);
+		void onDelete(Planning planning);
+		void onEdit(Planning planning, PlanningCalculatorStrategy strategy);
+	}
+
+	private final IPlanningCallback callback;
+	private double[] dayTotals = new double[0];
+
+	public PlanningViewTable(int pageSize, IPlanningCallback callback) {
+		super(pageSize,TABLE_STYLE);
+		this.callback = callback;
+		this.setKeyboardSelectionPolicy(KeyboardSelectionPolicy.DISABLED);
+		this.setWidth("100%", true);
+
 		addSelectorColumn();
-		
+
 		addDateColumn();
 		addOrderColumn();
 		addProductColumn();
@@ -36,25 +62,59 @@ public class PlanningViewTable extends CellTable<Planning> {
 		addMetersColumn();
 		addBlowsColumn();
 		addBlowsMinuteColumn();
-		addMinutesColumn();
+		addHoursColumn();
 		addClientColumn();
 		addCommentsColumn();
 		addDeleteColumn();
-		
-		this.setEmptyTableWidget(new HTML(MKPK.MSG.noData()));
+
+		this.setRowStyles(new RowStyles<Planning>() {
+			@Override
+			public String getStyleNames(Planning planning, int rowIndex) {
+				return planning.isSelected()
+					? MKPK.CSS.mkpkGridRow() + " " + MKPK.CSS.mkpkFlexPanelSelected()
+					: MKPK.CSS.mkpkGridRow();
+			}
+		});
+		this.setTableBuilder(new PlanningTableBuilder());
+
+		Label empty = new Label(MKPK.MSG.noData());
+		empty.setStyleName(MKPK.CSS.mkpkTextCenter());
+		this.setEmptyTableWidget(empty);
+	}
+
+	/**
+	 * Minutos de cada d&iacute;a, en la posici&oacute;n de su &uacute;ltima l&iacute;nea (NaN en el resto).
+	 */
+	public void setDayTotals(double[] dayTotals) {
+		this.dayTotals = dayTotals;
 	}
-	
-	public PlanningViewTable(ProvidesKey<Planning> providesKey,SelectionChangeEvent.Handler handler) {
-		this(providesKey);
+
+	public boolean isEditable(int column) {
+		return column == AMOUNT_COLUMN || column == METERS_COLUMN || column == BLOWS_MINUTE_COLUMN || column == HOURS_COLUMN;
+	}
+
+	public static boolean isMetersOverRoll(Planning planning) {
+		return MkpkMathUtils.isNotZero(planning.getRollUpLength())
+			&& MkpkMathUtils.isNotZero(planning.getMeters())
+			&& planning.getMeters() > planning.getRollUpLength();
 	}
 
+	public static boolean isRollWidthMismatch(Planning planning) {
+		return MkpkMathUtils.isNotZero(planning.getRollUpWidth())
+			&& MkpkMathUtils.isNotZero(planning.getWidth())
+			&& MkpkMathUtils.isNotZero(MkpkMathUtils.round(planning.getRollUpWidth() % planning.getWidth()));
+	}
 
 	private void addSelectorColumn() {
-		final Column<Planning, ImageResource> selectorColumn = new Column<Planning, ImageResource>(
-				new ImageResourceCell()) {
+		final TextColumn<Planning> selectorColumn = new TextColumn<Planning>() {
+			@Override
+			public String getValue(Planning planning) {
+				return MkpkStringUtils.EMPTY;
+			}
 			@Override
-			public ImageResource getValue(Planning planning) {
-				return MKPK.RESOURCES.mkpkIconBullet();
+			public String getCellStyleNames(Context context, Planning planning) {
+				return (planning.isSelected()?MKPK.CSS.mkpkIconChecked():MKPK.CSS.mkpkIconUnchecked())
+					+ " " + MKPK.CSS.mkpkPointer();
 			}
 		};
 		this.addColumn(selectorColumn);
@@ -65,34 +125,35 @@ public class PlanningViewTable extends CellTable<Planning> {
 		final TextColumn<Planning> dateColumn = new TextColumn<Planning>() {
 			@Override
 			public String getValue(Planning planning) {
-				return MKPK.DATE_FORMAT.format(planning.getDate());
+				return planning.getDate() != null?MKPK.DATE_FORMAT.format(planning.getDate()):MkpkStringUtils.EMPTY;
 			}
 		};
-		this.addColumn(dateColumn, MKPK.MSG.date());
+		this.addColumn(dateColumn);
 		dateColumn.setCellStyleNames(MKPK.CSS.mkpkTextCenter());
-		this.setColumnWidth(dateColumn, 80, Unit.PX);
+		this.setColumnWidth(dateColumn, 87, Unit.PX);
 	}
 
 	private void addOrderColumn() {
 		final TextColumn<Planning> orderColumn = new TextColumn<Planning>() {
 			@Override
 			public String getValue(Planning planning) {
-				return Integer.toString(planning.getOrder());
+				return MkpkNumberUtils.toString(planning.getOrder());
 			}
 		};
-		this.addColumn(orderColumn, "#");
+		this.addColumn(orderColumn);
+		orderColumn.setCellStyleNames(MKPK.CSS.mkpkTextCenter());
 		this.setColumnWidth(orderColumn, 30, Unit.PX);
 	}
-	
+
 	private void addProductColumn() {
 		final TextColumn<Planning> productColumn = new TextColumn<Planning>() {
 			@Override
 			public String getValue(Planning planning) {
-				return planning.getProduct() != null?planning.getProduct().getName():MkpkStringUtils.EMPTY;
+				return planning.getProduct() != null?planning.getProduct().getMeasure():MkpkStringUtils.EMPTY;
 			}
 		};
-		this.addColumn(productColumn, MKPK.MSG.measure());
-		this.setColumnWidth(productColumn, 100, Unit.PX);
+		this.addColumn(productColumn);
+		this.setColumnWidth(productColumn, 115, Unit.PX);
 	}
 
 	private void addMaterialColumn() {
@@ -102,57 +163,95 @@ public class PlanningViewTable extends CellTable<Planning> {
 				return planning.getMaterialUp() != null?planning.getMaterialUp().getName():MkpkStringUtils.EMPTY;
 			}
 		};
-		this.addColumn(materialColumn, MKPK.MSG.material());
-		this.setColumnWidth(materialColumn, 100, Unit.PX);
+		this.addColumn(materialColumn);
+		this.setColumnWidth(materialColumn, 115, Unit.PX);
 	}
-	
+
 	private void addRollColumn() {
 		final TextColumn<Planning> rollColumn = new TextColumn<Planning>() {
 			@Override
 			public String getValue(Planning planning) {
 				return planning.getRollUp() != null?planning.getRollUp().getName():MkpkStringUtils.EMPTY;
 			}
+			@Override
+			public String getCellStyleNames(Context context, Planning planning) {
+				return isRollWidthMismatch(planning)?MKPK.CSS.mkpkColorRed():null;
+			}
 		};
-		this.addColumn(rollColumn, MKPK.MSG.roll());
-		this.setColumnWidth(rollColumn, 100, Unit.PX);
+		this.addColumn(rollColumn);
+		this.setColumnWidth(rollColumn, 115, Unit.PX);
 	}
 
 	private void addAmountColumn() {
-		final TextColumn<Planning> amountColumn = new TextColumn<Planning>() {
+		final EditTextCell cell = new EditTextCell();
+		final Column<Planning, String> amountColumn = new Column<Planning, String>(cell) {
 			@Override
 			public String getValue(Planning planning) {
-				return MKPK.FMT.format(planning.getAmount()) ;
+				return MKPK.FMT_INT.format(planning.getAmount()) ;
 			}
 		};
-		this.addColumn(amountColumn, MKPK.MSG.unit());
+		amountColumn.setFieldUpdater(new FieldUpdater<Planning, String>() {
+			@Override
+			public void update(int index, Planning planning, String value) {
+				cell.clearViewData(planning);
+				double amount = MkpkNumberUtils.parseDouble(value, Double.NaN);
+				if (!Double.isNaN(amount)) {
+					planning.setAmount(amount);
+				}
+				callback.onEdit(planning, PlanningCalculatorStrategy.AMOUNT_CHANGED);
+			}
+		});
+		this.addColumn(amountColumn);
 		amountColumn.setCellStyleNames(MKPK.CSS.mkpkTextRight());
-		this.setColumnWidth(amountColumn, 80, Unit.PX);
-	}	
+		this.setColumnWidth(amountColumn, 85, Unit.PX);
+	}
 
 	private void addBlowUnitsColumn() {
 		final TextColumn<Planning> blowUnitsColumn = new TextColumn<Planning>() {
 			@Override
 			public String getValue(Planning planning) {
-				return MKPK.FMT.format(planning.getBlowUnits()) ;
+				return MKPK.FMT_INT.format(planning.getBlowUnits()) ;
+			}
+			@Override
+			public String getCellStyleNames(Context context, Planning planning) {
+				return isRollWidthMismatch(planning)
+					? MKPK.CSS.mkpkTextRight() + " " + MKPK.CSS.mkpkColorRed()
+					: MKPK.CSS.mkpkTextRight();
 			}
 		};
-		this.addColumn(blowUnitsColumn, MKPK.MSG.blowUnits());
-		blowUnitsColumn.setCellStyleNames(MKPK.CSS.mkpkTextRight());
-		this.setColumnWidth(blowUnitsColumn, 80, Unit.PX);
+		this.addColumn(blowUnitsColumn);
+		this.setColumnWidth(blowUnitsColumn, 65, Unit.PX);
 	}
-	
+
 	private void addMetersColumn() {
-		final TextColumn<Planning> metersColumn = new TextColumn<Planning>() {
+		final EditTextCell cell = new EditTextCell();
+		final Column<Planning, String> metersColumn = new Column<Planning, String>(cell) {
 			@Override
 			public String getValue(Planning planning) {
 				return MKPK.FMT.format(planning.getMeters()) ;
 			}
+			@Override
+			public String getCellStyleNames(Context context, Planning planning) {
+				return isMetersOverRoll(planning)
+					? MKPK.CSS.mkpkTextRight() + " " + MKPK.CSS.mkpkColorRed()
+					: MKPK.CSS.mkpkTextRight();
+			}
 		};
-		this.addColumn(metersColumn, MKPK.MSG.meters());
-		metersColumn.setCellStyleNames(MKPK.CSS.mkpkTextRight());
-		this.setColumnWidth(metersColumn, 80, Unit.PX);
+		metersColumn.setFieldUpdater(new FieldUpdater<Planning, String>() {
+			@Override
+			public void update(int index, Planning planning, String value) {
+				cell.clearViewData(planning);
+				double meters = MkpkNumberUtils.parseDouble(value, Double.NaN);
+				if (!Double.isNaN(meters)) {
+					planning.setMeters(meters);
+				}
+				callback.onEdit(planning, PlanningCalculatorStrategy.METERS_CHANGED);
+			}
+		});
+		this.addColumn(metersColumn);
+		this.setColumnWidth(metersColumn, 85, Unit.PX);
 	}
-	
+
 	private void addBlowsColumn() {
 		final TextColumn<Planning> blowsColumn = new TextColumn<Planning>() {
 			@Override
@@ -160,33 +259,57 @@ public class PlanningViewTable extends CellTable<Planning> {
 				return MKPK.FMT.format(planning.getBlows()) ;
 			}
 		};
-		this.addColumn(blowsColumn, MKPK.MSG.blows());
+		this.addColumn(blowsColumn);
 		blowsColumn.setCellStyleNames(MKPK.CSS.mkpkTextRight());
-		this.setColumnWidth(blowsColumn, 80, Unit.PX);
+		this.setColumnWidth(blowsColumn, 81, Unit.PX);
 	}
-	
+
 	private void addBlowsMinuteColumn() {
-		final TextColumn<Planning> blowsMinuteColumn = new TextColumn<Planning>() {
+		final EditTextCell cell = new EditTextCell();
+		final Column<Planning, String> blowsMinuteColumn = new Column<Planning, String>(cell) {
 			@Override
 			public String getValue(Planning planning) {
-				return MKPK.FMT.format(planning.getBlowsMinute()) ;
+				return MKPK.FMT_INT.format(planning.getBlowsMinute()) ;
 			}
 		};
-		this.addColumn(blowsMinuteColumn, MKPK.MSG.blowsMinutes());
+		blowsMinuteColumn.setFieldUpdater(new FieldUpdater<Planning, String>() {
+			@Override
+			public void update(int index, Planning planning, String value) {
+				cell.clearViewData(planning);
+				double blowsMinute = MkpkNumberUtils.parseDouble(value, Double.NaN);
+				if (!Double.isNaN(blowsMinute)) {
+					planning.setBlowsMinute(blowsMinute);
+				}
+				callback.onEdit(planning, PlanningCalculatorStrategy.AMOUNT_CHANGED);
+			}
+		});
+		this.addColumn(blowsMinuteColumn);
 		blowsMinuteColumn.setCellStyleNames(MKPK.CSS.mkpkTextRight());
-		this.setColumnWidth(blowsMinuteColumn, 80, Unit.PX);
+		this.setColumnWidth(blowsMinuteColumn, 60, Unit.PX);
 	}
 
-	private void addMinutesColumn() {
-		final TextColumn<Planning> minutesColumn = new TextColumn<Planning>() {
+	private void addHoursColumn() {
+		final EditTextCell cell = new EditTextCell();
+		final Column<Planning, String> hoursColumn = new Column<Planning, String>(cell) {
 			@Override
 			public String getValue(Planning planning) {
-				return MKPK.FMT.format(planning.getMinutes()) ;
+				return MKPK.FMT.format(planning.getHours()) ;
 			}
 		};
-		this.addColumn(minutesColumn, MKPK.MSG.time());
-		minutesColumn.setCellStyleNames(MKPK.CSS.mkpkTextRight());
-		this.setColumnWidth(minutesColumn, 80, Unit.PX);
+		hoursColumn.setFieldUpdater(new FieldUpdater<Planning, String>() {
+			@Override
+			public void update(int index, Planning planning, String value) {
+				cell.clearViewData(planning);
+				double hours = MkpkNumberUtils.parseDouble(value, Double.NaN);
+				if (!Double.isNaN(hours)) {
+					planning.setMinutes(MkpkMathUtils.round(hours * 60));
+				}
+				callback.onEdit(planning, PlanningCalculatorStrategy.TIME_CHANGED);
+			}
+		});
+		this.addColumn(hoursColumn);
+		hoursColumn.setCellStyleNames(MKPK.CSS.mkpkTextRight());
+		this.setColumnWidth(hoursColumn, 75, Unit.PX);
 	}
 
 	private void addClientColumn() {
@@ -196,31 +319,59 @@ public class PlanningViewTable extends CellTable<Planning> {
 				return planning.getClient() != null?planning.getClient().getName():MkpkStringUtils.EMPTY;
 			}
 		};
-		this.addColumn(clientColumn, MKPK.MSG.client());
-		this.setColumnWidth(clientColumn, 90, Unit.PX);
+		this.addColumn(clientColumn);
+		this.setColumnWidth(clientColumn, 115, Unit.PX);
 	}
 
 	private void addCommentsColumn() {
 		final TextColumn<Planning> commentsColumn = new TextColumn<Planning>() {
 			@Override
 			public String getValue(Planning planning) {
-				return planning.getClient().getName();
+				return planning.getComments() != null?planning.getComments():MkpkStringUtils.EMPTY;
 			}
 		};
-		this.addColumn(commentsColumn, MKPK.MSG.comments());
+		this.addColumn(commentsColumn);
 		this.setColumnWidth(commentsColumn, "auto");
 	}
 
 	private void addDeleteColumn() {
-		final Column<Planning, ImageResource> deleteColumn = new Column<Planning, ImageResource>(
-				new ImageResourceCell()) {
+		final TextColumn<Planning> deleteColumn = new TextColumn<Planning>() {
+			@Override
+			public String getValue(Planning planning) {
+				return planning.isDirty()?"*":MkpkStringUtils.EMPTY;
+			}
 			@Override
-			public ImageResource getValue(Planning planning) {
-				return MKPK.RESOURCES.mkpkIconDelete();
+			public String getCellStyleNames(Context context, Planning planning) {
+				String styles = MKPK.CSS.mkpkIconDelete() + " " + MKPK.CSS.mkpkIconPaddingLeft() + " " + MKPK.CSS.mkpkPointer();
+				return planning.isDirty()
+					? styles + " " + MKPK.CSS.mkpkColorRed() + " " + MKPK.CSS.mkpkBold()
+					: styles;
 			}
 		};
-		this.addColumn(deleteColumn, "X");
-		this.setColumnWidth(deleteColumn, 20, Unit.PX);
+		this.addColumn(deleteColumn);
+		this.setColumnWidth(deleteColumn, 29, Unit.PX);
+	}
+
+	private class PlanningTableBuilder extends DefaultCellTableBuilder<Planning> {
+
+		public PlanningTableBuilder() {
+			super(PlanningViewTable.this);
+		}
+
+		@Override
+		public void buildRowImpl(Planning rowValue, int absRowIndex) {
+			super.buildRowImpl(rowValue, absRowIndex);
+			if (absRowIndex < dayTotals.length && !Double.isNaN(dayTotals[absRowIndex])) {
+				// TOTAL DEL DIA
+				TableRowBuilder tr = startRow();
+				tr.className(MKPK.CSS.mkpkGridRow());
+				tr.startTD().colSpan(HOURS_COLUMN).endTD();
+				tr.startTD().className(MKPK.CSS.mkpkTextRight() + " " + MKPK.CSS.mkpkBold())
+					.text(MKPK.FMT.format(dayTotals[absRowIndex] / 60)).endTD();
+				tr.startTD().colSpan(getColumnCount() - HOURS_COLUMN - 1).endTD();
+				tr.endTR();
+			}
+		}
 	}
 
 }
@@ -1,185 +1,195 @@
 package com.merkapack.erp.gwt.client.view;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.Map;
 
+import com.google.gwt.cell.client.Cell.Context;
+import com.google.gwt.cell.client.ClickableTextCell;
+import com.google.gwt.cell.client.FieldUpdater;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.dom.client.Style.Unit;
 import com.google.gwt.event.dom.client.ClickEvent;
 import com.google.gwt.event.dom.client.ClickHandler;
 import com.google.gwt.event.logical.shared.ValueChangeEvent;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.google.gwt.safehtml.shared.SafeHtmlBuilder;
+import com.google.gwt.user.cellview.client.CellTable;
+import com.google.gwt.user.cellview.client.Column;
+import com.google.gwt.user.cellview.client.ColumnSortEvent;
+import com.google.gwt.user.cellview.client.ColumnSortList.ColumnSortInfo;
+import com.google.gwt.user.cellview.client.HasKeyboardSelectionPolicy.KeyboardSelectionPolicy;
+import com.google.gwt.user.cellview.client.SimplePager;
+import com.google.gwt.user.cellview.client.SimplePager.TextLocation;
+import com.google.gwt.user.cellview.client.TextColumn;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.gwt.user.client.ui.DockLayoutPanel;
 import com.google.gwt.user.client.ui.FlexTable;
-import com.google.gwt.user.client.ui.FlowPanel;
 import com.google.gwt.user.client.ui.Label;
 import com.google.gwt.user.client.ui.ScrollPanel;
-import com.google.gwt.user.client.ui.Widget;
+import com.google.gwt.view.client.AsyncDataProvider;
+import com.google.gwt.view.client.HasData;
+import com.google.gwt.view.client.Range;
 import com.merkapack.erp.core.model.Material;
 import com.merkapack.erp.core.model.Product;
 import com.merkapack.erp.core.model.ProductParams;
 import com.merkapack.erp.gwt.client.common.MKPK;
+import com.merkapack.erp.gwt.client.common.css.MkpkCellTable;
 import com.merkapack.erp.gwt.client.rpc.ProductService;
 import com.merkapack.erp.gwt.client.rpc.ProductServiceAsync;
 import com.merkapack.erp.gwt.client.rpc.ProductServiceAsyncDecorator;
+import com.merkapack.erp.gwt.client.telemetry.Telemetry;
 import com.merkapack.erp.gwt.client.widget.MkpkButton;
 import com.merkapack.erp.gwt.client.widget.MkpkConfirmDialog;
 import com.merkapack.erp.gwt.client.widget.MkpkConfirmDialog.MkpkConfirmDialogCallback;
 import com.merkapack.erp.gwt.client.widget.MkpkDoubleBox;
 import com.merkapack.erp.gwt.client.widget.MkpkTextBox;
 import com.merkapack.watson.util.MkpkNumberUtils;
+import com.merkapack.watson.util.MkpkStringUtils;
 
+/**
+ * Cat&aacute;logo de art&iacute;culos paginado en el servidor, que tambi&eacute;n filtra y ordena.
+ * Se guardan las &uacute;ltimas {@link #CACHED_PAGES} p&aacute;ginas vistas y, al pintar una,
+ * se pide ya la siguiente; cualquier cambio de filtro, orden o datos las descarta.
+ */
 public class ProductList extends DockLayoutPanel  {
-	
+
+	private static final CellTable.Resources TABLE_STYLE = GWT.create(MkpkCellTable.class);
+	private static final int PAGE_SIZE = 20;
+	private static final int CACHED_PAGES = 5;
+
 	private static ProductServiceAsync SERVICE;
-	private int offset = 0;
-	private int count = 20;
-	
+
 	private MkpkTextBox codeBox = new MkpkTextBox();
 	private MkpkTextBox nameBox = new MkpkTextBox();
 	private MkpkTextBox materialUpBox = new MkpkTextBox();
 	private MkpkTextBox materialDownBox = new MkpkTextBox();
 	private MkpkDoubleBox lengthBox = new MkpkDoubleBox();
 	private MkpkDoubleBox widthBox = new MkpkDoubleBox();
-	
-	private ScrollPanel scroll = new ScrollPanel();
+
+	private final CellTable<Product> table = new CellTable<Product>(PAGE_SIZE, TABLE_STYLE);
+	private final AsyncDataProvider<Product> provider = new AsyncDataProvider<Product>() {
+		@Override
+		protected void onRangeChanged(HasData<Product> display) {
+			show(display.getVisibleRange().getStart());
+		}
+	};
+
+	// Pginas por offset, la menos usada sale primero.
+	private final LinkedHashMap<Integer, LinkedList<Product>> pages = new LinkedHashMap<Integer, LinkedList<Product>>(CACHED_PAGES, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, LinkedList<Product>> eldest) {
+			return size() > CACHED_PAGES;
+		}
+	};
+	private final HashSet<Integer> loading = new HashSet<Integer>();
+	private ProductParams params;
+	private int generation = 0;
+	private int requested = -1;
+	private int rowCount = -1;
 
 	public ProductList( ) {
 		super(Unit.PX);
 		setStyleName(MKPK.CSS.mkpkWidthAll());
 		ProductServiceAsync serviceRaw = GWT.create(ProductService.class);
 		SERVICE = new ProductServiceAsyncDecorator(serviceRaw);
-		addNorth(getFilterTable(), 60);
+		defineTable();
+
+		SimplePager pager = new SimplePager(TextLocation.CENTER, false, 0, true);
+		pager.setDisplay(table);
+
+		ScrollPanel scroll = new ScrollPanel();
+		scroll.setWidget(table);
+
+		addNorth(getFilterTable(), 40);
+		addSouth(pager, 35);
 		add(scroll);
-		search();
+		params = getParams();
+		provider.addDataDisplay(table);
 	}
+
 	private void search() {
-		scroll.setWidget(getContent());
+		params = getParams();
+		reset();
+		table.setVisibleRangeAndClearData(new Range(0, PAGE_SIZE), true);
 	}
-	
-	private FlexTable defineFlexTable() {
-		final FlexTable tab = new FlexTable();
-		tab.setStyleName(MKPK.CSS.mkpkWidth90p());
-		tab.addStyleName(MKPK.CSS.mkpkTable());
-		tab.getColumnFormatter().setWidth(0, "50px");
-		tab.getColumnFormatter().setWidth(1, "150px");
-		tab.getColumnFormatter().setWidth(2, "auto");
-		tab.getColumnFormatter().setWidth(3, "150px");
-		tab.getColumnFormatter().setWidth(4, "150px");
-		tab.getColumnFormatter().setWidth(5, "70px");
-		tab.getColumnFormatter().setWidth(6, "70px");
-		tab.getColumnFormatter().setWidth(7, "30px");
-
-		int col = 0;
-		Label numberLabel = new Label("#");
-		numberLabel.setStyleName(MKPK.CSS.mkpkBold());
-		tab.setWidget(0, col, numberLabel);
-		tab.getCellFormatter().setStyleName(0, col, MKPK.CSS.mkpkTableHeader());
-		col++;
-		
-		Label codeLabel = new Label(MKPK.MSG.code());
-		codeLabel.setStyleName(MKPK.CSS.mkpkBold());
-		tab.setWidget(0, col, codeLabel);
-		tab.getCellFormatter().setStyleName(0, col, MKPK.CSS.mkpkTableHeader());
-		col++;
-
-		Label descriptionLabel = new Label(MKPK.MSG.description());
-		descriptionLabel.setStyleName(MKPK.CSS.mkpkBold());
-		tab.setWidget(0, col, descriptionLabel);
-		tab.getCellFormatter().setStyleName(0, col, MKPK.CSS.mkpkTableHeader());
-		col++;
-
-		Label materialUpLabel = new Label(MKPK.MSG.material() + " superior");
-		materialUpLabel.setStyleName(MKPK.CSS.mkpkBold());
-		tab.setWidget(0, col, materialUpLabel);
-		tab.getCellFormatter().setStyleName(0, col, MKPK.CSS.mkpkTableHeader());
-		col++;
-
-		Label materialDownLabel = new Label(MKPK.MSG.material() + " inferior");
-		materialDownLabel.setStyleName(MKPK.CSS.mkpkBold());
-		tab.setWidget(0, col, materialDownLabel);
-		tab.getCellFormatter().setStyleName(0, col, MKPK.CSS.mkpkTableHeader());
-		col++;
-
-		Label lengthLabel = new Label(MKPK.MSG.length());
-		lengthLabel.addStyleName(MKPK.CSS.mkpkTextRight());
-		tab.setWidget(0, col, lengthLabel);
-		tab.getCellFormatter().setStyleName(0, col, MKPK.CSS.mkpkTableHeader());
-		col++;
-		
-		Label widthLabel = new Label(MKPK.MSG.width());
-		widthLabel.addStyleName(MKPK.CSS.mkpkTextRight());
-		tab.setWidget(0, col, widthLabel);
-		tab.getCellFormatter().setStyleName(0, col, MKPK.CSS.mkpkTableHeader());
-		col++;
-		
-		Label deleteLabel = new Label("X");
-		tab.setWidget(0, col, deleteLabel);
-		tab.getCellFormatter().setStyleName(0, col, MKPK.CSS.mkpkTableHeader());
-		col++;
-
-		return tab;
+
+	private void reload() {
+		reset();
+		table.setVisibleRangeAndClearData(table.getVisibleRange(), true);
 	}
-	
-	private Widget getContent() {
-		ScrollPanel scrollPanel = new ScrollPanel();
-		FlowPanel container = new FlowPanel();
-		final FlexTable tab = defineFlexTable();
-		container.add(tab);
-
-		SERVICE.getProducts(getParams(), offset,count,new AsyncCallback<LinkedList<Product>>() {
-			
+
+	private void reset() {
+		generation++;
+		pages.clear();
+		loading.clear();
+		requested = -1;
+		rowCount = -1;
+	}
+
+	private void show(int offset) {
+		LinkedList<Product> page = pages.get(offset);
+		if (page != null) {
+			paint(offset, page);
+			return;
+		}
+		requested = offset;
+		fetch(offset);
+	}
+
+	private void fetch(final int offset) {
+		if (!loading.add(offset)) {
+			return;
+		}
+		final int current = generation;
+		SERVICE.getProducts(params, offset, PAGE_SIZE, new AsyncCallback<LinkedList<Product>>() {
+
 			@Override
 			public void onSuccess(LinkedList<Product> products) {
-				int row = 1;
-				for (Product product : products) {
-					paintRow(tab,product,row);
-					row++;
+				if (current != generation) {
+					return;
 				}
-				int nextCol = 1;
-				if (offset > 0) {
-					MkpkButton previousButton = new MkpkButton();
-					previousButton.addStyleName(MKPK.CSS.mkpkIconPrevious());
-					previousButton.addClickHandler(new ClickHandler() {
-						
-						@Override
-						public void onClick(ClickEvent event) {
-							offset = offset - count;
-							if (offset < 0 ) offset = 0;
-							add(getContent());
-						}
-					});
-					tab.setWidget(row, 0, previousButton);
-					tab.setWidget(row, 1, new Label());
-					tab.getFlexCellFormatter().setColSpan(row, 1, 6);
-					nextCol = 2;
-				} else {
-					tab.setWidget(row, 0, new Label());
-					tab.getFlexCellFormatter().setColSpan(row, 0, 7);
+				loading.remove(offset);
+				pages.put(offset, products);
+				if (products.size() < PAGE_SIZE) {
+					rowCount = offset + products.size();
+					provider.updateRowCount(rowCount, true);
+				}
+				if (offset == requested) {
+					paint(offset, products);
 				}
-
-				MkpkButton nextButton = new MkpkButton();
-				nextButton.addStyleName(MKPK.CSS.mkpkIconNext());
-				nextButton.addClickHandler(new ClickHandler() {
-					
-					@Override
-					public void onClick(ClickEvent event) {
-						offset = offset + count;
-						ProductList.this.scroll.setWidget(getContent());
-					}
-				});
-				tab.setWidget(row, nextCol, nextButton);
-
 			}
-			
+
 			@Override
 			public void onFailure(Throwable caught) {
-				ProductList.this.showError( caught );
+				if (current != generation) {
+					return;
+				}
+				loading.remove(offset);
+				if (offset == requested) {
+					ProductList.this.showError( caught );
+				}
 			}
 		});
+	}
 
-		scrollPanel.setWidget(container);
-		return scrollPanel;		
+	private void paint(int offset, LinkedList<Product> products) {
+		requested = -1;
+		double start = Telemetry.now();
+		provider.updateRowData(offset, products);
+		if (rowCount >= 0) {
+			provider.updateRowCount(rowCount, true);
+		} else {
+			provider.updateRowCount(offset + products.size() + 1, false);
+		}
+		Telemetry.rendered("ProductList.paint", start);
+		int next = offset + PAGE_SIZE;
+		if ((rowCount < 0 || next < rowCount) && !pages.containsKey(next)) {
+			fetch(next);
+		}
 	}
 
 	private ProductParams getParams() {
@@ -190,143 +200,230 @@ public class ProductList extends DockLayoutPanel  {
 		params.setMaterialDown(new Material().setName(materialDownBox.getValue()));
 		params.setLength(lengthBox.getValue());
 		params.setWidth(widthBox.getValue());
+		if (table.getColumnSortList().size() > 0) {
+			ColumnSortInfo info = table.getColumnSortList().get(0);
+			params.setSort(info.getColumn().getDataStoreName())
+				.setAscending(info.isAscending());
+		}
 		return params;
 	}
 
-	protected void paintRow(FlexTable tab, final Product product, int row) {
-		int col = 0;
-		tab.setWidget(row, col, new Label(MKPK.FMT_INT.format(row + offset)));
-		tab.getCellFormatter().setStyleName(row, col, MKPK.CSS.mkpkTextCenter());
-		col++;
-		tab.setWidget(row, col++, new Label(product.getCode()));
-		tab.setWidget(row, col++, new Label(product.getName()));
-		tab.setWidget(row, col++, new Label(product.getMaterialUp().getName()));
-		tab.setWidget(row, col++, new Label(product.getMaterialDown().getName()));
-		tab.setWidget(row, col, new Label(MKPK.FMT.format( MkpkNumberUtils.zeroIfNull( product.getLength()))));
-		tab.getCellFormatter().setStyleName(row, col, MKPK.CSS.mkpkTextRight());
-		col++;
-		tab.setWidget(row, col, new Label(MKPK.FMT.format( MkpkNumberUtils.zeroIfNull( product.getWidth()))));
-		tab.getCellFormatter().setStyleName(row, col, MKPK.CSS.mkpkTextRight());
-		col++;
-		paintDeleteButton(tab,row,col,product);
-	}
+	private void defineTable() {
+		table.setKeyboardSelectionPolicy(KeyboardSelectionPolicy.DISABLED);
+		table.setWidth("90%", true);
+
+		Column<Product, String> numberColumn = new TextColumn<Product>() {
+			@Override
+			public String getValue(Product product) {
+				return MkpkStringUtils.EMPTY;
+			}
+			@Override
+			public void render(Context context, Product product, SafeHtmlBuilder sb) {
+				sb.appendEscaped(MKPK.FMT_INT.format(context.getIndex() + 1));
+			}
+		};
+		numberColumn.setCellStyleNames(MKPK.CSS.mkpkTextCenter());
+		table.addColumn(numberColumn, "#");
+		table.setColumnWidth(numberColumn, 50, Unit.PX);
+
+		addTextColumn(MKPK.MSG.code(), ProductParams.SORT_CODE, 150, new TextColumn<Product>() {
+			@Override
+			public String getValue(Product product) {
+				return product.getCode();
+			}
+		});
+		addTextColumn(MKPK.MSG.description(), ProductParams.SORT_NAME, 0, new TextColumn<Product>() {
+			@Override
+			public String getValue(Product product) {
+				return product.getName();
+			}
+		});
+		addTextColumn(MKPK.MSG.material() + " superior", ProductParams.SORT_MATERIAL_UP, 150, new TextColumn<Product>() {
+			@Override
+			public String getValue(Product product) {
+				return product.getMaterialUp().getName();
+			}
+		});
+		addTextColumn(MKPK.MSG.material() + " inferior", ProductParams.SORT_MATERIAL_DOWN, 150, new TextColumn<Product>() {
+			@Override
+			public String getValue(Product product) {
+				return product.getMaterialDown().getName();
+			}
+		});
+		TextColumn<Product> lengthColumn = new TextColumn<Product>() {
+			@Override
+			public String getValue(Product product) {
+				return MKPK.FMT.format( MkpkNumberUtils.zeroIfNull( product.getLength()));
+			}
+		};
+		lengthColumn.setCellStyleNames(MKPK.CSS.mkpkTextRight());
+		addTextColumn(MKPK.MSG.length(), ProductParams.SORT_LENGTH, 70, lengthColumn);
+		TextColumn<Product> widthColumn = new TextColumn<Product>() {
+			@Override
+			public String getValue(Product product) {
+				return MKPK.FMT.format( MkpkNumberUtils.zeroIfNull( product.getWidth()));
+			}
+		};
+		widthColumn.setCellStyleNames(MKPK.CSS.mkpkTextRight());
+		addTextColumn(MKPK.MSG.width(), ProductParams.SORT_WIDTH, 70, widthColumn);
 
-	private void paintDeleteButton(FlexTable tab, int row, int col, Product product) {
-		if (product.getId() != null) {
-			MkpkButton deleteButton = new MkpkButton();
-			deleteButton.setTitle(MKPK.MSG.delete());
-			deleteButton.addStyleName(MKPK.CSS.mkpkIconDelete());
-			deleteButton.addClickHandler(new ClickHandler() {
-				
-				@Override
-				public void onClick(ClickEvent event) {
-					MkpkConfirmDialog cd = new MkpkConfirmDialog();
-					cd.confirm(MKPK.MSG.deleteConfirmation(), MKPK.MSG.delete(),new MkpkConfirmDialogCallback() {
-						
-						@Override
-						public void onCancel() {
-						}
-						
-						@Override
-						public void onAccept() {
-							
-							SERVICE.delete(product, new AsyncCallback<Void>() {
-								
-								@Override
-								public void onSuccess(Void nothing) {
-									ProductList.this.scroll.setWidget(getContent());
-								}
-								
-								@Override
-								public void onFailure(Throwable caught) {
-									showError(caught);
-								}
-							});
-						}
-					});
-					
+		Column<Product, String> deleteColumn = new Column<Product, String>(new ClickableTextCell()) {
+			@Override
+			public String getValue(Product product) {
+				return MkpkStringUtils.EMPTY;
+			}
+			@Override
+			public String getCellStyleNames(Context context, Product product) {
+				return product.getId() == null
+					? null
+					: MKPK.CSS.mkpkIconDelete() + " " + MKPK.CSS.mkpkIconPaddingLeft() + " " + MKPK.CSS.mkpkPointer();
+			}
+		};
+		deleteColumn.setFieldUpdater(new FieldUpdater<Product, String>() {
+			@Override
+			public void update(int index, Product product, String value) {
+				if (product.getId() != null) {
+					delete(product);
 				}
-			});
-			tab.setWidget(row, col, deleteButton);
-		} else {
-			tab.setWidget(row, col, new Label());
+			}
+		});
+		table.addColumn(deleteColumn, "X");
+		table.setColumnWidth(deleteColumn, 30, Unit.PX);
+
+		table.getColumnSortList().push(table.getColumn(1));
+		table.addColumnSortHandler(new ColumnSortEvent.Handler() {
+			@Override
+			public void onColumnSort(ColumnSortEvent event) {
+				search();
+			}
+		});
+
+		Label empty = new Label(MKPK.MSG.noData());
+		empty.setStyleName(MKPK.CSS.mkpkTextCenter());
+		table.setEmptyTableWidget(empty);
+	}
+
+	private void addTextColumn(String header, String sort, int width, Column<Product, String> column) {
+		column.setSortable(true);
+		column.setDataStoreName(sort);
+		table.addColumn(column, header);
+		if (width > 0) {
+			table.setColumnWidth(column, width, Unit.PX);
 		}
 	}
 
+	private void delete(final Product product) {
+		MkpkConfirmDialog cd = new MkpkConfirmDialog();
+		cd.confirm(MKPK.MSG.deleteConfirmation(), MKPK.MSG.delete(),new MkpkConfirmDialogCallback() {
+
+			@Override
+			public void onCancel() {
+			}
+
+			@Override
+			public void onAccept() {
+
+				SERVICE.delete(product, new AsyncCallback<Void>() {
+
+					@Override
+					public void onSuccess(Void nothing) {
+						reload();
+					}
+
+					@Override
+					public void onFailure(Throwable caught) {
+						showError(caught);
+					}
+				});
+			}
+		});
+	}
+
 	protected void showError(Throwable caught) {
 		MkpkConfirmDialog dialog = new MkpkConfirmDialog();
 		dialog.accept("Error", caught.getMessage(), null );
 	}
-	
+
 	private FlexTable getFilterTable() {
-		FlexTable filter = defineFlexTable();
+		FlexTable filter = new FlexTable();
+		filter.setStyleName(MKPK.CSS.mkpkWidth90p());
+		filter.addStyleName(MKPK.CSS.mkpkTable());
 		filter.addStyleName(MKPK.CSS.mkpkMarginBottom());
-		
+		filter.getColumnFormatter().setWidth(0, "50px");
+		filter.getColumnFormatter().setWidth(1, "150px");
+		filter.getColumnFormatter().setWidth(2, "auto");
+		filter.getColumnFormatter().setWidth(3, "150px");
+		filter.getColumnFormatter().setWidth(4, "150px");
+		filter.getColumnFormatter().setWidth(5, "70px");
+		filter.getColumnFormatter().setWidth(6, "70px");
+		filter.getColumnFormatter().setWidth(7, "30px");
+		filter.setWidget(0, 0, new Label());
+
 		codeBox.setVisibleLength(10);
 		codeBox.addValueChangeHandler(new ValueChangeHandler<String>() {
-			
+
 			@Override
 			public void onValueChange(ValueChangeEvent<String> event) {
 				search();
 			}
 		});
-		filter.setWidget(1, 1, codeBox);
-		
+		filter.setWidget(0, 1, codeBox);
+
 		nameBox.setVisibleLength(20);
 		nameBox.addValueChangeHandler(new ValueChangeHandler<String>() {
-			
+
 			@Override
 			public void onValueChange(ValueChangeEvent<String> event) {
 				search();
 			}
 		});
-		filter.setWidget(1, 2, nameBox);
-		
+		filter.setWidget(0, 2, nameBox);
+
 		materialUpBox.setVisibleLength(10);
 		materialUpBox.addValueChangeHandler(new ValueChangeHandler<String>() {
-			
+
 			@Override
 			public void onValueChange(ValueChangeEvent<String> event) {
 				search();
 			}
 		});
-		filter.setWidget(1, 3, materialUpBox);
+		filter.setWidget(0, 3, materialUpBox);
 
 		materialDownBox.setVisibleLength(10);
 		materialDownBox.addValueChangeHandler(new ValueChangeHandler<String>() {
-			
+
 			@Override
 			public void onValueChange(ValueChangeEvent<String> event) {
 				search();
 			}
 		});
-		filter.setWidget(1, 4, materialDownBox);
+		filter.setWidget(0, 4, materialDownBox);
 
 		lengthBox.setVisibleLength(3);
 		lengthBox.addValueChangeHandler(new ValueChangeHandler<Double>() {
-			
+
 			@Override
 			public void onValueChange(ValueChangeEvent<Double> event) {
 				search();
 			}
 		});
-		filter.setWidget(1, 5, lengthBox);
+		filter.setWidget(0, 5, lengthBox);
 
 		widthBox.setVisibleLength(3);
 		widthBox.addValueChangeHandler(new ValueChangeHandler<Double>() {
-			
+
 			@Override
 			public void onValueChange(ValueChangeEvent<Double> event) {
 				search();
 			}
 		});
-		filter.setWidget(1, 6, widthBox);
-		
+		filter.setWidget(0, 6, widthBox);
+
 		MkpkButton cleanButton = new MkpkButton();
 		cleanButton.setTitle(MKPK.MSG.delete());
 		cleanButton.addStyleName(MKPK.CSS.mkpkIconClean());
 		cleanButton.addClickHandler(new ClickHandler() {
-			
+
 			@Override
 			public void onClick(ClickEvent event) {
 				codeBox.setValue(null,false);
@@ -338,10 +435,9 @@ public class ProductList extends DockLayoutPanel  {
 				search();
 			}
 		});
-		filter.setWidget(1, 7, cleanButton);
-		
+		filter.setWidget(0, 7, cleanButton);
+
 		return filter;
 	}
-	
-}
 
+}
@@ -24,6 +24,7 @@ import com.merkapack.erp.gwt.client.common.MKPK;
 import com.merkapack.erp.gwt.client.rpc.RollService;
 import com.merkapack.erp.gwt.client.rpc.RollServiceAsync;
 import com.merkapack.erp.gwt.client.rpc.RollServiceAsyncDecorator;
+import com.merkapack.erp.gwt.client.util.RowSaver;
 import com.merkapack.erp.gwt.client.widget.MkpkButton;
 import com.merkapack.erp.gwt.client.widget.MkpkConfirmDialog;
 import com.merkapack.erp.gwt.client.widget.MkpkConfirmDialog.MkpkConfirmDialogCallback;
@@ -36,6 +37,13 @@ import com.merkapack.watson.util.MkpkStringUtils;
 public class RollView extends MkpkDockLayout  {
 	
 	private static RollServiceAsync SERVICE;
+	private final RowSaver<Roll> saver = new RowSaver<Roll>(new RowSaver.Save<Roll>() {
+
+		@Override
+		public void save(Roll row, AsyncCallback<Roll> callback) {
+			SERVICE.save(row, callback);
+		}
+	});
 	private SimpleLayoutPanel content;
 	private final int deleteIconColumn = 4; 
 	
@@ -245,10 +253,12 @@ public class RollView extends MkpkDockLayout  {
 	private void save(FlexTable tab, int row, Roll roll) {
 		if (MkpkStringUtils.isNotBlank( roll.getName() )
 			&& roll.getMaterial().getId() != null) {
-			SERVICE.save(roll, new AsyncCallback<Roll>() {
+			saver.save(roll, new AsyncCallback<Roll>() {
 				
 				@Override
 				public void onSuccess(Roll result) {
+					roll.setVersion(result.getVersion());
+					roll.setRemaining(result.getRemaining());
 					if (roll.getId() == null) {
 						roll.setId(result.getId());
 						paintDeleteButton(tab,row,roll);							
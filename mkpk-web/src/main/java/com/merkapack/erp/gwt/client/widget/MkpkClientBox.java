@@ -18,12 +18,10 @@ import com.google.gwt.event.logical.shared.SelectionEvent;
 import com.google.gwt.event.logical.shared.SelectionHandler;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import com.google.gwt.event.shared.HandlerRegistration;
-import com.google.gwt.safehtml.shared.SafeHtmlBuilder;
 import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.gwt.user.client.ui.Focusable;
 import com.google.gwt.user.client.ui.HasValue;
-import com.google.gwt.user.client.ui.MultiWordSuggestOracle;
 import com.google.gwt.user.client.ui.MultiWordSuggestOracle.MultiWordSuggestion;
 import com.google.gwt.user.client.ui.ResizeComposite;
 import com.google.gwt.user.client.ui.SuggestBox;
@@ -33,6 +31,7 @@ import com.google.gwt.user.client.ui.SuggestOracle.Suggestion;
 import com.google.gwt.user.client.ui.TextBox;
 import com.google.gwt.user.client.ui.Widget;
 import com.merkapack.erp.core.model.Client;
+import com.merkapack.erp.gwt.client.cache.ReferenceCache;
 import com.merkapack.erp.gwt.client.common.MKPK;
 import com.merkapack.erp.gwt.client.rpc.ClientService;
 import com.merkapack.erp.gwt.client.rpc.ClientServiceAsync;
@@ -44,8 +43,6 @@ public class MkpkClientBox extends ResizeComposite implements HasValue<String>
 	,HasAllKeyHandlers {
 	
 	private static final int CHANGE_DISPLAY_MILLIS = 4000;
-	protected static final String BEGIN_STRONG = "<strong>";
-	protected static final String END_STRONG = "</strong>";
 	
 	private static final int MIN_CHARACTERS = 2;
 	private static final int MAX_CHARACTERS = 8;
@@ -110,49 +107,30 @@ public class MkpkClientBox extends ResizeComposite implements HasValue<String>
 	public MkpkClientBox() {
 		ClientServiceAsync commonServiceRaw = GWT.create(ClientService.class);
 		service = new ClientServiceAsyncDecorator(commonServiceRaw);
-		MultiWordSuggestOracle oracle = new MultiWordSuggestOracle() {
+		MkpkSuggestOracle<Client> oracle = new MkpkSuggestOracle<Client>(MIN_CHARACTERS, MAX_CHARACTERS, 0) {
 			@Override
-			public void requestSuggestions(final Request request,final Callback callback) {
+			protected void onRequest(String query, boolean valid) {
 				suggestionDisplay.hideSuggestions();
-				if (MkpkStringUtils.length(request.getQuery()) >= MIN_CHARACTERS
-				 && MkpkStringUtils.length(request.getQuery()) <= MAX_CHARACTERS) {
+				if (valid) {
 					reset();
-					service.getClients(request.getQuery() ,new AsyncCallback<LinkedList<Client>>() {
-		
-								public void onFailure(Throwable caught) {
-									callback.onSuggestionsReady(request, new Response());
-								}
-		
-								public void onSuccess(LinkedList<Client> result) {
-									LinkedList<Suggestion> suggestions = new LinkedList<Suggestion>();
-									if (result != null) {
-										
-										for (final Client client : result) {
-											SafeHtmlBuilder bld = new SafeHtmlBuilder();
-											String ds = client.getName();
-											int i = MkpkStringUtils.indexOfIgnoreCase(ds, request.getQuery());
-											bld.appendHtmlConstant("<span class=\"" 
-													+ MKPK.CSS.mkpkIconBullet()
-													+ MkpkStringUtils.SPACE
-													+ MKPK.CSS.mkpkIconPaddingLeft()
-													+ "\" >");
-											bld.appendEscaped(MkpkStringUtils.substring(ds, 0, i));
-											bld.appendHtmlConstant(BEGIN_STRONG);
-											bld.appendEscaped(MkpkStringUtils.substring(ds, i, (i + MkpkStringUtils.length(request.getQuery()) )));
-									        bld.appendHtmlConstant(END_STRONG);
-									        bld.appendEscaped(MkpkStringUtils.substring(ds, (i + MkpkStringUtils.length(request.getQuery()) )));
-									        bld.appendHtmlConstant("</span>");
-									        ClientSuggestion as = new ClientSuggestion(client, client.getName(), bld.toSafeHtml().asString());
-											suggestions.add(as);
-										}
-									}
-									Response resp = new Response(suggestions);
-									callback.onSuggestionsReady(request, resp);
-									
-								}
-							});
 				}
 			}
+
+			@Override
+			protected void fetch(String query, AsyncCallback<LinkedList<Client>> callback) {
+				service.getClients(query, callback);
+			}
+
+			@Override
+			protected boolean matches(Client client, String foldedQuery) {
+				return ReferenceCache.contains(client.getName(), foldedQuery);
+			}
+
+			@Override
+			protected Suggestion toSuggestion(Client client, String query) {
+				String ds = client.getName();
+				return new ClientSuggestion(client, client.getName(), highlight(ds, query));
+			}
 		};
 		clientTextBox = new TextBox();
 		suggestionDisplay =  new AccountSuggestionDisplay();
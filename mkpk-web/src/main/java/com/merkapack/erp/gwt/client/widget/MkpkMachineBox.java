@@ -18,11 +18,9 @@ import com.google.gwt.event.logical.shared.SelectionEvent;
 import com.google.gwt.event.logical.shared.SelectionHandler;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import com.google.gwt.event.shared.HandlerRegistration;
-import com.google.gwt.safehtml.shared.SafeHtmlBuilder;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.gwt.user.client.ui.Focusable;
 import com.google.gwt.user.client.ui.HasValue;
-import com.google.gwt.user.client.ui.MultiWordSuggestOracle;
 import com.google.gwt.user.client.ui.MultiWordSuggestOracle.MultiWordSuggestion;
 import com.google.gwt.user.client.ui.ResizeComposite;
 import com.google.gwt.user.client.ui.SuggestBox;
@@ -32,6 +30,7 @@ import com.google.gwt.user.client.ui.SuggestOracle.Suggestion;
 import com.google.gwt.user.client.ui.TextBox;
 import com.google.gwt.user.client.ui.Widget;
 import com.merkapack.erp.core.model.Machine;
+import com.merkapack.erp.gwt.client.cache.ReferenceCache;
 import com.merkapack.erp.gwt.client.common.MKPK;
 import com.merkapack.erp.gwt.client.rpc.MachineService;
 import com.merkapack.erp.gwt.client.rpc.MachineServiceAsync;
@@ -42,8 +41,6 @@ public class MkpkMachineBox extends ResizeComposite implements HasValue<String>
 	,Focusable, HasSelectionHandlers<Machine>, HasAllFocusHandlers
 	,HasAllKeyHandlers {
 	
-	protected static final String BEGIN_STRONG = "<strong>";
-	protected static final String END_STRONG = "</strong>";
 	
 	private static final int MIN_CHARACTERS = 2;
 	private static final int MAX_CHARACTERS = 8;
@@ -108,49 +105,30 @@ public class MkpkMachineBox extends ResizeComposite implements HasValue<String>
 	public MkpkMachineBox() {
 		MachineServiceAsync commonServiceRaw = GWT.create(MachineService.class);
 		service = new MachineServiceAsyncDecorator(commonServiceRaw);
-		MultiWordSuggestOracle oracle = new MultiWordSuggestOracle() {
+		MkpkSuggestOracle<Machine> oracle = new MkpkSuggestOracle<Machine>(MIN_CHARACTERS, MAX_CHARACTERS, 0) {
 			@Override
-			public void requestSuggestions(final Request request,final Callback callback) {
+			protected void onRequest(String query, boolean valid) {
 				suggestionDisplay.hideSuggestions();
-				if (MkpkStringUtils.length(request.getQuery()) >= MIN_CHARACTERS
-				 && MkpkStringUtils.length(request.getQuery()) <= MAX_CHARACTERS) {
+				if (valid) {
 					reset();
-					service.getMachines(request.getQuery() ,new AsyncCallback<LinkedList<Machine>>() {
-		
-								public void onFailure(Throwable caught) {
-									callback.onSuggestionsReady(request, new Response());
-								}
-		
-								public void onSuccess(LinkedList<Machine> result) {
-									LinkedList<Suggestion> suggestions = new LinkedList<Suggestion>();
-									if (result != null) {
-										
-										for (final Machine machine : result) {
-											SafeHtmlBuilder bld = new SafeHtmlBuilder();
-											String ds = machine.getName();
-											int i = MkpkStringUtils.indexOfIgnoreCase(ds, request.getQuery());
-											bld.appendHtmlConstant("<span class=\"" 
-													+ MKPK.CSS.mkpkIconBullet()
-													+ MkpkStringUtils.SPACE
-													+ MKPK.CSS.mkpkIconPaddingLeft()
-													+ "\" >");
-											bld.appendEscaped(MkpkStringUtils.substring(ds, 0, i));
-											bld.appendHtmlConstant(BEGIN_STRONG);
-											bld.appendEscaped(MkpkStringUtils.substring(ds, i, (i + MkpkStringUtils.length(request.getQuery()) )));
-									        bld.appendHtmlConstant(END_STRONG);
-									        bld.appendEscaped(MkpkStringUtils.substring(ds, (i + MkpkStringUtils.length(request.getQuery()) )));
-									        bld.appendHtmlConstant("</span>");
-									        MachineSuggestion as = new MachineSuggestion(machine, machine.getName(), bld.toSafeHtml().asString());
-											suggestions.add(as);
-										}
-									}
-									Response resp = new Response(suggestions);
-									callback.onSuggestionsReady(request, resp);
-									
-								}
-							});
 				}
 			}
+
+			@Override
+			protected void fetch(String query, AsyncCallback<LinkedList<Machine>> callback) {
+				service.getMachines(query, callback);
+			}
+
+			@Override
+			protected boolean matches(Machine machine, String foldedQuery) {
+				return ReferenceCache.contains(machine.getName(), foldedQuery);
+			}
+
+			@Override
+			protected Suggestion toSuggestion(Machine machine, String query) {
+				String ds = machine.getName();
+				return new MachineSuggestion(machine, machine.getName(), highlight(ds, query));
+			}
 		};
 		machineTextBox = new TextBox();
 		suggestionDisplay =  new AccountSuggestionDisplay();
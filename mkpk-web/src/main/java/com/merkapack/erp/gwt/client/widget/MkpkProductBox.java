@@ -18,12 +18,10 @@ import com.google.gwt.event.logical.shared.SelectionEvent;
 import com.google.gwt.event.logical.shared.SelectionHandler;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import com.google.gwt.event.shared.HandlerRegistration;
-import com.google.gwt.safehtml.shared.SafeHtmlBuilder;
 import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.gwt.user.client.ui.Focusable;
 import com.google.gwt.user.client.ui.HasValue;
-import com.google.gwt.user.client.ui.MultiWordSuggestOracle;
 import com.google.gwt.user.client.ui.MultiWordSuggestOracle.MultiWordSuggestion;
 import com.google.gwt.user.client.ui.ResizeComposite;
 import com.google.gwt.user.client.ui.SuggestBox;
@@ -33,6 +31,7 @@ import com.google.gwt.user.client.ui.SuggestOracle.Suggestion;
 import com.google.gwt.user.client.ui.TextBox;
 import com.google.gwt.user.client.ui.Widget;
 import com.merkapack.erp.core.model.Product;
+import com.merkapack.erp.gwt.client.cache.ReferenceCache;
 import com.merkapack.erp.gwt.client.common.MKPK;
 import com.merkapack.erp.gwt.client.rpc.ProductService;
 import com.merkapack.erp.gwt.client.rpc.ProductServiceAsync;
@@ -44,11 +43,10 @@ public class MkpkProductBox extends ResizeComposite implements HasValue<String>
 	,HasAllKeyHandlers {
 	
 	private static final int CHANGE_DISPLAY_MILLIS = 4000;
-	protected static final String BEGIN_STRONG = "<strong>";
-	protected static final String END_STRONG = "</strong>";
 	
 	private static final int MIN_CHARACTERS = 2;
 	private static final int MAX_CHARACTERS = 8;
+	private static final int LIMIT = 20;
 
 	private ProductServiceAsync service;
 
@@ -110,49 +108,31 @@ public class MkpkProductBox extends ResizeComposite implements HasValue<String>
 	public MkpkProductBox() {
 		ProductServiceAsync commonServiceRaw = GWT.create(ProductService.class);
 		service = new ProductServiceAsyncDecorator(commonServiceRaw);
-		MultiWordSuggestOracle oracle = new MultiWordSuggestOracle() {
+		MkpkSuggestOracle<Product> oracle = new MkpkSuggestOracle<Product>(MIN_CHARACTERS, MAX_CHARACTERS, LIMIT) {
 			@Override
-			public void requestSuggestions(final Request request,final Callback callback) {
+			protected void onRequest(String query, boolean valid) {
 				suggestionDisplay.hideSuggestions();
-				if (MkpkStringUtils.length(request.getQuery()) >= MIN_CHARACTERS
-				 && MkpkStringUtils.length(request.getQuery()) <= MAX_CHARACTERS) {
+				if (valid) {
 					reset();
-					service.getProducts(0,20,request.getQuery() ,new AsyncCallback<LinkedList<Product>>() {
-		
-								public void onFailure(Throwable caught) {
-									callback.onSuggestionsReady(request, new Response());
-								}
-		
-								public void onSuccess(LinkedList<Product> result) {
-									LinkedList<Suggestion> suggestions = new LinkedList<Suggestion>();
-									if (result != null) {
-										
-										for (final Product product : result) {
-											SafeHtmlBuilder bld = new SafeHtmlBuilder();
-											String ds = product.getCode() + " - " + product.getName();
-											int i = MkpkStringUtils.indexOfIgnoreCase(ds, request.getQuery());
-											bld.appendHtmlConstant("<span class=\"" 
-													+ MKPK.CSS.mkpkIconBullet()
-													+ MkpkStringUtils.SPACE
-													+ MKPK.CSS.mkpkIconPaddingLeft()
-													+ "\" >");
-											bld.appendEscaped(MkpkStringUtils.substring(ds, 0, i));
-											bld.appendHtmlConstant(BEGIN_STRONG);
-											bld.appendEscaped(MkpkStringUtils.substring(ds, i, (i + MkpkStringUtils.length(request.getQuery()) )));
-									        bld.appendHtmlConstant(END_STRONG);
-									        bld.appendEscaped(MkpkStringUtils.substring(ds, (i + MkpkStringUtils.length(request.getQuery()) )));
-									        bld.appendHtmlConstant("</span>");
-									        ProductSuggestion as = new ProductSuggestion(product, product.getCode(), bld.toSafeHtml().asString());
-											suggestions.add(as);
-										}
-									}
-									Response resp = new Response(suggestions);
-									callback.onSuggestionsReady(request, resp);
-									
-								}
-							});
 				}
 			}
+
+			@Override
+			protected void fetch(String query, AsyncCallback<LinkedList<Product>> callback) {
+				service.getProducts(0, LIMIT, query, callback);
+			}
+
+			@Override
+			protected boolean matches(Product product, String foldedQuery) {
+				return ReferenceCache.contains(product.getCode(), foldedQuery)
+					|| ReferenceCache.contains(product.getName(), foldedQuery);
+			}
+
+			@Override
+			protected Suggestion toSuggestion(Product product, String query) {
+				String ds = product.getCode() + " - " + product.getName();
+				return new ProductSuggestion(product, product.getCode(), highlight(ds, query));
+			}
 		};
 		productTextBox = new TextBox();
 		suggestionDisplay =  new AccountSuggestionDisplay();
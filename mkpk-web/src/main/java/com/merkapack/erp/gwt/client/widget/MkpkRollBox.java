@@ -18,12 +18,10 @@ import com.google.gwt.event.logical.shared.SelectionEvent;
 import com.google.gwt.event.logical.shared.SelectionHandler;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import com.google.gwt.event.shared.HandlerRegistration;
-import com.google.gwt.safehtml.shared.SafeHtmlBuilder;
 import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.gwt.user.client.ui.Focusable;
 import com.google.gwt.user.client.ui.HasValue;
-import com.google.gwt.user.client.ui.MultiWordSuggestOracle;
 import com.google.gwt.user.client.ui.MultiWordSuggestOracle.MultiWordSuggestion;
 import com.google.gwt.user.client.ui.ResizeComposite;
 import com.google.gwt.user.client.ui.SuggestBox;
@@ -33,6 +31,7 @@ import com.google.gwt.user.client.ui.SuggestOracle.Suggestion;
 import com.google.gwt.user.client.ui.TextBox;
 import com.google.gwt.user.client.ui.Widget;
 import com.merkapack.erp.core.model.Roll;
+import com.merkapack.erp.gwt.client.cache.ReferenceCache;
 import com.merkapack.erp.gwt.client.common.MKPK;
 import com.merkapack.erp.gwt.client.rpc.RollService;
 import com.merkapack.erp.gwt.client.rpc.RollServiceAsync;
@@ -44,8 +43,6 @@ public class MkpkRollBox extends ResizeComposite implements HasValue<String>
 	,HasAllKeyHandlers {
 	
 	private static final int CHANGE_DISPLAY_MILLIS = 4000;
-	protected static final String BEGIN_STRONG = "<strong>";
-	protected static final String END_STRONG = "</strong>";
 	
 	private static final int MIN_CHARACTERS = 2;
 	private static final int MAX_CHARACTERS = 8;
@@ -54,6 +51,7 @@ public class MkpkRollBox extends ResizeComposite implements HasValue<String>
 	private static final RollServiceAsync SERVICE = new RollServiceAsyncDecorator(commonServiceRaw);
 
 	private Roll selected;
+	private IMaterialCallback materialCallBack;
 	
 	private SuggestBox roll;
 	private TextBox rollTextBox;
@@ -62,6 +60,21 @@ public class MkpkRollBox extends ResizeComposite implements HasValue<String>
 	
 	public static interface IMaterialCallback {
 		Integer getMaterial();
+
+		/**
+		 * Metros que tienen que quedar en la bobina para sugerirla (0 todas).
+		 */
+		default double getMeters() {
+			return 0;
+		}
+
+		/**
+		 * L&iacute;nea guardada que se est&aacute; editando (o <code>null</code>): lo que ya consume de
+		 * cada bobina cuenta como disponible.
+		 */
+		default Integer getPlanning() {
+			return null;
+		}
 	}
 	
 	private static class AccountSuggestionDisplay extends DefaultSuggestionDisplay {
@@ -113,50 +126,47 @@ public class MkpkRollBox extends ResizeComposite implements HasValue<String>
 	}
 	
 	public MkpkRollBox(IMaterialCallback materialCallBack) {
-		MultiWordSuggestOracle oracle = new MultiWordSuggestOracle() {
+		this.materialCallBack = materialCallBack;
+		MkpkSuggestOracle<Roll> oracle = new MkpkSuggestOracle<Roll>(MIN_CHARACTERS, MAX_CHARACTERS, 30) {
 			@Override
-			public void requestSuggestions(final Request request,final Callback callback) {
+			protected void onRequest(String query, boolean valid) {
 				suggestionDisplay.hideSuggestions();
-				if (MkpkStringUtils.length(request.getQuery()) >= MIN_CHARACTERS
-				 && MkpkStringUtils.length(request.getQuery()) <= MAX_CHARACTERS) {
+				if (valid) {
 					reset();
-					SERVICE.getRolls(request.getQuery(),(materialCallBack==null?null:materialCallBack.getMaterial())
-							,new AsyncCallback<LinkedList<Roll>>() {
-								public void onFailure(Throwable caught) {
-									callback.onSuggestionsReady(request, new Response());
-								}
-		
-								public void onSuccess(LinkedList<Roll> result) {
-									LinkedList<Suggestion> suggestions = new LinkedList<Suggestion>();
-									if (result != null) {
-										
-										for (final Roll roll : result) {
-											SafeHtmlBuilder bld = new SafeHtmlBuilder();
-											String ds = roll.getName() 
-												+ (roll.getMaterial()!=null?" ("+ roll.getMaterial().getName()+")":"");
-											int i = MkpkStringUtils.indexOfIgnoreCase(ds, request.getQuery());
-											bld.appendHtmlConstant("<span class=\"" 
-													+ MKPK.CSS.mkpkIconBullet()
-													+ MkpkStringUtils.SPACE
-													+ MKPK.CSS.mkpkIconPaddingLeft()
-													+ "\" >");
-											bld.appendEscaped(MkpkStringUtils.substring(ds, 0, i));
-											bld.appendHtmlConstant(BEGIN_STRONG);
-											bld.appendEscaped(MkpkStringUtils.substring(ds, i, (i + MkpkStringUtils.length(request.getQuery()) )));
-									        bld.appendHtmlConstant(END_STRONG);
-									        bld.appendEscaped(MkpkStringUtils.substring(ds, (i + MkpkStringUtils.length(request.getQuery()) )));
-									        bld.appendHtmlConstant("</span>");
-									        RollSuggestion as = new RollSuggestion(roll, roll.getName(), bld.toSafeHtml().asString());
-											suggestions.add(as);
-										}
-									}
-									Response resp = new Response(suggestions);
-									callback.onSuggestionsReady(request, resp);
-									
-								}
-							});
 				}
 			}
+
+			@Override
+			protected String getContext() {
+				Integer material = materialCallBack==null?null:materialCallBack.getMaterial();
+				return (material == null ? MkpkStringUtils.EMPTY : material.toString())
+					+ MkpkStringUtils.COLON + getMeters()
+					+ MkpkStringUtils.COLON + (materialCallBack == null ? null : materialCallBack.getPlanning());
+			}
+
+			@Override
+			protected void fetch(String query, AsyncCallback<LinkedList<Roll>> callback) {
+				Integer material = materialCallBack==null?null:materialCallBack.getMaterial();
+				double meters = getMeters();
+				if (meters > 0) {
+					SERVICE.getRolls(query, material, meters, materialCallBack.getPlanning(), callback);
+				} else {
+					SERVICE.getRolls(query, material, callback);
+				}
+			}
+
+			@Override
+			protected boolean matches(Roll roll, String foldedQuery) {
+				return ReferenceCache.contains(roll.getName(), foldedQuery);
+			}
+
+			@Override
+			protected Suggestion toSuggestion(Roll roll, String query) {
+				String ds = roll.getName() 
+					+ (roll.getMaterial()!=null?" ("+ roll.getMaterial().getName()+")":"")
+					+ " - " + MKPK.FMT.format(roll.getRemaining()) + " m";
+				return new RollSuggestion(roll, roll.getName(), highlight(ds, query));
+			}
 		};
 		rollTextBox = new TextBox();
 		suggestionDisplay =  new AccountSuggestionDisplay();
@@ -175,6 +185,10 @@ public class MkpkRollBox extends ResizeComposite implements HasValue<String>
 		initWidget(roll);
 	}
 	
+	private double getMeters() {
+		return materialCallBack == null ? 0 : materialCallBack.getMeters();
+	}
+
 	public void setVisibleLength(int i) {
 		rollTextBox.setVisibleLength(i);		
 	}
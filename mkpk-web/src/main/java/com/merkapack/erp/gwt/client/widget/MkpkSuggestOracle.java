@@ -0,0 +1,215 @@
+package com.merkapack.erp.gwt.client.widget;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import com.google.gwt.safehtml.shared.SafeHtmlBuilder;
+import com.google.gwt.user.client.Timer;
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.google.gwt.user.client.ui.SuggestOracle;
+import com.merkapack.erp.gwt.client.cache.ReferenceCache;
+import com.merkapack.erp.gwt.client.common.MKPK;
+import com.merkapack.watson.util.MkpkStringUtils;
+
+/**
+ * Base de los or&aacute;culos de las cajas de sugerencias.
+ * <ul>
+ * <li>Espera {@link #DELAY_MILLIS} sin teclear antes de preguntar al servidor.</li>
+ * <li>Descarta las respuestas que llegan cuando ya se ha tecleado otra cosa.</li>
+ * <li>Guarda las &uacute;ltimas {@link #CACHE_SIZE} consultas con su resultado.</li>
+ * <li>Si la consulta alarga otra cuyo resultado estaba completo (menos de <code>limit</code>
+ * elementos), filtra ese resultado sin ir al servidor.</li>
+ * </ul>
+ * {@link #matches(Object, String)} tiene que dar lo mismo que la consulta del servidor.
+ */
+public abstract class MkpkSuggestOracle<T> extends SuggestOracle {
+
+	protected static final String BEGIN_STRONG = "<strong>";
+	protected static final String END_STRONG = "</strong>";
+
+	private static final int DELAY_MILLIS = 250;
+	private static final int CACHE_SIZE = 32;
+
+	private final int minCharacters;
+	private final int maxCharacters;
+	private final int limit;
+
+	private final LinkedHashMap<String, LinkedList<T>> cache = new LinkedHashMap<String, LinkedList<T>>(CACHE_SIZE, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, LinkedList<T>> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	private final Timer timer = new Timer() {
+		@Override
+		public void run() {
+			fetch(pendingRequest, pendingCallback);
+		}
+	};
+
+	private Request pendingRequest;
+	private Callback pendingCallback;
+	private int sequence = 0;
+
+	/**
+	 * @param limit m&aacute;ximo de elementos que devuelve el servidor (0 sin l&iacute;mite)
+	 */
+	public MkpkSuggestOracle(int minCharacters, int maxCharacters, int limit) {
+		this.minCharacters = minCharacters;
+		this.maxCharacters = maxCharacters;
+		this.limit = limit;
+	}
+
+	/**
+	 * Consulta al servidor.
+	 */
+	protected abstract void fetch(String query, AsyncCallback<LinkedList<T>> callback);
+
+	/**
+	 * El elemento cumple la consulta, ya pasada por {@link ReferenceCache#fold(String)}.
+	 */
+	protected abstract boolean matches(T item, String foldedQuery);
+
+	protected abstract Suggestion toSuggestion(T item, String query);
+
+	/**
+	 * Se llama en cada pulsaci&oacute;n, antes de buscar nada.
+	 * @param valid la consulta tiene una longitud que se busca
+	 */
+	protected void onRequest(String query, boolean valid) {
+	}
+
+	/**
+	 * Lo que, adem&aacute;s del texto, cambia el resultado del servidor (por ejemplo el material de las bobinas).
+	 */
+	protected String getContext() {
+		return MkpkStringUtils.EMPTY;
+	}
+
+	/**
+	 * Olvida las consultas guardadas.
+	 */
+	public void clear() {
+		cache.clear();
+	}
+
+	@Override
+	public boolean isDisplayStringHTML() {
+		return true;
+	}
+
+	@Override
+	public void requestSuggestions(Request request, Callback callback) {
+		timer.cancel();
+		sequence++;
+		String query = request.getQuery();
+		int length = MkpkStringUtils.length(query);
+		boolean valid = length >= minCharacters && length <= maxCharacters;
+		onRequest(query, valid);
+		if (!valid) {
+			return;
+		}
+		LinkedList<T> known = lookup(query);
+		if (known != null) {
+			respond(request, callback, known);
+			return;
+		}
+		pendingRequest = request;
+		pendingCallback = callback;
+		timer.schedule(DELAY_MILLIS);
+	}
+
+	private void fetch(final Request request, final Callback callback) {
+		final int current = sequence;
+		final String key = key(request.getQuery());
+		fetch(request.getQuery(), new AsyncCallback<LinkedList<T>>() {
+			@Override
+			public void onSuccess(LinkedList<T> result) {
+				LinkedList<T> list = result == null ? new LinkedList<T>() : result;
+				cache.put(key, list);
+				if (current == sequence) {
+					respond(request, callback, list);
+				}
+			}
+
+			@Override
+			public void onFailure(Throwable caught) {
+				if (current == sequence) {
+					callback.onSuggestionsReady(request, new Response());
+				}
+			}
+		});
+	}
+
+	/**
+	 * @return el resultado guardado de la consulta o el filtrado de una consulta m&aacute;s corta
+	 * con resultado completo; <code>null</code> si hay que ir al servidor
+	 */
+	private LinkedList<T> lookup(String query) {
+		LinkedList<T> list = cache.get(key(query));
+		if (list != null || !ReferenceCache.isLocal(query)) {
+			return list;
+		}
+		for (int length = query.length() - 1; length >= minCharacters; length--) {
+			LinkedList<T> shorter = cache.get(key(query.substring(0, length)));
+			if (shorter == null) {
+				continue;
+			}
+			if (limit > 0 && shorter.size() >= limit) {
+				return null;
+			}
+			String folded = ReferenceCache.fold(query);
+			LinkedList<T> found = new LinkedList<T>();
+			for (T item : shorter) {
+				if (matches(item, folded)) {
+					found.add(item);
+				}
+			}
+			cache.put(key(query), found);
+			return found;
+		}
+		return null;
+	}
+
+	private String key(String query) {
+		return getContext() + MkpkStringUtils.COLON + ReferenceCache.fold(query);
+	}
+
+	private void respond(Request request, Callback callback, LinkedList<T> list) {
+		LinkedList<Suggestion> suggestions = new LinkedList<Suggestion>();
+		for (T item : list) {
+			suggestions.add(toSuggestion(item, request.getQuery()));
+		}
+		callback.onSuggestionsReady(request, new Response(suggestions));
+	}
+
+	/**
+	 * Texto de la sugerencia con la consulta resaltada.
+	 */
+	protected static String highlight(String ds, String query) {
+		SafeHtmlBuilder bld = new SafeHtmlBuilder();
+		int i = MkpkStringUtils.indexOfIgnoreCase(ds, query);
+		bld.appendHtmlConstant("<span class=\""
+				+ MKPK.CSS.mkpkIconBullet()
+				+ MkpkStringUtils.SPACE
+				+ MKPK.CSS.mkpkIconPaddingLeft()
+				+ "\" >");
+		if (i < 0) {
+			// Coincide sin acentos: no hay trozo literal que resaltar.
+			bld.appendEscaped(MkpkStringUtils.defaultString(ds));
+			bld.appendHtmlConstant("</span>");
+			return bld.toSafeHtml().asString();
+		}
+		bld.appendEscaped(MkpkStringUtils.substring(ds, 0, i));
+		bld.appendHtmlConstant(BEGIN_STRONG);
+		bld.appendEscaped(MkpkStringUtils.substring(ds, i, (i + MkpkStringUtils.length(query) )));
+		bld.appendHtmlConstant(END_STRONG);
+		bld.appendEscaped(MkpkStringUtils.substring(ds, (i + MkpkStringUtils.length(query) )));
+		bld.appendHtmlConstant("</span>");
+		return bld.toSafeHtml().asString();
+	}
+}
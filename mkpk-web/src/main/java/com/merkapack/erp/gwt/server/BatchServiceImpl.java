@@ -0,0 +1,101 @@
+package com.merkapack.erp.gwt.server;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.servlet.annotation.WebServlet;
+
+import com.merkapack.erp.core.basic.DBContext;
+import com.merkapack.erp.core.basic.MkpkDatasource;
+import com.merkapack.erp.core.dao.MkpkGo;
+import com.merkapack.erp.core.model.MkpkCoreException;
+import com.merkapack.erp.gwt.client.rpc.BatchService;
+import com.merkapack.erp.gwt.client.rpc.batch.BatchCall;
+import com.merkapack.erp.gwt.client.rpc.batch.GetClients;
+import com.merkapack.erp.gwt.client.rpc.batch.GetMachines;
+import com.merkapack.erp.gwt.client.rpc.batch.GetMaterials;
+import com.merkapack.erp.gwt.client.rpc.batch.GetPlannings;
+import com.merkapack.erp.gwt.client.rpc.batch.GetRolls;
+import com.merkapack.erp.gwt.client.rpc.batch.GetVersions;
+
+/**
+ * Ejecuta un lote de llamadas con un solo DBContext (una sola conexi&oacute;n del pool).
+ * El error de una llamada va en la propia llamada y no para las dem&aacute;s.
+ */
+@WebServlet(name = "Batch Service Servlet", urlPatterns = { "/mkpk_gwt/MkpkBatch" })
+public class BatchServiceImpl extends StatelessRemoteServiceServlet implements BatchService {
+
+	private static final long serialVersionUID = 5870532260941790818L;
+	private static final Logger LOGGER = Logger.getLogger(BatchServiceImpl.class.getName());
+
+	private static interface BatchHandler<C extends BatchCall<?>> {
+		void execute(DBContext ctx, C call);
+	}
+
+	private static final HashMap<Class<?>, BatchHandler<?>> HANDLERS = new HashMap<Class<?>, BatchHandler<?>>();
+	static {
+		register(GetMachines.class, (ctx, call) -> call.setResult(MkpkGo.getMachines(ctx)));
+		register(GetMaterials.class, (ctx, call) -> call.setResult(MkpkGo.getMaterials(ctx)));
+		register(GetRolls.class, (ctx, call) -> call.setResult(MkpkGo.getRolls(ctx)));
+		register(GetClients.class, (ctx, call) -> call.setResult(MkpkGo.getClients(ctx)));
+		register(GetVersions.class, (ctx, call) -> call.setResult(getVersions(ctx)));
+		register(GetPlannings.class, (ctx, call) -> call.setResult(
+				MkpkGo.getPlannings(ctx, p -> PlanningServiceImpl.getFilter(p, call.getParams()))));
+	}
+
+	private static <C extends BatchCall<?>> void register(Class<C> type, BatchHandler<C> handler) {
+		HANDLERS.put(type, handler);
+	}
+
+	@Override
+	public ArrayList<BatchCall<?>> execute(ArrayList<BatchCall<?>> calls) throws MkpkCoreException {
+		DBContext ctx = null;
+		try {
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
+			for (BatchCall<?> call : calls) {
+				execute(ctx, call);
+			}
+			return calls;
+		} catch (Throwable t) {
+			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
+		} finally {
+			if (ctx != null)
+				ctx.close();
+		}
+	}
+
+	/**
+	 * Versiones de las listas de referencia que el cliente guarda en el navegador.
+	 */
+	private static HashMap<String,String> getVersions(DBContext ctx) {
+		HashMap<String,String> versions = new HashMap<String,String>();
+		versions.put(GetVersions.DOMAIN_KEY, String.valueOf(ctx.getDomain()));
+		versions.put(GetVersions.MACHINES, MkpkGo.getMachinesVersion(ctx));
+		String materials = MkpkGo.getMaterialsVersion(ctx);
+		versions.put(GetVersions.MATERIALS, materials);
+		// Las bobinas llevan su material y sus metros restantes: cambia si cambia la tabla de
+		// bobinas, la de materiales o hay movimientos de existencias.
+		versions.put(GetVersions.ROLLS, MkpkGo.getRollsVersion(ctx) + "/" + materials + "/" + MkpkGo.getRollStockVersion(ctx));
+		versions.put(GetVersions.CLIENTS, MkpkGo.getClientsVersion(ctx));
+		return versions;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <C extends BatchCall<?>> void execute(DBContext ctx, C call) {
+		BatchHandler<C> handler = (BatchHandler<C>) HANDLERS.get(call.getClass());
+		if (handler == null) {
+			call.setError(new MkpkCoreException("Llamada desconocida [" + call.getClass().getName() + "]"));
+			return;
+		}
+		try {
+			handler.execute(ctx, call);
+		} catch (Throwable t) {
+			LOGGER.log(Level.SEVERE, t.getMessage(), t);
+			// Sin la causa: las excepciones del servidor no se pueden serializar hacia el cliente.
+			call.setError(new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]"));
+		}
+	}
+
+}
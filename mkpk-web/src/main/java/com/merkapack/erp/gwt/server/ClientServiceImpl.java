@@ -20,7 +20,7 @@ public class ClientServiceImpl extends StatelessRemoteServiceServlet implements
 	public LinkedList<Client> getClients() throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.getClients(ctx);
 		} catch (Throwable t) {
 			t.printStackTrace();
@@ -35,7 +35,7 @@ public class ClientServiceImpl extends StatelessRemoteServiceServlet implements
 	public LinkedList<Client> getClients(String query) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.getClients(ctx,query);
 		} catch (Throwable t) {
 			t.printStackTrace();
@@ -50,8 +50,7 @@ public class ClientServiceImpl extends StatelessRemoteServiceServlet implements
 	public Client save(Client client) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
-			client.setDomain(DOMAIN);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.save(ctx,client);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -65,8 +64,7 @@ public class ClientServiceImpl extends StatelessRemoteServiceServlet implements
 	public void delete(Client client) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
-			client.setDomain(DOMAIN);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			MkpkGo.delete(ctx,client);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
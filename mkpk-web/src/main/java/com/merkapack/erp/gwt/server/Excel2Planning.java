@@ -13,12 +13,12 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import com.merkapack.erp.core.basic.DBContext;
 import com.merkapack.erp.core.dao.MkpkGo;
+import com.merkapack.erp.core.match.ClientMatcher;
 import com.merkapack.erp.core.model.Client;
 import com.merkapack.erp.core.model.Planning;
 import com.merkapack.erp.core.model.Product;
 import com.merkapack.erp.core.model.Roll;
 import com.merkapack.watson.util.MkpkMathUtils;
-import com.merkapack.watson.util.MkpkStringUtils;
 
 public class Excel2Planning {
 
@@ -27,6 +27,7 @@ public class Excel2Planning {
 		XSSFWorkbook wb = new XSSFWorkbook(in);
 		XSSFSheet sheet = wb.getSheetAt(0);
 		Iterator<Row> iterator = sheet.rowIterator();
+		ClientMatcher clients = new ClientMatcher(MkpkGo.getClients(ctx));
 		int order = 1;
 		while (iterator.hasNext()) {
 			Row row = iterator.next();
@@ -35,7 +36,7 @@ public class Excel2Planning {
 				Planning pl = new Planning();
 				Cell clientCell = row.getCell(0);
 				String clientValue = clientCell.getStringCellValue();
-				Client client = getClient(ctx, clientValue);
+				Client client = clients.match(clientValue);
 				pl.setClient(client);
 
 				double amountValue = amountCell.getNumericCellValue();
@@ -77,20 +78,10 @@ public class Excel2Planning {
 		return null;
 	}
 
-	private static Client getClient(DBContext ctx, String clientValue) {
-		clientValue = MkpkStringUtils.prependIfMissing(MkpkStringUtils.appendIfMissing(clientValue, "%"), "%");
-		final String clientName = clientValue;
-		LinkedList<Client> clients = MkpkGo.getClients(ctx, p -> p.getNameProperty().like(clientName));
-		if (clients != null && clients.size() > 0) {
-//			if (clients.size() == 1) {
-				return clients.get(0);
-//			}
-		}
-		return null;
-	}
-
 	private static Roll getRoll(DBContext ctx, Product product) {
-		LinkedList<Roll> rolls = MkpkGo.getRolls(ctx, p -> p.getMaterialIdProperty().eq(product.getMaterialUp().getId()));
+		// Los metros de la lnea an no se conocen: basta con que a la bobina le quede algo.
+		LinkedList<Roll> rolls = MkpkGo.getRolls(ctx, p -> p.getMaterialIdProperty().eq(product.getMaterialUp().getId())
+				.and(p.getRemainingProperty().gt(0d)));
 		LinkedList<Roll> availableRolls = new LinkedList<Roll>();
 		for (Roll roll : rolls) {
 			if (MkpkMathUtils.isZero(roll.getWidth() % product.getWidth())) {
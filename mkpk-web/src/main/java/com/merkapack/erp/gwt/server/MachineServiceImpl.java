@@ -20,7 +20,7 @@ public class MachineServiceImpl extends StatelessRemoteServiceServlet implements
 	public LinkedList<Machine> getMachines() throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.getMachines(ctx);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -34,7 +34,7 @@ public class MachineServiceImpl extends StatelessRemoteServiceServlet implements
 	public LinkedList<Machine> getMachines(String query) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.getMachines(ctx,query);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -48,8 +48,7 @@ public class MachineServiceImpl extends StatelessRemoteServiceServlet implements
 	public Machine save(Machine machine) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
-			machine.setDomain(DOMAIN);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.save(ctx,machine);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -63,8 +62,7 @@ public class MachineServiceImpl extends StatelessRemoteServiceServlet implements
 	public void delete(Machine machine) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
-			machine.setDomain(DOMAIN);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			MkpkGo.delete(ctx,machine);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -20,7 +20,7 @@ public class MaterialServiceImpl extends StatelessRemoteServiceServlet implement
 	public LinkedList<Material> getMaterials() throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.getMaterials(ctx);
 		} catch (Throwable t) {
 			t.printStackTrace();
@@ -35,7 +35,7 @@ public class MaterialServiceImpl extends StatelessRemoteServiceServlet implement
 	public LinkedList<Material> getMaterials(String query) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.getMaterials(ctx,query);
 		} catch (Throwable t) {
 			t.printStackTrace();
@@ -50,8 +50,7 @@ public class MaterialServiceImpl extends StatelessRemoteServiceServlet implement
 	public Material save(Material material) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
-			material.setDomain(DOMAIN);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.save(ctx,material);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -65,8 +64,7 @@ public class MaterialServiceImpl extends StatelessRemoteServiceServlet implement
 	public void delete(Material material) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
-			material.setDomain(DOMAIN);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			MkpkGo.delete(ctx,material);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -0,0 +1,28 @@
+package com.merkapack.erp.gwt.server;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+import com.merkapack.erp.core.basic.AsyncLog;
+
+/**
+ * Arranca y para con la aplicaci&oacute;n los hilos de mkpk-core que no son de un servlet: al replegarla
+ * no queda vivo ninguno que retenga el classloader del despliegue. Tambi&eacute;n comprueba la
+ * configuraci&oacute;n: con un dominio no v&aacute;lido la aplicaci&oacute;n no arranca.
+ */
+@WebListener
+public class MkpkContextListener implements ServletContextListener {
+
+	@Override
+	public void contextInitialized(ServletContextEvent sce) {
+		StatelessRemoteServiceServlet.getDomain(sce.getServletContext());
+		AsyncLog.start();
+	}
+
+	@Override
+	public void contextDestroyed(ServletContextEvent sce) {
+		AsyncLog.stop();
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.merkapack.erp.gwt.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import com.merkapack.erp.core.basic.DBContext;
+import com.merkapack.erp.core.dao.MkpkGo;
+import com.merkapack.erp.core.model.Filter.PlanningFilter;
+import com.merkapack.erp.core.model.Planning;
+
+/**
+ * Escribe el plan de fabricaci&oacute;n en un libro SXSSF: solo las &uacute;ltimas {@link #ROW_WINDOW} filas
+ * est&aacute;n en memoria, el resto de la hoja va a un temporal comprimido, as&iacute; que la memoria no
+ * depende del n&uacute;mero de l&iacute;neas.
+ */
+public class Planning2Excel {
+
+	private static final int ROW_WINDOW = 100;
+
+	private static final String[] HEADERS = { "Fecha", "Orden", "M\u00e1quina", "C\u00f3digo", "Producto", "Cliente"
+			, "Ancho", "Largo", "Bobina superior", "Bobina inferior", "Cantidad", "Metros", "Golpes", "Minutos"
+			, "Comentarios" };
+
+	/**
+	 * En <code>out</code> no se escribe nada hasta que se han le&iacute;do todas las l&iacute;neas.
+	 * 
+	 * @return las l&iacute;neas escritas
+	 */
+	public static int exportPlanning(DBContext ctx, PlanningFilter filter, OutputStream out) throws IOException {
+		SXSSFWorkbook wb = new SXSSFWorkbook(ROW_WINDOW);
+		wb.setCompressTempFiles(true);
+		try {
+			SXSSFSheet sheet = wb.createSheet("Plan");
+			CellStyle dateStyle = wb.createCellStyle();
+			dateStyle.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy"));
+
+			Row header = sheet.createRow(0);
+			for (int col = 0; col < HEADERS.length; col++) {
+				header.createCell(col).setCellValue(HEADERS[col]);
+			}
+			sheet.createFreezePane(0, 1);
+
+			int[] next = { 1 };
+			int count = MkpkGo.forEachPlanning(ctx, filter, pl -> writeRow(sheet.createRow(next[0]++), pl, dateStyle));
+			wb.write(out);
+			return count;
+		} finally {
+			wb.dispose();
+			wb.close();
+		}
+	}
+
+	private static void writeRow(Row row, Planning pl, CellStyle dateStyle) {
+		Cell date = row.createCell(0);
+		date.setCellValue(pl.getDate());
+		date.setCellStyle(dateStyle);
+		row.createCell(1).setCellValue(pl.getOrder());
+		row.createCell(2).setCellValue(pl.getMachine().getName());
+		row.createCell(3).setCellValue(pl.getProduct().getCode());
+		row.createCell(4).setCellValue(pl.getProduct().getName());
+		row.createCell(5).setCellValue(pl.getClient().getName());
+		row.createCell(6).setCellValue(pl.getWidth());
+		row.createCell(7).setCellValue(pl.getLength());
+		row.createCell(8).setCellValue(pl.getRollUp().getName());
+		row.createCell(9).setCellValue(pl.getRollDown().getName());
+		row.createCell(10).setCellValue(pl.getAmount());
+		row.createCell(11).setCellValue(pl.getMeters());
+		row.createCell(12).setCellValue(pl.getBlows());
+		row.createCell(13).setCellValue(pl.getMinutes());
+		row.createCell(14).setCellValue(pl.getComments());
+	}
+}
@@ -0,0 +1,80 @@
+package com.merkapack.erp.gwt.server;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.util.logging.Logger;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.merkapack.erp.core.basic.DBContext;
+import com.merkapack.erp.core.basic.MkpkDatasource;
+import com.merkapack.erp.core.model.Filter;
+import com.merkapack.erp.core.model.MkpkCoreException;
+import com.merkapack.erp.core.model.type.MimeType;
+
+/**
+ * Descarga en Excel las l&iacute;neas del plan entre <code>from</code> y <code>to</code> (<code>yyyy-MM-dd</code>,
+ * ambos incluidos) y, si se indica, de la m&aacute;quina <code>machine</code>.
+ * <p>
+ * Las l&iacute;neas van del cursor al libro sin juntarse en memoria (ver {@link Planning2Excel}), pero el
+ * libro se env&iacute;a entero al terminar: la descarga no empieza hasta que se han le&iacute;do todas las
+ * l&iacute;neas, as&iacute; que con un plan grande el navegador espera sin recibir nada. Es lo que se paga
+ * para que, si falla la consulta, la respuesta sea un error y no un 200 con el fichero a medias.
+ * Las cabeceras del fichero se ponen antes de la consulta, pero no se env&iacute;an hasta escribir el
+ * libro; si falla antes se descartan.
+ */
+@WebServlet(name = "Planning Export Servlet", urlPatterns = { "/mkpk_gwt/MkpkPlanningExport" })
+public class PlanningExport extends HttpServlet {
+
+	private static final long serialVersionUID = 3177402547126650958L;
+
+	private static final Logger LOGGER = Logger.getLogger(PlanningExport.class.getName());
+
+	@Override
+	protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		Date from;
+		Date to;
+		Integer machine;
+		try {
+			from = Date.valueOf(req.getParameter("from"));
+			to = Date.valueOf(req.getParameter("to"));
+			String machineParam = req.getParameter("machine");
+			machine = (machineParam == null || machineParam.isEmpty()) ? null : Integer.valueOf(machineParam);
+		} catch (IllegalArgumentException e) {
+			resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "from, to (yyyy-MM-dd) y machine");
+			return;
+		}
+		if (from.after(to)) {
+			resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "from posterior a to");
+			return;
+		}
+
+		DBContext ctx = null;
+		try {
+			ctx = MkpkDatasource.getDBContext(StatelessRemoteServiceServlet.getDomain(req), StatelessRemoteServiceServlet.USER);
+			resp.setContentType(MimeType.MS_EXCEL_2007.getName());
+			resp.setHeader("Content-Disposition", "attachment; filename=\"plan_" + from + "_" + to + ".xlsx\"");
+			long start = System.currentTimeMillis();
+			int count = Planning2Excel.exportPlanning(ctx, p -> {
+				Filter filter = p.getDateProperty().ge(from).and(p.getDateProperty().le(to));
+				return machine == null ? filter : filter.and(p.getMachineIdProperty().eq(machine));
+			}, resp.getOutputStream());
+			LOGGER.info("EXPORT PLANNING " + from + " - " + to + ": " + count + " lineas en "
+				+ (System.currentTimeMillis() - start) + " ms");
+		} catch (Throwable t) {
+			if (!resp.isCommitted()) {
+				// Sin el tipo ni el nombre del fichero: el error no debe llegar como descarga.
+				resp.reset();
+			}
+			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
+		} finally {
+			if (ctx != null)
+				ctx.close();
+		}
+	}
+
+}
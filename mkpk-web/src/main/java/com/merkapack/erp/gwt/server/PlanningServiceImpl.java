@@ -13,7 +13,9 @@ import com.merkapack.erp.core.model.Filter;
 import com.merkapack.erp.core.model.MkpkCoreException;
 import com.merkapack.erp.core.model.Planning;
 import com.merkapack.erp.core.model.PlanningParams;
+import com.merkapack.erp.core.model.PlanningStats;
 import com.merkapack.erp.core.model.Properties.PlanningProperties;
+import com.merkapack.erp.core.model.StatsParams;
 import com.merkapack.erp.gwt.client.rpc.PlanningService;
 import com.merkapack.watson.server.MkpkServerDateUtils;
 
@@ -22,7 +24,7 @@ public class PlanningServiceImpl extends StatelessRemoteServiceServlet implement
 
 	private static final long serialVersionUID = 949123203256791644L;
 	
-	private static Filter getFilter(PlanningProperties p,PlanningParams params) {
+	static Filter getFilter(PlanningProperties p,PlanningParams params) {
 		Filter filter = null;
 		if ( params.getDate() != null) {
 			filter = p.getDateProperty().ge(new Date(params.getDate().getTime()));
@@ -40,7 +42,7 @@ public class PlanningServiceImpl extends StatelessRemoteServiceServlet implement
 	public LinkedList<Planning> getPlannings(PlanningParams params) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.getPlannings(ctx, p -> getFilter(p, params));
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -54,8 +56,7 @@ public class PlanningServiceImpl extends StatelessRemoteServiceServlet implement
 	public Planning save(Planning planning) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
-			planning.setDomain(DOMAIN);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.save(ctx,planning);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -69,7 +70,7 @@ public class PlanningServiceImpl extends StatelessRemoteServiceServlet implement
 	public LinkedList<Planning> save(LinkedList<Planning> list) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.save(ctx,list);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -83,7 +84,7 @@ public class PlanningServiceImpl extends StatelessRemoteServiceServlet implement
 	public void delete(Planning planning) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			MkpkGo.delete(ctx,planning);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -93,4 +94,18 @@ public class PlanningServiceImpl extends StatelessRemoteServiceServlet implement
 		}
 	}
 
+	@Override
+	public LinkedList<PlanningStats> getStats(StatsParams params) throws MkpkCoreException {
+		DBContext ctx = null;
+		try {
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
+			return MkpkGo.getPlanningStats(ctx, params);
+		} catch (Throwable t) {
+			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
+		} finally {
+			if (ctx != null)
+				ctx.close();
+		}
+	}
+
 }
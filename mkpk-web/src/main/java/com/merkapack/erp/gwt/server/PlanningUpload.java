@@ -29,7 +29,7 @@ public class PlanningUpload extends HttpServlet {
 	protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(StatelessRemoteServiceServlet.DOMAIN, StatelessRemoteServiceServlet.USER);
+			ctx = MkpkDatasource.getDBContext(StatelessRemoteServiceServlet.getDomain(req), StatelessRemoteServiceServlet.USER);
 			LinkedList<Planning> list = new LinkedList<Planning>();
 			
 			Part filePart = req.getPart("fileUploadID");
@@ -25,8 +25,8 @@ public class ProductServiceImpl extends StatelessRemoteServiceServlet implements
 	public LinkedList<Product> getProducts(ProductParams params,int offset, int count) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
-			return MkpkGo.getProducts(ctx,offset,count, p -> getFilter(p,params) );
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
+			return MkpkGo.getProducts(ctx,offset,count, p -> getFilter(p,params), params.getSort(), params.isAscending() );
 		} catch (Throwable t) {
 			if (t instanceof MkpkCoreException) {
 				throw t;
@@ -104,7 +104,7 @@ public class ProductServiceImpl extends StatelessRemoteServiceServlet implements
 	public LinkedList<Product> getProducts(int offset, int count,String query) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			LinkedList<Product> list = MkpkGo.getProducts(ctx,offset,count,query);
 			return list;
 		} catch (Throwable t) {
@@ -119,8 +119,7 @@ public class ProductServiceImpl extends StatelessRemoteServiceServlet implements
 	public Product save(Product product) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
-			product.setDomain(DOMAIN);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.save(ctx,product);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -134,8 +133,7 @@ public class ProductServiceImpl extends StatelessRemoteServiceServlet implements
 	public void delete(Product product) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
-			product.setDomain(DOMAIN);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			MkpkGo.delete(ctx,product);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -20,7 +20,7 @@ public class RollServiceImpl extends StatelessRemoteServiceServlet implements Ro
 	public LinkedList<Roll> getRolls() throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.getRolls(ctx);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -34,7 +34,7 @@ public class RollServiceImpl extends StatelessRemoteServiceServlet implements Ro
 	public LinkedList<Roll> getRolls(String query,Integer material) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			LinkedList<Roll> list = MkpkGo.getRolls(ctx,query,material);
 			return list;
 		} catch (Throwable t) {
@@ -45,12 +45,25 @@ public class RollServiceImpl extends StatelessRemoteServiceServlet implements Ro
 		}
 	}
 
+	@Override
+	public LinkedList<Roll> getRolls(String query,Integer material,double meters,Integer planning) throws MkpkCoreException {
+		DBContext ctx = null;
+		try {
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
+			return MkpkGo.getRolls(ctx,query,material,meters,planning);
+		} catch (Throwable t) {
+			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
+		} finally {
+			if (ctx != null)
+				ctx.close();
+		}
+	}
+
 	@Override
 	public Roll save(Roll roll) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
-			roll.setDomain(DOMAIN);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			return MkpkGo.save(ctx,roll);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
@@ -64,8 +77,7 @@ public class RollServiceImpl extends StatelessRemoteServiceServlet implements Ro
 	public void delete(Roll roll) throws MkpkCoreException {
 		DBContext ctx = null;
 		try {
-			ctx = MkpkDatasource.getDBContext(DOMAIN, USER);
-			roll.setDomain(DOMAIN);
+			ctx = MkpkDatasource.getDBContext(getDomain(), USER);
 			MkpkGo.delete(ctx,roll);
 		} catch (Throwable t) {
 			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
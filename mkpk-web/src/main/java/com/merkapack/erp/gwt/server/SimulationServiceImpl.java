@@ -0,0 +1,80 @@
+package com.merkapack.erp.gwt.server;
+
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+
+import com.merkapack.erp.core.model.MkpkCoreException;
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.erp.gwt.client.rpc.SimulationService;
+import com.merkapack.erp.gwt.shared.PlanningCalculatorParams;
+import com.merkapack.erp.gwt.shared.PlanningSimulation;
+import com.merkapack.erp.gwt.shared.PlanningSimulator;
+
+/**
+ * Simulaciones "qu pasara si": cada variante recalcula su propia copia del plan 
+ * en paralelo. No se accede a la base de datos.
+ */
+@WebServlet(name = "Simulation Service Servlet", urlPatterns = { "/mkpk_gwt/MkpkSimulation" })
+public class SimulationServiceImpl extends StatelessRemoteServiceServlet implements SimulationService {
+
+	private static final long serialVersionUID = -3365218245001658213L;
+	private static final int MAX_VARIANTS = 100;
+	
+	private transient ExecutorService executor;
+
+	/**
+	 * Los hilos son del servlet: se crean al arrancarlo y se paran al replegarlo,
+	 * para no dejar vivo el classloader de un despliegue anterior.
+	 */
+	@Override
+	public void init() throws ServletException {
+		super.init();
+		executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+			Thread thread = new Thread(r, "mkpk-simulation");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+		super.destroy();
+	}
+
+	@Override
+	public LinkedList<PlanningSimulation> simulate(LinkedList<Planning> plan, LinkedList<PlanningCalculatorParams> variants, Date deadline) throws MkpkCoreException {
+		if (plan == null || variants == null || variants.isEmpty()) {
+			return new LinkedList<PlanningSimulation>();
+		}
+		if (variants.size() > MAX_VARIANTS) {
+			throw new MkpkCoreException("No se pueden simular ms de " + MAX_VARIANTS + " variantes a la vez.");
+		}
+		try {
+			List<Callable<PlanningSimulation>> tasks = new LinkedList<Callable<PlanningSimulation>>();
+			for (PlanningCalculatorParams params : variants) {
+				tasks.add(() -> PlanningSimulator.simulate(plan, params, deadline));
+			}
+			LinkedList<PlanningSimulation> ret = new LinkedList<PlanningSimulation>();
+			for (Future<PlanningSimulation> future : executor.invokeAll(tasks)) {
+				ret.add(future.get());
+			}
+			return ret;
+		} catch (ExecutionException e) {
+			Throwable t = e.getCause();
+			throw new MkpkCoreException("Se ha producido un error ["+ t.getMessage() +"]", t);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MkpkCoreException("Se ha interrumpido la simulacin.", e);
+		}
+	}
+}
@@ -1,11 +1,54 @@
 package com.merkapack.erp.gwt.server;
 
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+
 import com.google.gwt.user.server.rpc.RemoteServiceServlet;
+import com.merkapack.erp.core.model.MkpkCoreException;
 
 public class StatelessRemoteServiceServlet extends RemoteServiceServlet {
 	
 	protected static final int DOMAIN = 1;
 	protected static final String USER = "admin";
+	/**
+	 * Par&aacute;metro de contexto con el dominio (planta) del despliegue. No hay inicio de sesi&oacute;n:
+	 * cada despliegue atiende a una sola planta.
+	 */
+	public static final String DOMAIN_PARAMETER = "mkpk.domain";
 	private static final long serialVersionUID = -4124311324608377793L;
 
+	/**
+	 * Dominio de la petici&oacute;n en curso, el que se pasa al <code>DBContext</code>.
+	 */
+	protected int getDomain() {
+		return getDomain(getThreadLocalRequest());
+	}
+
+	static int getDomain(HttpServletRequest request) {
+		if (request == null) {
+			return DOMAIN;
+		}
+		return getDomain(request.getServletContext());
+	}
+
+	/**
+	 * El par&aacute;metro de contexto <code>mkpk.domain</code> del despliegue o, si no est&aacute;, {@link #DOMAIN}.
+	 * Un valor que no es un dominio no se cambia por el de defecto, que ser&iacute;a trabajar con las filas
+	 * de otra planta: es un error, y {@link MkpkContextListener} no deja arrancar la aplicaci&oacute;n.
+	 */
+	static int getDomain(ServletContext context) throws MkpkCoreException {
+		String param = context.getInitParameter(DOMAIN_PARAMETER);
+		if (param == null) {
+			return DOMAIN;
+		}
+		try {
+			int domain = Integer.parseInt(param.trim());
+			if (domain > 0) {
+				return domain;
+			}
+		} catch (NumberFormatException e) {
+		}
+		throw new MkpkCoreException("El parmetro de contexto " + DOMAIN_PARAMETER + " no es un dominio vlido: [" + param + "]");
+	}
+
 }
@@ -0,0 +1,68 @@
+package com.merkapack.erp.gwt.server;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.merkapack.erp.gwt.client.rpc.TelemetryService;
+import com.merkapack.erp.gwt.client.telemetry.TelemetrySample;
+
+/**
+ * Recibe las medidas de los clientes y las agrupa por operaci&oacute;n en memoria.
+ * Un GET a la misma URL devuelve la tabla de percentiles en texto plano.
+ */
+@WebServlet(name = "Telemetry Service Servlet", urlPatterns = { "/mkpk_gwt/MkpkTelemetry" })
+public class TelemetryServiceImpl extends StatelessRemoteServiceServlet implements TelemetryService {
+
+	private static final long serialVersionUID = -6120839587460981235L;
+
+	private static final int MAX_OPERATIONS = 256;
+	private static final double[] PERCENTILES = { 50, 90, 99 };
+
+	private static final ConcurrentHashMap<String, TelemetryStats> STATS = new ConcurrentHashMap<String, TelemetryStats>();
+
+	@Override
+	public void record(ArrayList<TelemetrySample> samples) {
+		if (samples == null) {
+			return;
+		}
+		for (TelemetrySample sample : samples) {
+			if (sample == null || sample.getOperation() == null) {
+				continue;
+			}
+			TelemetryStats stats = STATS.get(sample.getOperation());
+			if (stats == null) {
+				// Los nombres los pone el cliente: no dejamos que crezca sin lmite.
+				if (STATS.size() >= MAX_OPERATIONS) {
+					continue;
+				}
+				stats = STATS.computeIfAbsent(sample.getOperation(), op -> new TelemetryStats());
+			}
+			stats.add(Math.max(0, sample.getMillis()), sample.isFailed());
+		}
+	}
+
+	@Override
+	protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+		resp.setContentType("text/plain");
+		resp.setCharacterEncoding("UTF-8");
+		resp.setHeader("Cache-Control", "no-cache");
+		PrintWriter out = resp.getWriter();
+		out.println(String.format("%-40s %8s %8s %8s %8s %8s %8s"
+			, "operation", "count", "failed", "p50", "p90", "p99", "max"));
+		for (Map.Entry<String, TelemetryStats> entry : new TreeMap<String, TelemetryStats>(STATS).entrySet()) {
+			TelemetryStats stats = entry.getValue();
+			double[] p = stats.getPercentiles(PERCENTILES);
+			out.println(String.format("%-40s %8d %8d %8.0f %8.0f %8.0f %8.0f"
+				, entry.getKey(), stats.getCount(), stats.getFailures(), p[0], p[1], p[2], stats.getMax()));
+		}
+		out.flush();
+	}
+}
@@ -0,0 +1,58 @@
+package com.merkapack.erp.gwt.server;
+
+import java.util.Arrays;
+
+/**
+ * Medidas de una operaci&oacute;n. Los percentiles se calculan sobre las &uacute;ltimas {@link #WINDOW}
+ * medidas; el n&uacute;mero de llamadas, de fallos y el m&aacute;ximo cuentan desde el arranque.
+ */
+class TelemetryStats {
+
+	static final int WINDOW = 1024;
+
+	private final double[] window = new double[WINDOW];
+	private long count = 0;
+	private long failures = 0;
+	private double max = 0;
+
+	synchronized void add(double millis, boolean failed) {
+		window[(int) (count % WINDOW)] = millis;
+		count++;
+		if (failed) {
+			failures++;
+		}
+		max = Math.max(max, millis);
+	}
+
+	synchronized long getCount() {
+		return count;
+	}
+
+	synchronized long getFailures() {
+		return failures;
+	}
+
+	synchronized double getMax() {
+		return max;
+	}
+
+	/**
+	 * @param percentiles entre 0 y 100
+	 */
+	double[] getPercentiles(double... percentiles) {
+		double[] sorted;
+		synchronized (this) {
+			sorted = Arrays.copyOf(window, (int) Math.min(count, WINDOW));
+		}
+		Arrays.sort(sorted);
+		double[] values = new double[percentiles.length];
+		if (sorted.length == 0) {
+			return values;
+		}
+		for (int i = 0; i < percentiles.length; i++) {
+			int rank = (int) Math.ceil(percentiles[i] / 100d * sorted.length) - 1;
+			values[i] = sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+		}
+		return values;
+	}
+}
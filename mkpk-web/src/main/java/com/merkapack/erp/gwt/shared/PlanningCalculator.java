@@ -4,7 +4,6 @@ import java.util.Date;
 import java.util.LinkedList;
 
 import com.merkapack.erp.core.model.Planning;
-import com.merkapack.erp.gwt.client.util.GWTDateUtils;
 import com.merkapack.watson.util.MkpkMathUtils;
 import com.merkapack.watson.util.MkpkPair;
 
@@ -33,6 +32,7 @@ public class PlanningCalculator {
 	}
 	
 	public static LinkedList<Planning> calculate(PlanningCalculatorParams params, LinkedList<Planning> list) {
+		PlanningCapacity capacity = newCapacity(params, list);
 		boolean goOn = true;
 		while (goOn) {
 			goOn = false;
@@ -42,12 +42,12 @@ public class PlanningCalculator {
 				// Se dividen las lneas cuyos metros son mayores que los de la bobina.
 				goOn = (shiftList(i,list, splitLineMeters(params, pl)));
 				// Se dividen las lneas cuyos metros son mayores que los de la bobina.
-				goOn = !goOn && (shiftList(i,list, splitLineTime(params, pl)));
+				goOn = !goOn && (shiftList(i,list, splitLineTime(params, capacity, pl)));
 				if (goOn) break;
 			}
 		}
 		// Se dividen las lneas cuyos acumulado de horas supera la jornada laboral.
-		splitGroupTime(params, list);
+		splitGroupTime(params, capacity, list);
 		return list;
 	}
 	
@@ -69,16 +69,28 @@ public class PlanningCalculator {
 	}
 
 	public static MkpkPair<Planning,Planning> splitLineTime(PlanningCalculatorParams params,Planning pl) {
-		if (pl.getMinutes() >= params.getMinutesBreak() ) {
+		return splitLineTime(params, null, pl);
+	}
+
+	private static MkpkPair<Planning,Planning> splitLineTime(PlanningCalculatorParams params, PlanningCapacity capacity, Planning pl) {
+		if (pl.getDate() == null) {
+			return null;
+		}
+		if (capacity == null || !capacity.isFor(getMachine(pl))) {
+			capacity = new PlanningCapacity(params, getMachine(pl), pl.getDate(), pl.getDate(), pl.getMinutes());
+		}
+		int day = capacity.workingDay(capacity.dayOf(pl.getDate()));
+		double available = capacity.getMinutes(day);
+		if (isGreaterThan(pl.getMinutes(), available)) {
 			Planning left = pl.clone();
-			left.setMinutes(params.getMinutesBreak());
+			left.setMinutes(available);
+			left.setDate(capacity.getDate(day));
 			calculate(params, PlanningCalculatorStrategy.TIME_CHANGED, left);
 			
 			Planning right = pl.clone();
 			right.setMinutes(MkpkMathUtils.round(pl.getMinutes() - left.getMinutes()));
 			right.setOrder(left.getOrder() + 1);
-			right.setDate(new Date(left.getDate().getTime()));
-			right.setDate(GWTDateUtils.addDays(right.getDate(), 1));
+			right.setDate(capacity.getDate(capacity.nextWorkingDay(day)));
 			calculate(params, PlanningCalculatorStrategy.TIME_CHANGED, right);
 			
 			return new MkpkPair<Planning,Planning>(left,right);
@@ -87,39 +99,79 @@ public class PlanningCalculator {
 	}
 	
 	public static void splitGroupTime(PlanningCalculatorParams params, LinkedList<Planning> list) {
-		if (list != null && !list.isEmpty()) {
+		splitGroupTime(params, newCapacity(params, list), list);
+	}
 
+	private static void splitGroupTime(PlanningCalculatorParams params, PlanningCapacity capacity, LinkedList<Planning> list) {
+		if (capacity != null) {
+			int day = capacity.workingDay(capacity.dayOf(list.getFirst().getDate()));
 			double minutes = 0;
-			Date date = new Date(list.get(0).getDate().getTime());
 			for (int i = 0; i < list.size(); i++) {
 				Planning pl = list.get(i);
-				if (GWTDateUtils.compare(pl.getDate(), date) < 0) {
-					pl.setDate(new Date(date.getTime()));
+				int plDay = capacity.dayOf(pl.getDate());
+				if (plDay > day) {
+					day = capacity.workingDay(plDay);
+					minutes = 0;
 				}
-				if (GWTDateUtils.compare(pl.getDate(), date) <= 0) {
-					minutes = minutes + pl.getMinutes();
+				if (plDay != day) {
+					pl.setDate(capacity.getDate(day));
 				}
-				if (minutes >= params.getMinutesBreak()) {
-					double typedMinutes = pl.getMinutes() - 0;
+				minutes = minutes + pl.getMinutes();
+				double available = capacity.getMinutes(day);
+				if (isGreaterThan(minutes, available)) {
+					double typedMinutes = pl.getMinutes();
 					Planning left = pl.clone();
 					Planning right = pl.clone();
 
-					double minutes1 = MkpkMathUtils.round(typedMinutes - (minutes - params.getMinutesBreak()));
+					double minutes1 = MkpkMathUtils.round(typedMinutes - (minutes - available));
 					left.setMinutes(minutes1);
 					calculate(params, PlanningCalculatorStrategy.TIME_CHANGED, left);
 
 					double minutes2 = MkpkMathUtils.round(typedMinutes - minutes1);
+					day = capacity.nextWorkingDay(day);
 					right.setOrder(right.getOrder() + 1);
 					right.setMinutes(minutes2);
-					right.setDate(new Date(left.getDate().getTime()));
-					right.setDate(GWTDateUtils.addDays(right.getDate(), 1));
+					right.setDate(capacity.getDate(day));
 					calculate(params, PlanningCalculatorStrategy.TIME_CHANGED, right);
 					shiftList(i, list, new MkpkPair<Planning, Planning>(left, right));
-					++i;
-					minutes = right.getMinutes();
-					date = new Date(right.getDate().getTime());
+					// La parte derecha se vuelve a evaluar en el siguiente da con capacidad.
+					minutes = 0;
+				} else if (MkpkMathUtils.equals(minutes, available)) {
+					day = capacity.nextWorkingDay(day);
+					minutes = 0;
 				}
 			}
 		}
 	}
+	
+	/**
+	 * Capacidad de la mquina de la primera lnea desde su fecha hasta la ltima de la lista,
+	 * con sitio para todos sus minutos. Nula si no hay lneas o la primera no tiene fecha.
+	 */
+	private static PlanningCapacity newCapacity(PlanningCalculatorParams params, LinkedList<Planning> list) {
+		if (list == null || list.isEmpty() || list.getFirst().getDate() == null) {
+			return null;
+		}
+		Planning first = list.getFirst();
+		Date to = first.getDate();
+		double minutes = 0;
+		for (Planning pl : list) {
+			if (pl.getDate() != null && pl.getDate().after(to)) {
+				to = pl.getDate();
+			}
+			minutes = minutes + pl.getMinutes();
+		}
+		return new PlanningCapacity(params, getMachine(first), first.getDate(), to, minutes);
+	}
+
+	/**
+	 * Los minutos van redondeados a dos decimales: por debajo de eso son iguales.
+	 */
+	private static boolean isGreaterThan(double minutes, double available) {
+		return minutes > available && !MkpkMathUtils.equals(minutes, available);
+	}
+
+	private static Integer getMachine(Planning pl) {
+		return pl.getMachine() == null ? null : pl.getMachine().getId();
+	}
 }
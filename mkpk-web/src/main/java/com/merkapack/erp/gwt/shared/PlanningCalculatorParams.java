@@ -1,17 +1,27 @@
 package com.merkapack.erp.gwt.shared;
 
 import java.io.Serializable;
+import java.util.Date;
+import java.util.HashMap;
 
+import com.merkapack.watson.util.MkpkDayUtils;
 import com.merkapack.watson.util.MkpkMathUtils;
+import com.merkapack.watson.util.collection.IntHashSet;
 
 public class PlanningCalculatorParams implements Serializable {
-	
+
 	private static final long serialVersionUID = -7718863342559517207L;
-	
+
 	private double blowsMinute;
 	private double workHoursInADay;
 	private double hoursMargin;
-	
+
+	// Calendario laboral: turnos por da de la semana (0 = domingo, como Date.getDay()),
+	// festivos y paradas por mquina (mquina -> da -> minutos). Los das van como MkpkDayUtils.
+	private int[] weekdayShifts;
+	private IntHashSet holidays = new IntHashSet();
+	private HashMap<Integer,HashMap<Integer,Double>> downtime = new HashMap<Integer,HashMap<Integer,Double>>();
+
 	public double getBlowsMinute() {
 		return blowsMinute;
 	}
@@ -26,7 +36,7 @@ public class PlanningCalculatorParams implements Serializable {
 		this.hoursMargin = hoursMargin;
 		return this;
 	}
-	
+
 	public double getWorkHoursInADay() {
 		return workHoursInADay;
 	}
@@ -37,21 +47,67 @@ public class PlanningCalculatorParams implements Serializable {
 	public double getMinutesBreak() {
 		return MkpkMathUtils.round(getWorkHoursInADay() * 60) - (getHoursMargin() * 60);
 	}
- 
-}
-
-
-
-
-
-
-
-
-
-
-
 
+	/**
+	 * Turnos de un da de la semana. Sin calendario cada da tiene un turno.
+	 * @param weekday da de la semana (0 = domingo ... 6 = sbado)
+	 * @return nmero de turnos de la jornada
+	 */
+	public int getShifts(int weekday) {
+		return weekdayShifts == null ? 1 : weekdayShifts[weekday];
+	}
+	public PlanningCalculatorParams setShifts(int weekday, int shifts) {
+		if (weekdayShifts == null) {
+			weekdayShifts = new int[] {1, 1, 1, 1, 1, 1, 1};
+		}
+		weekdayShifts[weekday] = shifts;
+		return this;
+	}
 
+	public boolean isHoliday(Date date) {
+		return holidays.contains(MkpkDayUtils.of(date));
+	}
+	public PlanningCalculatorParams addHoliday(Date date) {
+		holidays.add(MkpkDayUtils.of(date));
+		return this;
+	}
 
+	public double getDowntime(Integer machine, Date date) {
+		return getDowntime(machine, MkpkDayUtils.of(date));
+	}
+	private double getDowntime(Integer machine, int day) {
+		HashMap<Integer,Double> days = downtime.get(machine);
+		if (days == null) {
+			return 0;
+		}
+		Double minutes = days.get(day);
+		return minutes == null ? 0 : minutes.doubleValue();
+	}
+	public PlanningCalculatorParams addDowntime(Integer machine, Date date, double minutes) {
+		HashMap<Integer,Double> days = downtime.get(machine);
+		if (days == null) {
+			days = new HashMap<Integer,Double>();
+			downtime.put(machine, days);
+		}
+		days.put(MkpkDayUtils.of(date), MkpkMathUtils.round(getDowntime(machine, date) + minutes));
+		return this;
+	}
 
+	/**
+	 * Minutos de trabajo de una mquina en un da concreto segn el calendario laboral.
+	 * @param machine identificador de la mquina (puede ser nulo)
+	 * @param date da
+	 * @return minutos disponibles, nunca negativos
+	 */
+	public double getMinutes(Integer machine, Date date) {
+		return getMinutes(machine, MkpkDayUtils.of(date));
+	}
+	double getMinutes(Integer machine, int day) {
+		if (holidays.contains(day)) {
+			return 0;
+		}
+		double minutes = getShifts(MkpkDayUtils.getDayOfWeek(day)) * getMinutesBreak() - getDowntime(machine, day);
+		return minutes > 0 ? MkpkMathUtils.round(minutes) : 0;
+	}
 
+}
@@ -0,0 +1,126 @@
+package com.merkapack.erp.gwt.shared;
+
+import java.util.Date;
+
+import com.merkapack.watson.util.MkpkDayUtils;
+
+/**
+ * Capacidad diaria de una mquina, calculada de una vez para los das que va a ocupar
+ * un clculo. Los das se indexan desde el da de inicio: saltar al siguiente da con
+ * capacidad es una lectura de array, sin crear fechas. No cambia despus de construirse
+ * y no se guarda en los parmetros: cada clculo tiene la suya y varios clculos en
+ * paralelo pueden compartir los mismos {@link PlanningCalculatorParams}.
+ */
+final class PlanningCapacity {
+
+	private static final int INITIAL_DAYS = 8;
+	private static final int MAX_IDLE_DAYS = 366;
+
+	private final PlanningCalculatorParams params;
+	private final Integer machine;
+	private final int start;
+
+	private final double[] minutes;
+	private final int[] next;
+
+	/**
+	 * @param from da de inicio
+	 * @param to ltimo da que ya ocupan las lneas
+	 * @param needed minutos que se van a repartir a partir de <code>to</code>
+	 */
+	PlanningCapacity(PlanningCalculatorParams params, Integer machine, Date from, Date to, double needed) {
+		this.params = params;
+		this.machine = machine;
+		this.start = MkpkDayUtils.of(from);
+
+		// Hasta el ltimo da de las lneas, los das que hacen falta para sus minutos
+		// y el siguiente da con capacidad, para poder saltar a l.
+		int last = Math.max(0, MkpkDayUtils.of(to) - start);
+		double[] m = new double[last + INITIAL_DAYS];
+		int size = 0;
+		int idle = 0;
+		double covered = 0;
+		boolean done = false;
+		while (!done) {
+			if (size == m.length) {
+				double[] grown = new double[size * 2];
+				System.arraycopy(m, 0, grown, 0, size);
+				m = grown;
+			}
+			double day = params.getMinutes(machine, start + size);
+			m[size] = day;
+			if (day > 0) {
+				done = size > last && covered >= needed;
+				if (size >= last) {
+					covered = covered + day;
+				}
+				idle = 0;
+			} else if (++idle > MAX_IDLE_DAYS) {
+				throw new IllegalStateException("El calendario laboral no tiene capacidad disponible.");
+			}
+			size++;
+		}
+		minutes = new double[size];
+		System.arraycopy(m, 0, minutes, 0, size);
+
+		// Siguiente da con capacidad, de atrs hacia delante.
+		next = new int[size];
+		int following = -1;
+		for (int i = size - 1; i >= 0; i--) {
+			next[i] = following;
+			if (minutes[i] > 0) {
+				following = i;
+			}
+		}
+	}
+
+	boolean isFor(Integer machine) {
+		return this.machine == null ? machine == null : this.machine.equals(machine);
+	}
+
+	/**
+	 * @param date fecha
+	 * @return das transcurridos desde el inicio (negativo si es anterior)
+	 */
+	int dayOf(Date date) {
+		return MkpkDayUtils.of(date) - start;
+	}
+
+	Date getDate(int day) {
+		return MkpkDayUtils.toDate(start + day);
+	}
+
+	/**
+	 * Fuera de los das precalculados se consulta el calendario.
+	 */
+	double getMinutes(int day) {
+		return day >= 0 && day < minutes.length ? minutes[day] : params.getMinutes(machine, start + day);
+	}
+
+	/**
+	 * @return el propio da si tiene capacidad o el siguiente que la tenga
+	 */
+	int workingDay(int day) {
+		return getMinutes(day) > 0 ? day : nextWorkingDay(day);
+	}
+
+	/**
+	 * @return el primer da posterior a <code>day</code> con capacidad
+	 */
+	int nextWorkingDay(int day) {
+		if (day >= 0 && day < next.length) {
+			if (next[day] >= 0) {
+				return next[day];
+			}
+			day = next.length - 1;
+		}
+		int idle = 0;
+		do {
+			day++;
+			if (++idle > MAX_IDLE_DAYS) {
+				throw new IllegalStateException("El calendario laboral no tiene capacidad disponible.");
+			}
+		} while (getMinutes(day) <= 0);
+		return day;
+	}
+}
@@ -0,0 +1,65 @@
+package com.merkapack.erp.gwt.shared;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Resultado de recalcular una planificacin con unos parmetros concretos.
+ */
+public class PlanningSimulation implements Serializable {
+
+	private static final long serialVersionUID = 2519432851731940187L;
+
+	private PlanningCalculatorParams params;
+	private Date finishDate;
+	private int lines;
+	private int splits;
+	private double totalMinutes;
+	private double overtime;
+
+	public PlanningCalculatorParams getParams() {
+		return params;
+	}
+	public PlanningSimulation setParams(PlanningCalculatorParams params) {
+		this.params = params;
+		return this;
+	}
+	public Date getFinishDate() {
+		return finishDate;
+	}
+	public PlanningSimulation setFinishDate(Date finishDate) {
+		this.finishDate = finishDate;
+		return this;
+	}
+	public int getLines() {
+		return lines;
+	}
+	public PlanningSimulation setLines(int lines) {
+		this.lines = lines;
+		return this;
+	}
+	public int getSplits() {
+		return splits;
+	}
+	public PlanningSimulation setSplits(int splits) {
+		this.splits = splits;
+		return this;
+	}
+	public double getTotalMinutes() {
+		return totalMinutes;
+	}
+	public PlanningSimulation setTotalMinutes(double totalMinutes) {
+		this.totalMinutes = totalMinutes;
+		return this;
+	}
+	/**
+	 * @return minutos planificados en das posteriores a la fecha lmite
+	 */
+	public double getOvertime() {
+		return overtime;
+	}
+	public PlanningSimulation setOvertime(double overtime) {
+		this.overtime = overtime;
+		return this;
+	}
+}
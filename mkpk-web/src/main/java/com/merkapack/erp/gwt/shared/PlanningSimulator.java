@@ -0,0 +1,62 @@
+package com.merkapack.erp.gwt.shared;
+
+import java.util.Date;
+import java.util.LinkedList;
+
+import com.merkapack.erp.core.model.Planning;
+import com.merkapack.watson.util.MkpkDayUtils;
+import com.merkapack.watson.util.MkpkMathUtils;
+
+public class PlanningSimulator {
+
+	/**
+	 * Recalcula una copia de la planificacin con otros parmetros. La lista original no se toca.
+	 * @param plan planificacin de partida
+	 * @param params parmetros de la variante; si trae golpes por minuto sustituyen a los de cada lnea
+	 * @param deadline fecha lmite; si es nula se usa la ltima fecha del plan de partida
+	 * @return indicadores de la variante
+	 */
+	public static PlanningSimulation simulate(LinkedList<Planning> plan, PlanningCalculatorParams params, Date deadline) {
+		LinkedList<Planning> list = new LinkedList<Planning>();
+		for (Planning pl : plan) {
+			Planning copy = pl.clone();
+			if (MkpkMathUtils.isGreatherThanZero(params.getBlowsMinute())) {
+				copy.setBlowsMinute(params.getBlowsMinute());
+			}
+			PlanningCalculator.calculate(params, PlanningCalculatorStrategy.AMOUNT_CHANGED, copy);
+			list.add(copy);
+		}
+		if (deadline == null) {
+			deadline = getFinishDate(plan);
+		}
+		PlanningCalculator.calculate(params, list);
+		
+		// Se compara por das: la hora de la fecha lmite no cuenta.
+		int deadlineDay = deadline == null ? Integer.MAX_VALUE : MkpkDayUtils.of(deadline);
+		double totalMinutes = 0;
+		double overtime = 0;
+		for (Planning pl : list) {
+			totalMinutes = totalMinutes + pl.getMinutes();
+			if (pl.getDate() != null && MkpkDayUtils.of(pl.getDate()) > deadlineDay) {
+				overtime = overtime + pl.getMinutes();
+			}
+		}
+		return new PlanningSimulation()
+			.setParams(params)
+			.setFinishDate(getFinishDate(list))
+			.setLines(list.size())
+			.setSplits(list.size() - plan.size())
+			.setTotalMinutes(MkpkMathUtils.round(totalMinutes))
+			.setOvertime(MkpkMathUtils.round(overtime));
+	}
+	
+	private static Date getFinishDate(LinkedList<Planning> list) {
+		Date finish = null;
+		for (Planning pl : list) {
+			if (pl.getDate() != null && (finish == null || MkpkDayUtils.of(pl.getDate()) > MkpkDayUtils.of(finish))) {
+				finish = pl.getDate();
+			}
+		}
+		return finish;
+	}
+}
@@ -0,0 +1,46 @@
+package com.merkapack.erp.gwt.client.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * La b&uacute;squeda local tiene que dar lo mismo que <code>LIKE '%query%'</code> con latin1_spanish_ci.
+ */
+public class ReferenceCacheTest {
+
+	@Test
+	public void testFold() {
+		assertEquals("PLASTICOS GARCIA", ReferenceCache.fold("Plsticos Garca"));
+		assertEquals("AEIOU AEIOU U", ReferenceCache.fold("  "));
+		// La  no es una N, tampoco en minsculas.
+		assertEquals("ESPAA", ReferenceCache.fold("Espaa"));
+		assertEquals("AO U", ReferenceCache.fold("ao u"));
+		assertEquals("", ReferenceCache.fold(""));
+		assertEquals("", ReferenceCache.fold(""));
+		assertEquals("", ReferenceCache.fold(null));
+	}
+
+	@Test
+	public void testContains() {
+		assertTrue(ReferenceCache.contains("Plsticos Garca", ReferenceCache.fold("garcia")));
+		assertTrue(ReferenceCache.contains("Plsticos Garca", ReferenceCache.fold("TICOS GAR")));
+		assertTrue(ReferenceCache.contains("Bobina 50x20", ReferenceCache.fold("")));
+		assertTrue(ReferenceCache.contains("Caas", ReferenceCache.fold("CA")));
+		assertFalse(ReferenceCache.contains("Canas", ReferenceCache.fold("CA")));
+		assertFalse(ReferenceCache.contains("Caas", ReferenceCache.fold("CAN")));
+		assertFalse(ReferenceCache.contains("Plsticos", ReferenceCache.fold("Plsticos Garca")));
+		assertFalse(ReferenceCache.contains(null, ReferenceCache.fold("")));
+	}
+
+	@Test
+	public void testIsLocal() {
+		assertTrue(ReferenceCache.isLocal("garcia"));
+		assertTrue(ReferenceCache.isLocal(""));
+		assertTrue(ReferenceCache.isLocal(null));
+		assertFalse(ReferenceCache.isLocal("50%"));
+		assertFalse(ReferenceCache.isLocal("A_B"));
+	}
+}
@@ -0,0 +1,129 @@
+package com.merkapack.erp.gwt.client.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.LinkedList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.merkapack.erp.core.model.Machine;
+
+/**
+ * Un servicio falso que contesta cuando se le pide y, como VersionDAO, rechaza las versiones viejas.
+ */
+public class RowSaverTest {
+
+	private LinkedList<Runnable> answers;
+	private LinkedList<String> sent;
+	private int stored;
+	private RowSaver<Machine> saver;
+
+	@Before
+	public void init() {
+		answers = new LinkedList<Runnable>();
+		sent = new LinkedList<String>();
+		stored = 0;
+		saver = new RowSaver<Machine>(new RowSaver.Save<Machine>() {
+
+			@Override
+			public void save(Machine row, AsyncCallback<Machine> callback) {
+				sent.add(row.getName() + "@" + row.getVersion());
+				int version = row.getVersion();
+				Integer id = row.getId();
+				answers.add(new Runnable() {
+
+					@Override
+					public void run() {
+						if (version != stored) {
+							callback.onFailure(new IllegalStateException("Versin " + version));
+						} else {
+							stored++;
+							callback.onSuccess(new Machine().setId(id == null ? 7 : id).setVersion(stored));
+						}
+					}
+				});
+			}
+		});
+	}
+
+	private AsyncCallback<Machine> copy(Machine machine, LinkedList<String> errors) {
+		return new AsyncCallback<Machine>() {
+
+			@Override
+			public void onSuccess(Machine result) {
+				machine.setVersion(result.getVersion());
+				machine.setId(result.getId());
+			}
+
+			@Override
+			public void onFailure(Throwable caught) {
+				errors.add(caught.getMessage());
+			}
+		};
+	}
+
+	@Test
+	public void testTwoSavesInARow() {
+		LinkedList<String> errors = new LinkedList<String>();
+		Machine machine = new Machine().setName("A");
+		saver.save(machine, copy(machine, errors));
+		machine.setName("B");
+		saver.save(machine, copy(machine, errors));
+		// El segundo espera al primero.
+		assertEquals(1, sent.size());
+		answers.poll().run();
+		// Y sale con la versin y el id que ha devuelto el primero.
+		assertEquals(2, sent.size());
+		assertEquals("B@1", sent.get(1));
+		answers.poll().run();
+		assertEquals(0, errors.size());
+		assertEquals(2, machine.getVersion());
+		assertEquals(Integer.valueOf(7), machine.getId());
+		assertNull(answers.poll());
+	}
+
+	@Test
+	public void testPendingSavesAreJoined() {
+		LinkedList<String> errors = new LinkedList<String>();
+		Machine machine = new Machine().setName("A");
+		saver.save(machine, copy(machine, errors));
+		machine.setName("B");
+		saver.save(machine, copy(machine, errors));
+		machine.setName("C");
+		saver.save(machine, copy(machine, errors));
+		answers.poll().run();
+		answers.poll().run();
+		assertNull(answers.poll());
+		assertEquals("[A@0, C@1]", sent.toString());
+		assertEquals(0, errors.size());
+	}
+
+	@Test
+	public void testRowsAreIndependent() {
+		LinkedList<String> errors = new LinkedList<String>();
+		Machine a = new Machine().setName("A");
+		Machine b = new Machine().setName("B");
+		saver.save(a, copy(a, errors));
+		saver.save(b, copy(b, errors));
+		assertEquals(2, sent.size());
+	}
+
+	@Test
+	public void testAfterFailure() {
+		LinkedList<String> errors = new LinkedList<String>();
+		Machine machine = new Machine().setName("A").setVersion(5);
+		saver.save(machine, copy(machine, errors));
+		machine.setName("B");
+		saver.save(machine, copy(machine, errors));
+		answers.poll().run();
+		// Un error no deja la fila bloqueada: el siguiente sale igual.
+		assertEquals(1, errors.size());
+		assertEquals("B@5", sent.get(1));
+		answers.poll().run();
+		saver.save(machine, copy(machine, errors));
+		assertEquals(3, sent.size());
+	}
+}